@@ -1,5 +1,7 @@
 plugins {
     java
+    // Microbenchmarks in src/jmh (run with ./gradlew jmh)
+    id("me.champeau.gradle.jmh") version "0.5.0"
 }
 
 group = "frc.team7170"
@@ -38,6 +40,10 @@ dependencies {
     implementation(group="com.revrobotics.frc", name="SparkMax-java", version="1.4.1")
 }
 
+jmh {
+    jmhVersion = "1.23"
+}
+
 tasks.test {
     // This enables use of JUnit Jupiter (JUint5)--the default is JUnit4 (I think)
     useJUnitPlatform()
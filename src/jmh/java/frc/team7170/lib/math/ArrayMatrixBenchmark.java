@@ -0,0 +1,105 @@
+package frc.team7170.lib.math;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link ArrayMatrix ArrayMatrix}'s kernels against the nested-array ({@code double[][]}) layout with
+ * dot-product (i-j-k) multiplication that it used to be backed by.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ArrayMatrixBenchmark {
+
+    @Param({"3", "6", "20", "200"})
+    private int size;
+
+    private Matrix a;
+    private Matrix b;
+    private double[][] nestedA;
+    private double[][] nestedB;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(7170);
+        nestedA = new double[size][size];
+        nestedB = new double[size][size];
+        for (int r = 0; r < size; ++r) {
+            for (int c = 0; c < size; ++c) {
+                nestedA[r][c] = random.nextDouble();
+                nestedB[r][c] = random.nextDouble();
+            }
+        }
+        a = new ArrayMatrix(nestedA);
+        b = new ArrayMatrix(nestedB);
+    }
+
+    @Benchmark
+    public Matrix multiply() {
+        return a.multiply(b);
+    }
+
+    @Benchmark
+    public Matrix add() {
+        return a.add(b);
+    }
+
+    @Benchmark
+    public Matrix scale() {
+        return a.multiply(2.0);
+    }
+
+    @Benchmark
+    public Matrix transpose() {
+        return a.transpose();
+    }
+
+    @Benchmark
+    public Matrix copyBlock() {
+        // The lower-right quadrant, through a (strided) view.
+        return a.view(size / 2, size / 2, size, size).copy(0, 0, size - size / 2, size - size / 2);
+    }
+
+    @Benchmark
+    public double blockSum() {
+        return a.view(size / 2, size / 2, size, size).sum();
+    }
+
+    @Benchmark
+    public double[][] multiplyNested() {
+        // The old approach: each entry is the dot product of a row of a and a (copied) column of b.
+        double[][] result = new double[size][size];
+        for (int r = 0; r < size; ++r) {
+            double[] row = nestedA[r];
+            for (int c = 0; c < size; ++c) {
+                double[] col = new double[size];
+                for (int k = 0; k < size; ++k) {
+                    col[k] = nestedB[k][c];
+                }
+                double dot = 0.0;
+                for (int k = 0; k < size; ++k) {
+                    dot += row[k] * col[k];
+                }
+                result[r][c] = dot;
+            }
+        }
+        return result;
+    }
+
+    @Benchmark
+    public double[][] addNested() {
+        double[][] result = new double[size][size];
+        for (int r = 0; r < size; ++r) {
+            for (int c = 0; c < size; ++c) {
+                result[r][c] = nestedA[r][c] + nestedB[r][c];
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,84 @@
+package frc.team7170.lib.math;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the decompositions at the sizes typical of robot code (state-space models and Kalman filters), both
+ * reusing a preallocated decomposition and destination and going through the allocating convenience methods on
+ * {@link Matrix Matrix}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class DecompositionBenchmark {
+
+    @Param({"2", "3", "4", "6", "12"})
+    private int size;
+
+    private Matrix a;
+    private Matrix spd;
+    private Matrix b;
+    private Matrix tall;
+    private Matrix tallB;
+    private Matrix dest;
+    private LUDecomposition lu;
+    private CholeskyDecomposition cholesky;
+    private QRDecomposition qr;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(7170);
+        a = new ArrayMatrix(size, size);
+        a.mutateRowWise((r, c, value) -> random.nextDouble());
+        spd = a.transpose().multiply(a);
+        for (int i = 0; i < size; ++i) {
+            spd.set(i, i, spd.get(i, i) + 1.0);
+        }
+        b = new ArrayMatrix(size, 1);
+        b.mutateRowWise((r, c, value) -> random.nextDouble());
+        tall = new ArrayMatrix(4 * size, size);
+        tall.mutateRowWise((r, c, value) -> random.nextDouble());
+        tallB = new ArrayMatrix(4 * size, 1);
+        tallB.mutateRowWise((r, c, value) -> random.nextDouble());
+        dest = new ArrayMatrix(size, 1);
+        lu = new LUDecomposition(size);
+        cholesky = new CholeskyDecomposition(size);
+        qr = new QRDecomposition(4 * size, size);
+    }
+
+    @Benchmark
+    public Matrix luSolveReused() {
+        return lu.decompose(a).solveInto(b, dest);
+    }
+
+    @Benchmark
+    public Matrix choleskySolveReused() {
+        return cholesky.decompose(spd).solveInto(b, dest);
+    }
+
+    @Benchmark
+    public Matrix qrLeastSquaresReused() {
+        return qr.decompose(tall).solveInto(tallB, dest);
+    }
+
+    @Benchmark
+    public Matrix solve() {
+        return a.solve(b);
+    }
+
+    @Benchmark
+    public Matrix inverse() {
+        return a.inverse();
+    }
+
+    @Benchmark
+    public double determinant() {
+        return lu.decompose(a).determinant();
+    }
+}
@@ -0,0 +1,74 @@
+package frc.team7170.lib.math;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how {@link ArrayMatrix ArrayMatrix}'s large-operand kernels scale with the number of threads in the
+ * {@linkplain ArrayMatrix#setParallelPool(java.util.concurrent.ForkJoinPool) parallel pool}. One thread means
+ * parallel execution is disabled.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ParallelMatrixBenchmark {
+
+    @Param({"256", "1024"})
+    private int size;
+
+    @Param({"1", "2", "4", "8"})
+    private int threads;
+
+    private Matrix a;
+    private Matrix b;
+    private Matrix dest;
+    private ForkJoinPool pool;
+    private ForkJoinPool previousPool;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(7170);
+        a = new ArrayMatrix(size, size);
+        a.mutateRowWise((r, c, value) -> random.nextDouble());
+        b = new ArrayMatrix(size, size);
+        b.mutateRowWise((r, c, value) -> random.nextDouble());
+        dest = new ArrayMatrix(size, size);
+        previousPool = ArrayMatrix.getParallelPool();
+        pool = threads > 1 ? new ForkJoinPool(threads) : null;
+        ArrayMatrix.setParallelPool(pool);
+    }
+
+    @TearDown
+    public void tearDown() {
+        ArrayMatrix.setParallelPool(previousPool);
+        if (pool != null) {
+            pool.shutdown();
+        }
+    }
+
+    @Benchmark
+    public Matrix multiply() {
+        return a.multiplyInto(b, dest);
+    }
+
+    @Benchmark
+    public Matrix add() {
+        return a.addInto(b, dest);
+    }
+
+    @Benchmark
+    public Matrix transpose() {
+        return a.transposeInto(dest);
+    }
+
+    @Benchmark
+    public double sum() {
+        return a.sum();
+    }
+}
@@ -0,0 +1,48 @@
+package frc.team7170.lib.math.geometry2d;
+
+import frc.team7170.lib.math.ArrayMatrix;
+import frc.team7170.lib.math.Matrix;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures an odometry-style pose update (rotate then translate an accumulated pose, then transform a point by it)
+ * using {@link AffineTransformation2D AffineTransformation2D}, against the same update done with 3x3
+ * {@link ArrayMatrix ArrayMatrix}s, which is what {@code AffineTransformation2D} used to be backed by.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class AffineTransformation2DBenchmark {
+
+    private final Angle dTheta = Angle.fromDegrees(1.5);
+    private final Vector2D point = new Vector2D(0.3, -0.2);
+    private AffineTransformation2D pose;
+    private Matrix poseMatrix;
+
+    @Setup(Level.Iteration)
+    public void setup() {
+        pose = new AffineTransformation2D();
+        poseMatrix = new ArrayMatrix(new double[][] {{1, 0, 0}, {0, 1, 0}, {0, 0, 1}});
+    }
+
+    @Benchmark
+    public Vector2D poseUpdate() {
+        pose = pose.rotate(dTheta).translate(0.02, 0.001);
+        return point.transform(pose);
+    }
+
+    @Benchmark
+    public Matrix poseUpdateArrayMatrix() {
+        double sin = dTheta.sin();
+        double cos = dTheta.cos();
+        Matrix rot = new ArrayMatrix(new double[][] {{cos, -sin, 0}, {sin, cos, 0}, {0, 0, 1}});
+        Matrix trans = new ArrayMatrix(new double[][] {{1, 0, 0.02}, {0, 1, 0.001}, {0, 0, 1}});
+        poseMatrix = poseMatrix.multiply(rot).multiply(trans);
+        return poseMatrix.multiply(new ArrayMatrix(new double[][] {{point.getX()}, {point.getY()}, {1}}));
+    }
+}
@@ -0,0 +1,70 @@
+package frc.team7170.lib.networktables;
+
+import frc.team7170.lib.networktables.transport.LocalTransport;
+import frc.team7170.lib.networktables.transport.NTEntry;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares publishing and reading back one cycle of related doubles (e.g. a pose and swerve module states) as one
+ * entry per value against as a single {@link StructChannel StructChannel} record, over a
+ * {@link LocalTransport LocalTransport}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StructChannelBenchmark {
+
+    @Param({"3", "12", "48"})
+    private int numFields;
+
+    private NTEntry[] entries;
+    private StructChannel transmitter;
+    private StructChannel receiver;
+    private double value = 0.0;
+
+    @Setup
+    public void setup() {
+        LocalTransport transport = new LocalTransport();
+        entries = new NTEntry[numFields];
+        StructSchema.Builder builder = StructSchema.builder();
+        for (int i = 0; i < numFields; ++i) {
+            entries[i] = transport.getEntry("/telemetry/field" + i);
+            builder.addDouble("field" + i);
+        }
+        transmitter = new StructChannel(transport.getEntry("/telemetry/struct"), builder.build());
+        receiver = StructChannel.subscribe(transport.getEntry("/telemetry/struct"));
+    }
+
+    @Benchmark
+    public double entriesCycle() {
+        value += 1.0;
+        for (int i = 0; i < numFields; ++i) {
+            entries[i].setDouble(value + i);
+        }
+        double sum = 0.0;
+        for (int i = 0; i < numFields; ++i) {
+            sum += entries[i].getDouble(0.0);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public double structCycle() {
+        value += 1.0;
+        for (int i = 0; i < numFields; ++i) {
+            transmitter.setDouble(i, value + i);
+        }
+        transmitter.publish();
+        StructFrame frame = receiver.read();
+        double sum = 0.0;
+        for (int i = 0; i < numFields; ++i) {
+            sum += frame.getDouble(i);
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,70 @@
+package frc.team7170.lib.networktables;
+
+import frc.team7170.lib.networktables.stream.DoubleStream;
+import frc.team7170.lib.networktables.transport.LocalTransport;
+import frc.team7170.lib.networktables.transport.NTEntry;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the telemetry stack end to end over a {@link LocalTransport LocalTransport}, so no NetworkTables server
+ * is needed: a burst of samples is written to a {@link DoubleStream DoubleStream} and read back (and acknowledged)
+ * by a receiving stream on the same entry.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TelemetryBenchmark {
+
+    @Param({"1", "10", "100"})
+    private int minSendSize;
+
+    private static final int SAMPLES = 1000;
+
+    private DoubleStream transmitter;
+    private DoubleStream receiver;
+    private NTEntry entry;
+    private double[] samples;
+
+    @Setup
+    public void setup() {
+        LocalTransport transport = new LocalTransport();
+        transmitter = new DoubleStream(new DoubleStream.Config()
+                .transmittingEntry(transport.getEntry("/telemetry/stream"))
+                .cacheSize(SAMPLES)
+                .minSendSize(minSendSize));
+        receiver = new DoubleStream(new DoubleStream.Config()
+                .receivingEntry(transport.getEntry("/telemetry/stream")));
+        entry = transport.getEntry("/telemetry/value");
+        samples = new double[SAMPLES];
+        for (int i = 0; i < SAMPLES; ++i) {
+            samples[i] = Math.sin(i);
+        }
+    }
+
+    @Benchmark
+    public int streamRoundTrip() {
+        int received = 0;
+        for (int i = 0; i < SAMPLES; ++i) {
+            if (transmitter.write(samples[i])) {
+                received += receiver.readDoubles().length;
+            }
+        }
+        transmitter.flush();
+        return received + receiver.readDoubles().length;
+    }
+
+    @Benchmark
+    public double entryRoundTrip() {
+        double sum = 0.0;
+        for (int i = 0; i < SAMPLES; ++i) {
+            entry.setDouble(samples[i]);
+            sum += entry.getDouble(0.0);
+        }
+        return sum;
+    }
+}
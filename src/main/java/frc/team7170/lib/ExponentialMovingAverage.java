@@ -0,0 +1,74 @@
+package frc.team7170.lib;
+
+/**
+ * An exponentially weighted moving average: each sample {@code x} updates the average {@code y} to
+ * {@code y + alpha * (x - y)}. The first sample (after construction or {@link #clear()}) initializes the average.
+ * O(1) time and space per sample.
+ *
+ * @see MovingAverage
+ */
+public class ExponentialMovingAverage {
+
+    private final double alpha;
+    private double average = Double.NaN;
+    private boolean empty = true;
+
+    /**
+     * @param alpha the weight of each new sample, in {@code (0, 1]}. Larger values track the input more closely.
+     */
+    public ExponentialMovingAverage(double alpha) {
+        if (!(alpha > 0.0 && alpha <= 1.0)) {
+            throw new IllegalArgumentException("alpha must be in (0, 1]");
+        }
+        this.alpha = alpha;
+    }
+
+    /**
+     * Create the exponential moving average equivalent to a first-order low-pass filter with the given time constant,
+     * sampled at the given period.
+     * @param timeConstant the time constant of the filter.
+     * @param period the time between samples, in the same units as the time constant.
+     * @return the exponential moving average.
+     */
+    public static ExponentialMovingAverage fromTimeConstant(double timeConstant, double period) {
+        if (!(timeConstant >= 0.0) || !(period > 0.0)) {
+            throw new IllegalArgumentException("timeConstant must be non-negative and period must be positive");
+        }
+        return new ExponentialMovingAverage(1.0 - Math.exp(-period / timeConstant));
+    }
+
+    public void add(double number) {
+        if (empty) {
+            average = number;
+            empty = false;
+        } else {
+            average += alpha * (number - average);
+        }
+    }
+
+    public void addAll(double... numbers) {
+        for (double number : numbers) {
+            add(number);
+        }
+    }
+
+    /**
+     * @return the current average, or {@code NaN} if no samples have been added.
+     */
+    public double getAverage() {
+        return average;
+    }
+
+    public double getAlpha() {
+        return alpha;
+    }
+
+    public boolean isEmpty() {
+        return empty;
+    }
+
+    public void clear() {
+        average = Double.NaN;
+        empty = true;
+    }
+}
@@ -1,23 +1,53 @@
 package frc.team7170.lib;
 
-import java.util.ArrayList;
-
-// TODO: implement as ring instead
+/**
+ * The mean of the last {@code frameSize} samples. Samples are kept in a primitive ring buffer alongside a running sum,
+ * so adding a sample and getting the average are both O(1) and allocation-free.
+ *
+ * @see ExponentialMovingAverage
+ * @see MovingMedian
+ * @see MovingMinMax
+ */
 public class MovingAverage {
 
-    private final ArrayList<Double> numbers;
-    private final int frameSize;
+    private final double[] numbers;
+    private int head = 0;
+    private int size = 0;
+    private double sum = 0.0;
+
+    /**
+     * The number of samples added since the running sum was last recomputed from scratch.
+     */
+    private int sinceResync = 0;
 
     public MovingAverage(int frameSize) {
-        numbers = new ArrayList<>(frameSize);
-        this.frameSize = frameSize;
+        if (frameSize <= 0) {
+            throw new IllegalArgumentException("frameSize must be positive");
+        }
+        numbers = new double[frameSize];
     }
 
     public void add(double number) {
         if (isFull()) {
-            numbers.remove(0);
+            sum -= numbers[head];
+        } else {
+            ++size;
+        }
+        numbers[head] = number;
+        sum += number;
+        if (++head == numbers.length) {
+            head = 0;
+        }
+        // Adding and subtracting samples accumulates rounding error in the running sum without bound, so recompute it
+        // exactly once per pass over the ring; this keeps adding amortized O(1).
+        if (++sinceResync == numbers.length) {
+            sinceResync = 0;
+            double total = 0.0;
+            for (int i = 0; i < size; ++i) {
+                total += numbers[i];
+            }
+            sum = total;
         }
-        numbers.add(number);
     }
 
     public void addAll(double... numbers) {
@@ -26,25 +56,25 @@ public class MovingAverage {
         }
     }
 
+    /**
+     * @return the mean of the samples in the window, or {@code NaN} if there are none.
+     */
     public double getAverage() {
-        double total = 0.0;
-
-        for (double number : numbers) {
-            total += number;
-        }
-
-        return total / numbers.size();
+        return sum / size;
     }
 
     public int getSize() {
-        return numbers.size();
+        return size;
     }
 
     public boolean isFull() {
-        return numbers.size() == frameSize;
+        return size == numbers.length;
     }
 
     public void clear() {
-        numbers.clear();
+        head = 0;
+        size = 0;
+        sum = 0.0;
+        sinceResync = 0;
     }
 }
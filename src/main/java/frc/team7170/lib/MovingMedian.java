@@ -0,0 +1,192 @@
+package frc.team7170.lib;
+
+/**
+ * <p>
+ * The median of the last {@code frameSize} samples, which rejects outliers (e.g. single-sample glitches from a sensor)
+ * that would skew a {@link MovingAverage MovingAverage}.
+ * </p>
+ * <p>
+ * Samples are kept in a primitive ring buffer. The lower half of the window is in a max-heap and the upper half in a
+ * min-heap, both of ring buffer slots, and each slot knows where it is in its heap; so when a new sample overwrites the
+ * oldest, it is sifted from the oldest sample's position rather than searched for. Adding a sample is O(log n) and
+ * allocation-free, and getting the median is O(1).
+ * </p>
+ *
+ * @see MovingAverage
+ */
+public class MovingMedian {
+
+    private final double[] numbers;
+    private int head = 0;
+    private int size = 0;
+
+    // Heaps of slots in numbers. lo is a max-heap of the lower half; hi is a min-heap of the upper half.
+    // loSize == hiSize or loSize == hiSize + 1.
+    private final int[] lo;
+    private final int[] hi;
+    private int loSize = 0;
+    private int hiSize = 0;
+
+    // The index of each slot in its heap, and which heap it is in.
+    private final int[] heapIdx;
+    private final boolean[] inLo;
+
+    public MovingMedian(int frameSize) {
+        if (frameSize <= 0) {
+            throw new IllegalArgumentException("frameSize must be positive");
+        }
+        numbers = new double[frameSize];
+        lo = new int[frameSize];
+        hi = new int[frameSize];
+        heapIdx = new int[frameSize];
+        inLo = new boolean[frameSize];
+    }
+
+    public void add(double number) {
+        int slot = head;
+        numbers[slot] = number;
+        if (++head == numbers.length) {
+            head = 0;
+        }
+        if (size < numbers.length) {
+            ++size;
+            if (loSize == 0 || number <= numbers[lo[0]]) {
+                inLo[slot] = true;
+                lo[loSize] = slot;
+                heapIdx[slot] = loSize++;
+                siftUp(lo, slot);
+            } else {
+                inLo[slot] = false;
+                hi[hiSize] = slot;
+                heapIdx[slot] = hiSize++;
+                siftUp(hi, slot);
+            }
+            if (loSize > hiSize + 1) {
+                moveTop(lo, true);
+            } else if (hiSize > loSize) {
+                moveTop(hi, false);
+            }
+            return;
+        }
+        // The new sample overwrote the oldest; restore the order of the heap it is in...
+        int[] heap = inLo[slot] ? lo : hi;
+        siftUp(heap, slot);
+        siftDown(heap, slot);
+        // ...and, if it crossed the median, swap the tops of the heaps, which is the only possible violation left.
+        if (hiSize > 0 && numbers[lo[0]] > numbers[hi[0]]) {
+            int loTop = lo[0];
+            int hiTop = hi[0];
+            lo[0] = hiTop;
+            hi[0] = loTop;
+            inLo[hiTop] = true;
+            inLo[loTop] = false;
+            siftDown(lo, hiTop);
+            siftDown(hi, loTop);
+        }
+    }
+
+    public void addAll(double... numbers) {
+        for (double number : numbers) {
+            add(number);
+        }
+    }
+
+    /**
+     * @return the median of the samples in the window (the mean of the middle two if there are an even number), or
+     * {@code NaN} if there are none.
+     */
+    public double getMedian() {
+        if (size == 0) {
+            return Double.NaN;
+        }
+        if (loSize > hiSize) {
+            return numbers[lo[0]];
+        }
+        return (numbers[lo[0]] + numbers[hi[0]]) / 2.0;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public boolean isFull() {
+        return size == numbers.length;
+    }
+
+    public void clear() {
+        head = 0;
+        size = 0;
+        loSize = 0;
+        hiSize = 0;
+    }
+
+    /**
+     * Move the top of the given heap to the other heap.
+     */
+    private void moveTop(int[] heap, boolean fromLo) {
+        int slot = heap[0];
+        int[] to;
+        if (fromLo) {
+            lo[0] = lo[--loSize];
+            heapIdx[lo[0]] = 0;
+            siftDown(lo, lo[0]);
+            to = hi;
+            inLo[slot] = false;
+            hi[hiSize] = slot;
+            heapIdx[slot] = hiSize++;
+        } else {
+            hi[0] = hi[--hiSize];
+            heapIdx[hi[0]] = 0;
+            siftDown(hi, hi[0]);
+            to = lo;
+            inLo[slot] = true;
+            lo[loSize] = slot;
+            heapIdx[slot] = loSize++;
+        }
+        siftUp(to, slot);
+    }
+
+    /**
+     * Whether the first slot belongs above the second in the given heap.
+     */
+    private boolean above(int[] heap, int a, int b) {
+        return heap == lo ? numbers[a] > numbers[b] : numbers[a] < numbers[b];
+    }
+
+    private void siftUp(int[] heap, int slot) {
+        int i = heapIdx[slot];
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (!above(heap, slot, heap[parent])) {
+                break;
+            }
+            heap[i] = heap[parent];
+            heapIdx[heap[i]] = i;
+            i = parent;
+        }
+        heap[i] = slot;
+        heapIdx[slot] = i;
+    }
+
+    private void siftDown(int[] heap, int slot) {
+        int heapSize = heap == lo ? loSize : hiSize;
+        int i = heapIdx[slot];
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= heapSize) {
+                break;
+            }
+            if (child + 1 < heapSize && above(heap, heap[child + 1], heap[child])) {
+                ++child;
+            }
+            if (!above(heap, heap[child], slot)) {
+                break;
+            }
+            heap[i] = heap[child];
+            heapIdx[heap[i]] = i;
+            i = child;
+        }
+        heap[i] = slot;
+        heapIdx[slot] = i;
+    }
+}
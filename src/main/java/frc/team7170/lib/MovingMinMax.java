@@ -0,0 +1,119 @@
+package frc.team7170.lib;
+
+/**
+ * <p>
+ * The minimum and maximum of the last {@code frameSize} samples.
+ * </p>
+ * <p>
+ * Each extremum is tracked with a monotonic deque (kept in a primitive ring buffer) of the samples that could still
+ * become the extremum: a new sample evicts every sample it dominates from the back, and samples that have left the
+ * window are evicted from the front. Each sample is pushed and popped at most once per deque, so adding a sample is
+ * amortized O(1) and allocation-free, and getting either extremum is O(1).
+ * </p>
+ *
+ * @see MovingAverage
+ */
+public class MovingMinMax {
+
+    private final int frameSize;
+
+    /**
+     * The number of samples added since construction or {@link #clear()}; also the sequence number of the next sample.
+     */
+    private long count = 0;
+
+    private final double[] minValues;
+    private final long[] minSeqs;
+    private int minFront = 0;
+    private int minSize = 0;
+
+    private final double[] maxValues;
+    private final long[] maxSeqs;
+    private int maxFront = 0;
+    private int maxSize = 0;
+
+    public MovingMinMax(int frameSize) {
+        if (frameSize <= 0) {
+            throw new IllegalArgumentException("frameSize must be positive");
+        }
+        this.frameSize = frameSize;
+        minValues = new double[frameSize];
+        minSeqs = new long[frameSize];
+        maxValues = new double[frameSize];
+        maxSeqs = new long[frameSize];
+    }
+
+    public void add(double number) {
+        long seq = count++;
+        long expired = seq - frameSize;
+
+        // Min deque: increasing from front to back.
+        if (minSize > 0 && minSeqs[minFront] <= expired) {
+            minFront = next(minFront);
+            --minSize;
+        }
+        while (minSize > 0 && minValues[index(minFront, minSize - 1)] >= number) {
+            --minSize;
+        }
+        int i = index(minFront, minSize++);
+        minValues[i] = number;
+        minSeqs[i] = seq;
+
+        // Max deque: decreasing from front to back.
+        if (maxSize > 0 && maxSeqs[maxFront] <= expired) {
+            maxFront = next(maxFront);
+            --maxSize;
+        }
+        while (maxSize > 0 && maxValues[index(maxFront, maxSize - 1)] <= number) {
+            --maxSize;
+        }
+        i = index(maxFront, maxSize++);
+        maxValues[i] = number;
+        maxSeqs[i] = seq;
+    }
+
+    public void addAll(double... numbers) {
+        for (double number : numbers) {
+            add(number);
+        }
+    }
+
+    private int next(int i) {
+        return i + 1 == frameSize ? 0 : i + 1;
+    }
+
+    private int index(int front, int offset) {
+        int i = front + offset;
+        return i >= frameSize ? i - frameSize : i;
+    }
+
+    /**
+     * @return the minimum of the samples in the window, or {@code NaN} if there are none.
+     */
+    public double getMin() {
+        return minSize > 0 ? minValues[minFront] : Double.NaN;
+    }
+
+    /**
+     * @return the maximum of the samples in the window, or {@code NaN} if there are none.
+     */
+    public double getMax() {
+        return maxSize > 0 ? maxValues[maxFront] : Double.NaN;
+    }
+
+    public int getSize() {
+        return (int) Math.min(count, frameSize);
+    }
+
+    public boolean isFull() {
+        return count >= frameSize;
+    }
+
+    public void clear() {
+        count = 0;
+        minFront = 0;
+        minSize = 0;
+        maxFront = 0;
+        maxSize = 0;
+    }
+}
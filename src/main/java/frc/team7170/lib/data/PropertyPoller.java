@@ -27,6 +27,9 @@ import java.util.stream.Collectors;
  * with {@code A - t <= B <= A + t}, then the new {@code RProperty} will be consolidated with the older one; that is,
  * the new {@code RProperty} will be scheduled at time {@code B} rather then time {@code A}.
  * </p>
+ * <p>
+ * A {@code RProperty} with a negative poll period is polled once, when it is added, and is not rescheduled.
+ * </p>
  * TODO characterize the performance of the consolidation mechanism and insert figures here in an apiNote.
  *
  * @author Robert Russell
@@ -82,10 +85,17 @@ public final class PropertyPoller {
         List<String> names = new ArrayList<>(ancestry);
         names.add(property.getName());
         double nowSeconds = Timer.getFPGATimestamp();
-        addPropertyWithConsolidation(nowSeconds, names, property);
-        if (!started) {
-            started = true;
-            nextKey = nowSeconds;
+        boolean start;
+        synchronized (this) {
+            addPropertyWithConsolidation(nowSeconds, names, property);
+            // Nothing is scheduled while stopped, so the new property is at the head of the schedule.
+            start = !started;
+            if (start) {
+                started = true;
+                nextKey = nowSeconds;
+            }
+        }
+        if (start) {
             run();
         }
     }
@@ -125,23 +135,36 @@ public final class PropertyPoller {
 
     private void run() {
         Map<List<String>, RProperty> properties;
+        boolean more;
         synchronized (this) {
             properties = timePropertyMap.remove(nextKey);
             // Re-schedule the properties about to be polled according to their poll period and the current time.
             double nowSeconds = Timer.getFPGATimestamp();
-            properties.forEach(
-                    (ancestry, property) -> addPropertyWithConsolidation(
+            properties.forEach((ancestry, property) -> {
+                // Properties with a negative poll period are only polled once.
+                if (property.getPollPeriodMs() >= 0) {
+                    addPropertyWithConsolidation(
                             nowSeconds + (double) property.getPollPeriodMs() / 1000.0,
                             ancestry, property
-                    )
-            );
-            // Get the absolute time of when the next batch of properties should be polled.
-            nextKey = timePropertyMap.firstKey();
+                    );
+                }
+            });
+            if (timePropertyMap.isEmpty()) {
+                // Nothing left to poll; the next property added starts polling again.
+                started = false;
+            } else {
+                // Get the absolute time of when the next batch of properties should be polled.
+                nextKey = timePropertyMap.firstKey();
+            }
+            more = started;
         }
         // Potentially expensive operation, hence the minimal synchronization above.
         callback.accept(properties.entrySet().stream().collect(
                 Collectors.toMap(Map.Entry::getKey, e -> e.getValue().getValue()))
         );
+        if (!more) {
+            return;
+        }
         double delay = nextKey - Timer.getFPGATimestamp();
         if (delay <= 0) {
             // If for whatever reason the delay is less than or equal to zero (i.e. we should've already polled the next
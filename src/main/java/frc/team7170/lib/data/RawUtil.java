@@ -1,6 +1,12 @@
 package frc.team7170.lib.data;
 
 import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.ShortBuffer;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 
@@ -26,7 +32,7 @@ public final class RawUtil {
     }
 
     public static byte[] toBytes(double val) {
-        return ByteBuffer.allocate(Integer.BYTES).putDouble(val).array();
+        return ByteBuffer.allocate(Double.BYTES).putDouble(val).array();
     }
 
     public static byte[] toBytes(char val) {
@@ -98,27 +104,46 @@ public final class RawUtil {
     }
 
     public static int[] toIntArray(byte[] bytes) {
-        return ByteBuffer.wrap(bytes).asIntBuffer().array();
+        // View buffers aren't backed by an accessible array, so copy out of the view.
+        IntBuffer view = ByteBuffer.wrap(bytes).asIntBuffer();
+        int[] vals = new int[view.remaining()];
+        view.get(vals);
+        return vals;
     }
 
     public static short[] toShortArray(byte[] bytes) {
-        return ByteBuffer.wrap(bytes).asShortBuffer().array();
+        ShortBuffer view = ByteBuffer.wrap(bytes).asShortBuffer();
+        short[] vals = new short[view.remaining()];
+        view.get(vals);
+        return vals;
     }
 
     public static long[] toLongArray(byte[] bytes) {
-        return ByteBuffer.wrap(bytes).asLongBuffer().array();
+        LongBuffer view = ByteBuffer.wrap(bytes).asLongBuffer();
+        long[] vals = new long[view.remaining()];
+        view.get(vals);
+        return vals;
     }
 
     public static float[] toFloatArray(byte[] bytes) {
-        return ByteBuffer.wrap(bytes).asFloatBuffer().array();
+        FloatBuffer view = ByteBuffer.wrap(bytes).asFloatBuffer();
+        float[] vals = new float[view.remaining()];
+        view.get(vals);
+        return vals;
     }
 
     public static double[] toDoubleArray(byte[] bytes) {
-        return ByteBuffer.wrap(bytes).asDoubleBuffer().array();
+        DoubleBuffer view = ByteBuffer.wrap(bytes).asDoubleBuffer();
+        double[] vals = new double[view.remaining()];
+        view.get(vals);
+        return vals;
     }
 
     public static char[] toCharArray(byte[] bytes) {
-        return ByteBuffer.wrap(bytes).asCharBuffer().array();
+        CharBuffer view = ByteBuffer.wrap(bytes).asCharBuffer();
+        char[] vals = new char[view.remaining()];
+        view.get(vals);
+        return vals;
     }
 
     public static String toString(byte[] bytes, Charset charset) {
@@ -0,0 +1,82 @@
+package frc.team7170.lib.fsm;
+
+import java.util.Map;
+
+/**
+ * <p>
+ * {@code CompiledTransitionTable} is used internally by {@link FSM FSM}s whose triggers are enum constants to resolve
+ * transitions without any map lookups or allocation.
+ * </p>
+ * <p>
+ * The table is a dense two-dimensional array indexed by {@linkplain StateBundle#id state ID} and trigger ordinal. Each
+ * non-{@code null} entry holds the resolved {@link Transition Transition}, the resolved destination
+ * {@link StateBundle StateBundle}, and a precomputed {@link Event Event} object with no arguments, which is reused for
+ * every trigger of that transition that does not carry arguments. (Since such an {@code Event} object is fully
+ * determined by the source state, destination state, and trigger, sharing it does not violate its immutability.)
+ * </p>
+ *
+ * @param <S> the state type.
+ * @param <T> the trigger type.
+ *
+ * @author Robert Russell
+ */
+final class CompiledTransitionTable<S, T> {
+
+    /**
+     * A single resolved transition.
+     *
+     * @param <S> the state type.
+     * @param <T> the trigger type.
+     */
+    static final class Entry<S, T> {
+
+        final Transition<S, T> transition;
+        final StateBundle<S, T> dst;
+        final Event<S, T> event;
+
+        private Entry(Transition<S, T> transition, StateBundle<S, T> dst, Event<S, T> event) {
+            this.transition = transition;
+            this.dst = dst;
+            this.event = event;
+        }
+    }
+
+    private final Entry<S, T>[][] entries;
+
+    /**
+     * @param machine the {@link FSM FSM} to compile the table for (used for the precomputed {@link Event Event}s).
+     * @param stateMap the {@link StateMap StateMap} of the given {@code FSM}, which must be fully built.
+     * @param triggerEnum the class object of the enum whose constants are used for triggers.
+     */
+    CompiledTransitionTable(FSM<S, T> machine, StateMap<S, T> stateMap, Class<T> triggerEnum) {
+        T[] triggers = triggerEnum.getEnumConstants();
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        Entry<S, T>[][] entries = new Entry[stateMap.bundles().size()][triggers.length];
+        this.entries = entries;
+        for (StateBundle<S, T> src : stateMap.bundles()) {
+            for (int i = 0; i < triggers.length; ++i) {
+                Transition<S, T> transition = src.resolveTransition(triggers[i]);
+                if (transition != null) {
+                    StateBundle<S, T> dst = transition.resolveDst(src);
+                    entries[src.id][i] = new Entry<>(
+                            transition,
+                            dst,
+                            new Event<>(machine, src.state, dst.state, triggers[i], Map.of())
+                    );
+                }
+            }
+        }
+    }
+
+    /**
+     * Get the resolved transition that should be executed if the given {@link StateBundle StateBundle} is the current
+     * state and the given trigger occurs, or {@code null} if the given trigger is invalid.
+     *
+     * @param src the current state (bundle).
+     * @param trigger the trigger, which must be a constant of the enum this table was compiled with.
+     * @return the resolved transition, or {@code null} if the given trigger is invalid.
+     */
+    Entry<S, T> resolve(StateBundle<S, T> src, T trigger) {
+        return entries[src.id][((Enum<?>) trigger).ordinal()];
+    }
+}
@@ -0,0 +1,254 @@
+package frc.team7170.lib.fsm;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * <p>
+ * A thread-safe wrapper around a {@link FSM FSM} which allows triggers and forced state changes to be requested from
+ * any thread.
+ * </p>
+ * <p>
+ * Requests are put on a lock-free queue and executed, one at a time and in the order they were made, by a single
+ * <em>owning</em> task submitted to the {@link Executor Executor} given upon construction. At most one such task is
+ * ever running or pending, so the wrapped {@code FSM} is only ever accessed by one thread at a time even if the given
+ * {@code Executor} is multi-threaded. The result of each request is delivered through a
+ * {@link CompletableFuture CompletableFuture}, which is completed exceptionally if the request throws. If the
+ * {@code Executor} rejects the owning task, every request pending at the time is completed exceptionally with the
+ * {@link RejectedExecutionException RejectedExecutionException}.
+ * </p>
+ * <p>
+ * Callbacks on the wrapped {@code FSM} run in the owning task and may use the {@code FSM} passed in the
+ * {@link Event Event} object as usual (in which case the normal {@code FSM} queuing semantics apply). Callbacks may
+ * also make requests on this {@code ConcurrentFSM}, but they must <em>not</em> block waiting on the returned future, as
+ * it cannot complete until the callback returns.
+ * </p>
+ * <p>
+ * Once wrapped, the {@code FSM} should not be used directly except from within its own callbacks.
+ * </p>
+ *
+ * <h2>Example Usage</h2>
+ * <pre>{@code ConcurrentFSM<State, Trigger> cfsm = new ConcurrentFSM<>(fsm, Executors.newSingleThreadExecutor());
+ * // From an NT listener, Notifier, etc.:
+ * cfsm.trigger(Trigger.SHOOT).thenAccept(success -> System.out.println("shoot transition succeeded: " + success));
+ * // From the main loop:
+ * if (cfsm.in(State.SHOOTING)) {
+ *     // ...
+ * }
+ * }</pre>
+ *
+ * @param <S> the state type.
+ * @param <T> the trigger type.
+ *
+ * @author Robert Russell
+ */
+public final class ConcurrentFSM<S, T> {
+
+    /**
+     * A pending trigger or forced state change.
+     */
+    private static final class Request<S, T> {
+
+        /**
+         * The trigger, or {@code null} if this is a forced state change.
+         */
+        private final T trigger;
+
+        /**
+         * The state to force the {@code FSM} into, or {@code null} if this is a trigger.
+         */
+        private final S state;
+
+        private final Map<String, Object> args;
+        private final CompletableFuture<Boolean> future = new CompletableFuture<>();
+
+        private Request(T trigger, S state, Map<String, Object> args) {
+            this.trigger = trigger;
+            this.state = state;
+            this.args = args;
+        }
+    }
+
+    private final FSM<S, T> fsm;
+    private final Executor executor;
+    private final Queue<Request<S, T>> queue = new ConcurrentLinkedQueue<>();
+
+    /**
+     * {@code draining} is true if the owning task is running or pending; false otherwise.
+     */
+    private final AtomicBoolean draining = new AtomicBoolean(false);
+
+    private final Runnable drainTask = this::drain;
+
+    /**
+     * The {@link StateBundle StateBundle} of the current state of the wrapped {@code FSM}, published by the owning task
+     * after each request.
+     */
+    private volatile StateBundle<S, T> currSB;
+
+    /**
+     * @param fsm the {@link FSM FSM} to wrap.
+     * @param executor the {@link Executor Executor} with which to run the owning task.
+     * @throws NullPointerException if the given {@code FSM} or {@code Executor} is {@code null}.
+     */
+    public ConcurrentFSM(FSM<S, T> fsm, Executor executor) {
+        this.fsm = Objects.requireNonNull(fsm, "fsm must be non-null");
+        this.executor = Objects.requireNonNull(executor, "executor must be non-null");
+        currSB = fsm.getStateBundle();
+    }
+
+    /**
+     * Wrap the given {@link FSM FSM} such that requests are executed by the requesting thread if no other thread is
+     * currently executing requests, or otherwise by the thread currently executing requests (in which case the request
+     * returns immediately).
+     *
+     * @param fsm the {@code FSM} to wrap.
+     * @throws NullPointerException if the given {@code FSM} is {@code null}.
+     */
+    public ConcurrentFSM(FSM<S, T> fsm) {
+        this(fsm, Runnable::run);
+    }
+
+    /**
+     * Request the given trigger be activated. See {@link FSM#trigger(Object) FSM.trigger} for details.
+     *
+     * @param trigger the trigger.
+     * @return a future completed with the result of {@code FSM.trigger}, or completed exceptionally with the exception
+     * thrown by {@code FSM.trigger}.
+     * @throws NullPointerException if the given trigger is {@code null}.
+     */
+    public CompletableFuture<Boolean> trigger(T trigger) {
+        return trigger(trigger, Map.of());
+    }
+
+    /**
+     * Request the given trigger be activated with the given arguments. See
+     * {@link FSM#trigger(Object, Map) FSM.trigger} for details.
+     *
+     * @param trigger the trigger.
+     * @param args arguments to put in the {@link Event Event} object so that they might be accessed from callbacks.
+     * @return a future completed with the result of {@code FSM.trigger}, or completed exceptionally with the exception
+     * thrown by {@code FSM.trigger}.
+     * @throws NullPointerException if the given trigger is {@code null}.
+     */
+    public CompletableFuture<Boolean> trigger(T trigger, Map<String, Object> args) {
+        return enqueue(new Request<>(Objects.requireNonNull(trigger, "trigger must be non-null"), null, args));
+    }
+
+    /**
+     * Request the {@code FSM} be forced into the given state. See {@link FSM#forceTo(Object) FSM.forceTo} for details.
+     *
+     * @param state the state to force the {@code FSM} into.
+     * @return a future completed with true once the state change is done, or completed exceptionally with the
+     * exception thrown by {@code FSM.forceTo}.
+     * @throws NullPointerException if the given state is {@code null}.
+     */
+    public CompletableFuture<Boolean> forceTo(S state) {
+        return forceTo(state, Map.of());
+    }
+
+    /**
+     * Request the {@code FSM} be forced into the given state with the given arguments. See
+     * {@link FSM#forceTo(Object, Map) FSM.forceTo} for details.
+     *
+     * @param state the state to force the {@code FSM} into.
+     * @param args arguments to put in the {@link Event Event} object so that they might be accessed from callbacks.
+     * @return a future completed with true once the state change is done, or completed exceptionally with the
+     * exception thrown by {@code FSM.forceTo}.
+     * @throws NullPointerException if the given state is {@code null}.
+     */
+    public CompletableFuture<Boolean> forceTo(S state, Map<String, Object> args) {
+        return enqueue(new Request<>(null, Objects.requireNonNull(state, "state must be non-null"), args));
+    }
+
+    /**
+     * Get the state the {@code FSM} was in after the most recently executed request.
+     *
+     * @return the state the {@code FSM} was in after the most recently executed request.
+     */
+    public S getState() {
+        // The StateMap is never modified once the FSM is built, so this is safe from any thread.
+        return fsm.getState(currSB);
+    }
+
+    /**
+     * Get the {@linkplain State state} the {@code FSM} was in after the most recently executed request.
+     *
+     * @return the {@linkplain State state} the {@code FSM} was in after the most recently executed request.
+     */
+    public State<S, T> getStateObj() {
+        return currSB.state;
+    }
+
+    /**
+     * Get whether or not the {@code FSM} was in the given state after the most recently executed request. See
+     * {@link FSM#in(Object) FSM.in} for details.
+     *
+     * @param state the state to check if the {@code FSM} is in.
+     * @return whether or not the {@code FSM} was in the given state after the most recently executed request.
+     * @throws NullPointerException if the given state is {@code null}.
+     * @throws IllegalArgumentException if the given state does not belong to the {@code FSM}.
+     */
+    public boolean in(S state) {
+        return fsm.in(currSB, state);
+    }
+
+    private CompletableFuture<Boolean> enqueue(Request<S, T> request) {
+        queue.offer(request);
+        if (draining.compareAndSet(false, true)) {
+            try {
+                executor.execute(drainTask);
+            } catch (RejectedExecutionException e) {
+                failQueued(e);
+            }
+        }
+        return request.future;
+    }
+
+    private void failQueued(RejectedExecutionException e) {
+        // Requests enqueued by other threads while the owning task was being submitted saw draining as true and so
+        // did not submit a task themselves; with no owning task, nothing would ever execute them, so fail them all.
+        do {
+            Request<S, T> request;
+            while ((request = queue.poll()) != null) {
+                request.future.completeExceptionally(e);
+            }
+            draining.set(false);
+        } while (!queue.isEmpty() && draining.compareAndSet(false, true));
+    }
+
+    private void drain() {
+        do {
+            Request<S, T> request;
+            while ((request = queue.poll()) != null) {
+                execute(request);
+            }
+            draining.set(false);
+            // A request may have been enqueued after the last poll but before draining was reset, in which case its
+            // enqueuer saw draining as true and did not submit a new task; pick it up here.
+        } while (!queue.isEmpty() && draining.compareAndSet(false, true));
+    }
+
+    private void execute(Request<S, T> request) {
+        try {
+            boolean result;
+            if (request.trigger != null) {
+                result = fsm.trigger(request.trigger, request.args);
+            } else {
+                fsm.forceTo(request.state, request.args);
+                result = true;
+            }
+            currSB = fsm.getStateBundle();
+            request.future.complete(result);
+        } catch (Throwable t) {
+            currSB = fsm.getStateBundle();
+            request.future.completeExceptionally(t);
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package frc.team7170.lib.fsm;
 
+import java.util.Collection;
 import java.util.EnumMap;
 import java.util.Map;
 import java.util.function.Supplier;
@@ -30,7 +31,7 @@ class EnumStateMap<S extends Enum<S> & State<S, T>, T> implements StateMap<S, T>
         // Use EnumMap because it is fast.
         bundleMap = new EnumMap<>(stateEnum);
         for (S s : enumConstants) {
-            bundleMap.put(s, new StateBundle<>(s, mapSupplier));
+            bundleMap.put(s, new StateBundle<>(s, s.ordinal(), mapSupplier));
         }
     }
 
@@ -49,4 +50,9 @@ class EnumStateMap<S extends Enum<S> & State<S, T>, T> implements StateMap<S, T>
     public StateBundle<S, T> s2bundle(S s) {
         return bundleMap.get(s);
     }
+
+    @Override
+    public Collection<StateBundle<S, T>> bundles() {
+        return bundleMap.values();
+    }
 }
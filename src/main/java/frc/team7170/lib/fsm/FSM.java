@@ -14,7 +14,8 @@ import java.util.stream.Collectors;
  * </p>
  * <p>
  * {@code FSM}s are not thread-safe by default, thought they can be made thread-safe by externally synchronizing access
- * to all exposed (public) methods.
+ * to all exposed (public) methods. Alternatively, an {@code FSM} can be wrapped in a
+ * {@link ConcurrentFSM ConcurrentFSM}, which allows triggers from any thread to be executed by a single owning thread.
  * </p>
  * <p>
  * This class is loosely based on <a href="https://github.com/pytransitions/transitions">pytransitions</a>.
@@ -81,7 +82,9 @@ import java.util.stream.Collectors;
  *     <li>enum constants are compile-time safe and strings are not (i.e. you could use an arbitrary string as a
  *     state/trigger, even if it is not one, resulting in a runtime exception);</li>
  *     <li>using enum constants is slightly more performant (although transition resolution and state resolution happens
- *     in constant time (with respect to number of transitions and states) in either case).</li>
+ *     in constant time (with respect to number of transitions and states) in either case); in particular, when
+ *     triggers are enum constants, transitions are resolved through a table compiled at build time and triggers
+ *     without arguments allocate nothing.</li>
  * </ul>
  * </p>
  *
@@ -146,6 +149,13 @@ public final class FSM<S, T> {
      */
     public static final String SUB_STATE_SEP = "/";
 
+    /**
+     * The (immutable) arguments map used when {@code trigger}/{@code forceTo} is invoked without arguments. Triggers
+     * made with this exact map can use the precomputed {@link Event Event} objects in a
+     * {@link CompiledTransitionTable CompiledTransitionTable}.
+     */
+    private static final Map<String, Object> NO_ARGS = Map.of();
+
     /**
      * A builder for {@code FSM}s.
      *
@@ -172,8 +182,14 @@ public final class FSM<S, T> {
         private Consumer<Event<S, T>> afterAll;
         final StateMap<S, T> stateMap;
 
-        Builder(StateMap<S, T> sm) {
+        /**
+         * The class object of the trigger enum, or {@code null} if triggers are not enum constants.
+         */
+        final Class<T> triggerEnum;
+
+        Builder(StateMap<S, T> sm, Class<T> triggerEnum) {
             this.stateMap = sm;
+            this.triggerEnum = triggerEnum;
         }
 
         /**
@@ -588,10 +604,12 @@ public final class FSM<S, T> {
      */
     public static final class BuilderFromStrings<T> extends FSM.Builder<String, T, BuilderFromStrings<T>> {
 
-        BuilderFromStrings(String[] states, Supplier<Map<T, Transition<String, T>>> mapSupplier) {
+        BuilderFromStrings(String[] states,
+                           Supplier<Map<T, Transition<String, T>>> mapSupplier,
+                           Class<T> triggerEnum) {
             // Static factory methods guarantee states is non-null.
             // StringStateMap constructor guarantees states is not empty.
-            super(new StringStateMap<>(states, mapSupplier));
+            super(new StringStateMap<>(states, mapSupplier), triggerEnum);
         }
 
         @Override
@@ -743,9 +761,9 @@ public final class FSM<S, T> {
     public static final class BuilderFromEnum<S extends Enum<S> & State<S, T>, T>
             extends Builder<S, T, BuilderFromEnum<S, T>> {
 
-        BuilderFromEnum(Class<S> stateEnum, Supplier<Map<T, Transition<S, T>>> mapSupplier) {
+        BuilderFromEnum(Class<S> stateEnum, Supplier<Map<T, Transition<S, T>>> mapSupplier, Class<T> triggerEnum) {
             // EnumStateMap constructor guarantees stateEnum has > 0 constants.
-            super(new EnumStateMap<>(stateEnum, mapSupplier));
+            super(new EnumStateMap<>(stateEnum, mapSupplier), triggerEnum);
         }
 
         @Override
@@ -777,7 +795,8 @@ public final class FSM<S, T> {
     public static BuilderFromStrings<String> builder(String... states) {
         return new BuilderFromStrings<>(
                 Objects.requireNonNull(states, "states must be non-null"),
-                HashMap::new
+                HashMap::new,
+                null
         );
     }
 
@@ -809,7 +828,8 @@ public final class FSM<S, T> {
         Objects.requireNonNull(triggerEnum, "triggerEnum must be non-null");
         return new BuilderFromStrings<>(
                 Objects.requireNonNull(states, "states must be non-null"),
-                () -> new EnumMap<>(triggerEnum)
+                () -> new EnumMap<>(triggerEnum),
+                triggerEnum
         );
     }
 
@@ -828,7 +848,8 @@ public final class FSM<S, T> {
     public static <S extends Enum<S> & State<S, String>> BuilderFromEnum<S, String> builder(Class<S> stateEnum) {
         return new BuilderFromEnum<>(
                 Objects.requireNonNull(stateEnum, "stateEnum must be non-null"),
-                HashMap::new
+                HashMap::new,
+                null
         );
     }
 
@@ -853,7 +874,8 @@ public final class FSM<S, T> {
         Objects.requireNonNull(triggerEnum, "triggerEnum must be non-null");
         return new BuilderFromEnum<>(
                 Objects.requireNonNull(stateEnum, "stateEnum must be non-null"),
-                () -> new EnumMap<>(triggerEnum)
+                () -> new EnumMap<>(triggerEnum),
+                triggerEnum
         );
     }
 
@@ -863,6 +885,12 @@ public final class FSM<S, T> {
     private final StateMap<S, T> stateMap;
     private StateBundle<S, T> currSB;
 
+    /**
+     * {@code compiledTable} is the table used to resolve transitions without map lookups or allocation, or {@code null}
+     * if triggers are not enum constants (in which case transitions are resolved via {@link StateBundle StateBundle}).
+     */
+    private final CompiledTransitionTable<S, T> compiledTable;
+
     /**
      * {@code stateChanging} is true if a state change/transition is in process; false otherwise.
      */
@@ -873,12 +901,20 @@ public final class FSM<S, T> {
      */
     private final Deque<Runnable> queue = new ArrayDeque<>();
 
+    /**
+     * {@code tracer} is the {@link FSMTracer FSMTracer} recording state changes, or {@code null} if tracing is
+     * disabled.
+     */
+    private FSMTracer<S, T> tracer = null;
+
     private FSM(Builder<S, T, ?> builder, StateBundle<S, T> initial) {
         ignoreInvalidTriggers = builder.ignoreInvalidTriggers;
         beforeAll = builder.beforeAll;
         afterAll = builder.afterAll;
         stateMap = builder.stateMap;
         currSB = initial;
+        compiledTable = builder.triggerEnum != null ?
+                new CompiledTransitionTable<>(this, stateMap, builder.triggerEnum) : null;
     }
 
     /**
@@ -887,7 +923,17 @@ public final class FSM<S, T> {
      * @return the state the {@code FSM} is currently in.
      */
     public S getState() {
-        return stateMap.state2s(currSB.state);
+        return getState(currSB);
+    }
+
+    /**
+     * Get the state corresponding to the given {@link StateBundle StateBundle}.
+     *
+     * @param sb the {@code StateBundle}, which must belong to this {@code FSM}.
+     * @return the state corresponding to the given {@code StateBundle}.
+     */
+    S getState(StateBundle<S, T> sb) {
+        return stateMap.state2s(sb.state);
     }
 
     /**
@@ -899,6 +945,55 @@ public final class FSM<S, T> {
         return currSB.state;
     }
 
+    /**
+     * Get the {@link StateMap StateMap} of this {@code FSM}.
+     *
+     * @return the {@code StateMap} of this {@code FSM}.
+     */
+    StateMap<S, T> getStateMap() {
+        return stateMap;
+    }
+
+    /**
+     * Attach the given {@link FSMTracer FSMTracer} to this {@code FSM} so that all subsequent state changes are
+     * recorded, or detach the current one if the given tracer is {@code null}. Dwell times are measured from when the
+     * tracer is attached.
+     *
+     * @param tracer the {@code FSMTracer} to attach, or {@code null} to disable tracing.
+     * @throws IllegalArgumentException if the given {@code FSMTracer} was constructed for a different {@code FSM}.
+     * @throws IllegalStateException if a state change is currently in progress.
+     */
+    public void setTracer(FSMTracer<S, T> tracer) {
+        if (tracer != null && tracer.getFSM() != this) {
+            throw new IllegalArgumentException("tracer was constructed for a different FSM");
+        }
+        if (stateChanging) {
+            throw new IllegalStateException("cannot set tracer during a state change");
+        }
+        if (tracer != null) {
+            tracer.attach();
+        }
+        this.tracer = tracer;
+    }
+
+    /**
+     * Get the {@link FSMTracer FSMTracer} attached to this {@code FSM}, or {@code null} if tracing is disabled.
+     *
+     * @return the {@code FSMTracer} attached to this {@code FSM}, or {@code null} if tracing is disabled.
+     */
+    public FSMTracer<S, T> getTracer() {
+        return tracer;
+    }
+
+    /**
+     * Get the {@link StateBundle StateBundle} of the state the {@code FSM} is currently in.
+     *
+     * @return the {@code StateBundle} of the state the {@code FSM} is currently in.
+     */
+    StateBundle<S, T> getStateBundle() {
+        return currSB;
+    }
+
     /**
      * <p>
      * Get whether or not the {@code FSM} is in the given state.
@@ -907,6 +1002,9 @@ public final class FSM<S, T> {
      * An {@code FSM} is considered "in" a given state if that state is equal to or an ancestor of the {@code FSM}'s
      * {@linkplain #getStateObj() current state}.
      * </p>
+     * <p>
+     * This is a constant time operation (it does not walk the current state's ancestors).
+     * </p>
      *
      * @param state the state to check if the {@code FSM} is in.
      * @return whether or not the {@code FSM} is in the given state.
@@ -914,10 +1012,25 @@ public final class FSM<S, T> {
      * @throws IllegalArgumentException if the given state does not belong to this {@code FSM}.
      */
     public boolean in(S state) {
-        return State.inLineage(
-                currSB.state,
-                stateMap.s2state(Objects.requireNonNull(state, "state must be non-null"))
-        );
+        return in(currSB, state);
+    }
+
+    /**
+     * Get whether or not the state of the given {@link StateBundle StateBundle} is equal to or a descendent of the
+     * given state.
+     *
+     * @param current the {@code StateBundle} of the current state.
+     * @param state the state to check if the given current state is in.
+     * @return whether or not the state of the given {@code StateBundle} is equal to or a descendent of the given state.
+     * @throws NullPointerException if the given state is {@code null}.
+     * @throws IllegalArgumentException if the given state does not belong to this {@code FSM}.
+     */
+    boolean in(StateBundle<S, T> current, S state) {
+        StateBundle<S, T> sb = stateMap.s2bundle(Objects.requireNonNull(state, "state must be non-null"));
+        if (sb == null) {
+            throw new IllegalArgumentException(String.format("unknown state: '%s'", state));
+        }
+        return current.isDescendentOf(sb);
     }
 
     /**
@@ -994,7 +1107,7 @@ public final class FSM<S, T> {
      * @throws IllegalArgumentException if the given state is inaccessible.
      */
     public void forceTo(S state) {
-        forceTo(state, Map.of());
+        forceTo(state, NO_ARGS);
     }
 
     /**
@@ -1087,7 +1200,12 @@ public final class FSM<S, T> {
         if (stateChanging) {
             queue.addLast(() -> forceToUnqueued(sb, args));
         } else {
-            forceToUnqueued(sb, args);
+            try {
+                forceToUnqueued(sb, args);
+                emptyQueue();
+            } finally {
+                unlockAndClearQueue();
+            }
         }
     }
 
@@ -1098,6 +1216,7 @@ public final class FSM<S, T> {
 
         if (sb == currSB) {
             // no-op if the FSM is already in the given state.
+            stateChanging = false;
             return;
         }
 
@@ -1113,17 +1232,7 @@ public final class FSM<S, T> {
                 args
         );
 
-        // Callbacks.
-        beforeAll(event);  // Cannot abort even if this returns false.
-        chainOnExitCallbacks(currSB.state, event);
-        currSB = sb;
-        chainOnEnterCallbacks(sb.state, event);
-        afterAll(event);
-
-        // "Unlock" the FSM.
-        stateChanging = false;
-
-        emptyQueue();
+        changeState(null, sb, event);
     }
 
     /**
@@ -1205,7 +1314,7 @@ public final class FSM<S, T> {
      * state.
      */
     public boolean trigger(T trigger) {
-        return trigger(trigger, Map.of());
+        return trigger(trigger, NO_ARGS);
     }
 
     /**
@@ -1293,7 +1402,13 @@ public final class FSM<S, T> {
             queue.addLast(() -> triggerUnqueued(trigger, args));
             return true;
         }
-        return triggerUnqueued(trigger, args);
+        try {
+            boolean result = triggerUnqueued(trigger, args);
+            emptyQueue();
+            return result;
+        } finally {
+            unlockAndClearQueue();
+        }
     }
 
     private boolean triggerUnqueued(T trigger, Map<String, Object> args) {
@@ -1301,8 +1416,25 @@ public final class FSM<S, T> {
         assert !stateChanging;
         stateChanging = true;
 
-        // Resolve the transition.
-        Transition<S, T> transition = currSB.resolveTransition(trigger);
+        // Resolve the transition and the destination state.
+        Transition<S, T> transition;
+        StateBundle<S, T> dst = null;
+        Event<S, T> event = null;
+        if (compiledTable != null) {
+            CompiledTransitionTable.Entry<S, T> entry = compiledTable.resolve(currSB, trigger);
+            transition = entry != null ? entry.transition : null;
+            if (entry != null) {
+                dst = entry.dst;
+                if (args == NO_ARGS) {
+                    event = entry.event;
+                }
+            }
+        } else {
+            transition = currSB.resolveTransition(trigger);
+            if (transition != null) {
+                dst = transition.resolveDst(currSB);
+            }
+        }
         if (transition == null) {
             // I.e. if the trigger is invalid...
             if (!ignoreInvalidTriggers && !currSB.state.getIgnoreInvalidTriggers()) {
@@ -1310,49 +1442,103 @@ public final class FSM<S, T> {
                         String.format("cannot use trigger '%s' in state '%s'", trigger, State.fullName(currSB.state))
                 );
             }
+            stateChanging = false;
             return false;
         }
 
-        // Resolve the destination state.
-        StateBundle<S, T> dst = transition.resolveDst(currSB);
-
-        // Prepare event object.
-        if (args == null) {
-            args = new HashMap<>();
+        // Prepare event object (unless a precomputed one is available).
+        if (event == null) {
+            if (args == null) {
+                args = new HashMap<>();
+            }
+            event = new Event<>(this, currSB.state, dst.state, trigger, args);
         }
-        Event<S, T> event = new Event<>(this, currSB.state, dst.state, trigger, args);
 
-        // Callbacks.
-        if (!beforeAll(event)) {
-            return false;  // Abort.
+        return changeState(transition, dst, event);
+    }
+
+    /**
+     * Execute the callbacks of a state change and, if a {@link FSMTracer FSMTracer} is attached, record it. This is the
+     * only place callbacks are run from, for both {@link #forceToUnqueued(StateBundle, Map) forced state changes} and
+     * {@link #triggerUnqueued(Object, Map) transitions}. The {@code FSM} must be "locked" on entry and is "unlocked"
+     * on return.
+     *
+     * @param transition the transition, or {@code null} if the state change is forced (in which case it cannot be
+     * aborted).
+     * @param dst the destination state.
+     * @param event the event object.
+     * @return false if the transition was aborted; true otherwise.
+     */
+    private boolean changeState(Transition<S, T> transition, StateBundle<S, T> dst, Event<S, T> event) {
+        // Read once so that the tracer cannot change partway through (setTracer also refuses during state changes).
+        FSMTracer<S, T> tracer = this.tracer;
+        if (tracer != null) {
+            tracer.begin(currSB, event.trigger, queue.size());
         }
-        if (!transition.before(event)) {
-            return false;  // Abort.
+        boolean proceed = beforeAll(event);
+        if (tracer != null) {
+            tracer.mark(FSMTracer.Phase.BEFORE_ALL);
         }
-        if (!transition.internal) {
-            chainOnExitCallbacks(currSB.state, event);
+        if (transition != null) {
+            if (proceed) {
+                proceed = transition.before(event);
+                if (tracer != null) {
+                    tracer.mark(FSMTracer.Phase.BEFORE);
+                }
+            }
+            if (!proceed) {
+                if (tracer != null) {
+                    tracer.end(null);
+                }
+                stateChanging = false;
+                return false;  // Abort.
+            }
+        }
+        if (transition == null || !transition.internal) {
+            chainOnExitCallbacks(currSB, event);
+            if (tracer != null) {
+                tracer.mark(FSMTracer.Phase.ON_EXIT);
+            }
             currSB = dst;
-            chainOnEnterCallbacks(dst.state, event);
+            chainOnEnterCallbacks(dst, event);
+            if (tracer != null) {
+                tracer.mark(FSMTracer.Phase.ON_ENTER);
+            }
+        }
+        if (transition != null) {
+            transition.after(event);
+            if (tracer != null) {
+                tracer.mark(FSMTracer.Phase.AFTER);
+            }
         }
-        transition.after(event);
         afterAll(event);
+        if (tracer != null) {
+            tracer.mark(FSMTracer.Phase.AFTER_ALL);
+            tracer.end(dst);
+        }
 
         // "Unlock" the FSM.
         stateChanging = false;
 
-        emptyQueue();
-
         return true;
     }
 
     private void emptyQueue() {
-        // This works recursively since the Runnable will ultimately call emptyQueue again.
-        Runnable r = queue.pollFirst();
-        if (r != null) {
+        // Only the outermost trigger/forceTo call empties the queue (queued actions call the "unqueued" methods
+        // directly), so this loop is iterative and long chains of queued actions cannot overflow the stack.
+        Runnable r;
+        while ((r = queue.pollFirst()) != null) {
             r.run();
         }
     }
 
+    private void unlockAndClearQueue() {
+        // This is a no-op unless a callback threw an exception, in which case the FSM must not be left locked and the
+        // remaining queued actions are discarded rather than run on the next trigger/forceTo call.
+        stateChanging = false;
+        queue.clear();
+    }
+
     private boolean beforeAll(Event<S, T> event) {
         return beforeAll == null || beforeAll.apply(event);
     }
@@ -1363,18 +1549,16 @@ public final class FSM<S, T> {
         }
     }
 
-    private static <S, T> void chainOnExitCallbacks(State<S, T> state, Event<S, T> event) {
-        if (state != null) {
-            // Call the ancestors' callbacks second, as per specification.
-            state.onExit(event);
-            chainOnExitCallbacks(state.getParent(), event);
+    private static <S, T> void chainOnExitCallbacks(StateBundle<S, T> sb, Event<S, T> event) {
+        // Call the ancestors' callbacks second, as per specification.
+        for (int i = sb.lineage.length - 1; i >= 0; --i) {
+            sb.lineage[i].onExit(event);
         }
     }
 
-    private static <S, T> void chainOnEnterCallbacks(State<S, T> state, Event<S, T> event) {
-        if (state != null) {
-            // Call the ancestors' callbacks first, as per specification.
-            chainOnEnterCallbacks(state.getParent(), event);
+    private static <S, T> void chainOnEnterCallbacks(StateBundle<S, T> sb, Event<S, T> event) {
+        // Call the ancestors' callbacks first, as per specification.
+        for (State<S, T> state : sb.lineage) {
             state.onEnter(event);
         }
     }
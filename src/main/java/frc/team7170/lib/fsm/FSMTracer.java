@@ -0,0 +1,435 @@
+package frc.team7170.lib.fsm;
+
+import frc.team7170.lib.Name;
+import frc.team7170.lib.data.PropertyGroup;
+import frc.team7170.lib.data.property.PropertyFactory;
+import frc.team7170.lib.data.property.RProperty;
+import frc.team7170.lib.logging.Loggable;
+
+import java.util.Locale;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * <p>
+ * Records every state change of a {@link FSM FSM} into a preallocated ring buffer and maintains latency histograms for
+ * each {@linkplain Phase callback phase} as well as dwell time histograms for each state. Nothing is allocated while
+ * recording. Once the ring buffer is full, the oldest records are overwritten; the histograms are cumulative until
+ * {@linkplain #clear() cleared}.
+ * </p>
+ * <p>
+ * A {@code FSMTracer} is attached to the {@code FSM} it was constructed for with
+ * {@link FSM#setTracer(FSMTracer) setTracer}. Each record holds the source state, the destination state (or nothing
+ * if the transition was aborted), the trigger (or nothing if the state change was forced), the number of
+ * triggers/forced state changes queued at the time, and the time spent in each callback phase.
+ * </p>
+ * <p>
+ * All histograms use the same logarithmic buckets: bucket 0 counts durations under 1 microsecond and bucket
+ * {@code i > 0} counts durations in [2<sup>i-1</sup>, 2<sup>i</sup>) microseconds. The last bucket also counts all
+ * longer durations. The histograms are exposed as {@linkplain RProperty readable properties} by
+ * {@link #registerProperties(PropertyGroup) registerProperties}, so a {@code FSMTracer} can be registered with a
+ * {@link frc.team7170.lib.logging.DataLogger DataLogger}.
+ * </p>
+ *
+ * <h2>Example Usage</h2>
+ * <pre>{@code FSMTracer<State, Trigger> tracer = new FSMTracer<>("shooter_fsm", fsm, 256, 1000);
+ * fsm.setTracer(tracer);
+ * DataLogger.registerDataLogger(tracer);
+ * }</pre>
+ *
+ * @apiNote This class is not thread-safe; apart from the histograms, it must only be accessed from the thread the
+ * {@code FSM} is used in (or, for {@link ConcurrentFSM ConcurrentFSM}s, the owning thread). The histograms, whether
+ * read through {@link #getLatencyHistogram(Phase) getLatencyHistogram}, {@link #getDwellHistogram(Object)
+ * getDwellHistogram}, or the registered properties, may be read from any thread (such as the polling thread of a
+ * {@code DataLogger}); they are updated and copied under a lock, so each read is a consistent snapshot.
+ *
+ * @param <S> the state type.
+ * @param <T> the trigger type.
+ *
+ * @author Robert Russell
+ */
+public final class FSMTracer<S, T> implements Loggable {
+
+    /**
+     * The callback phases of a state change, in the order they occur.
+     */
+    public enum Phase {
+        BEFORE_ALL,
+        BEFORE,
+        ON_EXIT,
+        ON_ENTER,
+        AFTER,
+        AFTER_ALL
+    }
+
+    /**
+     * The number of buckets in each histogram.
+     */
+    public static final int NUM_BUCKETS = 32;
+
+    private static final Phase[] PHASES = Phase.values();
+    private static final int NUM_PHASES = PHASES.length;
+    private static final int ABORTED = -1;
+
+    private final String name;
+    private final FSM<S, T> fsm;
+    private final int pollPeriodMs;
+
+    /**
+     * All the {@link StateBundle StateBundles} of the {@code FSM} indexed by ID.
+     */
+    private final StateBundle<S, T>[] bundles;
+
+    // Ring buffer; the per-phase durations of record i are at [i * NUM_PHASES, (i + 1) * NUM_PHASES).
+    private final int[] srcIds;
+    private final int[] dstIds;
+    private final Object[] triggers;
+    private final int[] queueDepths;
+    private final long[] timestampsNs;
+    private final long[] phaseDurationsNs;
+    private int next = 0;
+    private int size = 0;
+
+    // Histograms; the buckets of phase/state i are at [i * NUM_BUCKETS, (i + 1) * NUM_BUCKETS). Guarded by
+    // histogramLock, since they are read by pollers on other threads.
+    private final Object histogramLock = new Object();
+    private final long[] latencyHistograms = new long[NUM_PHASES * NUM_BUCKETS];
+    private final long[] dwellHistograms;
+
+    /**
+     * {@code current} is the ring buffer index of the record in progress, or -1 if no state change is in progress.
+     */
+    private int current = -1;
+    private long lastMarkNs;
+    private long stateEnteredNs;
+
+    /**
+     * @param name the name of this tracer (used by {@link frc.team7170.lib.logging.DataLogger DataLogger}).
+     * @param fsm the {@link FSM FSM} to trace.
+     * @param capacity the maximum number of records to hold at once.
+     * @param pollPeriodMs the {@linkplain RProperty#getPollPeriodMs() poll period} of the histogram properties in
+     * milliseconds.
+     * @throws NullPointerException if the given name or {@code FSM} is {@code null}.
+     * @throws IllegalArgumentException if the given name is not valid according to the global naming rules set out in
+     * {@link Name Name}.
+     * @throws IllegalArgumentException if the given capacity is not positive.
+     */
+    public FSMTracer(String name, FSM<S, T> fsm, int capacity, int pollPeriodMs) {
+        this.name = Name.requireValidName(name);
+        this.fsm = Objects.requireNonNull(fsm, "fsm must be non-null");
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        this.pollPeriodMs = pollPeriodMs;
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        StateBundle<S, T>[] bundles = new StateBundle[fsm.getStateMap().bundles().size()];
+        this.bundles = bundles;
+        for (StateBundle<S, T> sb : fsm.getStateMap().bundles()) {
+            bundles[sb.id] = sb;
+        }
+        srcIds = new int[capacity];
+        dstIds = new int[capacity];
+        triggers = new Object[capacity];
+        queueDepths = new int[capacity];
+        timestampsNs = new long[capacity];
+        phaseDurationsNs = new long[capacity * NUM_PHASES];
+        dwellHistograms = new long[bundles.length * NUM_BUCKETS];
+    }
+
+    /**
+     * Get the {@link FSM FSM} this tracer was constructed for.
+     *
+     * @return the {@code FSM} this tracer was constructed for.
+     */
+    public FSM<S, T> getFSM() {
+        return fsm;
+    }
+
+    public int getCapacity() {
+        return srcIds.length;
+    }
+
+    /**
+     * Get the number of records currently held.
+     *
+     * @return the number of records currently held.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Discard all records and reset all histograms.
+     */
+    public void clear() {
+        // Drop references so triggers can be GCed.
+        for (int i = 0; i < triggers.length; ++i) {
+            triggers[i] = null;
+        }
+        next = size = 0;
+        synchronized (histogramLock) {
+            for (int i = 0; i < latencyHistograms.length; ++i) {
+                latencyHistograms[i] = 0;
+            }
+            for (int i = 0; i < dwellHistograms.length; ++i) {
+                dwellHistograms[i] = 0;
+            }
+        }
+    }
+
+    /**
+     * Get the source state of the given record.
+     *
+     * @param index the index of the record, where 0 is the oldest held record.
+     * @return the source state of the given record.
+     * @throws IndexOutOfBoundsException if the given index is out of bounds.
+     */
+    public S getSrc(int index) {
+        return fsm.getState(bundles[srcIds[slotOf(index)]]);
+    }
+
+    /**
+     * Get the destination state of the given record, or {@code null} if the transition was aborted.
+     *
+     * @param index the index of the record, where 0 is the oldest held record.
+     * @return the destination state of the given record, or {@code null} if the transition was aborted.
+     * @throws IndexOutOfBoundsException if the given index is out of bounds.
+     */
+    public S getDst(int index) {
+        int dstId = dstIds[slotOf(index)];
+        return dstId != ABORTED ? fsm.getState(bundles[dstId]) : null;
+    }
+
+    /**
+     * Get the trigger of the given record, or {@code null} if the state change was forced.
+     *
+     * @param index the index of the record, where 0 is the oldest held record.
+     * @return the trigger of the given record, or {@code null} if the state change was forced.
+     * @throws IndexOutOfBoundsException if the given index is out of bounds.
+     */
+    @SuppressWarnings("unchecked")
+    public T getTrigger(int index) {
+        return (T) triggers[slotOf(index)];
+    }
+
+    /**
+     * Get the number of triggers/forced state changes that were queued when the given record started.
+     *
+     * @param index the index of the record, where 0 is the oldest held record.
+     * @return the number of triggers/forced state changes that were queued when the given record started.
+     * @throws IndexOutOfBoundsException if the given index is out of bounds.
+     */
+    public int getQueueDepth(int index) {
+        return queueDepths[slotOf(index)];
+    }
+
+    /**
+     * Get the {@link System#nanoTime() System.nanoTime} timestamp at which the given record started.
+     *
+     * @param index the index of the record, where 0 is the oldest held record.
+     * @return the timestamp at which the given record started in nanoseconds.
+     * @throws IndexOutOfBoundsException if the given index is out of bounds.
+     */
+    public long getTimestampNs(int index) {
+        return timestampsNs[slotOf(index)];
+    }
+
+    /**
+     * Get the time spent in the given callback phase in the given record. This is zero for phases that did not occur
+     * (e.g. {@link Phase#ON_ENTER ON_ENTER} for aborted and internal transitions).
+     *
+     * @param index the index of the record, where 0 is the oldest held record.
+     * @param phase the callback phase.
+     * @return the time spent in the given callback phase in the given record in nanoseconds.
+     * @throws IndexOutOfBoundsException if the given index is out of bounds.
+     * @throws NullPointerException if the given phase is {@code null}.
+     */
+    public long getPhaseDurationNs(int index, Phase phase) {
+        return phaseDurationsNs[slotOf(index) * NUM_PHASES + phase.ordinal()];
+    }
+
+    /**
+     * Get a copy of the latency histogram of the given callback phase.
+     *
+     * @param phase the callback phase.
+     * @return a copy of the latency histogram of the given callback phase.
+     * @throws NullPointerException if the given phase is {@code null}.
+     */
+    public long[] getLatencyHistogram(Phase phase) {
+        return copyHistogram(latencyHistograms, Objects.requireNonNull(phase, "phase must be non-null").ordinal());
+    }
+
+    /**
+     * Get a copy of the dwell time histogram of the given state. Time is only counted in the state the {@code FSM} is
+     * actually in (i.e. not in ancestor states) and only once the state is exited.
+     *
+     * @param state the state.
+     * @return a copy of the dwell time histogram of the given state.
+     * @throws NullPointerException if the given state is {@code null}.
+     * @throws IllegalArgumentException if the given state does not belong to the {@code FSM}.
+     */
+    public long[] getDwellHistogram(S state) {
+        StateBundle<S, T> sb = fsm.getStateMap().s2bundle(Objects.requireNonNull(state, "state must be non-null"));
+        if (sb == null) {
+            throw new IllegalArgumentException(String.format("unknown state: '%s'", state));
+        }
+        return copyHistogram(dwellHistograms, sb.id);
+    }
+
+    /**
+     * Get the lower bound of the given histogram bucket in microseconds.
+     *
+     * @param bucket the bucket.
+     * @return the lower bound of the given histogram bucket in microseconds.
+     * @throws IndexOutOfBoundsException if the given bucket is out of bounds.
+     */
+    public static long getBucketLowerBoundUs(int bucket) {
+        Objects.checkIndex(bucket, NUM_BUCKETS);
+        return bucket == 0 ? 0 : 1L << (bucket - 1);
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Register the histograms as {@linkplain frc.team7170.lib.data.ValueType#DOUBLE_ARRAY double array} properties: a
+     * {@code bucket_lower_bounds_us} property, a {@code latency} sub-group with one property per
+     * {@linkplain Phase phase}, and a {@code dwell} sub-group with one property per state (named by the state's full
+     * name with {@value FSM#SUB_STATE_SEP} replaced by {@code .}). Each poll returns a new snapshot of the counts. The
+     * {@code bucket_lower_bounds_us} property is constant, so it has a negative poll period and is only polled once.
+     *
+     * @param propertyGroup the group to register the properties in.
+     */
+    @Override
+    public void registerProperties(PropertyGroup<RProperty> propertyGroup) {
+        double[] lowerBounds = new double[NUM_BUCKETS];
+        for (int i = 0; i < NUM_BUCKETS; ++i) {
+            lowerBounds[i] = getBucketLowerBoundUs(i);
+        }
+        // Constant, so polled only once.
+        propertyGroup.addProperty(PropertyFactory.newDoubleArrayRProperty(
+                "bucket_lower_bounds_us", -1, () -> lowerBounds
+        ));
+        PropertyGroup<RProperty> latencyGroup = propertyGroup.newSubGroup("latency");
+        for (Phase phase : PHASES) {
+            latencyGroup.addProperty(PropertyFactory.newDoubleArrayRProperty(
+                    phase.name().toLowerCase(Locale.ROOT),
+                    pollPeriodMs,
+                    histogramGetter(latencyHistograms, phase.ordinal())
+            ));
+        }
+        PropertyGroup<RProperty> dwellGroup = propertyGroup.newSubGroup("dwell");
+        for (StateBundle<S, T> sb : bundles) {
+            dwellGroup.addProperty(PropertyFactory.newDoubleArrayRProperty(
+                    State.fullName(sb.state).replace(FSM.SUB_STATE_SEP, "."),
+                    pollPeriodMs,
+                    histogramGetter(dwellHistograms, sb.id)
+            ));
+        }
+    }
+
+    /**
+     * Called by the {@code FSM} when this tracer is attached to it.
+     */
+    void attach() {
+        // Dwell time is measured from when tracing started.
+        stateEnteredNs = System.nanoTime();
+        current = -1;
+    }
+
+    /**
+     * Start a new record. Called by the {@code FSM} before any callbacks.
+     *
+     * @param src the source state.
+     * @param trigger the trigger, or {@code null} if the state change is forced.
+     * @param queueDepth the number of triggers/forced state changes currently queued.
+     */
+    void begin(StateBundle<S, T> src, T trigger, int queueDepth) {
+        long now = System.nanoTime();
+        current = next;
+        srcIds[current] = src.id;
+        dstIds[current] = ABORTED;
+        triggers[current] = trigger;
+        queueDepths[current] = queueDepth;
+        timestampsNs[current] = now;
+        for (int i = current * NUM_PHASES; i < (current + 1) * NUM_PHASES; ++i) {
+            phaseDurationsNs[i] = 0;
+        }
+        if (++next == srcIds.length) {
+            next = 0;
+        }
+        if (size < srcIds.length) {
+            ++size;
+        }
+        lastMarkNs = now;
+    }
+
+    /**
+     * Mark the end of the given callback phase of the current record. Called by the {@code FSM} after each phase.
+     *
+     * @param phase the phase that just ended.
+     */
+    void mark(Phase phase) {
+        long now = System.nanoTime();
+        long durationNs = now - lastMarkNs;
+        lastMarkNs = now;
+        phaseDurationsNs[current * NUM_PHASES + phase.ordinal()] = durationNs;
+        synchronized (histogramLock) {
+            ++latencyHistograms[phase.ordinal() * NUM_BUCKETS + bucketOf(durationNs)];
+            if (phase == Phase.ON_EXIT) {
+                // The source state is exited after the on exit callbacks.
+                ++dwellHistograms[srcIds[current] * NUM_BUCKETS + bucketOf(now - stateEnteredNs)];
+            }
+        }
+        if (phase == Phase.ON_ENTER) {
+            // The destination state is entered before the on enter callbacks.
+            stateEnteredNs = now - durationNs;
+        }
+    }
+
+    /**
+     * Finish the current record. Called by the {@code FSM} after all callbacks.
+     *
+     * @param dst the destination state, or {@code null} if the transition was aborted.
+     */
+    void end(StateBundle<S, T> dst) {
+        if (dst != null) {
+            dstIds[current] = dst.id;
+        }
+        current = -1;
+    }
+
+    private int slotOf(int index) {
+        Objects.checkIndex(index, size);
+        int first = size < srcIds.length ? 0 : next;
+        return (first + index) % srcIds.length;
+    }
+
+    private static int bucketOf(long durationNs) {
+        long us = durationNs / 1000;
+        return Math.min(Long.SIZE - Long.numberOfLeadingZeros(us), NUM_BUCKETS - 1);
+    }
+
+    private long[] copyHistogram(long[] histograms, int i) {
+        long[] copy = new long[NUM_BUCKETS];
+        synchronized (histogramLock) {
+            System.arraycopy(histograms, i * NUM_BUCKETS, copy, 0, NUM_BUCKETS);
+        }
+        return copy;
+    }
+
+    private Supplier<double[]> histogramGetter(long[] histograms, int i) {
+        // A new array per poll, since the poller may hand it off to consumers that outlive the next poll.
+        return () -> {
+            double[] snapshot = new double[NUM_BUCKETS];
+            synchronized (histogramLock) {
+                for (int j = 0; j < NUM_BUCKETS; ++j) {
+                    snapshot[j] = histograms[i * NUM_BUCKETS + j];
+                }
+            }
+            return snapshot;
+        };
+    }
+}
@@ -95,8 +95,12 @@ public interface State<S, T> {
      * @throws NullPointerException if the given state is {@code null}.
      */
     static <S, T> String fullName(State<S, T> state) {
+        if (Objects.requireNonNull(state, "state must be non-null") instanceof StringState) {
+            // Precomputed.
+            return ((StringState<?>) state).fullName;
+        }
         StringBuilder sb = new StringBuilder();
-        fullNameR(sb, Objects.requireNonNull(state, "state must be non-null"), false);
+        fullNameR(sb, state, false);
         return sb.toString();
     }
 
@@ -15,14 +15,30 @@ import java.util.function.Supplier;
 class StateBundle<S, T> {
 
     final State<S, T> state;
+
+    /**
+     * A dense, non-negative integer uniquely identifying the associated {@link State State} within its {@link FSM FSM}.
+     */
+    final int id;
+
+    /**
+     * The lineage of the associated {@link State State} sorted in "parent before child" order (i.e. the first element
+     * is the top-level ancestor and the last element is the state itself). This is precomputed so that on enter and on
+     * exit callbacks can be chained without walking the parent chain on every transition.
+     */
+    final State<S, T>[] lineage;
+
     private final Map<T, Transition<S, T>> transitionTable;
 
     /**
      * @param state the {@link State State} associated with this {@code StateBundle}.
+     * @param id the ID of the state; see {@link #id}.
      * @param mapSupplier a supplier returning maps appropriate for the trigger type.
      */
-    StateBundle(State<S, T> state, Supplier<Map<T, Transition<S, T>>> mapSupplier) {
+    StateBundle(State<S, T> state, int id, Supplier<Map<T, Transition<S, T>>> mapSupplier) {
         this.state = state;
+        this.id = id;
+        this.lineage = lineageOf(state);
         this.transitionTable = mapSupplier.get();
     }
 
@@ -54,4 +70,31 @@ class StateBundle<S, T> {
     Transition<S, T> resolveTransition(T trigger) {
         return transitionTable.get(trigger);
     }
+
+    /**
+     * Get whether or not the state of this {@code StateBundle} is equal to or a descendent of the state of the given
+     * {@code StateBundle}. This is a constant time operation: a state is in the lineage of another state if and only if
+     * it appears in the other state's {@link #lineage lineage} at the index of its own depth.
+     *
+     * @param sb the {@code StateBundle} of the (potential) ancestor state.
+     * @return whether or not the state of this {@code StateBundle} is equal to or a descendent of the state of the
+     * given {@code StateBundle}.
+     */
+    boolean isDescendentOf(StateBundle<S, T> sb) {
+        int depth = sb.lineage.length - 1;
+        return depth < lineage.length && lineage[depth] == sb.state;
+    }
+
+    private static <S, T> State<S, T>[] lineageOf(State<S, T> state) {
+        int depth = 0;
+        for (State<S, T> s = state; s != null; s = s.getParent()) {
+            ++depth;
+        }
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        State<S, T>[] lineage = new State[depth];
+        for (State<S, T> s = state; s != null; s = s.getParent()) {
+            lineage[--depth] = s;
+        }
+        return lineage;
+    }
 }
@@ -1,5 +1,7 @@
 package frc.team7170.lib.fsm;
 
+import java.util.Collection;
+
 /**
  * {@code StateMap} is used internally as a means to have different ways of converting objects of the generic state type
  * to actual {@link State State} objects and vice versa depending on what the generic state type is.
@@ -40,4 +42,11 @@ interface StateMap<S, T> {
      * associated {@code StateBundle} (i.e. does not belong to the {@link FSM FSM} containing this {@code StateMap}).
      */
     StateBundle<S, T> s2bundle(S s);
+
+    /**
+     * Get all the {@link StateBundle StateBundles} in this {@code StateMap}.
+     *
+     * @return all the {@code StateBundles} in this {@code StateMap}.
+     */
+    Collection<StateBundle<S, T>> bundles();
 }
@@ -14,6 +14,13 @@ class StringState<T> implements State<String, T> {
 
     private final String name;
     private State<String, T> parent;
+
+    /**
+     * The {@linkplain State#fullName(State) full name} of this state, precomputed so that it can be retrieved without
+     * building a string.
+     */
+    final String fullName;
+
     boolean accessible = false;
     boolean ignoreInvalidTriggers = false;
     Consumer<Event<String, T>> onEnter = null;
@@ -22,6 +29,7 @@ class StringState<T> implements State<String, T> {
     StringState(String name, State<String, T> parent) {
         this.name = name;
         this.parent = parent;
+        fullName = parent == null ? name : State.fullName(parent) + FSM.SUB_STATE_SEP + name;
     }
 
     @Override
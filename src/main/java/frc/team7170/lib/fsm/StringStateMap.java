@@ -35,7 +35,7 @@ class StringStateMap<T> implements StateMap<String, T> {
                 StateBundle<String, T> sb = bundleMap.get(seg);
                 if (sb == null) {
                     last = new StringState<>(seg.substring(seg.lastIndexOf(FSM.SUB_STATE_SEP)+1), last);
-                    bundleMap.put(seg, new StateBundle<>(last, mapSupplier));
+                    bundleMap.put(seg, new StateBundle<>(last, bundleMap.size(), mapSupplier));
                 } else {
                     last = (StringState<T>) sb.state;
                 }
@@ -55,7 +55,7 @@ class StringStateMap<T> implements StateMap<String, T> {
 
     @Override
     public String state2s(State<String, T> state) {
-        return State.fullName(state);
+        return ((StringState<T>) state).fullName;
     }
 
     @Override
@@ -72,6 +72,11 @@ class StringStateMap<T> implements StateMap<String, T> {
         return bundleMap.get(s);
     }
 
+    @Override
+    public Collection<StateBundle<String, T>> bundles() {
+        return bundleMap.values();
+    }
+
     /**
      * <p>
      * Get a list of strings representing the lineage of the given state sorted in "parent before child" order.
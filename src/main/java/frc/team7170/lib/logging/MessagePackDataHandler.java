@@ -13,6 +13,17 @@ import java.util.logging.Logger;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
+/**
+ * <p>
+ * A {@link DataHandler DataHandler} that writes MessagePack: for each call to
+ * {@link MessagePackDataHandler#handle(double, Map) handle}, the timestamp as a float 64, then a map from each
+ * lineage, as an array of strings, to its value.
+ * </p>
+ * <p>
+ * {@linkplain frc.team7170.lib.data.ValueType#RAW Raw} values are written as bin. Logs written by earlier versions
+ * of this class hold them as arrays of integers, one per byte, instead; readers of such logs must accept both.
+ * </p>
+ */
 // TODO: thread safety
 public class MessagePackDataHandler implements DataHandler {
 
@@ -72,7 +83,7 @@ public class MessagePackDataHandler implements DataHandler {
             MsgPackUtil.packMap(
                     values,
                     packer,
-                    strings -> MsgPackUtil.packArray((String[]) strings.toArray(), packer, packer::packString),
+                    strings -> MsgPackUtil.packArray(strings.toArray(new String[0]), packer, packer::packString),
                     value -> {
                         switch (value.getType()) {
                             case BOOLEAN:
@@ -94,7 +105,10 @@ public class MessagePackDataHandler implements DataHandler {
                                 MsgPackUtil.packArray(value.getStringArray(), packer, packer::packString);
                                 break;
                             case RAW:
-                                MsgPackUtil.packArray(value.getRaw(), packer, packer::packByte);
+                                // As MessagePack bin rather than an array of ints, so it takes one byte per byte.
+                                byte[] raw = value.getRaw();
+                                packer.packBinaryHeader(raw.length);
+                                packer.writePayload(raw);
                                 break;
                         }
                     }
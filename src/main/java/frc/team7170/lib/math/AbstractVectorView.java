@@ -14,6 +14,16 @@ abstract class AbstractVectorView extends ArrayVector {
         this(CalcUtil.rangeToIndices(startIdx, endIdx));
     }
 
+    @Override
+    double[] denseData() {
+        return null;
+    }
+
+    @Override
+    double[] stridedData() {
+        return null;
+    }
+
     @Override
     public int length() {
         return indices.length;
@@ -42,8 +52,11 @@ abstract class AbstractVectorView extends ArrayVector {
 
     @Override
     public Matrix asRowMatrix() {
-        double[][] newData = new double[1][length()];
-        visit((i, value) -> newData[0][i] = value);
-        return new ArrayMatrix(newData);
+        return new ArrayMatrix(1, length(), toArray());
+    }
+
+    @Override
+    public Matrix asColMatrix() {
+        return new ArrayMatrix(length(), 1, toArray());
     }
 }
@@ -1,28 +1,186 @@
 package frc.team7170.lib.math;
 
 import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
 
 /**
- * A simple matrix implementation using a row-major nested array as the backing data structure.
+ * <p>
+ * A simple matrix implementation using a row-major flat array as the backing data structure (i.e. the element at row
+ * {@code r} and column {@code c} is stored at index {@code r * nCols + c}).
+ * </p>
+ * <p>
+ * Arithmetic between {@code ArrayMatrix}s operates directly on the backing arrays. Matrix multiplication loops in
+ * i-k-j order, so that the innermost loop walks both the right operand and the result contiguously, and is tiled into
+ * blocks so that large operands stay in cache. Operations on large matrices are additionally split across a
+ * {@link ForkJoinPool ForkJoinPool}; see {@link ArrayMatrix#setParallelPool(ForkJoinPool) setParallelPool}.
+ * </p>
  */
 public class ArrayMatrix implements Matrix {
 
-    private final double[][] data;
+    /**
+     * The side length of the square blocks multiplication is tiled into. A 64x64 block of doubles is 32 KiB.
+     */
+    private static final int BLOCK_SIZE = 64;
+
+    private final double[] data;
+    private final int nRows;
+    private final int nCols;
 
     /**
      * @param nRows the number of rows in the matrix.
      * @param nCols the number of columns in the matrix.
      */
     public ArrayMatrix(int nRows, int nCols) {
-        data = new double[nRows][nCols];
+        this(nRows, nCols, new double[nRows * nCols]);
     }
 
     /**
-     * @param data the nested array to initialize the matrix with.
+     * @param data the nested array to initialize the matrix with. It is copied, so subsequent changes to it are not
+     *             reflected in the matrix.
+     * @throws IllegalArgumentException if the rows of the given nested array are not all the same length.
      */
     public ArrayMatrix(double[][] data) {
-        // TODO: should this make a copy of the array?
+        nRows = data.length;
+        nCols = nRows > 0 ? data[0].length : 0;
+        this.data = new double[nRows * nCols];
+        for (int r = 0; r < nRows; ++r) {
+            if (data[r].length != nCols) {
+                throw new IllegalArgumentException("all rows must be the same length");
+            }
+            System.arraycopy(data[r], 0, this.data, r * nCols, nCols);
+        }
+    }
+
+    /**
+     * @param nRows the number of rows in the matrix.
+     * @param nCols the number of columns in the matrix.
+     * @param data the row-major flat array to back the matrix with. It is not copied.
+     * @throws IllegalArgumentException if the length of the given array is not {@code nRows * nCols}.
+     */
+    public ArrayMatrix(int nRows, int nCols, double[] data) {
+        if (data.length != nRows * nCols) {
+            throw new IllegalArgumentException("data length must be nRows * nCols");
+        }
         this.data = data;
+        this.nRows = nRows;
+        this.nCols = nCols;
+    }
+
+    /**
+     * Get the row-major flat array backing this matrix, or {@code null} if this matrix is not backed by one (i.e. is a
+     * view). Operations only take their fast paths if this returns non-{@code null}.
+     *
+     * @return the row-major flat array backing this matrix, or {@code null} if this matrix is not backed by one.
+     */
+    double[] denseData() {
+        return data;
+    }
+
+    /**
+     * Get the row-major flat array backing the given matrix, or {@code null} if it is not backed by one.
+     *
+     * @param matrix the matrix.
+     * @return the row-major flat array backing the given matrix, or {@code null} if it is not backed by one.
+     */
+    static double[] denseDataOf(Matrix matrix) {
+        return matrix instanceof ArrayMatrix ? ((ArrayMatrix) matrix).denseData() : null;
+    }
+
+    /**
+     * Get the array holding the elements of this matrix, where element {@code (r, c)} is at index
+     * {@code stridedOffset() + r * rowStride() + c * colStride()}, or {@code null} if its elements are not laid out
+     * that way (i.e. it is a view of arbitrary rows and columns). This is the backing array for an
+     * {@code ArrayMatrix}, and the shared array for a view of a block of one; operations that cannot take their dense
+     * fast paths take strided ones if this returns non-{@code null} for every operand.
+     *
+     * @return the array holding the elements of this matrix, or {@code null} if they are not evenly spaced in one.
+     */
+    double[] stridedData() {
+        return data;
+    }
+
+    int stridedOffset() {
+        return 0;
+    }
+
+    int rowStride() {
+        return nCols;
+    }
+
+    int colStride() {
+        return 1;
+    }
+
+    private static boolean isStrided(Matrix matrix) {
+        return matrix instanceof ArrayMatrix && ((ArrayMatrix) matrix).stridedData() != null;
+    }
+
+    /**
+     * Copy the elements of the given matrix into the given array in row-major order.
+     *
+     * @param src the matrix to copy from.
+     * @param dst the array to copy into, which must have length at least {@code src.nRows() * src.nCols()}.
+     */
+    static void copyToArray(Matrix src, double[] dst) {
+        double[] s = denseDataOf(src);
+        if (s != null) {
+            System.arraycopy(s, 0, dst, 0, s.length);
+        } else {
+            int nCols = src.nCols();
+            src.visitRowWise((r, c, value) -> dst[r * nCols + c] = value);
+        }
+    }
+
+    /**
+     * Copy the elements of the given array, in row-major order, into the given matrix.
+     *
+     * @param src the array to copy from, which must have length at least {@code dst.nRows() * dst.nCols()}.
+     * @param dst the matrix to copy into.
+     */
+    static void copyFromArray(double[] src, Matrix dst) {
+        double[] d = denseDataOf(dst);
+        if (d != null) {
+            System.arraycopy(src, 0, d, 0, d.length);
+        } else {
+            int nCols = dst.nCols();
+            dst.mutateRowWise((r, c, value) -> src[r * nCols + c]);
+        }
+    }
+
+    /**
+     * <p>
+     * Set the {@link ForkJoinPool ForkJoinPool} that operations between large {@code ArrayMatrix}s (and
+     * {@link ArrayVector ArrayVector}s) are split across, or {@code null} to always run them on the calling thread.
+     * Defaults to the {@linkplain ForkJoinPool#commonPool() common pool}.
+     * </p>
+     * <p>
+     * Only multiplications of at least about two million multiply-adds (e.g. 128x128 by 128x128) and element-wise
+     * operations, transpositions, and reductions of at least 65536 elements are split, so robot-sized matrices are
+     * never affected. {@linkplain Matrix#visitRowWise(Matrix.MatrixEntryVisitor) Visitors} and
+     * {@linkplain Matrix#mutateRowWise(Matrix.MatrixEntryMutator) mutators} always run sequentially, since they are
+     * not required to be thread-safe.
+     * </p>
+     * <p>
+     * This is a global setting meant to be configured once, at startup, before any large operations run. Each
+     * operation reads the pool once when it begins, so changing it later only affects operations started afterwards;
+     * a pool that has been replaced must not be shut down until the operations already running on it finish.
+     * </p>
+     *
+     * @param pool the pool to use, or {@code null} to disable parallel execution.
+     */
+    public static void setParallelPool(ForkJoinPool pool) {
+        ParallelKernels.setPool(pool);
+    }
+
+    /**
+     * Get the {@link ForkJoinPool ForkJoinPool} that operations between large {@code ArrayMatrix}s are split across,
+     * or {@code null} if parallel execution is disabled.
+     *
+     * @return the pool in use, or {@code null}.
+     * @see ArrayMatrix#setParallelPool(ForkJoinPool)
+     */
+    public static ForkJoinPool getParallelPool() {
+        return ParallelKernels.getPool();
     }
 
     private boolean matchingSize(Matrix other) {
@@ -31,12 +189,12 @@ public class ArrayMatrix implements Matrix {
 
     @Override
     public int nRows() {
-        return data.length;
+        return nRows;
     }
 
     @Override
     public int nCols() {
-        return nRows() > 0 ? data[0].length : 0;
+        return nCols;
     }
 
     @Override
@@ -44,16 +202,20 @@ public class ArrayMatrix implements Matrix {
         if (!matchingSize(other)) {
             throw new IllegalArgumentException("matrix size must be identical for addition");
         }
-        double[][] newData = new double[nRows()][nCols()];
-        visitRowWise((r, c, value) -> newData[r][c] = value + other.get(r, c));
-        return new ArrayMatrix(newData);
+        return addInto(other, new ArrayMatrix(nRows(), nCols()));
     }
 
     @Override
     public Matrix add(double value) {
-        double[][] newData = new double[nRows()][nCols()];
-        visitRowWise((r, c, thisValue) -> newData[r][c] = thisValue + value);
-        return new ArrayMatrix(newData);
+        double[] a = denseData();
+        double[] result = new double[nRows() * nCols()];
+        if (a != null) {
+            ParallelKernels.add(a, value, result);
+        } else {
+            int nCols = nCols();
+            visitRowWise((r, c, thisValue) -> result[r * nCols + c] = thisValue + value);
+        }
+        return new ArrayMatrix(nRows(), nCols(), result);
     }
 
     @Override
@@ -61,9 +223,7 @@ public class ArrayMatrix implements Matrix {
         if (!matchingSize(other)) {
             throw new IllegalArgumentException("matrix size must be identical for subtraction");
         }
-        double[][] newData = new double[nRows()][nCols()];
-        visitRowWise((r, c, value) -> newData[r][c] = value - other.get(r, c));
-        return new ArrayMatrix(newData);
+        return subtractInto(other, new ArrayMatrix(nRows(), nCols()));
     }
 
     @Override
@@ -71,9 +231,7 @@ public class ArrayMatrix implements Matrix {
         if (nCols() != other.nRows()) {
             throw new IllegalArgumentException("invalid matrix size for matrix multiplication");
         }
-        double[][] result = new double[nRows()][other.nCols()];
-        visitRows((rowIdx, row) -> other.visitCols((colIdx, col) -> result[rowIdx][colIdx] = row.dot(col)));
-        return new ArrayMatrix(result);
+        return multiplyInto(other, new ArrayMatrix(nRows(), other.nCols()));
     }
 
     @Override
@@ -81,7 +239,9 @@ public class ArrayMatrix implements Matrix {
         if (nCols() != other.length()) {
             throw new IllegalArgumentException("invalid vector length for matrix-vector multiplication");
         }
-        return multiply(other.asColMatrix());
+        double[] result = new double[nRows()];
+        multiplyInto(other, new ArrayVector(result));
+        return new ArrayMatrix(nRows(), 1, result);
     }
 
     @Override
@@ -89,44 +249,419 @@ public class ArrayMatrix implements Matrix {
         if (!matchingSize(other)) {
             throw new IllegalArgumentException("matrix size must be identical for element-wise multiplication");
         }
-        double[][] newData = new double[nRows()][nCols()];
-        visitRowWise((r, c, value) -> newData[r][c] = value * other.get(r, c));
-        return new ArrayMatrix(newData);
+        double[] a = denseData();
+        double[] b = denseDataOf(other);
+        double[] result = new double[nRows() * nCols()];
+        if (a != null && b != null) {
+            ParallelKernels.multiplyElementWise(a, b, result);
+        } else {
+            int nCols = nCols();
+            visitRowWise((r, c, value) -> result[r * nCols + c] = value * other.get(r, c));
+        }
+        return new ArrayMatrix(nRows(), nCols(), result);
     }
 
     @Override
     public Matrix multiply(double value) {
-        double[][] newData = new double[nRows()][nCols()];
-        visitRowWise((r, c, thisValue) -> newData[r][c] = thisValue * value);
-        return new ArrayMatrix(newData);
+        double[] a = denseData();
+        double[] result = new double[nRows() * nCols()];
+        if (a != null) {
+            ParallelKernels.multiply(a, value, result);
+        } else {
+            int nCols = nCols();
+            visitRowWise((r, c, thisValue) -> result[r * nCols + c] = thisValue * value);
+        }
+        return new ArrayMatrix(nRows(), nCols(), result);
     }
 
     @Override
     public Matrix power(double power) {
-        double[][] newData = new double[nRows()][nCols()];
-        visitRowWise((r, c, value) -> newData[r][c] = Math.pow(value, power));
-        return new ArrayMatrix(newData);
+        double[] result = new double[nRows() * nCols()];
+        int nCols = nCols();
+        visitRowWise((r, c, value) -> result[r * nCols + c] = Math.pow(value, power));
+        return new ArrayMatrix(nRows(), nCols(), result);
     }
 
     @Override
     public Matrix transpose() {
-        double[][] result = new double[nCols()][nRows()];
-        visitRowWise((r, c, value) -> result[c][r] = value);
-        return new ArrayMatrix(result);
+        return transposeInto(new ArrayMatrix(nCols(), nRows()));
+    }
+
+    @Override
+    public Matrix addInPlace(double value) {
+        double[] a = denseData();
+        if (a == null) {
+            return Matrix.super.addInPlace(value);
+        }
+        ParallelKernels.add(a, value, a);
+        return this;
+    }
+
+    @Override
+    public Matrix multiplyInPlace(double value) {
+        double[] a = denseData();
+        if (a == null) {
+            return Matrix.super.multiplyInPlace(value);
+        }
+        ParallelKernels.multiply(a, value, a);
+        return this;
+    }
+
+    @Override
+    public Matrix multiplyElementWiseInPlace(Matrix other) throws IllegalArgumentException {
+        double[] a = denseData();
+        double[] b = denseDataOf(other);
+        if (a == null || b == null) {
+            return Matrix.super.multiplyElementWiseInPlace(other);
+        }
+        if (!matchingSize(other)) {
+            throw new IllegalArgumentException("matrix size must be identical for element-wise multiplication");
+        }
+        ParallelKernels.multiplyElementWise(a, b, a);
+        return this;
+    }
+
+    @Override
+    public Matrix addInto(Matrix other, Matrix dest) throws IllegalArgumentException {
+        double[] a = denseData();
+        double[] b = denseDataOf(other);
+        double[] d = denseDataOf(dest);
+        if (a == null || b == null || d == null) {
+            if (stridedData() == null || !isStrided(other) || !isStrided(dest)) {
+                return Matrix.super.addInto(other, dest);
+            }
+        }
+        if (!matchingSize(other)) {
+            throw new IllegalArgumentException("matrix size must be identical for addition");
+        }
+        if (!matchingSize(dest)) {
+            throw new IllegalArgumentException("destination matrix size must be identical for addition");
+        }
+        if (a == null || b == null || d == null) {
+            addStrided(this, (ArrayMatrix) other, 1.0, (ArrayMatrix) dest);
+        } else {
+            ParallelKernels.add(a, b, d);
+        }
+        return dest;
+    }
+
+    @Override
+    public Matrix subtractInto(Matrix other, Matrix dest) throws IllegalArgumentException {
+        double[] a = denseData();
+        double[] b = denseDataOf(other);
+        double[] d = denseDataOf(dest);
+        if (a == null || b == null || d == null) {
+            if (stridedData() == null || !isStrided(other) || !isStrided(dest)) {
+                return Matrix.super.subtractInto(other, dest);
+            }
+        }
+        if (!matchingSize(other)) {
+            throw new IllegalArgumentException("matrix size must be identical for subtraction");
+        }
+        if (!matchingSize(dest)) {
+            throw new IllegalArgumentException("destination matrix size must be identical for subtraction");
+        }
+        if (a == null || b == null || d == null) {
+            addStrided(this, (ArrayMatrix) other, -1.0, (ArrayMatrix) dest);
+        } else {
+            ParallelKernels.subtract(a, b, d);
+        }
+        return dest;
+    }
+
+    @Override
+    public Matrix multiplyInto(Matrix other, Matrix dest) throws IllegalArgumentException {
+        double[] a = denseData();
+        double[] b = denseDataOf(other);
+        double[] d = denseDataOf(dest);
+        if (a == null || b == null || d == null) {
+            if (stridedData() == null || !isStrided(other) || !isStrided(dest)) {
+                return Matrix.super.multiplyInto(other, dest);
+            }
+            if (nCols() != other.nRows()) {
+                throw new IllegalArgumentException("invalid matrix size for matrix multiplication");
+            }
+            if (dest.nRows() != nRows() || dest.nCols() != other.nCols()) {
+                throw new IllegalArgumentException("invalid destination matrix size for matrix multiplication");
+            }
+            if (dest == this || dest == other) {
+                throw new IllegalArgumentException(
+                        "destination matrix must not be an operand of matrix multiplication");
+            }
+            double[] z = ((ArrayMatrix) dest).stridedData();
+            if (z == stridedData() || z == ((ArrayMatrix) other).stridedData()) {
+                // The destination may overlap an operand (e.g. it is a view of one), so compute into a temporary.
+                ArrayMatrix temp = new ArrayMatrix(nRows(), other.nCols());
+                multiplyStrided(this, (ArrayMatrix) other, temp);
+                return temp.copyInto(dest);
+            }
+            multiplyStrided(this, (ArrayMatrix) other, (ArrayMatrix) dest);
+            return dest;
+        }
+        if (nCols() != other.nRows()) {
+            throw new IllegalArgumentException("invalid matrix size for matrix multiplication");
+        }
+        if (dest.nRows() != nRows() || dest.nCols() != other.nCols()) {
+            throw new IllegalArgumentException("invalid destination matrix size for matrix multiplication");
+        }
+        // Since all three are dense, aliasing can be detected exactly.
+        if (d == a || d == b) {
+            throw new IllegalArgumentException("destination matrix must not be an operand of matrix multiplication");
+        }
+        Arrays.fill(d, 0.0);
+        multiplyKernel(a, b, d, nRows(), nCols(), other.nCols());
+        return dest;
+    }
+
+    @Override
+    public Vector multiplyInto(Vector other, Vector dest) throws IllegalArgumentException {
+        double[] a = denseData();
+        double[] v = ArrayVector.denseDataOf(other);
+        double[] d = ArrayVector.denseDataOf(dest);
+        if (a == null || v == null || d == null) {
+            if (stridedData() == null || !ArrayVector.isStrided(other) || !ArrayVector.isStrided(dest)) {
+                return Matrix.super.multiplyInto(other, dest);
+            }
+            if (nCols() != other.length()) {
+                throw new IllegalArgumentException("invalid vector length for matrix-vector multiplication");
+            }
+            if (dest.length() != nRows()) {
+                throw new IllegalArgumentException(
+                        "invalid destination vector length for matrix-vector multiplication");
+            }
+            if (dest == other) {
+                throw new IllegalArgumentException(
+                        "destination vector must not be an operand of matrix-vector multiplication");
+            }
+            double[] z = ((ArrayVector) dest).stridedData();
+            if (z == stridedData() || z == ((ArrayVector) other).stridedData()) {
+                // The destination may overlap an operand (e.g. it is a view of one), so compute into a temporary.
+                double[] temp = new double[nRows()];
+                multiplyStrided(this, (ArrayVector) other, new ArrayVector(temp));
+                for (int i = 0; i < temp.length; ++i) {
+                    dest.set(i, temp[i]);
+                }
+                return dest;
+            }
+            multiplyStrided(this, (ArrayVector) other, (ArrayVector) dest);
+            return dest;
+        }
+        if (nCols() != other.length()) {
+            throw new IllegalArgumentException("invalid vector length for matrix-vector multiplication");
+        }
+        if (dest.length() != nRows()) {
+            throw new IllegalArgumentException("invalid destination vector length for matrix-vector multiplication");
+        }
+        if (d == v) {
+            throw new IllegalArgumentException(
+                    "destination vector must not be an operand of matrix-vector multiplication");
+        }
+        ParallelKernels.multiplyVector(a, v, d, nRows(), nCols());
+        return dest;
+    }
+
+    @Override
+    public Matrix transposeInto(Matrix dest) throws IllegalArgumentException {
+        double[] a = denseData();
+        double[] d = denseDataOf(dest);
+        if (a == null || d == null) {
+            return Matrix.super.transposeInto(dest);
+        }
+        if (dest.nRows() != nCols() || dest.nCols() != nRows()) {
+            throw new IllegalArgumentException("invalid destination matrix size for transposition");
+        }
+        if (d == a) {
+            throw new IllegalArgumentException("destination matrix must not be the matrix being transposed");
+        }
+        transposeKernel(a, d, nRows(), nCols());
+        return dest;
+    }
+
+    @Override
+    public Matrix copyInto(Matrix dest) throws IllegalArgumentException {
+        double[] a = denseData();
+        double[] d = denseDataOf(dest);
+        if (a == null || d == null) {
+            return Matrix.super.copyInto(dest);
+        }
+        if (!matchingSize(dest)) {
+            throw new IllegalArgumentException("destination matrix size must be identical for copying");
+        }
+        System.arraycopy(a, 0, d, 0, a.length);
+        return dest;
+    }
+
+    /**
+     * Compute {@code d = a + scale * b} element by element in row-major order, for matrices whose elements are all
+     * {@linkplain ArrayMatrix#stridedData() strided}. As for the generic implementation, {@code d} may be {@code a} or
+     * {@code b}.
+     */
+    private static void addStrided(ArrayMatrix a, ArrayMatrix b, double scale, ArrayMatrix d) {
+        double[] x = a.stridedData();
+        double[] y = b.stridedData();
+        double[] z = d.stridedData();
+        int aCs = a.colStride();
+        int bCs = b.colStride();
+        int dCs = d.colStride();
+        for (int r = 0; r < a.nRows(); ++r) {
+            int i = a.stridedOffset() + r * a.rowStride();
+            int j = b.stridedOffset() + r * b.rowStride();
+            int k = d.stridedOffset() + r * d.rowStride();
+            for (int c = 0; c < a.nCols(); ++c, i += aCs, j += bCs, k += dCs) {
+                z[k] = x[i] + scale * y[j];
+            }
+        }
+    }
+
+    /**
+     * Compute {@code d = a * b} for matrices whose elements are all {@linkplain ArrayMatrix#stridedData() strided}.
+     * {@code d} must not share elements with {@code a} or {@code b}; callers check that it doesn't share their arrays.
+     */
+    private static void multiplyStrided(ArrayMatrix a, ArrayMatrix b, ArrayMatrix d) {
+        double[] x = a.stridedData();
+        double[] y = b.stridedData();
+        double[] z = d.stridedData();
+        int n = a.nRows();
+        int m = a.nCols();
+        int p = b.nCols();
+        int bRs = b.rowStride();
+        int bCs = b.colStride();
+        int dCs = d.colStride();
+        for (int r = 0; r < n; ++r) {
+            int dRow = d.stridedOffset() + r * d.rowStride();
+            for (int c = 0, k = dRow; c < p; ++c, k += dCs) {
+                z[k] = 0.0;
+            }
+            // Accumulating row by row keeps the innermost loop walking along rows of b and d.
+            int i = a.stridedOffset() + r * a.rowStride();
+            for (int l = 0; l < m; ++l, i += a.colStride()) {
+                double ail = x[i];
+                int j = b.stridedOffset() + l * bRs;
+                for (int c = 0, k = dRow; c < p; ++c, j += bCs, k += dCs) {
+                    z[k] += ail * y[j];
+                }
+            }
+        }
+    }
+
+    /**
+     * Compute {@code d = a * v} for a matrix and vectors whose elements are all strided (see
+     * {@link ArrayMatrix#stridedData() stridedData} and {@link ArrayVector#stridedData() ArrayVector.stridedData}).
+     * {@code d} must not share elements with {@code a} or {@code v}.
+     */
+    private static void multiplyStrided(ArrayMatrix a, ArrayVector v, ArrayVector d) {
+        double[] x = a.stridedData();
+        double[] y = v.stridedData();
+        double[] z = d.stridedData();
+        int aCs = a.colStride();
+        int vStride = v.stride();
+        for (int r = 0; r < a.nRows(); ++r) {
+            double sum = 0.0;
+            int i = a.stridedOffset() + r * a.rowStride();
+            int j = v.stridedOffset();
+            for (int c = 0; c < a.nCols(); ++c, i += aCs, j += vStride) {
+                sum += x[i] * y[j];
+            }
+            z[d.stridedOffset() + r * d.stride()] = sum;
+        }
+    }
+
+    /**
+     * Compute {@code c += a * b}, where {@code a} is an {@code n}x{@code m} matrix, {@code b} is an {@code m}x{@code p}
+     * matrix, and {@code c} is an {@code n}x{@code p} matrix, all stored in row-major flat arrays. This runs in parallel
+     * if the operands are large enough; see {@link ArrayMatrix#setParallelPool(ForkJoinPool) setParallelPool}.
+     */
+    static void multiplyKernel(double[] a, double[] b, double[] c, int n, int m, int p) {
+        ParallelKernels.multiply(a, b, c, n, m, p);
+    }
+
+    /**
+     * Compute rows {@code r0} (inclusive) to {@code r1} (exclusive) of {@code c += a * b}; see
+     * {@link ArrayMatrix#multiplyKernel(double[], double[], double[], int, int, int) multiplyKernel}.
+     */
+    static void multiplyRows(double[] a, double[] b, double[] c, int n, int m, int p, int r0, int r1) {
+        if (r1 - r0 <= BLOCK_SIZE && m <= BLOCK_SIZE && p <= BLOCK_SIZE) {
+            // Everything already fits in a block; skip the tiling loops.
+            multiplyBlock(a, b, c, m, p, r0, r1, 0, m, 0, p);
+            return;
+        }
+        for (int i0 = r0; i0 < r1; i0 += BLOCK_SIZE) {
+            int i1 = Math.min(i0 + BLOCK_SIZE, r1);
+            for (int k0 = 0; k0 < m; k0 += BLOCK_SIZE) {
+                int k1 = Math.min(k0 + BLOCK_SIZE, m);
+                for (int j0 = 0; j0 < p; j0 += BLOCK_SIZE) {
+                    multiplyBlock(a, b, c, m, p, i0, i1, k0, k1, j0, Math.min(j0 + BLOCK_SIZE, p));
+                }
+            }
+        }
+    }
+
+    private static void multiplyBlock(double[] a, double[] b, double[] c, int m, int p,
+                                      int i0, int i1, int k0, int k1, int j0, int j1) {
+        for (int i = i0; i < i1; ++i) {
+            int aRow = i * m;
+            int cRow = i * p;
+            for (int k = k0; k < k1; ++k) {
+                double aik = a[aRow + k];
+                int bRow = k * p;
+                for (int j = j0; j < j1; ++j) {
+                    c[cRow + j] += aik * b[bRow + j];
+                }
+            }
+        }
+    }
+
+    /**
+     * Write the transpose of {@code a}, an {@code n}x{@code m} matrix, into {@code t}, both stored in row-major flat
+     * arrays. This is tiled into blocks so that neither the reads nor the writes thrash the cache for large matrices,
+     * and runs in parallel if the matrix is large enough.
+     */
+    static void transposeKernel(double[] a, double[] t, int n, int m) {
+        ParallelKernels.transpose(a, t, n, m);
+    }
+
+    /**
+     * Transpose rows {@code r0} (inclusive) to {@code r1} (exclusive) of {@code a}; see
+     * {@link ArrayMatrix#transposeKernel(double[], double[], int, int) transposeKernel}.
+     */
+    static void transposeRows(double[] a, double[] t, int n, int m, int r0, int r1) {
+        for (int i0 = r0; i0 < r1; i0 += BLOCK_SIZE) {
+            int i1 = Math.min(i0 + BLOCK_SIZE, r1);
+            for (int j0 = 0; j0 < m; j0 += BLOCK_SIZE) {
+                int j1 = Math.min(j0 + BLOCK_SIZE, m);
+                for (int i = i0; i < i1; ++i) {
+                    for (int j = j0; j < j1; ++j) {
+                        t[j * n + i] = a[i * m + j];
+                    }
+                }
+            }
+        }
+    }
+
+    @Override
+    public double sum() {
+        double[] a = denseData();
+        return a != null ? ParallelKernels.sum(a) : Matrix.super.sum();
+    }
+
+    @Override
+    public double frobeniusNorm() {
+        double[] a = denseData();
+        return a != null ? Math.sqrt(ParallelKernels.sumOfSquares(a)) : Matrix.super.frobeniusNorm();
     }
 
     @Override
     public double get(int row, int col) throws IndexOutOfBoundsException {
         row = CalcUtil.normalizeArrayIndexRestrictive(row, nRows());
         col = CalcUtil.normalizeArrayIndexRestrictive(col, nCols());
-        return data[row][col];
+        return data[row * nCols + col];
     }
 
     @Override
     public void set(int row, int col, double value) throws IndexOutOfBoundsException {
         row = CalcUtil.normalizeArrayIndexRestrictive(row, nRows());
         col = CalcUtil.normalizeArrayIndexRestrictive(col, nCols());
-        data[row][col] = value;
+        data[row * nCols + col] = value;
     }
 
     @Override
@@ -135,7 +670,7 @@ public class ArrayMatrix implements Matrix {
         // the matrix twice.
         double[][] copy = new double[nRows()][];
         for (int r = 0; r < nRows(); ++r) {
-            copy[r] = Arrays.copyOf(data[r], nCols());
+            copy[r] = Arrays.copyOfRange(data, r * nCols, (r + 1) * nCols);
         }
         return copy;
     }
@@ -146,7 +681,9 @@ public class ArrayMatrix implements Matrix {
             throw new IllegalArgumentException("row must be same width as matrix");
         }
         rowIdx = CalcUtil.normalizeArrayIndexRestrictive(rowIdx, nRows());
-        data[rowIdx] = row.toArray();
+        for (int c = 0; c < nCols; ++c) {
+            data[rowIdx * nCols + c] = row.get(c);
+        }
     }
 
     @Override
@@ -167,7 +704,19 @@ public class ArrayMatrix implements Matrix {
         startCol = CalcUtil.normalizeArrayIndex(startCol, nCols());
         endRow = CalcUtil.normalizeArrayIndex(endRow, nRows());
         endCol = CalcUtil.normalizeArrayIndex(endCol, nCols());
-        return new MatrixView(this, startRow, startCol, endRow, endCol);
+        double[] a = denseData();
+        if (a == null) {
+            return new MatrixView(this, startRow, startCol, endRow, endCol);
+        }
+        // A contiguous block is just an offset and a pair of strides into the backing array.
+        return new StridedMatrixView(
+                a,
+                startRow * nCols() + startCol,
+                nCols(),
+                1,
+                Math.max(endRow - startRow, 0),
+                Math.max(endCol - startCol, 0)
+        );
     }
 
     @Override
@@ -183,12 +732,22 @@ public class ArrayMatrix implements Matrix {
 
     @Override
     public Vector viewRow(int row) throws IndexOutOfBoundsException {
-        return MatrixVectorView.newRowView(this, CalcUtil.normalizeArrayIndexRestrictive(row, nRows()));
+        row = CalcUtil.normalizeArrayIndexRestrictive(row, nRows());
+        double[] a = denseData();
+        if (a == null) {
+            return MatrixVectorView.newRowView(this, row);
+        }
+        return new StridedVectorView(a, row * nCols(), 1, nCols());
     }
 
     @Override
     public Vector viewCol(int col) throws IndexOutOfBoundsException {
-        return MatrixVectorView.newColView(this, CalcUtil.normalizeArrayIndexRestrictive(col, nCols()));
+        col = CalcUtil.normalizeArrayIndexRestrictive(col, nCols());
+        double[] a = denseData();
+        if (a == null) {
+            return MatrixVectorView.newColView(this, col);
+        }
+        return new StridedVectorView(a, col, nCols(), nRows());
     }
 
     @Override
@@ -198,14 +757,13 @@ public class ArrayMatrix implements Matrix {
         startCol = CalcUtil.normalizeArrayIndex(startCol, nCols());
         endRow = CalcUtil.normalizeArrayIndex(endRow, nRows());
         endCol = CalcUtil.normalizeArrayIndex(endCol, nCols());
-        int nRows = endRow - startRow;
-        double[][] newData = new double[nRows > 0 ? nRows : 0][];
-        if ((endCol - startCol) >= 0) {  // Arrays.copyOfRange(double[], int, int) errors otherwise
-            for (int r = startRow; r < endRow; ++r) {
-                newData[r - startRow] = Arrays.copyOfRange(data[r], startCol, endCol);
-            }
+        int nRows = Math.max(endRow - startRow, 0);
+        int nCols = Math.max(endCol - startCol, 0);
+        double[] newData = new double[nRows * nCols];
+        for (int r = 0; r < nRows; ++r) {
+            System.arraycopy(data, (startRow + r) * this.nCols + startCol, newData, r * nCols, nCols);
         }
-        return new ArrayMatrix(newData);
+        return new ArrayMatrix(nRows, nCols, newData);
     }
 
     @Override
@@ -223,7 +781,8 @@ public class ArrayMatrix implements Matrix {
 
     @Override
     public Vector copyRow(int row) throws IndexOutOfBoundsException {
-        return new ArrayVector(Arrays.copyOf(data[CalcUtil.normalizeArrayIndexRestrictive(row, nRows())], nCols()));
+        row = CalcUtil.normalizeArrayIndexRestrictive(row, nRows());
+        return new ArrayVector(Arrays.copyOfRange(data, row * nCols, (row + 1) * nCols));
     }
 
     @Override
@@ -243,17 +802,18 @@ public class ArrayMatrix implements Matrix {
         startCol = CalcUtil.normalizeArrayIndex(startCol, nCols());
         endRow = CalcUtil.normalizeArrayIndex(endRow, nRows());
         endCol = CalcUtil.normalizeArrayIndex(endCol, nCols());
-        for (int c = startCol; c < nCols(); ++c) {
-            visitor.visit(startRow, c, get(startRow, c));
-        }
-        for (int r = startRow + 1; r < endRow - 1; ++r) {
-            for (int c = 0; c < nCols(); ++c) {
-                visitor.visit(r, c, get(r, c));
+        // Row-wise traversal is a single linear pass over the row-major indices.
+        double[] a = denseData();
+        int nCols = nCols();
+        int r = startRow;
+        int c = startCol;
+        for (int i = startRow * nCols + startCol; i < (endRow - 1) * nCols + endCol; ++i) {
+            visitor.visit(r, c, a != null ? a[i] : get(r, c));
+            if (++c == nCols) {
+                c = 0;
+                ++r;
             }
         }
-        for (int c = 0; c < endCol; ++c) {
-            visitor.visit(endRow - 1, c, get(endRow - 1, c));
-        }
     }
 
     @Override
@@ -301,16 +861,21 @@ public class ArrayMatrix implements Matrix {
         startCol = CalcUtil.normalizeArrayIndex(startCol, nCols());
         endRow = CalcUtil.normalizeArrayIndex(endRow, nRows());
         endCol = CalcUtil.normalizeArrayIndex(endCol, nCols());
-        for (int c = startCol; c < nCols(); ++c) {
-            set(startRow, c, mutator.mutate(startRow, c, get(startRow, c)));
-        }
-        for (int r = startRow + 1; r < endRow - 1; ++r) {
-            for (int c = 0; c < nCols(); ++c) {
+        // Row-wise traversal is a single linear pass over the row-major indices.
+        double[] a = denseData();
+        int nCols = nCols();
+        int r = startRow;
+        int c = startCol;
+        for (int i = startRow * nCols + startCol; i < (endRow - 1) * nCols + endCol; ++i) {
+            if (a != null) {
+                a[i] = mutator.mutate(r, c, a[i]);
+            } else {
                 set(r, c, mutator.mutate(r, c, get(r, c)));
             }
-        }
-        for (int c = 0; c < endCol; ++c) {
-            set(endRow - 1, c, mutator.mutate(endRow - 1, c, get(endRow - 1, c)));
+            if (++c == nCols) {
+                c = 0;
+                ++r;
+            }
         }
     }
 
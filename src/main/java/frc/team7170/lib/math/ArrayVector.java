@@ -24,6 +24,41 @@ public class ArrayVector implements Vector {
         this.data = data;
     }
 
+    /**
+     * Get the array backing this vector, or {@code null} if this vector is not backed by its own array (i.e. it is a
+     * view).
+     * @return the array backing this vector, or {@code null}.
+     */
+    double[] denseData() {
+        return data;
+    }
+
+    static double[] denseDataOf(Vector vector) {
+        return vector instanceof ArrayVector ? ((ArrayVector) vector).denseData() : null;
+    }
+
+    /**
+     * Get the array holding the elements of this vector, where element {@code i} is at index
+     * {@code stridedOffset() + i * stride()}, or {@code null} if its elements are not laid out that way (i.e. it is a
+     * view of arbitrary indices).
+     * @return the array holding the elements of this vector, or {@code null}.
+     */
+    double[] stridedData() {
+        return data;
+    }
+
+    int stridedOffset() {
+        return 0;
+    }
+
+    int stride() {
+        return 1;
+    }
+
+    static boolean isStrided(Vector vector) {
+        return vector instanceof ArrayVector && ((ArrayVector) vector).stridedData() != null;
+    }
+
     private boolean matchingSize(Vector other) {
         return length() == other.length();
     }
@@ -35,6 +70,10 @@ public class ArrayVector implements Vector {
 
     @Override
     public double norm() {
+        double[] a = denseData();
+        if (a != null) {
+            return Math.sqrt(ParallelKernels.sumOfSquares(a));
+        }
         double norm = 0.0;
         // Can't use visit here because norm is not (effectively) final.
         for (int i = 0; i < length(); ++i) {
@@ -93,6 +132,11 @@ public class ArrayVector implements Vector {
         if (!matchingSize(other)) {
             throw new IllegalArgumentException("vector size must be identical for dot product");
         }
+        double[] a = denseData();
+        double[] b = denseDataOf(other);
+        if (a != null && b != null) {
+            return ParallelKernels.dot(a, b);
+        }
         double dot = 0.0;
         // Can't use visit here because dot is not (effectively) final.
         for (int i = 0; i < length(); ++i) {
@@ -108,6 +152,44 @@ public class ArrayVector implements Vector {
         return new ArrayVector(newData);
     }
 
+    @Override
+    public Vector addInPlace(Vector other) throws IllegalArgumentException {
+        double[] a = denseData();
+        double[] b = denseDataOf(other);
+        if (a == null || b == null) {
+            return Vector.super.addInPlace(other);
+        }
+        if (!matchingSize(other)) {
+            throw new IllegalArgumentException("vector size must be identical for addition");
+        }
+        ParallelKernels.add(a, b, a);
+        return this;
+    }
+
+    @Override
+    public Vector subtractInPlace(Vector other) throws IllegalArgumentException {
+        double[] a = denseData();
+        double[] b = denseDataOf(other);
+        if (a == null || b == null) {
+            return Vector.super.subtractInPlace(other);
+        }
+        if (!matchingSize(other)) {
+            throw new IllegalArgumentException("vector size must be identical for subtraction");
+        }
+        ParallelKernels.subtract(a, b, a);
+        return this;
+    }
+
+    @Override
+    public Vector scaleInPlace(double value) {
+        double[] a = denseData();
+        if (a == null) {
+            return Vector.super.scaleInPlace(value);
+        }
+        ParallelKernels.multiply(a, value, a);
+        return this;
+    }
+
     @Override
     public double get(int idx) throws IndexOutOfBoundsException {
         idx = CalcUtil.normalizeArrayIndexRestrictive(idx, length());
@@ -127,11 +209,13 @@ public class ArrayVector implements Vector {
 
     @Override
     public Vector view(int startIdx, int endIdx) {
-        return new VectorView(
-                this,
-                CalcUtil.normalizeArrayIndex(startIdx, length()),
-                CalcUtil.normalizeArrayIndex(endIdx, length())
-        );
+        startIdx = CalcUtil.normalizeArrayIndex(startIdx, length());
+        endIdx = CalcUtil.normalizeArrayIndex(endIdx, length());
+        double[] a = denseData();
+        if (a == null) {
+            return new VectorView(this, startIdx, endIdx);
+        }
+        return new StridedVectorView(a, startIdx, 1, Math.max(endIdx - startIdx, 0));
     }
 
     @Override
@@ -178,14 +262,12 @@ public class ArrayVector implements Vector {
 
     @Override
     public Matrix asRowMatrix() {
-        double[][] newData = new double[1][];
-        newData[0] = Arrays.copyOf(data, length());
-        return new ArrayMatrix(newData);
+        return new ArrayMatrix(1, length(), Arrays.copyOf(data, length()));
     }
 
     @Override
     public Matrix asColMatrix() {
-        return asRowMatrix().transpose();
+        return new ArrayMatrix(length(), 1, Arrays.copyOf(data, length()));
     }
 
     @Override
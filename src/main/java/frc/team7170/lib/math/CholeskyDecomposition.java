@@ -0,0 +1,295 @@
+package frc.team7170.lib.math;
+
+import java.util.Arrays;
+
+/**
+ * <p>
+ * The Cholesky decomposition of a symmetric positive definite matrix {@code A}; that is, a lower triangular matrix
+ * {@code L} with a positive diagonal such that {@code A = LL^T}.
+ * </p>
+ * <p>
+ * Only the lower triangle (including the diagonal) of a decomposed matrix is read; its upper triangle is assumed to
+ * mirror it. This means a matrix that is symmetric only up to rounding error (e.g. a covariance matrix propagated
+ * through a Kalman filter) is decomposed as if it were exactly symmetric. A matrix that is not positive definite is
+ * detected by a non-positive diagonal element during decomposition.
+ * </p>
+ * <p>
+ * A {@code CholeskyDecomposition} is created for a fixed size and can be reused to decompose any number of matrices of
+ * that size with {@link CholeskyDecomposition#decompose(Matrix) decompose}, which does not allocate. Solving into a
+ * destination that is an {@link ArrayMatrix ArrayMatrix} or {@link ArrayVector ArrayVector} does not allocate either;
+ * other destinations use an internal work array that is grown as needed and then reused.
+ * </p>
+ *
+ * @apiNote This class is not thread-safe.
+ * @see LUDecomposition
+ */
+public final class CholeskyDecomposition {
+
+    private final int n;
+    private final double[] l;
+    private boolean decomposed = false;
+    private boolean positiveDefinite;
+    private double[] work = new double[0];
+
+    /**
+     * @param n the number of rows and columns of the matrices to decompose.
+     * @throws IllegalArgumentException if the given size is negative.
+     */
+    public CholeskyDecomposition(int n) {
+        if (n < 0) {
+            throw new IllegalArgumentException("size must be non-negative");
+        }
+        this.n = n;
+        l = new double[n * n];
+    }
+
+    /**
+     * Create a {@code CholeskyDecomposition} of the size of the given matrix and decompose it.
+     * @param matrix the matrix to decompose. It is unchanged.
+     * @throws IllegalArgumentException if the given matrix is not square.
+     */
+    public CholeskyDecomposition(Matrix matrix) throws IllegalArgumentException {
+        this(matrix.nRows());
+        decompose(matrix);
+    }
+
+    /**
+     * Decompose the given matrix, replacing any previous decomposition.
+     * @param matrix the matrix to decompose. It is unchanged.
+     * @return this {@code CholeskyDecomposition}.
+     * @throws IllegalArgumentException if the given matrix is not {@code n}x{@code n}.
+     */
+    public CholeskyDecomposition decompose(Matrix matrix) throws IllegalArgumentException {
+        if (matrix.nRows() != n || matrix.nCols() != n) {
+            throw new IllegalArgumentException("matrix must be square and of the decomposition's size");
+        }
+        ArrayMatrix.copyToArray(matrix, l);
+        positiveDefinite = true;
+        for (int j = 0; j < n; ++j) {
+            int jRow = j * n;
+            for (int k = 0; k < j; ++k) {
+                int kRow = k * n;
+                double s = l[jRow + k];
+                for (int i = 0; i < k; ++i) {
+                    s -= l[kRow + i] * l[jRow + i];
+                }
+                l[jRow + k] = s / l[kRow + k];
+            }
+            double d = l[jRow + j];
+            for (int k = 0; k < j; ++k) {
+                d -= l[jRow + k] * l[jRow + k];
+            }
+            if (!(d > 0.0)) {
+                positiveDefinite = false;
+                break;
+            }
+            l[jRow + j] = Math.sqrt(d);
+            // Clear the upper triangle, which still holds the decomposed matrix.
+            Arrays.fill(l, jRow + j + 1, jRow + n, 0.0);
+        }
+        decomposed = true;
+        return this;
+    }
+
+    /**
+     * Get the number of rows and columns of the matrices this decomposition is for.
+     * @return the number of rows and columns of the matrices this decomposition is for.
+     */
+    public int size() {
+        return n;
+    }
+
+    /**
+     * Get whether or not the most recently decomposed matrix is (symmetric) positive definite. If not, the
+     * decomposition is incomplete and cannot be used.
+     * @return whether or not the most recently decomposed matrix is positive definite.
+     * @throws IllegalStateException if no matrix has been decomposed.
+     */
+    public boolean isPositiveDefinite() throws IllegalStateException {
+        checkDecomposed();
+        return positiveDefinite;
+    }
+
+    /**
+     * Calculate and return the determinant of the most recently decomposed matrix.
+     * @return the determinant of the most recently decomposed matrix.
+     * @throws IllegalStateException if no matrix has been decomposed or the decomposed matrix is not positive
+     * definite.
+     */
+    public double determinant() throws IllegalStateException {
+        checkPositiveDefinite();
+        double det = 1.0;
+        for (int i = 0; i < n; ++i) {
+            det *= l[i * n + i];
+        }
+        return det * det;
+    }
+
+    /**
+     * Get the lower triangular factor {@code L}.
+     * @return a new matrix holding {@code L}.
+     * @throws IllegalStateException if no matrix has been decomposed or the decomposed matrix is not positive
+     * definite.
+     */
+    public Matrix getL() throws IllegalStateException {
+        checkPositiveDefinite();
+        return new ArrayMatrix(n, n, l.clone());
+    }
+
+    /**
+     * Solve {@code AX = B} for {@code X}, where {@code A} is the most recently decomposed matrix.
+     * @param b the right-hand side {@code B}, which must have {@code n} rows. It is unchanged.
+     * @return a new matrix holding {@code X}.
+     * @throws IllegalArgumentException if the given matrix does not have {@code n} rows.
+     * @throws IllegalStateException if no matrix has been decomposed or the decomposed matrix is not positive
+     * definite.
+     */
+    public Matrix solve(Matrix b) throws IllegalArgumentException, IllegalStateException {
+        return solveInto(b, new ArrayMatrix(n, b.nCols()));
+    }
+
+    /**
+     * Solve {@code AX = B} for {@code X}, where {@code A} is the most recently decomposed matrix, and write {@code X}
+     * into the given destination matrix.
+     * @param b the right-hand side {@code B}, which must have {@code n} rows. It is unchanged unless it is the
+     *          destination.
+     * @param dest the matrix to write {@code X} into. It may be {@code B}.
+     * @return the destination matrix.
+     * @throws IllegalArgumentException if the given matrix does not have {@code n} rows or the destination matrix is
+     * not the same size as the given matrix.
+     * @throws IllegalStateException if no matrix has been decomposed or the decomposed matrix is not positive
+     * definite.
+     */
+    public Matrix solveInto(Matrix b, Matrix dest) throws IllegalArgumentException, IllegalStateException {
+        checkPositiveDefinite();
+        if (b.nRows() != n) {
+            throw new IllegalArgumentException("right-hand side must have as many rows as the decomposed matrix");
+        }
+        if (dest.nRows() != n || dest.nCols() != b.nCols()) {
+            throw new IllegalArgumentException("destination matrix size must be identical to right-hand side size");
+        }
+        int k = b.nCols();
+        double[] d = ArrayMatrix.denseDataOf(dest);
+        double[] x = d != null ? d : work(n * k);
+        // Unlike LU, there is no permutation, so B can be copied wholesale (and may even be the destination).
+        if (x != ArrayMatrix.denseDataOf(b)) {
+            ArrayMatrix.copyToArray(b, x);
+        }
+        substitute(x, k);
+        if (d == null) {
+            ArrayMatrix.copyFromArray(x, dest);
+        }
+        return dest;
+    }
+
+    /**
+     * Solve {@code Ax = b} for {@code x}, where {@code A} is the most recently decomposed matrix.
+     * @param b the right-hand side {@code b}, which must have length {@code n}. It is unchanged.
+     * @return a new vector holding {@code x}.
+     * @throws IllegalArgumentException if the given vector does not have length {@code n}.
+     * @throws IllegalStateException if no matrix has been decomposed or the decomposed matrix is not positive
+     * definite.
+     */
+    public Vector solve(Vector b) throws IllegalArgumentException, IllegalStateException {
+        return solveInto(b, new ArrayVector(n));
+    }
+
+    /**
+     * Solve {@code Ax = b} for {@code x}, where {@code A} is the most recently decomposed matrix, and write {@code x}
+     * into the given destination vector.
+     * @param b the right-hand side {@code b}, which must have length {@code n}. It is unchanged unless it is the
+     *          destination.
+     * @param dest the vector to write {@code x} into. It may be {@code b}.
+     * @return the destination vector.
+     * @throws IllegalArgumentException if the given vector or the destination vector does not have length {@code n}.
+     * @throws IllegalStateException if no matrix has been decomposed or the decomposed matrix is not positive
+     * definite.
+     */
+    public Vector solveInto(Vector b, Vector dest) throws IllegalArgumentException, IllegalStateException {
+        checkPositiveDefinite();
+        if (b.length() != n || dest.length() != n) {
+            throw new IllegalArgumentException("vector length must be identical to decomposed matrix size");
+        }
+        double[] d = ArrayVector.denseDataOf(dest);
+        double[] x = d != null ? d : work(n);
+        for (int i = 0; i < n; ++i) {
+            x[i] = b.get(i);
+        }
+        substitute(x, 1);
+        if (d == null) {
+            for (int i = 0; i < n; ++i) {
+                dest.set(i, x[i]);
+            }
+        }
+        return dest;
+    }
+
+    /**
+     * Calculate and return the inverse of the most recently decomposed matrix.
+     * @return a new matrix holding the inverse.
+     * @throws IllegalStateException if no matrix has been decomposed or the decomposed matrix is not positive
+     * definite.
+     */
+    public Matrix inverse() throws IllegalStateException {
+        checkPositiveDefinite();
+        double[] x = new double[n * n];
+        for (int i = 0; i < n; ++i) {
+            x[i * n + i] = 1.0;
+        }
+        substitute(x, n);
+        return new ArrayMatrix(n, n, x);
+    }
+
+    /**
+     * Overwrite {@code x}, an {@code n}x{@code k} row-major matrix holding {@code B}, with the solution of
+     * {@code LL^TX = B}.
+     */
+    private void substitute(double[] x, int k) {
+        // Forward substitution with L.
+        for (int i = 0; i < n; ++i) {
+            int iRow = i * n;
+            for (int p = 0; p < i; ++p) {
+                double lip = l[iRow + p];
+                for (int j = 0; j < k; ++j) {
+                    x[i * k + j] -= lip * x[p * k + j];
+                }
+            }
+            double diag = l[iRow + i];
+            for (int j = 0; j < k; ++j) {
+                x[i * k + j] /= diag;
+            }
+        }
+        // Back substitution with L^T.
+        for (int i = n - 1; i >= 0; --i) {
+            for (int p = i + 1; p < n; ++p) {
+                double lpi = l[p * n + i];
+                for (int j = 0; j < k; ++j) {
+                    x[i * k + j] -= lpi * x[p * k + j];
+                }
+            }
+            double diag = l[i * n + i];
+            for (int j = 0; j < k; ++j) {
+                x[i * k + j] /= diag;
+            }
+        }
+    }
+
+    private double[] work(int length) {
+        if (work.length < length) {
+            work = new double[length];
+        }
+        return work;
+    }
+
+    private void checkDecomposed() {
+        if (!decomposed) {
+            throw new IllegalStateException("no matrix has been decomposed");
+        }
+    }
+
+    private void checkPositiveDefinite() {
+        if (!isPositiveDefinite()) {
+            throw new IllegalStateException("matrix is not positive definite");
+        }
+    }
+}
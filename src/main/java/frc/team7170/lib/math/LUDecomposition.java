@@ -0,0 +1,393 @@
+package frc.team7170.lib.math;
+
+import java.util.Arrays;
+
+/**
+ * <p>
+ * The LU decomposition, with partial (row) pivoting, of a square matrix {@code A}; that is, a unit lower triangular
+ * matrix {@code L}, an upper triangular matrix {@code U}, and a permutation matrix {@code P} such that
+ * {@code PA = LU}.
+ * </p>
+ * <p>
+ * A {@code LUDecomposition} is created for a fixed size and can be reused to decompose any number of matrices of that
+ * size with {@link LUDecomposition#decompose(Matrix) decompose}, which does not allocate. {@code L} and {@code U} are
+ * stored together in a single row-major flat array (the unit diagonal of {@code L} is implicit). Solving into a
+ * destination that is an {@link ArrayMatrix ArrayMatrix} or {@link ArrayVector ArrayVector} does not allocate either;
+ * other destinations use an internal work array that is grown as needed and then reused.
+ * </p>
+ * <p>
+ * The LU decomposition is the general-purpose way to {@linkplain LUDecomposition#solve(Matrix) solve} square linear
+ * systems and to compute {@linkplain LUDecomposition#inverse() inverses} and
+ * {@linkplain LUDecomposition#determinant() determinants}. For symmetric positive definite matrices,
+ * {@link CholeskyDecomposition CholeskyDecomposition} is about twice as fast; for least-squares problems, use
+ * {@link QRDecomposition QRDecomposition}.
+ * </p>
+ *
+ * @apiNote This class is not thread-safe.
+ * @see Matrix#solve(Matrix)
+ * @see Matrix#inverse()
+ * @see Matrix#determinant()
+ */
+public final class LUDecomposition {
+
+    // Machine epsilon for doubles.
+    private static final double EPSILON = Math.ulp(1.0);
+
+    private final int n;
+    private final double[] lu;
+    private final int[] pivot;
+    private int pivotSign;
+    private boolean decomposed = false;
+    private boolean singular;
+    private double[] work = new double[0];
+
+    /**
+     * @param n the number of rows and columns of the matrices to decompose.
+     * @throws IllegalArgumentException if the given size is negative.
+     */
+    public LUDecomposition(int n) {
+        if (n < 0) {
+            throw new IllegalArgumentException("size must be non-negative");
+        }
+        this.n = n;
+        lu = new double[n * n];
+        pivot = new int[n];
+    }
+
+    /**
+     * Create a {@code LUDecomposition} of the size of the given matrix and decompose it.
+     * @param matrix the matrix to decompose. It is unchanged.
+     * @throws IllegalArgumentException if the given matrix is not square.
+     */
+    public LUDecomposition(Matrix matrix) throws IllegalArgumentException {
+        this(matrix.nRows());
+        decompose(matrix);
+    }
+
+    /**
+     * Decompose the given matrix, replacing any previous decomposition.
+     * @param matrix the matrix to decompose. It is unchanged.
+     * @return this {@code LUDecomposition}.
+     * @throws IllegalArgumentException if the given matrix is not {@code n}x{@code n}.
+     */
+    public LUDecomposition decompose(Matrix matrix) throws IllegalArgumentException {
+        if (matrix.nRows() != n || matrix.nCols() != n) {
+            throw new IllegalArgumentException("matrix must be square and of the decomposition's size");
+        }
+        ArrayMatrix.copyToArray(matrix, lu);
+        for (int i = 0; i < n; ++i) {
+            pivot[i] = i;
+        }
+        pivotSign = 1;
+        singular = false;
+        // Pivots this small relative to the largest element are indistinguishable from rounding error, so the matrix is
+        // treated as singular rather than dividing by them and returning garbage.
+        double maxAbs = 0.0;
+        for (int i = 0; i < n * n; ++i) {
+            maxAbs = Math.max(maxAbs, Math.abs(lu[i]));
+        }
+        double tolerance = n * EPSILON * maxAbs;
+        for (int k = 0; k < n; ++k) {
+            // Choose the row with the largest magnitude element in this column as the pivot.
+            int p = k;
+            double max = Math.abs(lu[k * n + k]);
+            for (int i = k + 1; i < n; ++i) {
+                double abs = Math.abs(lu[i * n + k]);
+                if (abs > max) {
+                    max = abs;
+                    p = i;
+                }
+            }
+            if (p != k) {
+                swapRows(lu, n, p, k);
+                int tmp = pivot[p];
+                pivot[p] = pivot[k];
+                pivot[k] = tmp;
+                pivotSign = -pivotSign;
+            }
+            double pivotValue = lu[k * n + k];
+            if (Math.abs(pivotValue) <= tolerance) {
+                singular = true;
+                continue;
+            }
+            int kRow = k * n;
+            for (int i = k + 1; i < n; ++i) {
+                int iRow = i * n;
+                double factor = lu[iRow + k] /= pivotValue;
+                for (int j = k + 1; j < n; ++j) {
+                    lu[iRow + j] -= factor * lu[kRow + j];
+                }
+            }
+        }
+        decomposed = true;
+        return this;
+    }
+
+    private static void swapRows(double[] data, int nCols, int r1, int r2) {
+        int o1 = r1 * nCols;
+        int o2 = r2 * nCols;
+        for (int c = 0; c < nCols; ++c) {
+            double tmp = data[o1 + c];
+            data[o1 + c] = data[o2 + c];
+            data[o2 + c] = tmp;
+        }
+    }
+
+    /**
+     * Get the number of rows and columns of the matrices this decomposition is for.
+     * @return the number of rows and columns of the matrices this decomposition is for.
+     */
+    public int size() {
+        return n;
+    }
+
+    /**
+     * Get whether or not the most recently decomposed matrix is singular; that is, whether it has a pivot no larger in
+     * magnitude than {@code n} times machine epsilon times its largest element in magnitude (so a matrix that is
+     * singular up to rounding error counts as singular).
+     * @return whether or not the most recently decomposed matrix is singular.
+     * @throws IllegalStateException if no matrix has been decomposed.
+     */
+    public boolean isSingular() throws IllegalStateException {
+        checkDecomposed();
+        return singular;
+    }
+
+    /**
+     * Calculate and return the determinant of the most recently decomposed matrix.
+     * @return the determinant of the most recently decomposed matrix.
+     * @throws IllegalStateException if no matrix has been decomposed.
+     */
+    public double determinant() throws IllegalStateException {
+        checkDecomposed();
+        double det = pivotSign;
+        for (int i = 0; i < n; ++i) {
+            det *= lu[i * n + i];
+        }
+        return det;
+    }
+
+    /**
+     * Get the unit lower triangular factor {@code L}.
+     * @return a new matrix holding {@code L}.
+     * @throws IllegalStateException if no matrix has been decomposed.
+     */
+    public Matrix getL() throws IllegalStateException {
+        checkDecomposed();
+        double[] l = new double[n * n];
+        for (int i = 0; i < n; ++i) {
+            System.arraycopy(lu, i * n, l, i * n, i);
+            l[i * n + i] = 1.0;
+        }
+        return new ArrayMatrix(n, n, l);
+    }
+
+    /**
+     * Get the upper triangular factor {@code U}.
+     * @return a new matrix holding {@code U}.
+     * @throws IllegalStateException if no matrix has been decomposed.
+     */
+    public Matrix getU() throws IllegalStateException {
+        checkDecomposed();
+        double[] u = new double[n * n];
+        for (int i = 0; i < n; ++i) {
+            System.arraycopy(lu, i * n + i, u, i * n + i, n - i);
+        }
+        return new ArrayMatrix(n, n, u);
+    }
+
+    /**
+     * Get the row permutation; that is, row {@code i} of {@code PA} is row {@code getPivot()[i]} of {@code A}.
+     * @return a new array holding the row permutation.
+     * @throws IllegalStateException if no matrix has been decomposed.
+     */
+    public int[] getPivot() throws IllegalStateException {
+        checkDecomposed();
+        return pivot.clone();
+    }
+
+    /**
+     * Solve {@code AX = B} for {@code X}, where {@code A} is the most recently decomposed matrix.
+     * @param b the right-hand side {@code B}, which must have {@code n} rows. It is unchanged.
+     * @return a new matrix holding {@code X}.
+     * @throws IllegalArgumentException if the given matrix does not have {@code n} rows.
+     * @throws IllegalStateException if no matrix has been decomposed or the decomposed matrix is singular.
+     */
+    public Matrix solve(Matrix b) throws IllegalArgumentException, IllegalStateException {
+        return solveInto(b, new ArrayMatrix(n, b.nCols()));
+    }
+
+    /**
+     * Solve {@code AX = B} for {@code X}, where {@code A} is the most recently decomposed matrix, and write {@code X}
+     * into the given destination matrix.
+     * @param b the right-hand side {@code B}, which must have {@code n} rows. It is unchanged.
+     * @param dest the matrix to write {@code X} into. It must not be {@code B} or a view sharing data with it.
+     * @return the destination matrix.
+     * @throws IllegalArgumentException if the given matrix does not have {@code n} rows, if the destination matrix is
+     * not the same size as the given matrix, or if the destination matrix is the given matrix.
+     * @throws IllegalStateException if no matrix has been decomposed or the decomposed matrix is singular.
+     */
+    public Matrix solveInto(Matrix b, Matrix dest) throws IllegalArgumentException, IllegalStateException {
+        checkNonsingular();
+        if (b.nRows() != n) {
+            throw new IllegalArgumentException("right-hand side must have as many rows as the decomposed matrix");
+        }
+        if (dest.nRows() != n || dest.nCols() != b.nCols()) {
+            throw new IllegalArgumentException("destination matrix size must be identical to right-hand side size");
+        }
+        if (dest == b) {
+            throw new IllegalArgumentException("destination matrix must not be the right-hand side");
+        }
+        int k = b.nCols();
+        double[] d = ArrayMatrix.denseDataOf(dest);
+        double[] x = d != null ? d : work(n * k);
+        double[] bData = ArrayMatrix.denseDataOf(b);
+        for (int i = 0; i < n; ++i) {
+            if (bData != null) {
+                System.arraycopy(bData, pivot[i] * k, x, i * k, k);
+                continue;
+            }
+            for (int j = 0; j < k; ++j) {
+                x[i * k + j] = b.get(pivot[i], j);
+            }
+        }
+        substitute(x, k);
+        if (d == null) {
+            ArrayMatrix.copyFromArray(x, dest);
+        }
+        return dest;
+    }
+
+    /**
+     * Solve {@code Ax = b} for {@code x}, where {@code A} is the most recently decomposed matrix.
+     * @param b the right-hand side {@code b}, which must have length {@code n}. It is unchanged.
+     * @return a new vector holding {@code x}.
+     * @throws IllegalArgumentException if the given vector does not have length {@code n}.
+     * @throws IllegalStateException if no matrix has been decomposed or the decomposed matrix is singular.
+     */
+    public Vector solve(Vector b) throws IllegalArgumentException, IllegalStateException {
+        return solveInto(b, new ArrayVector(n));
+    }
+
+    /**
+     * Solve {@code Ax = b} for {@code x}, where {@code A} is the most recently decomposed matrix, and write {@code x}
+     * into the given destination vector.
+     * @param b the right-hand side {@code b}, which must have length {@code n}. It is unchanged.
+     * @param dest the vector to write {@code x} into. It must not be {@code b} or a view sharing data with it.
+     * @return the destination vector.
+     * @throws IllegalArgumentException if the given vector or the destination vector does not have length {@code n},
+     * or if the destination vector is the given vector.
+     * @throws IllegalStateException if no matrix has been decomposed or the decomposed matrix is singular.
+     */
+    public Vector solveInto(Vector b, Vector dest) throws IllegalArgumentException, IllegalStateException {
+        checkNonsingular();
+        if (b.length() != n || dest.length() != n) {
+            throw new IllegalArgumentException("vector length must be identical to decomposed matrix size");
+        }
+        if (dest == b) {
+            throw new IllegalArgumentException("destination vector must not be the right-hand side");
+        }
+        double[] d = ArrayVector.denseDataOf(dest);
+        double[] x = d != null ? d : work(n);
+        for (int i = 0; i < n; ++i) {
+            x[i] = b.get(pivot[i]);
+        }
+        substitute(x, 1);
+        if (d == null) {
+            for (int i = 0; i < n; ++i) {
+                dest.set(i, x[i]);
+            }
+        }
+        return dest;
+    }
+
+    /**
+     * Calculate and return the inverse of the most recently decomposed matrix.
+     * @return a new matrix holding the inverse.
+     * @throws IllegalStateException if no matrix has been decomposed or the decomposed matrix is singular.
+     */
+    public Matrix inverse() throws IllegalStateException {
+        return inverseInto(new ArrayMatrix(n, n));
+    }
+
+    /**
+     * Calculate the inverse of the most recently decomposed matrix and write it into the given destination matrix.
+     * @param dest the matrix to write the inverse into.
+     * @return the destination matrix.
+     * @throws IllegalArgumentException if the destination matrix is not {@code n}x{@code n}.
+     * @throws IllegalStateException if no matrix has been decomposed or the decomposed matrix is singular.
+     */
+    public Matrix inverseInto(Matrix dest) throws IllegalArgumentException, IllegalStateException {
+        checkNonsingular();
+        if (dest.nRows() != n || dest.nCols() != n) {
+            throw new IllegalArgumentException("destination matrix must be of the decomposition's size");
+        }
+        double[] d = ArrayMatrix.denseDataOf(dest);
+        double[] x = d != null ? d : work(n * n);
+        // Solve against the identity, permuted.
+        Arrays.fill(x, 0, n * n, 0.0);
+        for (int i = 0; i < n; ++i) {
+            x[i * n + pivot[i]] = 1.0;
+        }
+        substitute(x, n);
+        if (d == null) {
+            ArrayMatrix.copyFromArray(x, dest);
+        }
+        return dest;
+    }
+
+    /**
+     * Overwrite {@code x}, an {@code n}x{@code k} row-major matrix holding {@code PB}, with the solution of
+     * {@code LUX = PB}.
+     */
+    private void substitute(double[] x, int k) {
+        // Forward substitution with L (unit diagonal).
+        for (int i = 0; i < n; ++i) {
+            int iRow = i * n;
+            for (int p = 0; p < i; ++p) {
+                double l = lu[iRow + p];
+                if (l != 0.0) {
+                    for (int j = 0; j < k; ++j) {
+                        x[i * k + j] -= l * x[p * k + j];
+                    }
+                }
+            }
+        }
+        // Back substitution with U.
+        for (int i = n - 1; i >= 0; --i) {
+            int iRow = i * n;
+            for (int p = i + 1; p < n; ++p) {
+                double u = lu[iRow + p];
+                if (u != 0.0) {
+                    for (int j = 0; j < k; ++j) {
+                        x[i * k + j] -= u * x[p * k + j];
+                    }
+                }
+            }
+            double diag = lu[iRow + i];
+            for (int j = 0; j < k; ++j) {
+                x[i * k + j] /= diag;
+            }
+        }
+    }
+
+    private double[] work(int length) {
+        if (work.length < length) {
+            work = new double[length];
+        }
+        return work;
+    }
+
+    private void checkDecomposed() {
+        if (!decomposed) {
+            throw new IllegalStateException("no matrix has been decomposed");
+        }
+    }
+
+    private void checkNonsingular() {
+        checkDecomposed();
+        if (singular) {
+            throw new IllegalStateException("matrix is singular");
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package frc.team7170.lib.math;
+
+/**
+ * <p>
+ * An immutable 2x2 matrix, stored in four fields rather than an array. All operations are fully unrolled and allocate
+ * at most the result.
+ * </p>
+ * <p>
+ * {@code Mat2} does not implement {@link Matrix Matrix}; use {@link Mat2#toMatrix() toMatrix} and
+ * {@link Mat2#fromMatrix(Matrix) fromMatrix} to interoperate with general matrices.
+ * </p>
+ *
+ * @see Vec2
+ * @see Mat3
+ */
+public final class Mat2 {
+
+    public static final Mat2 IDENTITY = new Mat2(1.0, 0.0, 0.0, 1.0);
+
+    public final double m00, m01;
+    public final double m10, m11;
+
+    /**
+     * Create a matrix with the given elements, which are given in row-major order.
+     */
+    public Mat2(double m00, double m01, double m10, double m11) {
+        this.m00 = m00;
+        this.m01 = m01;
+        this.m10 = m10;
+        this.m11 = m11;
+    }
+
+    /**
+     * Create a {@code Mat2} from the elements of the given {@link Matrix Matrix}.
+     * @param matrix the matrix, which must be 2x2.
+     * @return a {@code Mat2} with the elements of the given matrix.
+     * @throws IllegalArgumentException if the given matrix is not 2x2.
+     */
+    public static Mat2 fromMatrix(Matrix matrix) throws IllegalArgumentException {
+        if (matrix.nRows() != 2 || matrix.nCols() != 2) {
+            throw new IllegalArgumentException("matrix must be 2x2");
+        }
+        return new Mat2(matrix.get(0, 0), matrix.get(0, 1), matrix.get(1, 0), matrix.get(1, 1));
+    }
+
+    /**
+     * Create the matrix which rotates vectors about the origin by the angle with the given cosine and sine.
+     * @param cos the cosine of the angle.
+     * @param sin the sine of the angle.
+     * @return the rotation matrix.
+     */
+    public static Mat2 rotation(double cos, double sin) {
+        return new Mat2(cos, -sin, sin, cos);
+    }
+
+    /**
+     * Add this matrix and the given matrix and return the result.
+     * @param other the matrix to add to this matrix.
+     * @return the sum of this matrix and the given matrix.
+     */
+    public Mat2 add(Mat2 other) {
+        return new Mat2(m00 + other.m00, m01 + other.m01, m10 + other.m10, m11 + other.m11);
+    }
+
+    /**
+     * Subtract the given matrix from this matrix and return the result.
+     * @param other the matrix to subtract from this matrix.
+     * @return this matrix less the given matrix.
+     */
+    public Mat2 subtract(Mat2 other) {
+        return new Mat2(m00 - other.m00, m01 - other.m01, m10 - other.m10, m11 - other.m11);
+    }
+
+    /**
+     * Multiply each element of this matrix by the given value and return the result.
+     * @param value the value to multiply each element of this matrix by.
+     * @return this matrix's elements times the given value.
+     */
+    public Mat2 multiply(double value) {
+        return new Mat2(m00 * value, m01 * value, m10 * value, m11 * value);
+    }
+
+    /**
+     * Multiply this matrix by the given matrix (i.e. {@code this * other}) and return the result.
+     * @param other the matrix to multiply with this matrix.
+     * @return the matrix product of this matrix and the given matrix.
+     */
+    public Mat2 multiply(Mat2 other) {
+        return new Mat2(
+                m00 * other.m00 + m01 * other.m10, m00 * other.m01 + m01 * other.m11,
+                m10 * other.m00 + m11 * other.m10, m10 * other.m01 + m11 * other.m11
+        );
+    }
+
+    /**
+     * Multiply this matrix by the given vector (i.e. {@code this * other}) and return the result.
+     * @param other the vector to multiply with this matrix.
+     * @return the product of this matrix and the given vector.
+     */
+    public Vec2 multiply(Vec2 other) {
+        return new Vec2(m00 * other.x + m01 * other.y, m10 * other.x + m11 * other.y);
+    }
+
+    /**
+     * Calculate and return the transpose of this matrix.
+     * @return the transpose of this matrix.
+     */
+    public Mat2 transpose() {
+        return new Mat2(m00, m10, m01, m11);
+    }
+
+    /**
+     * Calculate and return the determinant of this matrix.
+     * @return the determinant of this matrix.
+     */
+    public double determinant() {
+        return m00 * m11 - m01 * m10;
+    }
+
+    /**
+     * Calculate and return the inverse of this matrix.
+     * @return the inverse of this matrix.
+     * @throws IllegalStateException if this matrix is singular.
+     */
+    public Mat2 inverse() throws IllegalStateException {
+        double det = determinant();
+        if (det == 0.0) {
+            throw new IllegalStateException("matrix is singular");
+        }
+        double invDet = 1.0 / det;
+        return new Mat2(m11 * invDet, -m01 * invDet, -m10 * invDet, m00 * invDet);
+    }
+
+    /**
+     * Copy this matrix into a new {@link Matrix Matrix}.
+     * @return a new 2x2 matrix with the elements of this matrix.
+     */
+    public Matrix toMatrix() {
+        return new ArrayMatrix(2, 2, new double[] {m00, m01, m10, m11});
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof Mat2)) {
+            return false;
+        }
+        Mat2 other = (Mat2) obj;
+        return Double.compare(m00, other.m00) == 0 && Double.compare(m01, other.m01) == 0 &&
+                Double.compare(m10, other.m10) == 0 && Double.compare(m11, other.m11) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = Double.hashCode(m00);
+        hash = 31 * hash + Double.hashCode(m01);
+        hash = 31 * hash + Double.hashCode(m10);
+        return 31 * hash + Double.hashCode(m11);
+    }
+
+    @Override
+    public String toString() {
+        return m00 + " " + m01 + "\n" + m10 + " " + m11;
+    }
+}
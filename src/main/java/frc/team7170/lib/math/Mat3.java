@@ -0,0 +1,256 @@
+package frc.team7170.lib.math;
+
+/**
+ * <p>
+ * An immutable 3x3 matrix, stored in nine fields rather than an array. All operations are fully unrolled and allocate
+ * at most the result.
+ * </p>
+ * <p>
+ * {@code Mat3} is mainly used to represent 2D affine transformations in homogeneous coordinates, for which it provides
+ * {@link Mat3#transformPoint(Vec2) transformPoint}, {@link Mat3#transformDirection(Vec2) transformDirection}, and
+ * {@link Mat3#multiplyAffine(double, double, double, double, double, double) multiplyAffine}. It does not implement
+ * {@link Matrix Matrix}; use {@link Mat3#toMatrix() toMatrix} and {@link Mat3#fromMatrix(Matrix) fromMatrix} to
+ * interoperate with general matrices.
+ * </p>
+ *
+ * @see Vec2
+ * @see Mat2
+ */
+public final class Mat3 {
+
+    public static final Mat3 IDENTITY = new Mat3(
+            1.0, 0.0, 0.0,
+            0.0, 1.0, 0.0,
+            0.0, 0.0, 1.0
+    );
+
+    public final double m00, m01, m02;
+    public final double m10, m11, m12;
+    public final double m20, m21, m22;
+
+    /**
+     * Create a matrix with the given elements, which are given in row-major order.
+     */
+    public Mat3(double m00, double m01, double m02,
+                double m10, double m11, double m12,
+                double m20, double m21, double m22) {
+        this.m00 = m00;
+        this.m01 = m01;
+        this.m02 = m02;
+        this.m10 = m10;
+        this.m11 = m11;
+        this.m12 = m12;
+        this.m20 = m20;
+        this.m21 = m21;
+        this.m22 = m22;
+    }
+
+    /**
+     * Create the affine matrix whose top two rows are given (in row-major order) and whose bottom row is
+     * {@code 0 0 1}.
+     * @return the affine matrix.
+     */
+    public static Mat3 affine(double m00, double m01, double m02, double m10, double m11, double m12) {
+        return new Mat3(m00, m01, m02, m10, m11, m12, 0.0, 0.0, 1.0);
+    }
+
+    /**
+     * Create a {@code Mat3} from the elements of the given {@link Matrix Matrix}.
+     * @param matrix the matrix, which must be 3x3.
+     * @return a {@code Mat3} with the elements of the given matrix.
+     * @throws IllegalArgumentException if the given matrix is not 3x3.
+     */
+    public static Mat3 fromMatrix(Matrix matrix) throws IllegalArgumentException {
+        if (matrix.nRows() != 3 || matrix.nCols() != 3) {
+            throw new IllegalArgumentException("matrix must be 3x3");
+        }
+        return new Mat3(
+                matrix.get(0, 0), matrix.get(0, 1), matrix.get(0, 2),
+                matrix.get(1, 0), matrix.get(1, 1), matrix.get(1, 2),
+                matrix.get(2, 0), matrix.get(2, 1), matrix.get(2, 2)
+        );
+    }
+
+    /**
+     * Add this matrix and the given matrix and return the result.
+     * @param other the matrix to add to this matrix.
+     * @return the sum of this matrix and the given matrix.
+     */
+    public Mat3 add(Mat3 other) {
+        return new Mat3(
+                m00 + other.m00, m01 + other.m01, m02 + other.m02,
+                m10 + other.m10, m11 + other.m11, m12 + other.m12,
+                m20 + other.m20, m21 + other.m21, m22 + other.m22
+        );
+    }
+
+    /**
+     * Subtract the given matrix from this matrix and return the result.
+     * @param other the matrix to subtract from this matrix.
+     * @return this matrix less the given matrix.
+     */
+    public Mat3 subtract(Mat3 other) {
+        return new Mat3(
+                m00 - other.m00, m01 - other.m01, m02 - other.m02,
+                m10 - other.m10, m11 - other.m11, m12 - other.m12,
+                m20 - other.m20, m21 - other.m21, m22 - other.m22
+        );
+    }
+
+    /**
+     * Multiply each element of this matrix by the given value and return the result.
+     * @param value the value to multiply each element of this matrix by.
+     * @return this matrix's elements times the given value.
+     */
+    public Mat3 multiply(double value) {
+        return new Mat3(
+                m00 * value, m01 * value, m02 * value,
+                m10 * value, m11 * value, m12 * value,
+                m20 * value, m21 * value, m22 * value
+        );
+    }
+
+    /**
+     * Multiply this matrix by the given matrix (i.e. {@code this * other}) and return the result.
+     * @param o the matrix to multiply with this matrix.
+     * @return the matrix product of this matrix and the given matrix.
+     */
+    public Mat3 multiply(Mat3 o) {
+        return new Mat3(
+                m00 * o.m00 + m01 * o.m10 + m02 * o.m20,
+                m00 * o.m01 + m01 * o.m11 + m02 * o.m21,
+                m00 * o.m02 + m01 * o.m12 + m02 * o.m22,
+                m10 * o.m00 + m11 * o.m10 + m12 * o.m20,
+                m10 * o.m01 + m11 * o.m11 + m12 * o.m21,
+                m10 * o.m02 + m11 * o.m12 + m12 * o.m22,
+                m20 * o.m00 + m21 * o.m10 + m22 * o.m20,
+                m20 * o.m01 + m21 * o.m11 + m22 * o.m21,
+                m20 * o.m02 + m21 * o.m12 + m22 * o.m22
+        );
+    }
+
+    /**
+     * Multiply this matrix by the affine matrix whose top two rows are given (in row-major order) and whose bottom row
+     * is {@code 0 0 1}, and return the result. This is equivalent to
+     * {@code multiply(Mat3.affine(a00, a01, a02, a10, a11, a12))}, but does not create the intermediate matrix and
+     * skips the multiplications by the known zeros.
+     * @return the matrix product of this matrix and the given affine matrix.
+     */
+    public Mat3 multiplyAffine(double a00, double a01, double a02, double a10, double a11, double a12) {
+        return new Mat3(
+                m00 * a00 + m01 * a10, m00 * a01 + m01 * a11, m00 * a02 + m01 * a12 + m02,
+                m10 * a00 + m11 * a10, m10 * a01 + m11 * a11, m10 * a02 + m11 * a12 + m12,
+                m20 * a00 + m21 * a10, m20 * a01 + m21 * a11, m20 * a02 + m21 * a12 + m22
+        );
+    }
+
+    /**
+     * Transform the given point by this matrix; that is, multiply this matrix by the point in homogeneous coordinates
+     * {@code (x, y, 1)} and project the result back onto the plane.
+     * @param point the point to transform.
+     * @return the transformed point.
+     */
+    public Vec2 transformPoint(Vec2 point) {
+        double x = m00 * point.x + m01 * point.y + m02;
+        double y = m10 * point.x + m11 * point.y + m12;
+        double w = m20 * point.x + m21 * point.y + m22;
+        // w is exactly 1 for affine matrices; skip the divisions in that (overwhelmingly common) case.
+        if (w == 1.0) {
+            return new Vec2(x, y);
+        }
+        return new Vec2(x / w, y / w);
+    }
+
+    /**
+     * Transform the given direction by this matrix; that is, multiply this matrix by the direction in homogeneous
+     * coordinates {@code (x, y, 0)}, which ignores any translation.
+     * @param direction the direction to transform.
+     * @return the transformed direction.
+     */
+    public Vec2 transformDirection(Vec2 direction) {
+        return new Vec2(m00 * direction.x + m01 * direction.y, m10 * direction.x + m11 * direction.y);
+    }
+
+    /**
+     * Calculate and return the transpose of this matrix.
+     * @return the transpose of this matrix.
+     */
+    public Mat3 transpose() {
+        return new Mat3(
+                m00, m10, m20,
+                m01, m11, m21,
+                m02, m12, m22
+        );
+    }
+
+    /**
+     * Calculate and return the determinant of this matrix.
+     * @return the determinant of this matrix.
+     */
+    public double determinant() {
+        return m00 * (m11 * m22 - m12 * m21) - m01 * (m10 * m22 - m12 * m20) + m02 * (m10 * m21 - m11 * m20);
+    }
+
+    /**
+     * Calculate and return the inverse of this matrix.
+     * @return the inverse of this matrix.
+     * @throws IllegalStateException if this matrix is singular.
+     */
+    public Mat3 inverse() throws IllegalStateException {
+        double c00 = m11 * m22 - m12 * m21;
+        double c01 = m12 * m20 - m10 * m22;
+        double c02 = m10 * m21 - m11 * m20;
+        double det = m00 * c00 + m01 * c01 + m02 * c02;
+        if (det == 0.0) {
+            throw new IllegalStateException("matrix is singular");
+        }
+        double invDet = 1.0 / det;
+        return new Mat3(
+                c00 * invDet, (m02 * m21 - m01 * m22) * invDet, (m01 * m12 - m02 * m11) * invDet,
+                c01 * invDet, (m00 * m22 - m02 * m20) * invDet, (m02 * m10 - m00 * m12) * invDet,
+                c02 * invDet, (m01 * m20 - m00 * m21) * invDet, (m00 * m11 - m01 * m10) * invDet
+        );
+    }
+
+    /**
+     * Copy this matrix into a new {@link Matrix Matrix}.
+     * @return a new 3x3 matrix with the elements of this matrix.
+     */
+    public Matrix toMatrix() {
+        return new ArrayMatrix(3, 3, new double[] {m00, m01, m02, m10, m11, m12, m20, m21, m22});
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof Mat3)) {
+            return false;
+        }
+        Mat3 other = (Mat3) obj;
+        return Double.compare(m00, other.m00) == 0 && Double.compare(m01, other.m01) == 0 &&
+                Double.compare(m02, other.m02) == 0 && Double.compare(m10, other.m10) == 0 &&
+                Double.compare(m11, other.m11) == 0 && Double.compare(m12, other.m12) == 0 &&
+                Double.compare(m20, other.m20) == 0 && Double.compare(m21, other.m21) == 0 &&
+                Double.compare(m22, other.m22) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = Double.hashCode(m00);
+        hash = 31 * hash + Double.hashCode(m01);
+        hash = 31 * hash + Double.hashCode(m02);
+        hash = 31 * hash + Double.hashCode(m10);
+        hash = 31 * hash + Double.hashCode(m11);
+        hash = 31 * hash + Double.hashCode(m12);
+        hash = 31 * hash + Double.hashCode(m20);
+        hash = 31 * hash + Double.hashCode(m21);
+        return 31 * hash + Double.hashCode(m22);
+    }
+
+    @Override
+    public String toString() {
+        return m00 + " " + m01 + " " + m02 + "\n" + m10 + " " + m11 + " " + m12 + "\n" + m20 + " " + m21 + " " + m22;
+    }
+}
@@ -121,6 +121,285 @@ public interface Matrix {
      */
     Matrix transpose();
 
+    /**
+     * Calculate and return the sum of all elements of this matrix.
+     * @return the sum of all elements of this matrix.
+     */
+    default double sum() {
+        double sum = 0.0;
+        // Can't use visitRowWise here because sum is not (effectively) final.
+        for (int r = 0; r < nRows(); ++r) {
+            for (int c = 0; c < nCols(); ++c) {
+                sum += get(r, c);
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * Calculate and return the Frobenius norm of this matrix; that is, the square root of the sum of the squares of
+     * all elements of this matrix.
+     * @return the Frobenius norm of this matrix.
+     */
+    default double frobeniusNorm() {
+        double sum = 0.0;
+        for (int r = 0; r < nRows(); ++r) {
+            for (int c = 0; c < nCols(); ++c) {
+                double value = get(r, c);
+                sum += value * value;
+            }
+        }
+        return Math.sqrt(sum);
+    }
+
+    /**
+     * Add the given matrix to this matrix in place. The given matrix is unchanged.
+     * @param other the matrix to add to this matrix.
+     * @return this matrix.
+     * @throws IllegalArgumentException if the dimensions of the given matrix are not congruent with this matrix.
+     */
+    default Matrix addInPlace(Matrix other) throws IllegalArgumentException {
+        return addInto(other, this);
+    }
+
+    /**
+     * Add the given value to each element of this matrix in place.
+     * @param value the value to add to each element of this matrix.
+     * @return this matrix.
+     */
+    default Matrix addInPlace(double value) {
+        mutateRowWise((r, c, thisValue) -> thisValue + value);
+        return this;
+    }
+
+    /**
+     * Subtract the given matrix from this matrix in place. The given matrix is unchanged.
+     * @param other the matrix to subtract from this matrix.
+     * @return this matrix.
+     * @throws IllegalArgumentException if the dimensions of the given matrix are not congruent with this matrix.
+     */
+    default Matrix subtractInPlace(Matrix other) throws IllegalArgumentException {
+        return subtractInto(other, this);
+    }
+
+    /**
+     * Multiply each element of this matrix by the given value in place.
+     * @param value the value to multiply each element of this matrix by.
+     * @return this matrix.
+     */
+    default Matrix multiplyInPlace(double value) {
+        mutateRowWise((r, c, thisValue) -> thisValue * value);
+        return this;
+    }
+
+    /**
+     * Multiply this matrix by the given matrix element-wise in place. The given matrix is unchanged.
+     * @param other the matrix to multiply with this matrix.
+     * @return this matrix.
+     * @throws IllegalArgumentException if the dimensions of the given matrix are not congruent with this matrix.
+     */
+    default Matrix multiplyElementWiseInPlace(Matrix other) throws IllegalArgumentException {
+        if (nRows() != other.nRows() || nCols() != other.nCols()) {
+            throw new IllegalArgumentException("matrix size must be identical for element-wise multiplication");
+        }
+        mutateRowWise((r, c, value) -> value * other.get(r, c));
+        return this;
+    }
+
+    /**
+     * Add this matrix and the given matrix and write the result into the given destination matrix. This matrix and the
+     * given matrix are unchanged unless one of them is the destination.
+     * @param other the matrix to add to this matrix.
+     * @param dest the matrix to write the result into. It may be this matrix or the given matrix.
+     * @return the destination matrix.
+     * @throws IllegalArgumentException if the dimensions of the given matrix or the destination matrix are not
+     * congruent with this matrix.
+     */
+    default Matrix addInto(Matrix other, Matrix dest) throws IllegalArgumentException {
+        if (nRows() != other.nRows() || nCols() != other.nCols()) {
+            throw new IllegalArgumentException("matrix size must be identical for addition");
+        }
+        if (nRows() != dest.nRows() || nCols() != dest.nCols()) {
+            throw new IllegalArgumentException("destination matrix size must be identical for addition");
+        }
+        visitRowWise((r, c, value) -> dest.set(r, c, value + other.get(r, c)));
+        return dest;
+    }
+
+    /**
+     * Subtract the given matrix from this matrix and write the result into the given destination matrix. This matrix
+     * and the given matrix are unchanged unless one of them is the destination.
+     * @param other the matrix to subtract from this matrix.
+     * @param dest the matrix to write the result into. It may be this matrix or the given matrix.
+     * @return the destination matrix.
+     * @throws IllegalArgumentException if the dimensions of the given matrix or the destination matrix are not
+     * congruent with this matrix.
+     */
+    default Matrix subtractInto(Matrix other, Matrix dest) throws IllegalArgumentException {
+        if (nRows() != other.nRows() || nCols() != other.nCols()) {
+            throw new IllegalArgumentException("matrix size must be identical for subtraction");
+        }
+        if (nRows() != dest.nRows() || nCols() != dest.nCols()) {
+            throw new IllegalArgumentException("destination matrix size must be identical for subtraction");
+        }
+        visitRowWise((r, c, value) -> dest.set(r, c, value - other.get(r, c)));
+        return dest;
+    }
+
+    /**
+     * Multiply the given matrix and this matrix and write the result into the given destination matrix. This is matrix
+     * multiplication, <em>not</em> element-wise multiplication. This matrix and the given matrix are unchanged.
+     * @param other the matrix to multiply with this matrix.
+     * @param dest the matrix to write the result into. It must not be this matrix, the given matrix, or a view sharing
+     *             data with either of them.
+     * @return the destination matrix.
+     * @throws IllegalArgumentException if the dimensions of the given matrix or the destination matrix are not
+     * congruent with this matrix.
+     * @throws IllegalArgumentException if the destination matrix is this matrix or the given matrix.
+     */
+    default Matrix multiplyInto(Matrix other, Matrix dest) throws IllegalArgumentException {
+        if (nCols() != other.nRows()) {
+            throw new IllegalArgumentException("invalid matrix size for matrix multiplication");
+        }
+        if (dest.nRows() != nRows() || dest.nCols() != other.nCols()) {
+            throw new IllegalArgumentException("invalid destination matrix size for matrix multiplication");
+        }
+        if (dest == this || dest == other) {
+            throw new IllegalArgumentException("destination matrix must not be an operand of matrix multiplication");
+        }
+        for (int i = 0; i < nRows(); ++i) {
+            for (int j = 0; j < other.nCols(); ++j) {
+                double sum = 0.0;
+                for (int k = 0; k < nCols(); ++k) {
+                    sum += get(i, k) * other.get(k, j);
+                }
+                dest.set(i, j, sum);
+            }
+        }
+        return dest;
+    }
+
+    /**
+     * Multiply the given {@linkplain Vector vector} and this matrix and write the result into the given destination
+     * vector. This is matrix-vector multiplication, <em>not</em> element-wise multiplication. This matrix and the given
+     * vector are unchanged.
+     * @param other the {@linkplain Vector vector} to multiply with this matrix.
+     * @param dest the vector to write the result into. It must not be the given vector or a view sharing data with
+     *             it or this matrix.
+     * @return the destination vector.
+     * @throws IllegalArgumentException if the dimensions of the given vector or the destination vector are not
+     * congruent with this matrix.
+     * @throws IllegalArgumentException if the destination vector is the given vector.
+     */
+    default Vector multiplyInto(Vector other, Vector dest) throws IllegalArgumentException {
+        if (nCols() != other.length()) {
+            throw new IllegalArgumentException("invalid vector length for matrix-vector multiplication");
+        }
+        if (dest.length() != nRows()) {
+            throw new IllegalArgumentException("invalid destination vector length for matrix-vector multiplication");
+        }
+        if (dest == other) {
+            throw new IllegalArgumentException(
+                    "destination vector must not be an operand of matrix-vector multiplication");
+        }
+        for (int i = 0; i < nRows(); ++i) {
+            double sum = 0.0;
+            for (int k = 0; k < nCols(); ++k) {
+                sum += get(i, k) * other.get(k);
+            }
+            dest.set(i, sum);
+        }
+        return dest;
+    }
+
+    /**
+     * Write the transpose of this matrix into the given destination matrix. This matrix is unchanged.
+     * @param dest the matrix to write the result into. It must not be this matrix or a view sharing data with it.
+     * @return the destination matrix.
+     * @throws IllegalArgumentException if the dimensions of the destination matrix are not the transposed dimensions of
+     * this matrix.
+     * @throws IllegalArgumentException if the destination matrix is this matrix.
+     */
+    default Matrix transposeInto(Matrix dest) throws IllegalArgumentException {
+        if (dest.nRows() != nCols() || dest.nCols() != nRows()) {
+            throw new IllegalArgumentException("invalid destination matrix size for transposition");
+        }
+        if (dest == this) {
+            throw new IllegalArgumentException("destination matrix must not be the matrix being transposed");
+        }
+        visitRowWise((r, c, value) -> dest.set(c, r, value));
+        return dest;
+    }
+
+    /**
+     * Copy the elements of this matrix into the given destination matrix. This matrix is unchanged.
+     * @param dest the matrix to copy into.
+     * @return the destination matrix.
+     * @throws IllegalArgumentException if the dimensions of the destination matrix are not congruent with this matrix.
+     */
+    default Matrix copyInto(Matrix dest) throws IllegalArgumentException {
+        if (nRows() != dest.nRows() || nCols() != dest.nCols()) {
+            throw new IllegalArgumentException("destination matrix size must be identical for copying");
+        }
+        visitRowWise(dest::set);
+        return dest;
+    }
+
+    /**
+     * Solve {@code AX = B} for {@code X}, where {@code A} is this matrix. If this matrix is square, this is the exact
+     * solution, computed with a {@link LUDecomposition LUDecomposition}; otherwise, this matrix must have more rows
+     * than columns and this is the least-squares solution, computed with a {@link QRDecomposition QRDecomposition}.
+     * This matrix and the given matrix are unchanged. This decomposes this matrix on every call; to solve many systems
+     * with the same matrix, decompose it once instead.
+     * @param b the right-hand side {@code B}, which must have as many rows as this matrix.
+     * @return the solution {@code X}.
+     * @throws IllegalArgumentException if the given matrix does not have as many rows as this matrix, or if this
+     * matrix has fewer rows than columns.
+     * @throws IllegalStateException if this matrix is singular or rank deficient.
+     */
+    default Matrix solve(Matrix b) throws IllegalArgumentException, IllegalStateException {
+        if (nRows() == nCols()) {
+            return new LUDecomposition(this).solve(b);
+        }
+        return new QRDecomposition(this).solve(b);
+    }
+
+    /**
+     * Solve {@code Ax = b} for {@code x}, where {@code A} is this matrix. See {@link Matrix#solve(Matrix)} for
+     * details.
+     * @param b the right-hand side {@code b}, which must have as many elements as this matrix has rows.
+     * @return the solution {@code x}.
+     * @throws IllegalArgumentException if the given vector does not have as many elements as this matrix has rows, or
+     * if this matrix has fewer rows than columns.
+     * @throws IllegalStateException if this matrix is singular or rank deficient.
+     */
+    default Vector solve(Vector b) throws IllegalArgumentException, IllegalStateException {
+        if (nRows() == nCols()) {
+            return new LUDecomposition(this).solve(b);
+        }
+        return new QRDecomposition(this).solve(b);
+    }
+
+    /**
+     * Calculate and return the inverse of this matrix, computed with a {@link LUDecomposition LUDecomposition}. This
+     * matrix is unchanged.
+     * @return the inverse of this matrix.
+     * @throws IllegalArgumentException if this matrix is not square.
+     * @throws IllegalStateException if this matrix is singular.
+     */
+    default Matrix inverse() throws IllegalArgumentException, IllegalStateException {
+        return new LUDecomposition(this).inverse();
+    }
+
+    /**
+     * Calculate and return the determinant of this matrix, computed with a {@link LUDecomposition LUDecomposition}.
+     * @return the determinant of this matrix.
+     * @throws IllegalArgumentException if this matrix is not square.
+     */
+    default double determinant() throws IllegalArgumentException {
+        return new LUDecomposition(this).determinant();
+    }
+
     /**
      * Get the element at the given row and column indices.
      * @param row the row index, zero-indexed. A negative index is interpreted as starting from the right.
@@ -1,5 +1,10 @@
 package frc.team7170.lib.math;
 
+/**
+ * A view of arbitrary rows and columns of a parent matrix, given as index arrays. Views of contiguous blocks of
+ * {@link ArrayMatrix ArrayMatrix}s are {@link StridedMatrixView StridedMatrixView}s instead; this is only used for
+ * "fancy" indexing and for parents that are not backed by an array.
+ */
 // This overrides all methods in ArrayMatrix that reference data.
 class MatrixView extends ArrayMatrix {
 
@@ -18,6 +23,16 @@ class MatrixView extends ArrayMatrix {
         this(parent, CalcUtil.rangeToIndices(startRow, endRow), CalcUtil.rangeToIndices(startCol, endCol));
     }
 
+    @Override
+    double[] denseData() {
+        return null;
+    }
+
+    @Override
+    double[] stridedData() {
+        return null;
+    }
+
     @Override
     public int nRows() {
         return rows.length;
@@ -69,7 +84,7 @@ class MatrixView extends ArrayMatrix {
         endRow = CalcUtil.normalizeArrayIndex(endRow, nRows());
         startCol = CalcUtil.normalizeArrayIndex(startCol, nCols());
         endCol = CalcUtil.normalizeArrayIndex(endCol, nCols());
-        return super.copy(CalcUtil.rangeToIndices(startRow, startCol), CalcUtil.rangeToIndices(endRow, endCol));
+        return super.copy(CalcUtil.rangeToIndices(startRow, endRow), CalcUtil.rangeToIndices(startCol, endCol));
     }
 
     @Override
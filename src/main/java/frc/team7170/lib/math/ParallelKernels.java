@@ -0,0 +1,355 @@
+package frc.team7170.lib.math;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * <p>
+ * Dense kernels for {@link ArrayMatrix ArrayMatrix} and {@link ArrayVector ArrayVector} that split themselves across a
+ * {@link ForkJoinPool ForkJoinPool} once the operands are large enough for it to pay off, and otherwise run inline on
+ * the calling thread with no allocation.
+ * </p>
+ * <p>
+ * The thresholds are far above the sizes used in robot code (state-space models, Kalman filters, geometry), so those
+ * never touch the pool; they are aimed at offline work such as trajectory optimization and calibration fits. Work is
+ * always split at the same points for the same operand sizes, so reductions are deterministic regardless of how many
+ * threads the pool has.
+ * </p>
+ */
+final class ParallelKernels {
+
+    /**
+     * Element-wise operations and reductions with at least this many elements run in parallel.
+     */
+    static final int ELEMENT_WISE_THRESHOLD = 1 << 16;
+
+    /**
+     * The number of elements each element-wise or reduction task handles without splitting further.
+     */
+    private static final int ELEMENT_WISE_GRAIN = 1 << 14;
+
+    /**
+     * Matrix multiplications with at least this many multiply-adds run in parallel.
+     */
+    static final long MULTIPLY_THRESHOLD = 1L << 21;
+
+    /**
+     * The (approximate) number of multiply-adds each matrix multiplication task handles without splitting further.
+     */
+    private static final long MULTIPLY_GRAIN = 1L << 18;
+
+    private static volatile ForkJoinPool pool = ForkJoinPool.commonPool();
+
+    // Enforce non-instantiability.
+    private ParallelKernels() {}
+
+    static ForkJoinPool getPool() {
+        return pool;
+    }
+
+    static void setPool(ForkJoinPool pool) {
+        ParallelKernels.pool = pool;
+    }
+
+    private static ForkJoinPool poolFor(long work, long threshold) {
+        ForkJoinPool p = pool;
+        if (p == null || work < threshold || p.getParallelism() < 2) {
+            return null;
+        }
+        return p;
+    }
+
+    private static final int ADD = 0;
+    private static final int SUBTRACT = 1;
+    private static final int MULTIPLY = 2;
+    private static final int ADD_SCALAR = 3;
+    private static final int MULTIPLY_SCALAR = 4;
+
+    /**
+     * {@code d = a + b}. Any of the arrays may be the same array.
+     */
+    static void add(double[] a, double[] b, double[] d) {
+        elementWise(ADD, a, b, 0.0, d);
+    }
+
+    /**
+     * {@code d = a - b}. Any of the arrays may be the same array.
+     */
+    static void subtract(double[] a, double[] b, double[] d) {
+        elementWise(SUBTRACT, a, b, 0.0, d);
+    }
+
+    /**
+     * {@code d = a .* b}. Any of the arrays may be the same array.
+     */
+    static void multiplyElementWise(double[] a, double[] b, double[] d) {
+        elementWise(MULTIPLY, a, b, 0.0, d);
+    }
+
+    /**
+     * {@code d = a + value}. The arrays may be the same array.
+     */
+    static void add(double[] a, double value, double[] d) {
+        elementWise(ADD_SCALAR, a, null, value, d);
+    }
+
+    /**
+     * {@code d = a * value}. The arrays may be the same array.
+     */
+    static void multiply(double[] a, double value, double[] d) {
+        elementWise(MULTIPLY_SCALAR, a, null, value, d);
+    }
+
+    private static void elementWise(int op, double[] a, double[] b, double value, double[] d) {
+        ForkJoinPool p = poolFor(d.length, ELEMENT_WISE_THRESHOLD);
+        if (p == null) {
+            elementWise(op, a, b, value, d, 0, d.length);
+        } else {
+            p.invoke(new ElementWiseTask(op, a, b, value, d, 0, d.length));
+        }
+    }
+
+    private static void elementWise(int op, double[] a, double[] b, double value, double[] d, int from, int to) {
+        switch (op) {
+            case ADD:
+                for (int i = from; i < to; ++i) {
+                    d[i] = a[i] + b[i];
+                }
+                break;
+            case SUBTRACT:
+                for (int i = from; i < to; ++i) {
+                    d[i] = a[i] - b[i];
+                }
+                break;
+            case MULTIPLY:
+                for (int i = from; i < to; ++i) {
+                    d[i] = a[i] * b[i];
+                }
+                break;
+            case ADD_SCALAR:
+                for (int i = from; i < to; ++i) {
+                    d[i] = a[i] + value;
+                }
+                break;
+            case MULTIPLY_SCALAR:
+                for (int i = from; i < to; ++i) {
+                    d[i] = a[i] * value;
+                }
+                break;
+            default:
+                throw new AssertionError();
+        }
+    }
+
+    // Tasks are never serialized.
+    @SuppressWarnings("serial")
+    private static final class ElementWiseTask extends RecursiveAction {
+
+        private final int op;
+        private final double[] a;
+        private final double[] b;
+        private final double value;
+        private final double[] d;
+        private final int from;
+        private final int to;
+
+        private ElementWiseTask(int op, double[] a, double[] b, double value, double[] d, int from, int to) {
+            this.op = op;
+            this.a = a;
+            this.b = b;
+            this.value = value;
+            this.d = d;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= ELEMENT_WISE_GRAIN) {
+                elementWise(op, a, b, value, d, from, to);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(
+                    new ElementWiseTask(op, a, b, value, d, from, mid),
+                    new ElementWiseTask(op, a, b, value, d, mid, to)
+            );
+        }
+    }
+
+    private static final int SUM = 0;
+    private static final int SUM_OF_SQUARES = 1;
+    private static final int DOT = 2;
+
+    /**
+     * Return the sum of the elements of {@code a}.
+     */
+    static double sum(double[] a) {
+        return reduce(SUM, a, null);
+    }
+
+    /**
+     * Return the sum of the squares of the elements of {@code a}.
+     */
+    static double sumOfSquares(double[] a) {
+        return reduce(SUM_OF_SQUARES, a, null);
+    }
+
+    /**
+     * Return the dot product of {@code a} and {@code b}, which must have the same length.
+     */
+    static double dot(double[] a, double[] b) {
+        return reduce(DOT, a, b);
+    }
+
+    private static double reduce(int op, double[] a, double[] b) {
+        ForkJoinPool p = poolFor(a.length, ELEMENT_WISE_THRESHOLD);
+        if (p == null) {
+            return reduce(op, a, b, 0, a.length);
+        }
+        return p.invoke(new ReduceTask(op, a, b, 0, a.length));
+    }
+
+    private static double reduce(int op, double[] a, double[] b, int from, int to) {
+        double acc = 0.0;
+        switch (op) {
+            case SUM:
+                for (int i = from; i < to; ++i) {
+                    acc += a[i];
+                }
+                return acc;
+            case SUM_OF_SQUARES:
+                for (int i = from; i < to; ++i) {
+                    acc += a[i] * a[i];
+                }
+                return acc;
+            case DOT:
+                for (int i = from; i < to; ++i) {
+                    acc += a[i] * b[i];
+                }
+                return acc;
+            default:
+                throw new AssertionError();
+        }
+    }
+
+    // Tasks are never serialized.
+    @SuppressWarnings("serial")
+    private static final class ReduceTask extends RecursiveTask<Double> {
+
+        private final int op;
+        private final double[] a;
+        private final double[] b;
+        private final int from;
+        private final int to;
+
+        private ReduceTask(int op, double[] a, double[] b, int from, int to) {
+            this.op = op;
+            this.a = a;
+            this.b = b;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Double compute() {
+            if (to - from <= ELEMENT_WISE_GRAIN) {
+                return reduce(op, a, b, from, to);
+            }
+            int mid = (from + to) >>> 1;
+            ReduceTask left = new ReduceTask(op, a, b, from, mid);
+            ReduceTask right = new ReduceTask(op, a, b, mid, to);
+            left.fork();
+            double rightResult = right.compute();
+            return left.join() + rightResult;
+        }
+    }
+
+    /**
+     * {@code c += a * b}, where {@code a} is an {@code n}x{@code m} matrix, {@code b} is an {@code m}x{@code p} matrix,
+     * and {@code c} is an {@code n}x{@code p} matrix, all stored in row-major flat arrays. The rows of {@code c} are
+     * partitioned across tasks, so no two tasks write the same element.
+     */
+    static void multiply(double[] a, double[] b, double[] c, int n, int m, int p) {
+        long work = (long) n * m * p;
+        ForkJoinPool fjp = n > 1 ? poolFor(work, MULTIPLY_THRESHOLD) : null;
+        if (fjp == null) {
+            ArrayMatrix.multiplyRows(a, b, c, n, m, p, 0, n);
+            return;
+        }
+        int rowGrain = (int) Math.max(1, MULTIPLY_GRAIN / Math.max(1L, (long) m * p));
+        fjp.invoke(new RowsTask(rowGrain, (from, to) -> ArrayMatrix.multiplyRows(a, b, c, n, m, p, from, to), 0, n));
+    }
+
+    /**
+     * {@code d = a * v}, where {@code a} is an {@code n}x{@code m} matrix stored in a row-major flat array, {@code v}
+     * has length {@code m}, and {@code d} has length {@code n}.
+     */
+    static void multiplyVector(double[] a, double[] v, double[] d, int n, int m) {
+        ForkJoinPool p = poolFor((long) n * m, ELEMENT_WISE_THRESHOLD);
+        if (p == null) {
+            multiplyVectorRows(a, v, d, m, 0, n);
+            return;
+        }
+        int rowGrain = Math.max(1, ELEMENT_WISE_GRAIN / Math.max(1, m));
+        p.invoke(new RowsTask(rowGrain, (from, to) -> multiplyVectorRows(a, v, d, m, from, to), 0, n));
+    }
+
+    private static void multiplyVectorRows(double[] a, double[] v, double[] d, int m, int from, int to) {
+        for (int i = from; i < to; ++i) {
+            int aRow = i * m;
+            double sum = 0.0;
+            for (int k = 0; k < m; ++k) {
+                sum += a[aRow + k] * v[k];
+            }
+            d[i] = sum;
+        }
+    }
+
+    /**
+     * Write the transpose of {@code a}, an {@code n}x{@code m} matrix, into {@code t}, both stored in row-major flat
+     * arrays. The rows of {@code a} are partitioned across tasks.
+     */
+    static void transpose(double[] a, double[] t, int n, int m) {
+        ForkJoinPool p = poolFor((long) n * m, ELEMENT_WISE_THRESHOLD);
+        if (p == null) {
+            ArrayMatrix.transposeRows(a, t, n, m, 0, n);
+            return;
+        }
+        int rowGrain = Math.max(1, ELEMENT_WISE_GRAIN / Math.max(1, m));
+        p.invoke(new RowsTask(rowGrain, (from, to) -> ArrayMatrix.transposeRows(a, t, n, m, from, to), 0, n));
+    }
+
+    @FunctionalInterface
+    private interface RowRange {
+        void apply(int from, int to);
+    }
+
+    // Tasks are never serialized.
+    @SuppressWarnings("serial")
+    private static final class RowsTask extends RecursiveAction {
+
+        private final int grain;
+        private final RowRange range;
+        private final int from;
+        private final int to;
+
+        private RowsTask(int grain, RowRange range, int from, int to) {
+            this.grain = grain;
+            this.range = range;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= grain) {
+                range.apply(from, to);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new RowsTask(grain, range, from, mid), new RowsTask(grain, range, mid, to));
+        }
+    }
+}
@@ -0,0 +1,322 @@
+package frc.team7170.lib.math;
+
+/**
+ * <p>
+ * The QR decomposition of an {@code m}x{@code n} matrix {@code A}, where {@code m >= n}; that is, an
+ * {@code m}x{@code n} matrix {@code Q} with orthonormal columns and an {@code n}x{@code n} upper triangular matrix
+ * {@code R} such that {@code A = QR}. The decomposition is computed with Householder reflections, which are stored
+ * rather than accumulated into {@code Q}.
+ * </p>
+ * <p>
+ * The QR decomposition is mainly used to {@linkplain QRDecomposition#solve(Matrix) solve} overdetermined systems in
+ * the least-squares sense, e.g. fitting calibration constants to more samples than there are constants. If
+ * {@code A} is square and of full rank, the least-squares solution is the exact solution.
+ * </p>
+ * <p>
+ * A {@code QRDecomposition} is created for a fixed size and can be reused to decompose any number of matrices of that
+ * size with {@link QRDecomposition#decompose(Matrix) decompose}, which does not allocate. Solving uses an internal work
+ * array that is grown as needed and then reused. The reflections are stored column-major, so that applying them walks
+ * memory contiguously.
+ * </p>
+ *
+ * @apiNote This class is not thread-safe.
+ * @see LUDecomposition
+ * @see Matrix#solve(Matrix)
+ */
+public final class QRDecomposition {
+
+    private final int m;
+    private final int n;
+
+    /**
+     * The Householder vectors (on and below the diagonal) and the strictly upper triangular part of {@code R} (above
+     * the diagonal), stored column-major; i.e. element {@code (i, j)} is at index {@code j * m + i}.
+     */
+    private final double[] qrt;
+
+    private final double[] rDiag;
+    private boolean decomposed = false;
+    private double[] work = new double[0];
+
+    /**
+     * @param nRows the number of rows of the matrices to decompose.
+     * @param nCols the number of columns of the matrices to decompose.
+     * @throws IllegalArgumentException if the given number of columns is negative or the given number of rows is less
+     * than the given number of columns.
+     */
+    public QRDecomposition(int nRows, int nCols) {
+        if (nCols < 0) {
+            throw new IllegalArgumentException("size must be non-negative");
+        }
+        if (nRows < nCols) {
+            throw new IllegalArgumentException("matrix must have at least as many rows as columns");
+        }
+        m = nRows;
+        n = nCols;
+        qrt = new double[m * n];
+        rDiag = new double[n];
+    }
+
+    /**
+     * Create a {@code QRDecomposition} of the size of the given matrix and decompose it.
+     * @param matrix the matrix to decompose. It is unchanged.
+     * @throws IllegalArgumentException if the given matrix has fewer rows than columns.
+     */
+    public QRDecomposition(Matrix matrix) throws IllegalArgumentException {
+        this(matrix.nRows(), matrix.nCols());
+        decompose(matrix);
+    }
+
+    /**
+     * Decompose the given matrix, replacing any previous decomposition.
+     * @param matrix the matrix to decompose. It is unchanged.
+     * @return this {@code QRDecomposition}.
+     * @throws IllegalArgumentException if the given matrix is not {@code m}x{@code n}.
+     */
+    public QRDecomposition decompose(Matrix matrix) throws IllegalArgumentException {
+        if (matrix.nRows() != m || matrix.nCols() != n) {
+            throw new IllegalArgumentException("matrix must be of the decomposition's size");
+        }
+        double[] a = ArrayMatrix.denseDataOf(matrix);
+        if (a != null) {
+            ArrayMatrix.transposeKernel(a, qrt, m, n);
+        } else {
+            matrix.visitRowWise((r, c, value) -> qrt[c * m + r] = value);
+        }
+        for (int k = 0; k < n; ++k) {
+            int kCol = k * m;
+            // Robot-sized matrices are nowhere near overflowing, so Math.hypot's scaling is not worth its cost here.
+            double norm = 0.0;
+            for (int i = k; i < m; ++i) {
+                norm += qrt[kCol + i] * qrt[kCol + i];
+            }
+            norm = Math.sqrt(norm);
+            if (norm != 0.0) {
+                if (qrt[kCol + k] < 0.0) {
+                    norm = -norm;
+                }
+                for (int i = k; i < m; ++i) {
+                    qrt[kCol + i] /= norm;
+                }
+                qrt[kCol + k] += 1.0;
+                // Apply the reflection to the remaining columns.
+                for (int j = k + 1; j < n; ++j) {
+                    reflect(k, qrt, j * m, 1);
+                }
+            }
+            rDiag[k] = -norm;
+        }
+        decomposed = true;
+        return this;
+    }
+
+    /**
+     * Apply the {@code k}th Householder reflection to the column of {@code x} which starts at index {@code offset} and
+     * whose consecutive elements are {@code stride} apart.
+     */
+    private void reflect(int k, double[] x, int offset, int stride) {
+        int kCol = k * m;
+        double s = 0.0;
+        for (int i = k; i < m; ++i) {
+            s += qrt[kCol + i] * x[offset + i * stride];
+        }
+        s = -s / qrt[kCol + k];
+        for (int i = k; i < m; ++i) {
+            x[offset + i * stride] += s * qrt[kCol + i];
+        }
+    }
+
+    /**
+     * Get the number of rows of the matrices this decomposition is for.
+     * @return the number of rows of the matrices this decomposition is for.
+     */
+    public int nRows() {
+        return m;
+    }
+
+    /**
+     * Get the number of columns of the matrices this decomposition is for.
+     * @return the number of columns of the matrices this decomposition is for.
+     */
+    public int nCols() {
+        return n;
+    }
+
+    /**
+     * Get whether or not the most recently decomposed matrix has full (column) rank; i.e. {@code R} has no zero
+     * diagonal element.
+     * @return whether or not the most recently decomposed matrix has full rank.
+     * @throws IllegalStateException if no matrix has been decomposed.
+     */
+    public boolean isFullRank() throws IllegalStateException {
+        checkDecomposed();
+        for (int k = 0; k < n; ++k) {
+            if (rDiag[k] == 0.0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Get the upper triangular factor {@code R}.
+     * @return a new {@code n}x{@code n} matrix holding {@code R}.
+     * @throws IllegalStateException if no matrix has been decomposed.
+     */
+    public Matrix getR() throws IllegalStateException {
+        checkDecomposed();
+        double[] r = new double[n * n];
+        for (int i = 0; i < n; ++i) {
+            r[i * n + i] = rDiag[i];
+            for (int j = i + 1; j < n; ++j) {
+                r[i * n + j] = qrt[j * m + i];
+            }
+        }
+        return new ArrayMatrix(n, n, r);
+    }
+
+    /**
+     * Get the factor {@code Q} (in its "thin" form, with as many columns as the decomposed matrix).
+     * @return a new {@code m}x{@code n} matrix holding {@code Q}.
+     * @throws IllegalStateException if no matrix has been decomposed.
+     */
+    public Matrix getQ() throws IllegalStateException {
+        checkDecomposed();
+        double[] q = new double[m * n];
+        for (int k = n - 1; k >= 0; --k) {
+            q[k * n + k] = 1.0;
+            if (qrt[k * m + k] != 0.0) {
+                for (int j = k; j < n; ++j) {
+                    reflect(k, q, j, n);
+                }
+            }
+        }
+        return new ArrayMatrix(m, n, q);
+    }
+
+    /**
+     * Find the {@code X} that minimizes the Frobenius norm of {@code AX - B}, where {@code A} is the most recently
+     * decomposed matrix.
+     * @param b the right-hand side {@code B}, which must have {@code m} rows. It is unchanged.
+     * @return a new {@code n}x{@code k} matrix holding {@code X}, where {@code k} is the number of columns of
+     * {@code B}.
+     * @throws IllegalArgumentException if the given matrix does not have {@code m} rows.
+     * @throws IllegalStateException if no matrix has been decomposed or the decomposed matrix is rank deficient.
+     */
+    public Matrix solve(Matrix b) throws IllegalArgumentException, IllegalStateException {
+        return solveInto(b, new ArrayMatrix(n, b.nCols()));
+    }
+
+    /**
+     * Find the {@code X} that minimizes the Frobenius norm of {@code AX - B}, where {@code A} is the most recently
+     * decomposed matrix, and write {@code X} into the given destination matrix.
+     * @param b the right-hand side {@code B}, which must have {@code m} rows. It is unchanged.
+     * @param dest the {@code n}x{@code k} matrix to write {@code X} into, where {@code k} is the number of columns of
+     *             {@code B}. It may be {@code B} only if {@code m == n}.
+     * @return the destination matrix.
+     * @throws IllegalArgumentException if the given matrix does not have {@code m} rows or the destination matrix is
+     * not {@code n}x{@code k}.
+     * @throws IllegalStateException if no matrix has been decomposed or the decomposed matrix is rank deficient.
+     */
+    public Matrix solveInto(Matrix b, Matrix dest) throws IllegalArgumentException, IllegalStateException {
+        checkFullRank();
+        if (b.nRows() != m) {
+            throw new IllegalArgumentException("right-hand side must have as many rows as the decomposed matrix");
+        }
+        int k = b.nCols();
+        if (dest.nRows() != n || dest.nCols() != k) {
+            throw new IllegalArgumentException("invalid destination matrix size for least-squares solution");
+        }
+        double[] w = work(m * k);
+        ArrayMatrix.copyToArray(b, w);
+        leastSquares(w, k);
+        ArrayMatrix.copyFromArray(w, dest);
+        return dest;
+    }
+
+    /**
+     * Find the {@code x} that minimizes the Euclidean norm of {@code Ax - b}, where {@code A} is the most recently
+     * decomposed matrix.
+     * @param b the right-hand side {@code b}, which must have length {@code m}. It is unchanged.
+     * @return a new vector of length {@code n} holding {@code x}.
+     * @throws IllegalArgumentException if the given vector does not have length {@code m}.
+     * @throws IllegalStateException if no matrix has been decomposed or the decomposed matrix is rank deficient.
+     */
+    public Vector solve(Vector b) throws IllegalArgumentException, IllegalStateException {
+        return solveInto(b, new ArrayVector(n));
+    }
+
+    /**
+     * Find the {@code x} that minimizes the Euclidean norm of {@code Ax - b}, where {@code A} is the most recently
+     * decomposed matrix, and write {@code x} into the given destination vector.
+     * @param b the right-hand side {@code b}, which must have length {@code m}. It is unchanged.
+     * @param dest the vector of length {@code n} to write {@code x} into. It may be {@code b} only if {@code m == n}.
+     * @return the destination vector.
+     * @throws IllegalArgumentException if the given vector does not have length {@code m} or the destination vector
+     * does not have length {@code n}.
+     * @throws IllegalStateException if no matrix has been decomposed or the decomposed matrix is rank deficient.
+     */
+    public Vector solveInto(Vector b, Vector dest) throws IllegalArgumentException, IllegalStateException {
+        checkFullRank();
+        if (b.length() != m) {
+            throw new IllegalArgumentException("right-hand side must have as many rows as the decomposed matrix");
+        }
+        if (dest.length() != n) {
+            throw new IllegalArgumentException("invalid destination vector length for least-squares solution");
+        }
+        double[] w = work(m);
+        for (int i = 0; i < m; ++i) {
+            w[i] = b.get(i);
+        }
+        leastSquares(w, 1);
+        for (int i = 0; i < n; ++i) {
+            dest.set(i, w[i]);
+        }
+        return dest;
+    }
+
+    /**
+     * Overwrite the first {@code n} rows of {@code w}, an {@code m}x{@code k} row-major matrix holding {@code B}, with
+     * the least-squares solution of {@code AX = B}.
+     */
+    private void leastSquares(double[] w, int k) {
+        // Compute Q^T B.
+        for (int p = 0; p < n; ++p) {
+            for (int j = 0; j < k; ++j) {
+                reflect(p, w, j, k);
+            }
+        }
+        // Solve RX = Q^T B.
+        for (int p = n - 1; p >= 0; --p) {
+            for (int j = 0; j < k; ++j) {
+                w[p * k + j] /= rDiag[p];
+            }
+            int pCol = p * m;
+            for (int i = 0; i < p; ++i) {
+                double r = qrt[pCol + i];
+                for (int j = 0; j < k; ++j) {
+                    w[i * k + j] -= w[p * k + j] * r;
+                }
+            }
+        }
+    }
+
+    private double[] work(int length) {
+        if (work.length < length) {
+            work = new double[length];
+        }
+        return work;
+    }
+
+    private void checkDecomposed() {
+        if (!decomposed) {
+            throw new IllegalStateException("no matrix has been decomposed");
+        }
+    }
+
+    private void checkFullRank() {
+        if (!isFullRank()) {
+            throw new IllegalStateException("matrix is rank deficient");
+        }
+    }
+}
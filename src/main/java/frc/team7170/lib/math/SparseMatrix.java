@@ -0,0 +1,1022 @@
+package frc.team7170.lib.math;
+
+import java.util.Arrays;
+
+/**
+ * <p>
+ * A matrix implementation which stores only its non-zero elements, in compressed sparse row (CSR) form: for each row,
+ * the columns and values of its non-zero elements, sorted by column. This is appropriate for matrices that are mostly
+ * zeros (e.g. the adjacency matrix of a path planning graph or the Jacobian of a calibration fit); for other matrices,
+ * {@link ArrayMatrix ArrayMatrix} is faster and smaller.
+ * </p>
+ * <p>
+ * Operations whose results are also sparse (addition and subtraction of {@code SparseMatrix}s, multiplication by a
+ * finite scalar or another {@code SparseMatrix}, element-wise multiplication, transposition, copying) return
+ * {@code SparseMatrix}s and take time proportional to the number of non-zero elements involved. Operations whose
+ * results are generally dense (e.g. adding a scalar or an {@code ArrayMatrix}) return {@code ArrayMatrix}s.
+ * Transposition converts to compressed sparse column form, which is the compressed sparse row form of the transpose.
+ * </p>
+ * <p>
+ * As for any matrix, the {@linkplain SparseMatrix#visitRowWise(MatrixEntryVisitor, int, int, int, int) visit} and
+ * {@linkplain SparseMatrix#mutateRowWise(MatrixEntryMutator, int, int, int, int) mutate} methods are called for every
+ * element, zeros included, so they take time proportional to the size of the matrix.
+ * {@link SparseMatrix#visitNonZeros(MatrixEntryVisitor) visitNonZeros} and
+ * {@link SparseMatrix#mutateNonZeros(MatrixEntryMutator) mutateNonZeros} are called only for stored (non-zero)
+ * elements instead. Mutating an element to zero removes it.
+ * </p>
+ * <p>
+ * {@linkplain SparseMatrix#get(int, int) Getting} an element is a binary search within its row.
+ * {@linkplain SparseMatrix#set(int, int, double) Setting} an element that is already non-zero to another non-zero
+ * value is equally cheap, but setting a zero element to a non-zero value (or vice versa) shifts all subsequent
+ * elements, so matrices should be built with a {@link SparseMatrix.Builder Builder} or
+ * {@linkplain SparseMatrix#fromDense(Matrix) converted from a dense matrix} rather than element by element.
+ * </p>
+ */
+public class SparseMatrix implements Matrix {
+
+    /**
+     * Accumulates elements in any order and builds a {@link SparseMatrix SparseMatrix} from them.
+     */
+    public static final class Builder {
+
+        private final int nRows;
+        private final int nCols;
+        private int[] rows = new int[16];
+        private int[] cols = new int[16];
+        private double[] values = new double[16];
+        private int size = 0;
+
+        /**
+         * @param nRows the number of rows of the matrix to build.
+         * @param nCols the number of columns of the matrix to build.
+         * @throws IllegalArgumentException if either dimension is negative.
+         */
+        public Builder(int nRows, int nCols) {
+            if (nRows < 0 || nCols < 0) {
+                throw new IllegalArgumentException("matrix dimensions must be non-negative");
+            }
+            this.nRows = nRows;
+            this.nCols = nCols;
+        }
+
+        /**
+         * Add the given value to the element at the given row and column. Values added to the same element are summed.
+         * @param row the row index, zero-indexed.
+         * @param col the column index, zero-indexed.
+         * @param value the value to add.
+         * @return this builder.
+         * @throws IndexOutOfBoundsException if the row or column index is out of bounds.
+         */
+        public Builder add(int row, int col, double value) throws IndexOutOfBoundsException {
+            if (row < 0 || row >= nRows || col < 0 || col >= nCols) {
+                throw new IndexOutOfBoundsException(String.format("index (%d, %d) out of bounds", row, col));
+            }
+            if (size == rows.length) {
+                rows = Arrays.copyOf(rows, 2 * size);
+                cols = Arrays.copyOf(cols, 2 * size);
+                values = Arrays.copyOf(values, 2 * size);
+            }
+            rows[size] = row;
+            cols[size] = col;
+            values[size] = value;
+            ++size;
+            return this;
+        }
+
+        /**
+         * Build the matrix. The builder may continue to be used afterwards.
+         * @return the built matrix.
+         */
+        public SparseMatrix build() {
+            // Counting sort the entries by row...
+            int[] rowPtr = new int[nRows + 1];
+            for (int i = 0; i < size; ++i) {
+                ++rowPtr[rows[i] + 1];
+            }
+            for (int r = 0; r < nRows; ++r) {
+                rowPtr[r + 1] += rowPtr[r];
+            }
+            int[] next = Arrays.copyOf(rowPtr, nRows);
+            int[] colIdx = new int[size];
+            double[] vals = new double[size];
+            for (int i = 0; i < size; ++i) {
+                int k = next[rows[i]]++;
+                colIdx[k] = cols[i];
+                vals[k] = values[i];
+            }
+            // ...then sort each row by column, summing duplicates and dropping zeros.
+            int nnz = 0;
+            int rowStart = 0;
+            for (int r = 0; r < nRows; ++r) {
+                int rowEnd = rowPtr[r + 1];
+                sortByColumn(colIdx, vals, rowStart, rowEnd);
+                rowPtr[r] = nnz;
+                for (int k = rowStart; k < rowEnd; ++k) {
+                    double value = vals[k];
+                    while (k + 1 < rowEnd && colIdx[k + 1] == colIdx[k]) {
+                        value += vals[++k];
+                    }
+                    if (value != 0.0) {
+                        colIdx[nnz] = colIdx[k];
+                        vals[nnz] = value;
+                        ++nnz;
+                    }
+                }
+                rowStart = rowEnd;
+            }
+            rowPtr[nRows] = nnz;
+            return new SparseMatrix(nRows, nCols, rowPtr, colIdx, vals);
+        }
+
+        private static void sortByColumn(int[] colIdx, double[] vals, int from, int to) {
+            // Rows are short, so insertion sort is the right tool.
+            for (int i = from + 1; i < to; ++i) {
+                int col = colIdx[i];
+                double value = vals[i];
+                int j = i - 1;
+                while (j >= from && colIdx[j] > col) {
+                    colIdx[j + 1] = colIdx[j];
+                    vals[j + 1] = vals[j];
+                    --j;
+                }
+                colIdx[j + 1] = col;
+                vals[j + 1] = value;
+            }
+        }
+    }
+
+    private final int nRows;
+    private final int nCols;
+
+    /**
+     * The non-zero elements of row {@code r} are at indices {@code rowPtr[r]} (inclusive) to {@code rowPtr[r + 1]}
+     * (exclusive) of {@code colIdx} and {@code values}. {@code rowPtr[nRows]} is the number of non-zero elements.
+     */
+    private int[] rowPtr;
+
+    private int[] colIdx;
+    private double[] values;
+
+    /**
+     * Create a matrix of all zeros.
+     * @param nRows the number of rows in the matrix.
+     * @param nCols the number of columns in the matrix.
+     * @throws IllegalArgumentException if either dimension is negative.
+     */
+    public SparseMatrix(int nRows, int nCols) {
+        // The dimensions are checked before the row pointer array is allocated with them.
+        this(requireValidDimensions(nRows, nCols), nCols, new int[nRows + 1], new int[0], new double[0]);
+    }
+
+    /**
+     * @return the given number of rows.
+     * @throws IllegalArgumentException if either dimension is negative.
+     */
+    private static int requireValidDimensions(int nRows, int nCols) {
+        if (nRows < 0 || nCols < 0) {
+            throw new IllegalArgumentException("matrix dimensions must be non-negative");
+        }
+        return nRows;
+    }
+
+    /**
+     * The given arrays are not copied and must already be in valid compressed sparse row form.
+     */
+    private SparseMatrix(int nRows, int nCols, int[] rowPtr, int[] colIdx, double[] values) {
+        this.nRows = nRows;
+        this.nCols = nCols;
+        this.rowPtr = rowPtr;
+        this.colIdx = colIdx;
+        this.values = values;
+    }
+
+    /**
+     * Create a {@code SparseMatrix} with the non-zero elements of the given matrix.
+     * @param matrix the matrix to convert. It is unchanged.
+     * @return a {@code SparseMatrix} equal to the given matrix.
+     */
+    public static SparseMatrix fromDense(Matrix matrix) {
+        int nRows = matrix.nRows();
+        int nCols = matrix.nCols();
+        double[] dense = new double[nRows * nCols];
+        ArrayMatrix.copyToArray(matrix, dense);
+        return fromDenseArray(nRows, nCols, dense);
+    }
+
+    private static SparseMatrix fromDenseArray(int nRows, int nCols, double[] dense) {
+        int nnz = 0;
+        for (double value : dense) {
+            if (value != 0.0) {
+                ++nnz;
+            }
+        }
+        int[] rowPtr = new int[nRows + 1];
+        int[] colIdx = new int[nnz];
+        double[] values = new double[nnz];
+        int k = 0;
+        for (int r = 0; r < nRows; ++r) {
+            for (int c = 0; c < nCols; ++c) {
+                double value = dense[r * nCols + c];
+                if (value != 0.0) {
+                    colIdx[k] = c;
+                    values[k] = value;
+                    ++k;
+                }
+            }
+            rowPtr[r + 1] = k;
+        }
+        return new SparseMatrix(nRows, nCols, rowPtr, colIdx, values);
+    }
+
+    /**
+     * Convert this matrix into an {@link ArrayMatrix ArrayMatrix}.
+     * @return a new dense matrix equal to this matrix.
+     */
+    public ArrayMatrix toDense() {
+        double[] dense = new double[nRows * nCols];
+        scatter(dense);
+        return new ArrayMatrix(nRows, nCols, dense);
+    }
+
+    /**
+     * Write the non-zero elements of this matrix into the given row-major flat array, leaving its other elements
+     * unchanged.
+     */
+    private void scatter(double[] dense) {
+        for (int r = 0; r < nRows; ++r) {
+            for (int k = rowPtr[r]; k < rowPtr[r + 1]; ++k) {
+                dense[r * nCols + colIdx[k]] += values[k];
+            }
+        }
+    }
+
+    /**
+     * Get the number of stored (non-zero) elements in this matrix.
+     * @return the number of stored elements in this matrix.
+     */
+    public int nonZeros() {
+        return rowPtr[nRows];
+    }
+
+    @Override
+    public int nRows() {
+        return nRows;
+    }
+
+    @Override
+    public int nCols() {
+        return nCols;
+    }
+
+    private boolean matchingSize(Matrix other) {
+        return (nRows() == other.nRows()) && (nCols() == other.nCols());
+    }
+
+    @Override
+    public Matrix add(Matrix other) throws IllegalArgumentException {
+        return addScaled(other, 1.0, "matrix size must be identical for addition");
+    }
+
+    @Override
+    public Matrix add(double value) {
+        double[] dense = new double[nRows * nCols];
+        Arrays.fill(dense, value);
+        scatter(dense);
+        return new ArrayMatrix(nRows, nCols, dense);
+    }
+
+    @Override
+    public Matrix subtract(Matrix other) throws IllegalArgumentException {
+        return addScaled(other, -1.0, "matrix size must be identical for subtraction");
+    }
+
+    /**
+     * Compute {@code this + scale * other}.
+     */
+    private Matrix addScaled(Matrix other, double scale, String sizeMessage) {
+        if (!matchingSize(other)) {
+            throw new IllegalArgumentException(sizeMessage);
+        }
+        if (!(other instanceof SparseMatrix)) {
+            double[] dense = new double[nRows * nCols];
+            ArrayMatrix.copyToArray(other, dense);
+            if (scale != 1.0) {
+                for (int i = 0; i < dense.length; ++i) {
+                    dense[i] *= scale;
+                }
+            }
+            scatter(dense);
+            return new ArrayMatrix(nRows, nCols, dense);
+        }
+        // Merge the sorted rows.
+        SparseMatrix o = (SparseMatrix) other;
+        int[] newRowPtr = new int[nRows + 1];
+        int[] newColIdx = new int[nonZeros() + o.nonZeros()];
+        double[] newValues = new double[newColIdx.length];
+        int nnz = 0;
+        for (int r = 0; r < nRows; ++r) {
+            int i = rowPtr[r];
+            int iEnd = rowPtr[r + 1];
+            int j = o.rowPtr[r];
+            int jEnd = o.rowPtr[r + 1];
+            while (i < iEnd || j < jEnd) {
+                int col;
+                double value;
+                if (j == jEnd || (i < iEnd && colIdx[i] < o.colIdx[j])) {
+                    col = colIdx[i];
+                    value = values[i++];
+                } else if (i == iEnd || o.colIdx[j] < colIdx[i]) {
+                    col = o.colIdx[j];
+                    value = scale * o.values[j++];
+                } else {
+                    col = colIdx[i];
+                    value = values[i++] + scale * o.values[j++];
+                }
+                if (value != 0.0) {
+                    newColIdx[nnz] = col;
+                    newValues[nnz] = value;
+                    ++nnz;
+                }
+            }
+            newRowPtr[r + 1] = nnz;
+        }
+        return new SparseMatrix(nRows, nCols, newRowPtr, newColIdx, newValues);
+    }
+
+    @Override
+    public Matrix multiply(Matrix other) throws IllegalArgumentException {
+        if (nCols() != other.nRows()) {
+            throw new IllegalArgumentException("invalid matrix size for matrix multiplication");
+        }
+        int p = other.nCols();
+        if (!(other instanceof SparseMatrix)) {
+            double[] b = ArrayMatrix.denseDataOf(other);
+            double[] result = new double[nRows * p];
+            for (int r = 0; r < nRows; ++r) {
+                for (int k = rowPtr[r]; k < rowPtr[r + 1]; ++k) {
+                    double aik = values[k];
+                    int col = colIdx[k];
+                    for (int j = 0; j < p; ++j) {
+                        result[r * p + j] += aik * (b != null ? b[col * p + j] : other.get(col, j));
+                    }
+                }
+            }
+            return new ArrayMatrix(nRows, p, result);
+        }
+        // Gustavson's algorithm: accumulate each row of the result in a dense scratch row, tracking which columns
+        // have been touched.
+        SparseMatrix o = (SparseMatrix) other;
+        double[] accumulator = new double[p];
+        int[] touchedAt = new int[p];
+        Arrays.fill(touchedAt, -1);
+        int[] touched = new int[p];
+        int[] newRowPtr = new int[nRows + 1];
+        int[] newColIdx = new int[Math.max(nonZeros(), o.nonZeros())];
+        double[] newValues = new double[newColIdx.length];
+        int nnz = 0;
+        for (int r = 0; r < nRows; ++r) {
+            int nTouched = 0;
+            for (int k = rowPtr[r]; k < rowPtr[r + 1]; ++k) {
+                double aik = values[k];
+                int row = colIdx[k];
+                for (int l = o.rowPtr[row]; l < o.rowPtr[row + 1]; ++l) {
+                    int col = o.colIdx[l];
+                    if (touchedAt[col] != r) {
+                        touchedAt[col] = r;
+                        touched[nTouched++] = col;
+                        accumulator[col] = 0.0;
+                    }
+                    accumulator[col] += aik * o.values[l];
+                }
+            }
+            Arrays.sort(touched, 0, nTouched);
+            if (nnz + nTouched > newColIdx.length) {
+                int capacity = Math.max(2 * newColIdx.length, nnz + nTouched);
+                newColIdx = Arrays.copyOf(newColIdx, capacity);
+                newValues = Arrays.copyOf(newValues, capacity);
+            }
+            for (int t = 0; t < nTouched; ++t) {
+                double value = accumulator[touched[t]];
+                if (value != 0.0) {
+                    newColIdx[nnz] = touched[t];
+                    newValues[nnz] = value;
+                    ++nnz;
+                }
+            }
+            newRowPtr[r + 1] = nnz;
+        }
+        return new SparseMatrix(nRows, p, newRowPtr, newColIdx, newValues);
+    }
+
+    @Override
+    public Matrix multiply(Vector other) throws IllegalArgumentException {
+        if (nCols() != other.length()) {
+            throw new IllegalArgumentException("invalid vector length for matrix-vector multiplication");
+        }
+        double[] result = new double[nRows];
+        multiplyInto(other, new ArrayVector(result));
+        return new ArrayMatrix(nRows, 1, result);
+    }
+
+    @Override
+    public Vector multiplyInto(Vector other, Vector dest) throws IllegalArgumentException {
+        if (nCols() != other.length()) {
+            throw new IllegalArgumentException("invalid vector length for matrix-vector multiplication");
+        }
+        if (dest.length() != nRows()) {
+            throw new IllegalArgumentException("invalid destination vector length for matrix-vector multiplication");
+        }
+        if (dest == other) {
+            throw new IllegalArgumentException(
+                    "destination vector must not be an operand of matrix-vector multiplication");
+        }
+        double[] v = ArrayVector.denseDataOf(other);
+        for (int r = 0; r < nRows; ++r) {
+            double sum = 0.0;
+            for (int k = rowPtr[r]; k < rowPtr[r + 1]; ++k) {
+                sum += values[k] * (v != null ? v[colIdx[k]] : other.get(colIdx[k]));
+            }
+            dest.set(r, sum);
+        }
+        return dest;
+    }
+
+    @Override
+    public Matrix multiplyElementWise(Matrix other) throws IllegalArgumentException {
+        if (!matchingSize(other)) {
+            throw new IllegalArgumentException("matrix size must be identical for element-wise multiplication");
+        }
+        SparseMatrix result = copySparse();
+        result.mutateNonZeros((r, c, value) -> value * other.get(r, c));
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * If the given value is infinite or NaN, every zero becomes NaN, so an {@link ArrayMatrix ArrayMatrix} is
+     * returned.
+     */
+    @Override
+    public Matrix multiply(double value) {
+        if (!Double.isFinite(value)) {
+            return toDense().multiplyInPlace(value);
+        }
+        SparseMatrix result = copySparse();
+        result.mutateNonZeros((r, c, thisValue) -> thisValue * value);
+        return result;
+    }
+
+    @Override
+    public Matrix multiplyInPlace(double value) {
+        if (!Double.isFinite(value)) {
+            // Every zero becomes NaN.
+            mutateRowWise((r, c, thisValue) -> thisValue * value);
+        } else {
+            mutateNonZeros((r, c, thisValue) -> thisValue * value);
+        }
+        return this;
+    }
+
+    @Override
+    public Matrix power(double power) {
+        if (power > 0.0) {
+            // Zeros stay zero.
+            SparseMatrix result = copySparse();
+            result.mutateNonZeros((r, c, value) -> Math.pow(value, power));
+            return result;
+        }
+        double[] dense = new double[nRows * nCols];
+        Arrays.fill(dense, Math.pow(0.0, power));
+        for (int r = 0; r < nRows; ++r) {
+            for (int k = rowPtr[r]; k < rowPtr[r + 1]; ++k) {
+                dense[r * nCols + colIdx[k]] = Math.pow(values[k], power);
+            }
+        }
+        return new ArrayMatrix(nRows, nCols, dense);
+    }
+
+    @Override
+    public Matrix transpose() {
+        // Converting to compressed sparse column form yields the compressed sparse row form of the transpose.
+        int nnz = nonZeros();
+        int[] tRowPtr = new int[nCols + 1];
+        for (int k = 0; k < nnz; ++k) {
+            ++tRowPtr[colIdx[k] + 1];
+        }
+        for (int c = 0; c < nCols; ++c) {
+            tRowPtr[c + 1] += tRowPtr[c];
+        }
+        int[] next = Arrays.copyOf(tRowPtr, nCols);
+        int[] tColIdx = new int[nnz];
+        double[] tValues = new double[nnz];
+        // Rows are visited in order, so each row of the transpose comes out sorted.
+        for (int r = 0; r < nRows; ++r) {
+            for (int k = rowPtr[r]; k < rowPtr[r + 1]; ++k) {
+                int t = next[colIdx[k]]++;
+                tColIdx[t] = r;
+                tValues[t] = values[k];
+            }
+        }
+        return new SparseMatrix(nCols, nRows, tRowPtr, tColIdx, tValues);
+    }
+
+    @Override
+    public Matrix addInPlace(double value) {
+        if (value != 0.0) {
+            double[] dense = new double[nRows * nCols];
+            Arrays.fill(dense, value);
+            scatter(dense);
+            assign(fromDenseArray(nRows, nCols, dense));
+        }
+        return this;
+    }
+
+    @Override
+    public Matrix addInto(Matrix other, Matrix dest) throws IllegalArgumentException {
+        if (!matchingSize(dest)) {
+            throw new IllegalArgumentException("destination matrix size must be identical for addition");
+        }
+        // Computing the result before writing any of it makes this safe even if dest is an operand.
+        return add(other).copyInto(dest);
+    }
+
+    @Override
+    public Matrix subtractInto(Matrix other, Matrix dest) throws IllegalArgumentException {
+        if (!matchingSize(dest)) {
+            throw new IllegalArgumentException("destination matrix size must be identical for subtraction");
+        }
+        return subtract(other).copyInto(dest);
+    }
+
+    @Override
+    public Matrix multiplyInto(Matrix other, Matrix dest) throws IllegalArgumentException {
+        if (nCols() != other.nRows()) {
+            throw new IllegalArgumentException("invalid matrix size for matrix multiplication");
+        }
+        if (dest.nRows() != nRows() || dest.nCols() != other.nCols()) {
+            throw new IllegalArgumentException("invalid destination matrix size for matrix multiplication");
+        }
+        if (dest == this || dest == other) {
+            throw new IllegalArgumentException("destination matrix must not be an operand of matrix multiplication");
+        }
+        return multiply(other).copyInto(dest);
+    }
+
+    @Override
+    public Matrix transposeInto(Matrix dest) throws IllegalArgumentException {
+        if (dest.nRows() != nCols() || dest.nCols() != nRows()) {
+            throw new IllegalArgumentException("invalid destination matrix size for transposition");
+        }
+        if (dest == this) {
+            throw new IllegalArgumentException("destination matrix must not be the matrix being transposed");
+        }
+        return transpose().copyInto(dest);
+    }
+
+    @Override
+    public Matrix copyInto(Matrix dest) throws IllegalArgumentException {
+        if (!matchingSize(dest)) {
+            throw new IllegalArgumentException("destination matrix size must be identical for copying");
+        }
+        if (dest == this) {
+            return dest;
+        }
+        if (dest instanceof SparseMatrix) {
+            ((SparseMatrix) dest).assign(copySparse());
+            return dest;
+        }
+        double[] d = ArrayMatrix.denseDataOf(dest);
+        if (d != null) {
+            Arrays.fill(d, 0.0);
+            scatter(d);
+            return dest;
+        }
+        for (int r = 0; r < nRows; ++r) {
+            int k = rowPtr[r];
+            for (int c = 0; c < nCols; ++c) {
+                if (k < rowPtr[r + 1] && colIdx[k] == c) {
+                    dest.set(r, c, values[k++]);
+                } else {
+                    dest.set(r, c, 0.0);
+                }
+            }
+        }
+        return dest;
+    }
+
+    @Override
+    public double sum() {
+        double sum = 0.0;
+        for (int k = 0; k < nonZeros(); ++k) {
+            sum += values[k];
+        }
+        return sum;
+    }
+
+    @Override
+    public double frobeniusNorm() {
+        double sum = 0.0;
+        for (int k = 0; k < nonZeros(); ++k) {
+            sum += values[k] * values[k];
+        }
+        return Math.sqrt(sum);
+    }
+
+    /**
+     * Replace the contents of this matrix with those of the given matrix of the same size, without copying.
+     */
+    private void assign(SparseMatrix other) {
+        rowPtr = other.rowPtr;
+        colIdx = other.colIdx;
+        values = other.values;
+    }
+
+    private SparseMatrix copySparse() {
+        int nnz = nonZeros();
+        return new SparseMatrix(
+                nRows,
+                nCols,
+                rowPtr.clone(),
+                Arrays.copyOf(colIdx, nnz),
+                Arrays.copyOf(values, nnz)
+        );
+    }
+
+    /**
+     * Find the index in {@code colIdx}/{@code values} of the element at the given (normalized) row and column, or
+     * {@code -(insertion point) - 1} if it is zero (i.e. not stored).
+     */
+    private int find(int row, int col) {
+        return Arrays.binarySearch(colIdx, rowPtr[row], rowPtr[row + 1], col);
+    }
+
+    @Override
+    public double get(int row, int col) throws IndexOutOfBoundsException {
+        row = CalcUtil.normalizeArrayIndexRestrictive(row, nRows());
+        col = CalcUtil.normalizeArrayIndexRestrictive(col, nCols());
+        int k = find(row, col);
+        return k >= 0 ? values[k] : 0.0;
+    }
+
+    @Override
+    public void set(int row, int col, double value) throws IndexOutOfBoundsException {
+        row = CalcUtil.normalizeArrayIndexRestrictive(row, nRows());
+        col = CalcUtil.normalizeArrayIndexRestrictive(col, nCols());
+        int k = find(row, col);
+        if (k >= 0) {
+            if (value != 0.0) {
+                values[k] = value;
+            } else {
+                remove(row, k);
+            }
+        } else if (value != 0.0) {
+            insert(row, -k - 1, col, value);
+        }
+    }
+
+    private void insert(int row, int k, int col, double value) {
+        int nnz = nonZeros();
+        if (nnz == colIdx.length) {
+            int capacity = Math.max(4, 2 * nnz);
+            colIdx = Arrays.copyOf(colIdx, capacity);
+            values = Arrays.copyOf(values, capacity);
+        }
+        System.arraycopy(colIdx, k, colIdx, k + 1, nnz - k);
+        System.arraycopy(values, k, values, k + 1, nnz - k);
+        colIdx[k] = col;
+        values[k] = value;
+        for (int r = row + 1; r <= nRows; ++r) {
+            ++rowPtr[r];
+        }
+    }
+
+    private void remove(int row, int k) {
+        int nnz = nonZeros();
+        System.arraycopy(colIdx, k + 1, colIdx, k, nnz - k - 1);
+        System.arraycopy(values, k + 1, values, k, nnz - k - 1);
+        for (int r = row + 1; r <= nRows; ++r) {
+            --rowPtr[r];
+        }
+    }
+
+    /**
+     * Remove all stored zeros in one pass.
+     */
+    private void compact() {
+        int nnz = 0;
+        int k = 0;
+        for (int r = 0; r < nRows; ++r) {
+            int rowEnd = rowPtr[r + 1];
+            for (; k < rowEnd; ++k) {
+                if (values[k] != 0.0) {
+                    colIdx[nnz] = colIdx[k];
+                    values[nnz] = values[k];
+                    ++nnz;
+                }
+            }
+            rowPtr[r + 1] = nnz;
+        }
+    }
+
+    @Override
+    public double[][] toArray() {
+        double[][] copy = new double[nRows][nCols];
+        for (int r = 0; r < nRows; ++r) {
+            for (int k = rowPtr[r]; k < rowPtr[r + 1]; ++k) {
+                copy[r][colIdx[k]] = values[k];
+            }
+        }
+        return copy;
+    }
+
+    @Override
+    public void setRow(int rowIdx, Vector row) throws IndexOutOfBoundsException, IllegalArgumentException {
+        if (row.length() != nCols()) {
+            throw new IllegalArgumentException("row must be same width as matrix");
+        }
+        rowIdx = CalcUtil.normalizeArrayIndexRestrictive(rowIdx, nRows());
+        int count = 0;
+        for (int c = 0; c < nCols; ++c) {
+            if (row.get(c) != 0.0) {
+                ++count;
+            }
+        }
+        // Splice the new row in place of the old one.
+        int start = rowPtr[rowIdx];
+        int oldCount = rowPtr[rowIdx + 1] - start;
+        int nnz = nonZeros();
+        int newNnz = nnz - oldCount + count;
+        if (newNnz > colIdx.length) {
+            colIdx = Arrays.copyOf(colIdx, Math.max(newNnz, 2 * colIdx.length));
+            values = Arrays.copyOf(values, colIdx.length);
+        }
+        System.arraycopy(colIdx, start + oldCount, colIdx, start + count, nnz - start - oldCount);
+        System.arraycopy(values, start + oldCount, values, start + count, nnz - start - oldCount);
+        int k = start;
+        for (int c = 0; c < nCols; ++c) {
+            double value = row.get(c);
+            if (value != 0.0) {
+                colIdx[k] = c;
+                values[k] = value;
+                ++k;
+            }
+        }
+        for (int r = rowIdx + 1; r <= nRows; ++r) {
+            rowPtr[r] += count - oldCount;
+        }
+    }
+
+    @Override
+    public void setCol(int colIdx, Vector col) throws IndexOutOfBoundsException, IllegalArgumentException {
+        if (col.length() != nRows()) {
+            throw new IllegalArgumentException("col must be same height as matrix");
+        }
+        colIdx = CalcUtil.normalizeArrayIndexRestrictive(colIdx, nCols());
+        for (int r = 0; r < nRows; ++r) {
+            set(r, colIdx, col.get(r));
+        }
+    }
+
+    @Override
+    @SuppressWarnings("Duplicates")
+    public Matrix view(int startRow, int startCol, int endRow, int endCol) {
+        startRow = CalcUtil.normalizeArrayIndex(startRow, nRows());
+        startCol = CalcUtil.normalizeArrayIndex(startCol, nCols());
+        endRow = CalcUtil.normalizeArrayIndex(endRow, nRows());
+        endCol = CalcUtil.normalizeArrayIndex(endCol, nCols());
+        return new MatrixView(this, startRow, startCol, endRow, endCol);
+    }
+
+    @Override
+    public Matrix view(int[] rows, int[] cols) throws IndexOutOfBoundsException {
+        for (int r = 0; r < rows.length; ++r) {
+            rows[r] = CalcUtil.normalizeArrayIndexRestrictive(rows[r], nRows());
+        }
+        for (int c = 0; c < cols.length; ++c) {
+            cols[c] = CalcUtil.normalizeArrayIndexRestrictive(cols[c], nCols());
+        }
+        return new MatrixView(this, rows, cols);
+    }
+
+    @Override
+    public Vector viewRow(int row) throws IndexOutOfBoundsException {
+        return MatrixVectorView.newRowView(this, CalcUtil.normalizeArrayIndexRestrictive(row, nRows()));
+    }
+
+    @Override
+    public Vector viewCol(int col) throws IndexOutOfBoundsException {
+        return MatrixVectorView.newColView(this, CalcUtil.normalizeArrayIndexRestrictive(col, nCols()));
+    }
+
+    @Override
+    @SuppressWarnings("Duplicates")
+    public Matrix copy(int startRow, int startCol, int endRow, int endCol) {
+        startRow = CalcUtil.normalizeArrayIndex(startRow, nRows());
+        startCol = CalcUtil.normalizeArrayIndex(startCol, nCols());
+        endRow = CalcUtil.normalizeArrayIndex(endRow, nRows());
+        endCol = CalcUtil.normalizeArrayIndex(endCol, nCols());
+        int nRows = Math.max(endRow - startRow, 0);
+        int nCols = Math.max(endCol - startCol, 0);
+        Builder builder = new Builder(nRows, nCols);
+        for (int r = 0; r < nRows; ++r) {
+            for (int k = rowPtr[startRow + r]; k < rowPtr[startRow + r + 1]; ++k) {
+                if (startCol <= colIdx[k] && colIdx[k] < endCol) {
+                    builder.add(r, colIdx[k] - startCol, values[k]);
+                }
+            }
+        }
+        return builder.build();
+    }
+
+    @Override
+    public Matrix copy(int[] rows, int[] cols) throws IndexOutOfBoundsException {
+        Builder builder = new Builder(rows.length, cols.length);
+        for (int r = 0; r < rows.length; ++r) {
+            int row = CalcUtil.normalizeArrayIndexRestrictive(rows[r], nRows());
+            for (int c = 0; c < cols.length; ++c) {
+                int k = find(row, CalcUtil.normalizeArrayIndexRestrictive(cols[c], nCols()));
+                if (k >= 0) {
+                    builder.add(r, c, values[k]);
+                }
+            }
+        }
+        return builder.build();
+    }
+
+    @Override
+    public Vector copyRow(int row) throws IndexOutOfBoundsException {
+        row = CalcUtil.normalizeArrayIndexRestrictive(row, nRows());
+        double[] rowData = new double[nCols];
+        for (int k = rowPtr[row]; k < rowPtr[row + 1]; ++k) {
+            rowData[colIdx[k]] = values[k];
+        }
+        return new ArrayVector(rowData);
+    }
+
+    @Override
+    public Vector copyCol(int col) throws IndexOutOfBoundsException {
+        col = CalcUtil.normalizeArrayIndexRestrictive(col, nCols());
+        double[] colData = new double[nRows];
+        for (int r = 0; r < nRows; ++r) {
+            int k = find(r, col);
+            if (k >= 0) {
+                colData[r] = values[k];
+            }
+        }
+        return new ArrayVector(colData);
+    }
+
+    /**
+     * Call the given visitor for each stored (non-zero) element of this matrix, in row-major order.
+     * @param visitor the visitor.
+     */
+    public void visitNonZeros(MatrixEntryVisitor visitor) {
+        for (int r = 0; r < nRows; ++r) {
+            for (int k = rowPtr[r]; k < rowPtr[r + 1]; ++k) {
+                visitor.visit(r, colIdx[k], values[k]);
+            }
+        }
+    }
+
+    /**
+     * Replace each stored (non-zero) element of this matrix with the result of the given mutator, in row-major order.
+     * Elements mutated to zero are removed; zeros are left as they are.
+     * @param mutator the mutator.
+     */
+    public void mutateNonZeros(MatrixEntryMutator mutator) {
+        for (int r = 0; r < nRows; ++r) {
+            for (int k = rowPtr[r]; k < rowPtr[r + 1]; ++k) {
+                values[k] = mutator.mutate(r, colIdx[k], values[k]);
+            }
+        }
+        compact();
+    }
+
+    @Override
+    @SuppressWarnings("Duplicates")
+    public void visitRowWise(MatrixEntryVisitor visitor, int startRow, int startCol, int endRow, int endCol) {
+        startRow = CalcUtil.normalizeArrayIndex(startRow, nRows());
+        startCol = CalcUtil.normalizeArrayIndex(startCol, nCols());
+        endRow = CalcUtil.normalizeArrayIndex(endRow, nRows());
+        endCol = CalcUtil.normalizeArrayIndex(endCol, nCols());
+        // The span is every element whose row-major index is in [start, end), as for ArrayMatrix.
+        for (int r = startRow; r < endRow; ++r) {
+            int cEnd = r == endRow - 1 ? endCol : nCols;
+            int k = rowPtr[r];
+            for (int c = r == startRow ? startCol : 0; c < cEnd; ++c) {
+                // Walk the row's stored elements alongside the columns.
+                while (k < rowPtr[r + 1] && colIdx[k] < c) {
+                    ++k;
+                }
+                visitor.visit(r, c, k < rowPtr[r + 1] && colIdx[k] == c ? values[k] : 0.0);
+            }
+        }
+    }
+
+    @Override
+    @SuppressWarnings("Duplicates")
+    public void visitColWise(MatrixEntryVisitor visitor, int startRow, int startCol, int endRow, int endCol) {
+        startRow = CalcUtil.normalizeArrayIndex(startRow, nRows());
+        startCol = CalcUtil.normalizeArrayIndex(startCol, nCols());
+        endRow = CalcUtil.normalizeArrayIndex(endRow, nRows());
+        endCol = CalcUtil.normalizeArrayIndex(endCol, nCols());
+        // The span is every element whose column-major index is in [start, end).
+        for (int c = startCol; c < endCol; ++c) {
+            int rEnd = c == endCol - 1 ? endRow : nRows;
+            for (int r = c == startCol ? startRow : 0; r < rEnd; ++r) {
+                int k = find(r, c);
+                visitor.visit(r, c, k >= 0 ? values[k] : 0.0);
+            }
+        }
+    }
+
+    @Override
+    public void visitRows(MatrixVectorVisitor visitor, int startRow, int endRow) {
+        startRow = CalcUtil.normalizeArrayIndex(startRow, nRows());
+        endRow = CalcUtil.normalizeArrayIndex(endRow, nRows());
+        for (int r = startRow; r < endRow; ++r) {
+            visitor.visit(r, copyRow(r));
+        }
+    }
+
+    @Override
+    public void visitCols(MatrixVectorVisitor visitor, int startCol, int endCol) {
+        startCol = CalcUtil.normalizeArrayIndex(startCol, nCols());
+        endCol = CalcUtil.normalizeArrayIndex(endCol, nCols());
+        for (int c = startCol; c < endCol; ++c) {
+            visitor.visit(c, copyCol(c));
+        }
+    }
+
+    @Override
+    @SuppressWarnings("Duplicates")
+    public void mutateRowWise(MatrixEntryMutator mutator, int startRow, int startCol, int endRow, int endCol) {
+        startRow = CalcUtil.normalizeArrayIndex(startRow, nRows());
+        startCol = CalcUtil.normalizeArrayIndex(startCol, nCols());
+        endRow = CalcUtil.normalizeArrayIndex(endRow, nRows());
+        endCol = CalcUtil.normalizeArrayIndex(endCol, nCols());
+        // Zeros may become non-zero anywhere in the span, so mutate a dense copy and compress it again.
+        double[] dense = new double[nRows * nCols];
+        scatter(dense);
+        for (int r = startRow; r < endRow; ++r) {
+            int cEnd = r == endRow - 1 ? endCol : nCols;
+            for (int c = r == startRow ? startCol : 0; c < cEnd; ++c) {
+                dense[r * nCols + c] = mutator.mutate(r, c, dense[r * nCols + c]);
+            }
+        }
+        assign(fromDenseArray(nRows, nCols, dense));
+    }
+
+    @Override
+    @SuppressWarnings("Duplicates")
+    public void mutateColWise(MatrixEntryMutator mutator, int startRow, int startCol, int endRow, int endCol) {
+        startRow = CalcUtil.normalizeArrayIndex(startRow, nRows());
+        startCol = CalcUtil.normalizeArrayIndex(startCol, nCols());
+        endRow = CalcUtil.normalizeArrayIndex(endRow, nRows());
+        endCol = CalcUtil.normalizeArrayIndex(endCol, nCols());
+        double[] dense = new double[nRows * nCols];
+        scatter(dense);
+        for (int c = startCol; c < endCol; ++c) {
+            int rEnd = c == endCol - 1 ? endRow : nRows;
+            for (int r = c == startCol ? startRow : 0; r < rEnd; ++r) {
+                dense[r * nCols + c] = mutator.mutate(r, c, dense[r * nCols + c]);
+            }
+        }
+        assign(fromDenseArray(nRows, nCols, dense));
+    }
+
+    @Override
+    public void mutateRows(MatrixVectorMutator mutator, int startRow, int endRow) {
+        startRow = CalcUtil.normalizeArrayIndex(startRow, nRows());
+        endRow = CalcUtil.normalizeArrayIndex(endRow, nRows());
+        for (int r = startRow; r < endRow; ++r) {
+            setRow(r, mutator.mutate(r, copyRow(r)));
+        }
+    }
+
+    @Override
+    public void mutateCols(MatrixVectorMutator mutator, int startCol, int endCol) {
+        startCol = CalcUtil.normalizeArrayIndex(startCol, nCols());
+        endCol = CalcUtil.normalizeArrayIndex(endCol, nCols());
+        for (int c = startCol; c < endCol; ++c) {
+            setCol(c, mutator.mutate(c, copyCol(c)));
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (int r = 0; r < nRows(); ++r) {
+            for (int c = 0; c < nCols() - 1; ++c) {
+                sb.append(get(r, c)).append(" ");
+            }
+            // So that there's not an extra space on the end of each row
+            sb.append(get(r, nCols() - 1));
+            if (r != nRows() - 1) {
+                sb.append("\n");
+            }
+        }
+        return sb.toString();
+    }
+}
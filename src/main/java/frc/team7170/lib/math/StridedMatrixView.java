@@ -0,0 +1,261 @@
+package frc.team7170.lib.math;
+
+import java.util.Arrays;
+
+/**
+ * A view of a rectangular block of a row-major flat array: element {@code (r, c)} of the view is at index
+ * {@code offset + r * rowStride + c * colStride} of the array. Views of views (and row and column views) compose into
+ * another offset and pair of strides over the same array, so element access never goes through index arrays or the
+ * parent matrix. The layout is exposed through {@link ArrayMatrix#stridedData() stridedData}, so operations on views
+ * take {@code ArrayMatrix}'s strided fast paths rather than its generic element-by-element ones.
+ */
+// This overrides all methods in ArrayMatrix that reference data.
+class StridedMatrixView extends ArrayMatrix {
+
+    private final double[] array;
+    private final int offset;
+    private final int rowStride;
+    private final int colStride;
+    private final int nRows;
+    private final int nCols;
+
+    StridedMatrixView(double[] array, int offset, int rowStride, int colStride, int nRows, int nCols) {
+        super(new double[0][0]);
+        this.array = array;
+        this.offset = offset;
+        this.rowStride = rowStride;
+        this.colStride = colStride;
+        this.nRows = nRows;
+        this.nCols = nCols;
+    }
+
+    @Override
+    double[] denseData() {
+        return null;
+    }
+
+    @Override
+    double[] stridedData() {
+        return array;
+    }
+
+    @Override
+    int stridedOffset() {
+        return offset;
+    }
+
+    @Override
+    int rowStride() {
+        return rowStride;
+    }
+
+    @Override
+    int colStride() {
+        return colStride;
+    }
+
+    private int index(int row, int col) {
+        return offset + row * rowStride + col * colStride;
+    }
+
+    @Override
+    public int nRows() {
+        return nRows;
+    }
+
+    @Override
+    public int nCols() {
+        return nCols;
+    }
+
+    @Override
+    public double get(int row, int col) throws IndexOutOfBoundsException {
+        row = CalcUtil.normalizeArrayIndexRestrictive(row, nRows);
+        col = CalcUtil.normalizeArrayIndexRestrictive(col, nCols);
+        return array[index(row, col)];
+    }
+
+    @Override
+    public void set(int row, int col, double value) throws IndexOutOfBoundsException {
+        row = CalcUtil.normalizeArrayIndexRestrictive(row, nRows);
+        col = CalcUtil.normalizeArrayIndexRestrictive(col, nCols);
+        array[index(row, col)] = value;
+    }
+
+    @Override
+    public double[][] toArray() {
+        double[][] copy = new double[nRows][];
+        for (int r = 0; r < nRows; ++r) {
+            copy[r] = copyRowData(r);
+        }
+        return copy;
+    }
+
+    private double[] copyRowData(int row) {
+        int start = index(row, 0);
+        if (colStride == 1) {
+            return Arrays.copyOfRange(array, start, start + nCols);
+        }
+        double[] rowData = new double[nCols];
+        for (int c = 0; c < nCols; ++c) {
+            rowData[c] = array[start + c * colStride];
+        }
+        return rowData;
+    }
+
+    @Override
+    public void setRow(int rowIdx, Vector row) throws IndexOutOfBoundsException, IllegalArgumentException {
+        if (row.length() != nCols) {
+            throw new IllegalArgumentException("row must be same width as matrix");
+        }
+        rowIdx = CalcUtil.normalizeArrayIndexRestrictive(rowIdx, nRows);
+        int start = index(rowIdx, 0);
+        for (int c = 0; c < nCols; ++c) {
+            array[start + c * colStride] = row.get(c);
+        }
+    }
+
+    @Override
+    public void setCol(int colIdx, Vector col) throws IndexOutOfBoundsException, IllegalArgumentException {
+        if (col.length() != nRows) {
+            throw new IllegalArgumentException("col must be same height as matrix");
+        }
+        colIdx = CalcUtil.normalizeArrayIndexRestrictive(colIdx, nCols);
+        int start = index(0, colIdx);
+        for (int r = 0; r < nRows; ++r) {
+            array[start + r * rowStride] = col.get(r);
+        }
+    }
+
+    @Override
+    @SuppressWarnings("Duplicates")
+    public Matrix view(int startRow, int startCol, int endRow, int endCol) {
+        startRow = CalcUtil.normalizeArrayIndex(startRow, nRows);
+        startCol = CalcUtil.normalizeArrayIndex(startCol, nCols);
+        endRow = CalcUtil.normalizeArrayIndex(endRow, nRows);
+        endCol = CalcUtil.normalizeArrayIndex(endCol, nCols);
+        return new StridedMatrixView(
+                array,
+                index(startRow, startCol),
+                rowStride,
+                colStride,
+                Math.max(endRow - startRow, 0),
+                Math.max(endCol - startCol, 0)
+        );
+    }
+
+    @Override
+    public Vector viewRow(int row) throws IndexOutOfBoundsException {
+        row = CalcUtil.normalizeArrayIndexRestrictive(row, nRows);
+        return new StridedVectorView(array, index(row, 0), colStride, nCols);
+    }
+
+    @Override
+    public Vector viewCol(int col) throws IndexOutOfBoundsException {
+        col = CalcUtil.normalizeArrayIndexRestrictive(col, nCols);
+        return new StridedVectorView(array, index(0, col), rowStride, nRows);
+    }
+
+    @Override
+    public Matrix copy(int startRow, int startCol, int endRow, int endCol) {
+        Matrix view = view(startRow, startCol, endRow, endCol);
+        return view.copyInto(new ArrayMatrix(view.nRows(), view.nCols()));
+    }
+
+    @Override
+    public Vector copyRow(int row) throws IndexOutOfBoundsException {
+        row = CalcUtil.normalizeArrayIndexRestrictive(row, nRows);
+        return new ArrayVector(copyRowData(row));
+    }
+
+    @Override
+    public Vector copyCol(int col) throws IndexOutOfBoundsException {
+        col = CalcUtil.normalizeArrayIndexRestrictive(col, nCols);
+        double[] colData = new double[nRows];
+        int start = index(0, col);
+        for (int r = 0; r < nRows; ++r) {
+            colData[r] = array[start + r * rowStride];
+        }
+        return new ArrayVector(colData);
+    }
+
+    @Override
+    public Matrix copyInto(Matrix dest) throws IllegalArgumentException {
+        double[] d = denseDataOf(dest);
+        if (d == null) {
+            return super.copyInto(dest);
+        }
+        if (dest.nRows() != nRows || dest.nCols() != nCols) {
+            throw new IllegalArgumentException("destination matrix size must be identical for copying");
+        }
+        for (int r = 0; r < nRows; ++r) {
+            int start = index(r, 0);
+            if (colStride == 1) {
+                System.arraycopy(array, start, d, r * nCols, nCols);
+            } else {
+                for (int c = 0; c < nCols; ++c) {
+                    d[r * nCols + c] = array[start + c * colStride];
+                }
+            }
+        }
+        return dest;
+    }
+
+    @Override
+    public Matrix addInPlace(double value) {
+        mutateBlock(value, false);
+        return this;
+    }
+
+    @Override
+    public Matrix multiplyInPlace(double value) {
+        mutateBlock(value, true);
+        return this;
+    }
+
+    private void mutateBlock(double value, boolean multiply) {
+        for (int r = 0; r < nRows; ++r) {
+            int start = index(r, 0);
+            int end = start + nCols * colStride;
+            for (int i = start; i != end; i += colStride) {
+                array[i] = multiply ? array[i] * value : array[i] + value;
+            }
+        }
+    }
+
+    @Override
+    @SuppressWarnings("Duplicates")
+    public void visitRowWise(MatrixEntryVisitor visitor, int startRow, int startCol, int endRow, int endCol) {
+        startRow = CalcUtil.normalizeArrayIndex(startRow, nRows);
+        startCol = CalcUtil.normalizeArrayIndex(startCol, nCols);
+        endRow = CalcUtil.normalizeArrayIndex(endRow, nRows);
+        endCol = CalcUtil.normalizeArrayIndex(endCol, nCols);
+        // As for ArrayMatrix, the span is every element whose row-major index (within the view) is in the range.
+        for (int r = startRow; r < endRow; ++r) {
+            int c0 = r == startRow ? startCol : 0;
+            int c1 = r == endRow - 1 ? endCol : nCols;
+            int rowStart = index(r, 0);
+            for (int c = c0; c < c1; ++c) {
+                visitor.visit(r, c, array[rowStart + c * colStride]);
+            }
+        }
+    }
+
+    @Override
+    @SuppressWarnings("Duplicates")
+    public void mutateRowWise(MatrixEntryMutator mutator, int startRow, int startCol, int endRow, int endCol) {
+        startRow = CalcUtil.normalizeArrayIndex(startRow, nRows);
+        startCol = CalcUtil.normalizeArrayIndex(startCol, nCols);
+        endRow = CalcUtil.normalizeArrayIndex(endRow, nRows);
+        endCol = CalcUtil.normalizeArrayIndex(endCol, nCols);
+        for (int r = startRow; r < endRow; ++r) {
+            int c0 = r == startRow ? startCol : 0;
+            int c1 = r == endRow - 1 ? endCol : nCols;
+            int rowStart = index(r, 0);
+            for (int c = c0; c < c1; ++c) {
+                int i = rowStart + c * colStride;
+                array[i] = mutator.mutate(r, c, array[i]);
+            }
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package frc.team7170.lib.math;
+
+import java.util.Arrays;
+
+/**
+ * A view of evenly spaced elements of an array: element {@code i} of the view is at index
+ * {@code offset + i * stride} of the array. Used for views of contiguous ranges of {@link ArrayVector ArrayVector}s
+ * and for row and column views of {@link ArrayMatrix ArrayMatrix}s. The layout is exposed through
+ * {@link ArrayVector#stridedData() stridedData}, so matrix-vector products involving views take {@code ArrayMatrix}'s
+ * strided fast path.
+ */
+// This overrides all methods in ArrayVector that reference data.
+class StridedVectorView extends ArrayVector {
+
+    private final double[] array;
+    private final int offset;
+    private final int stride;
+    private final int length;
+
+    StridedVectorView(double[] array, int offset, int stride, int length) {
+        super(new double[0]);
+        this.array = array;
+        this.offset = offset;
+        this.stride = stride;
+        this.length = length;
+    }
+
+    @Override
+    double[] denseData() {
+        return null;
+    }
+
+    @Override
+    double[] stridedData() {
+        return array;
+    }
+
+    @Override
+    int stridedOffset() {
+        return offset;
+    }
+
+    @Override
+    int stride() {
+        return stride;
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public double get(int idx) throws IndexOutOfBoundsException {
+        idx = CalcUtil.normalizeArrayIndexRestrictive(idx, length);
+        return array[offset + idx * stride];
+    }
+
+    @Override
+    public void set(int idx, double value) throws IndexOutOfBoundsException {
+        idx = CalcUtil.normalizeArrayIndexRestrictive(idx, length);
+        array[offset + idx * stride] = value;
+    }
+
+    @Override
+    public double[] toArray() {
+        if (stride == 1) {
+            return Arrays.copyOfRange(array, offset, offset + length);
+        }
+        double[] copy = new double[length];
+        for (int i = 0; i < length; ++i) {
+            copy[i] = array[offset + i * stride];
+        }
+        return copy;
+    }
+
+    @Override
+    public Vector view(int startIdx, int endIdx) {
+        startIdx = CalcUtil.normalizeArrayIndex(startIdx, length);
+        endIdx = CalcUtil.normalizeArrayIndex(endIdx, length);
+        return new StridedVectorView(array, offset + startIdx * stride, stride, Math.max(endIdx - startIdx, 0));
+    }
+
+    @Override
+    public Vector copy(int startIdx, int endIdx) {
+        return new ArrayVector(view(startIdx, endIdx).toArray());
+    }
+
+    @Override
+    public void visit(VectorVisitor visitor, int startIdx, int endIdx) {
+        startIdx = CalcUtil.normalizeArrayIndex(startIdx, length);
+        endIdx = CalcUtil.normalizeArrayIndex(endIdx, length);
+        for (int i = startIdx; i < endIdx; ++i) {
+            visitor.visit(i, array[offset + i * stride]);
+        }
+    }
+
+    @Override
+    public void mutate(VectorMutator mutator, int startIdx, int endIdx) {
+        startIdx = CalcUtil.normalizeArrayIndex(startIdx, length);
+        endIdx = CalcUtil.normalizeArrayIndex(endIdx, length);
+        for (int i = startIdx; i < endIdx; ++i) {
+            int j = offset + i * stride;
+            array[j] = mutator.mutate(i, array[j]);
+        }
+    }
+
+    @Override
+    public Matrix asRowMatrix() {
+        return new ArrayMatrix(1, length, toArray());
+    }
+
+    @Override
+    public Matrix asColMatrix() {
+        return new ArrayMatrix(length, 1, toArray());
+    }
+}
@@ -0,0 +1,183 @@
+package frc.team7170.lib.math;
+
+/**
+ * <p>
+ * An immutable vector of length 2, stored in two fields rather than an array. All operations are fully unrolled and
+ * allocate at most the result, which makes this suitable for geometry that runs every loop iteration (e.g. odometry).
+ * </p>
+ * <p>
+ * {@code Vec2} does not implement {@link Vector Vector}, since views, visitors, and index-based access would defeat
+ * its purpose; use {@link Vec2#toVector() toVector} to interoperate with general vectors.
+ * </p>
+ *
+ * @see Mat2
+ * @see Mat3
+ */
+public final class Vec2 {
+
+    public static final Vec2 ZERO = new Vec2(0.0, 0.0);
+
+    public final double x;
+    public final double y;
+
+    /**
+     * @param x the first component.
+     * @param y the second component.
+     */
+    public Vec2(double x, double y) {
+        this.x = x;
+        this.y = y;
+    }
+
+    /**
+     * Create a {@code Vec2} from the elements of the given {@link Vector Vector}.
+     * @param vector the vector, which must have length 2.
+     * @return a {@code Vec2} with the elements of the given vector.
+     * @throws IllegalArgumentException if the given vector does not have length 2.
+     */
+    public static Vec2 fromVector(Vector vector) throws IllegalArgumentException {
+        if (vector.length() != 2) {
+            throw new IllegalArgumentException("vector must have length 2");
+        }
+        return new Vec2(vector.get(0), vector.get(1));
+    }
+
+    /**
+     * Calculate and return the Euclidean norm of this vector.
+     * @return the Euclidean norm of this vector.
+     */
+    public double norm() {
+        // Math.hypot guards against overflow, which is not a concern here, at several times the cost.
+        return Math.sqrt(x * x + y * y);
+    }
+
+    /**
+     * Add this vector and the given vector and return the result.
+     * @param other the vector to add to this vector.
+     * @return the sum of this vector and the given vector.
+     */
+    public Vec2 add(Vec2 other) {
+        return new Vec2(x + other.x, y + other.y);
+    }
+
+    /**
+     * Add the given value to each element of this vector and return the result.
+     * @param value the value to add to each element of this vector.
+     * @return this vector's elements plus the given value.
+     */
+    public Vec2 add(double value) {
+        return new Vec2(x + value, y + value);
+    }
+
+    /**
+     * Subtract the given vector from this vector and return the result.
+     * @param other the vector to subtract from this vector.
+     * @return this vector less the given vector.
+     */
+    public Vec2 subtract(Vec2 other) {
+        return new Vec2(x - other.x, y - other.y);
+    }
+
+    /**
+     * Subtract the given value from each element of this vector and return the result.
+     * @param value the value to subtract from each element of this vector.
+     * @return this vector's elements less the given value.
+     */
+    public Vec2 subtract(double value) {
+        return new Vec2(x - value, y - value);
+    }
+
+    /**
+     * Scale this vector by the given value and return the result.
+     * @param value the value to scale each element of this vector by.
+     * @return this vector scaled by the given value.
+     */
+    public Vec2 scale(double value) {
+        return new Vec2(x * value, y * value);
+    }
+
+    /**
+     * Calculate and return the inverse of this vector; that is, this vector scaled by {@code -1}.
+     * @return the inverse of this vector.
+     */
+    public Vec2 inverse() {
+        return new Vec2(-x, -y);
+    }
+
+    /**
+     * Multiply the given vector and this vector element-wise and return the result.
+     * @param other the vector to multiply with this vector.
+     * @return this vector's elements times the given vector's elements.
+     */
+    public Vec2 multiplyElementWise(Vec2 other) {
+        return new Vec2(x * other.x, y * other.y);
+    }
+
+    /**
+     * Raise each element of this vector to the given power and return the result.
+     * @param power the power to raise each element of this vector to.
+     * @return this vector's elements raised to the given power.
+     */
+    public Vec2 power(double power) {
+        return new Vec2(Math.pow(x, power), Math.pow(y, power));
+    }
+
+    /**
+     * Calculate and return the dot product of this vector and the given vector.
+     * @param other the vector to "dot with" this vector.
+     * @return the dot product of this vector and the given vector.
+     */
+    public double dot(Vec2 other) {
+        return x * other.x + y * other.y;
+    }
+
+    /**
+     * Calculate and return the (scalar) cross product of this vector and the given vector; that is, the {@code z}
+     * component of the cross product of the two vectors extended into three dimensions.
+     * @param other the vector to cross with this vector.
+     * @return the cross product of this vector and the given vector.
+     */
+    public double cross(Vec2 other) {
+        return x * other.y - y * other.x;
+    }
+
+    /**
+     * Rotate this vector about the origin by the angle with the given cosine and sine and return the result.
+     * @param cos the cosine of the angle to rotate by.
+     * @param sin the sine of the angle to rotate by.
+     * @return this vector rotated by the given angle.
+     */
+    public Vec2 rotate(double cos, double sin) {
+        return new Vec2(x * cos - y * sin, x * sin + y * cos);
+    }
+
+    /**
+     * Copy this vector into a new {@link Vector Vector}.
+     * @return a new vector of length 2 with the elements of this vector.
+     */
+    public Vector toVector() {
+        return new ArrayVector(new double[] {x, y});
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof Vec2)) {
+            return false;
+        }
+        Vec2 other = (Vec2) obj;
+        return Double.compare(x, other.x) == 0 && Double.compare(y, other.y) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Double.hashCode(x) + Double.hashCode(y);
+    }
+
+    @Override
+    public String toString() {
+        return x + " " + y;
+    }
+}
@@ -105,6 +105,82 @@ public interface Vector {
      */
     Vector power(double power);
 
+    /**
+     * Add the given vector to this vector in place. The given vector is unchanged.
+     * @param other the vector to add to this vector.
+     * @return this vector.
+     * @throws IllegalArgumentException if the dimensions of the given vector are not congruent with this vector.
+     */
+    default Vector addInPlace(Vector other) throws IllegalArgumentException {
+        if (length() != other.length()) {
+            throw new IllegalArgumentException("vector size must be identical for addition");
+        }
+        mutate((i, value) -> value + other.get(i));
+        return this;
+    }
+
+    /**
+     * Add the given value to each element of this vector in place.
+     * @param value the value to add to each element of this vector.
+     * @return this vector.
+     */
+    default Vector addInPlace(double value) {
+        mutate((i, thisValue) -> thisValue + value);
+        return this;
+    }
+
+    /**
+     * Subtract the given vector from this vector in place. The given vector is unchanged.
+     * @param other the vector to subtract from this vector.
+     * @return this vector.
+     * @throws IllegalArgumentException if the dimensions of the given vector are not congruent with this vector.
+     */
+    default Vector subtractInPlace(Vector other) throws IllegalArgumentException {
+        if (length() != other.length()) {
+            throw new IllegalArgumentException("vector size must be identical for subtraction");
+        }
+        mutate((i, value) -> value - other.get(i));
+        return this;
+    }
+
+    /**
+     * Scale this vector by the given value in place.
+     * @param value the value to scale each element of this vector by.
+     * @return this vector.
+     */
+    default Vector scaleInPlace(double value) {
+        mutate((i, thisValue) -> thisValue * value);
+        return this;
+    }
+
+    /**
+     * Multiply this vector by the given vector element-wise in place. The given vector is unchanged.
+     * @param other the vector to multiply with this vector.
+     * @return this vector.
+     * @throws IllegalArgumentException if the dimensions of the given vector are not congruent with this vector.
+     */
+    default Vector multiplyElementWiseInPlace(Vector other) throws IllegalArgumentException {
+        if (length() != other.length()) {
+            throw new IllegalArgumentException("vector size must be identical for element-wise multiplication");
+        }
+        mutate((i, value) -> value * other.get(i));
+        return this;
+    }
+
+    /**
+     * Copy the elements of this vector into the given destination vector. This vector is unchanged.
+     * @param dest the vector to copy into.
+     * @return the destination vector.
+     * @throws IllegalArgumentException if the dimensions of the destination vector are not congruent with this vector.
+     */
+    default Vector copyInto(Vector dest) throws IllegalArgumentException {
+        if (length() != dest.length()) {
+            throw new IllegalArgumentException("destination vector size must be identical for copying");
+        }
+        visit(dest::set);
+        return dest;
+    }
+
     /**
      * Get the element at the given index.
      * @param idx the index, zero-indexed. A negative index is interpreted as starting from the end.
@@ -1,27 +1,22 @@
 package frc.team7170.lib.math.geometry2d;
 
-import frc.team7170.lib.math.Matrix;
-import frc.team7170.lib.math.ArrayMatrix;
+import frc.team7170.lib.math.Mat3;
 
 public class AffineTransformation2D {
 
-    private static final Matrix IDENTITY = new ArrayMatrix(new double[][] {
-            new double[] {1.0, 0.0, 0.0},
-            new double[] {0.0, 1.0, 0.0},
-            new double[] {0.0, 0.0, 1.0}
-    });
+    public static final AffineTransformation2D IDENTITY = new AffineTransformation2D();
 
-    private final Matrix matrix;
+    private final Mat3 matrix;
 
     public AffineTransformation2D() {
-        matrix = IDENTITY;
+        matrix = Mat3.IDENTITY;
     }
 
-    private AffineTransformation2D(Matrix matrix) {
+    private AffineTransformation2D(Mat3 matrix) {
         this.matrix = matrix;
     }
 
-    public Matrix getMatrix() {
+    public Mat3 getMatrix() {
         return matrix;
     }
 
@@ -30,7 +25,7 @@ public class AffineTransformation2D {
     }
 
     public AffineTransformation2D translate(double x, double y) {
-        return new AffineTransformation2D(matrix.multiply(newMat(1.0, 0.0, x, 0.0, 1.0, y)));
+        return new AffineTransformation2D(matrix.multiplyAffine(1.0, 0.0, x, 0.0, 1.0, y));
     }
 
     public AffineTransformation2D translate(Vector2D vector) {
@@ -43,8 +38,9 @@ public class AffineTransformation2D {
         double x = about.getX();
         double y = about.getY();
         // This is what you get if you translate by (x, y), rotate by the given angle, then translate by (-x, -y).
-        Matrix rotMat = newMat(cos, -sin, x + y*sin - x*cos, sin, cos, y - y*cos - x*sin);
-        return new AffineTransformation2D(matrix.multiply(rotMat));
+        return new AffineTransformation2D(
+                matrix.multiplyAffine(cos, -sin, x + y*sin - x*cos, sin, cos, y - y*cos - x*sin)
+        );
     }
 
     public AffineTransformation2D rotate(Angle angle) {
@@ -52,7 +48,7 @@ public class AffineTransformation2D {
     }
 
     public AffineTransformation2D stretch(double kx, double ky) {
-        return new AffineTransformation2D(matrix.multiply(newMat(kx, 0.0, 0.0, 0.0, ky, 0.0)));
+        return new AffineTransformation2D(matrix.multiplyAffine(kx, 0.0, 0.0, 0.0, ky, 0.0));
     }
 
     public AffineTransformation2D squeeze(double k) {
@@ -60,22 +56,14 @@ public class AffineTransformation2D {
     }
 
     public AffineTransformation2D shearX(double k) {
-        return new AffineTransformation2D(matrix.multiply(newMat(1.0, k, 0.0, 0.0, 1.0, 0.0)));
+        return new AffineTransformation2D(matrix.multiplyAffine(1.0, k, 0.0, 0.0, 1.0, 0.0));
     }
 
     public AffineTransformation2D shearY(double k) {
-        return new AffineTransformation2D(matrix.multiply(newMat(1.0, 0.0, 0.0, k, 1.0, 0.0)));
+        return new AffineTransformation2D(matrix.multiplyAffine(1.0, 0.0, 0.0, k, 1.0, 0.0));
     }
 
     public AffineTransformation2D reflect(Line2D line) {
         return null;  // TODO
     }
-
-    private static Matrix newMat(double a00, double a01, double a02, double a10, double a11, double a12) {
-        return new ArrayMatrix(new double[][] {
-                new double[] {a00, a01, a02},
-                new double[] {a10, a11, a12},
-                new double[] {0.0, 0.0, 1.0}
-        });
-    }
 }
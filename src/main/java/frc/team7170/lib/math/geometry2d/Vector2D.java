@@ -1,34 +1,37 @@
 package frc.team7170.lib.math.geometry2d;
 
-import frc.team7170.lib.math.ArrayVector;
-import frc.team7170.lib.math.Vector;
+import frc.team7170.lib.math.Vec2;
 
 /**
  * A vector of cardinality 2 for use in 2D geometry. As per convention, the two components are called {@code x} and
  * {@code y}, respectively.
- * @implSpec This uses a {@link Vector Vector} behind the scenes.
+ * @implSpec This uses a {@link Vec2 Vec2} behind the scenes.
  * @author Robert Russell
  */
 public class Vector2D implements Geometry<Vector2D> {
 
-    public static final Vector2D ORIGIN = new Vector2D(0, 0);
+    public static final Vector2D ORIGIN = new Vector2D(Vec2.ZERO);
 
-    private final Vector vector;
+    private final Vec2 vector;
 
     public Vector2D(double x, double y) {
-        vector = new ArrayVector(new double[] {x, y});
+        vector = new Vec2(x, y);
     }
 
-    private Vector2D(Vector vector) {
+    public Vector2D(Vec2 vector) {
         this.vector = vector;
     }
 
+    public Vec2 getVec2() {
+        return vector;
+    }
+
     public double getX() {
-        return vector.get(0);
+        return vector.x;
     }
 
     public double getY() {
-        return vector.get(1);
+        return vector.y;
     }
 
     public double norm() {
@@ -73,6 +76,6 @@ public class Vector2D implements Geometry<Vector2D> {
 
     @Override
     public Vector2D transform(AffineTransformation2D transformation) {
-        return null;  // TODO
+        return new Vector2D(transformation.getMatrix().transformPoint(vector));
     }
 }
@@ -4,12 +4,30 @@ import edu.wpi.first.networktables.*;
 import frc.team7170.lib.Name;
 import frc.team7170.lib.Named;
 import frc.team7170.lib.ReflectUtil;
-
+import frc.team7170.lib.command.CmdTimedRunnable;
+import frc.team7170.lib.looping.Looper;
+import frc.team7170.lib.networktables.transport.NTCoreTransport;
+import frc.team7170.lib.networktables.transport.NTEntry;
+import frc.team7170.lib.networktables.transport.NTTransport;
+
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.*;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+import java.util.function.BooleanSupplier;
 import java.util.function.Consumer;
+import java.util.function.DoubleSupplier;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -28,6 +46,14 @@ public final class Communication implements Named {
     private final Map<String, Transmitter> transmitterMap = new HashMap<>();
     private final Map<String, Receiver> receiverMap = new HashMap<>();
 
+    private final TransmitScheduler transmitScheduler = new TransmitScheduler();
+    // Exactly one of these drives the transmit scheduler once any transmitter has been registered.
+    private CmdTimedRunnable transmitCommand = null;
+    private Looper transmitLooper = null;
+
+    // Resolved lazily so that ntcore is never loaded if another transport is set first.
+    private NTTransport transport = null;
+
     private Communication() {}
 
     private static final Communication INSTANCE = new Communication();
@@ -36,8 +62,67 @@ public final class Communication implements Named {
         return INSTANCE;
     }
 
+    /**
+     * Get the {@link TransmitScheduler TransmitScheduler} that runs all transmitters, e.g. to read its metrics.
+     *
+     * @return the {@code TransmitScheduler} that runs all transmitters.
+     */
+    public TransmitScheduler getTransmitScheduler() {
+        return transmitScheduler;
+    }
+
+    /**
+     * Run the {@link TransmitScheduler TransmitScheduler} in the given {@link Looper Looper} rather than in a single
+     * WPILib {@code Command} (the default). The scheduler only does work when a bucket of transmitters is due, so the
+     * {@code Looper} should loop at least as often as the fastest transmitter's poll rate.
+     *
+     * @param looper the {@code Looper} to run transmitters in, or {@code null} to go back to the default.
+     */
+    public synchronized void setTransmitLooper(Looper looper) {
+        if (looper == transmitLooper) {
+            return;
+        }
+        if (transmitLooper != null) {
+            transmitLooper.removeLoop(transmitScheduler);
+        }
+        if (transmitCommand != null) {
+            transmitCommand.cancel();
+            transmitCommand = null;
+        }
+        transmitLooper = looper;
+        if (transmitLooper != null) {
+            transmitLooper.registerLoop(transmitScheduler);
+        } else if (transmitScheduler.getNumTransmitters() > 0) {
+            startTransmitCommand();
+        }
+    }
+
+    private void startTransmitCommand() {
+        transmitCommand = new CmdTimedRunnable(transmitScheduler::run, 0);
+        transmitCommand.start();
+    }
+
+    /**
+     * Set the {@link NTTransport NTTransport} through which communicators registered by table path (rather than by
+     * {@link NetworkTable NetworkTable}) communicate. Communicators that are already registered are unaffected.
+     * Defaults to {@link NTTransport#getDefault()}.
+     *
+     * @param transport the {@code NTTransport} to use.
+     * @throws NullPointerException if the given {@code NTTransport} is {@code null}.
+     */
+    public synchronized void setTransport(NTTransport transport) {
+        this.transport = Objects.requireNonNull(transport, "transport must be non-null");
+    }
+
+    public synchronized NTTransport getTransport() {
+        if (transport == null) {
+            transport = NTTransport.getDefault();
+        }
+        return transport;
+    }
+
     public void registerStaticCommunicator(Class<?> cls, Name name, NetworkTable table) {
-        findCommAnnotations(null, cls, name, table);
+        findCommAnnotations(null, cls, name, NTCoreTransport.of(table.getInstance()), table.getPath());
     }
 
     public void registerStaticCommunicator(Class<?> cls, NetworkTable table) {
@@ -45,91 +130,427 @@ public final class Communication implements Named {
     }
 
     public void registerCommunicator(Named obj, NetworkTable table) {
-        findCommAnnotations(obj, obj.getClass(), obj.getNameObject(), table);
+        findCommAnnotations(obj, obj.getClass(), obj.getNameObject(), NTCoreTransport.of(table.getInstance()),
+                table.getPath());
+    }
+
+    /**
+     * The same as {@link Communication#registerStaticCommunicator(Class, Name, NetworkTable)}, but for the table with
+     * the given path in this {@code Communication}'s {@linkplain Communication#getTransport() transport}.
+     */
+    public void registerStaticCommunicator(Class<?> cls, Name name, String tablePath) {
+        findCommAnnotations(null, cls, name, getTransport(), tablePath);
+    }
+
+    public void registerStaticCommunicator(Class<?> cls, String tablePath) {
+        registerStaticCommunicator(cls, Name.UNNAMED, tablePath);
+    }
+
+    /**
+     * The same as {@link Communication#registerCommunicator(Named, NetworkTable)}, but for the table with the given
+     * path in this {@code Communication}'s {@linkplain Communication#getTransport() transport}.
+     */
+    public void registerCommunicator(Named obj, String tablePath) {
+        findCommAnnotations(obj, obj.getClass(), obj.getNameObject(), getTransport(), tablePath);
+    }
+
+    private void findCommAnnotations(Object obj, Class<?> cls, Name prefix, NTTransport transport, String tablePath) {
+        ClassBindings bindings = BINDINGS.get(cls);
+        for (TransmitBinding binding : bindings.transmitters) {
+            assertStaticness(obj, binding.member);
+            NTEntry entry = resolveEntry(transport, tablePath, prefix, binding.key, binding.member);
+            newTransmitter(binding.newRunnable(obj, entry), binding.pollRateMs, entry);
+        }
+        for (ReceiveBinding binding : bindings.receivers) {
+            assertStaticness(obj, binding.member);
+            NTEntry entry = resolveEntry(transport, tablePath, prefix, binding.key, binding.member);
+            newReceiver(binding.newConsumer(obj), binding.flags, entry);
+        }
+    }
+
+    /**
+     * <p>
+     * The validated communicators of each class, with accessors for their members. Classes are scanned once, on their
+     * first registration; registering further instances of a class only captures the instance in a lambda.
+     * </p>
+     * <p>
+     * Methods are called through implementations of {@code java.util.function} interfaces spun by
+     * {@link LambdaMetafactory LambdaMetafactory}, exactly as if a lambda expression calling the method had been
+     * written in its class: the call is a constant in the generated class, so the JIT can inline the member into the
+     * transmitter or receiver calling it. Fields cannot be accessed that way, so they go through method handles
+     * instead, which are not constants and so are not inlined, but still avoid {@code Field.get}'s access checks and
+     * boxing.
+     * </p>
+     */
+    private static final ClassValue<ClassBindings> BINDINGS = new ClassValue<>() {
+        @Override
+        protected ClassBindings computeValue(Class<?> type) {
+            return new ClassBindings(type);
+        }
+    };
+
+    /**
+     * How values are passed between a communicator and its entry. Primitive numbers and booleans are transmitted
+     * unboxed (via {@link NetworkTableEntry#setDouble(double)}, etc.); received values are boxed, since receivers only
+     * run when the entry changes.
+     */
+    private enum ValueKind {
+        DOUBLE,
+        BOOLEAN,
+        OBJECT,
+        NETWORK_TABLE_VALUE,
+        ENTRY_NOTIFICATION;
+
+        static ValueKind of(Class<?> cls) {
+            if (cls == boolean.class) {
+                return BOOLEAN;
+            } else if (PRIMITIVE_NUMBER_TYPES.contains(cls)) {
+                return DOUBLE;
+            }
+            return OBJECT;
+        }
+    }
+
+    /**
+     * Sends the value of a member of the given object (or {@code null} for a static member) to the given entry.
+     */
+    @FunctionalInterface
+    private interface Transmission {
+        void transmit(Object obj, NTEntry entry);
+    }
+
+    /**
+     * Passes the value in the given notification to a member of the given object (or {@code null} for a static
+     * member).
+     */
+    @FunctionalInterface
+    private interface Reception {
+        void receive(Object obj, EntryNotification notification);
+    }
+
+    private static final class ClassBindings {
+
+        private final List<TransmitBinding> transmitters = new ArrayList<>();
+        private final List<ReceiveBinding> receivers = new ArrayList<>();
+
+        private ClassBindings(Class<?> cls) {
+            ReflectUtil.getMethodAnnotationStream(cls, Transmit.class).forEach(pair -> {
+                Method method = pair.getLeft();
+                Transmit transmit = pair.getRight();
+
+                // Sanity checks.
+                if (method.getAnnotation(Receive.class) != null) {
+                    throw new IllegalCommunicatorException("a method cannot be a transmitter and a receiver");
+                }
+                ReflectUtil.assertInvokable(method);
+                ReflectUtil.assertParameterCount(method, 0);
+                assertValidNTType(method.getReturnType());
+
+                transmitters.add(new TransmitBinding(method, transmit.value(), transmit.pollRateMs(),
+                        transmission(ValueKind.of(method.getReturnType()), method, null)));
+            });
+
+            ReflectUtil.getMethodAnnotationStream(cls, Receive.class).forEach(pair -> {
+                Method method = pair.getLeft();
+                Receive receive = pair.getRight();
+
+                // Sanity checks.
+                ReflectUtil.assertInvokable(method);
+                ReflectUtil.assertParameterCount(method, 1);
+                ReflectUtil.assertReturnType(method, void.class);
+
+                ValueKind kind;
+                Class<?> paramType = method.getParameterTypes()[0];
+                if (paramType == EntryNotification.class) {
+                    kind = ValueKind.ENTRY_NOTIFICATION;
+                } else if (paramType == NetworkTableValue.class) {
+                    kind = ValueKind.NETWORK_TABLE_VALUE;
+                } else if (isValidNTType(paramType)) {
+                    kind = ValueKind.of(paramType);
+                } else {
+                    throw new IllegalCommunicatorException("invalid method parameter type; expected one of: " +
+                            "'EntryNotification', 'NetworkTableValue', or any valid networktables type");
+                }
+                receivers.add(new ReceiveBinding(method, receive.value(), receive.flags(),
+                        reception(kind, paramType, spinSetter(method))));
+            });
+
+            ReflectUtil.getFieldAnnotationStream(cls, CommField.class).forEach(pair -> {
+                Field field = pair.getLeft();
+                CommField commField = pair.getRight();
+
+                // Sanity checks.
+                assertValidNTType(field.getType());
+
+                ValueKind kind = ValueKind.of(field.getType());
+                if (commField.transmit()) {
+                    transmitters.add(new TransmitBinding(field, commField.value(), commField.pollRateMs(),
+                            transmission(kind, null, field)));
+                }
+                if (commField.receive()) {
+                    ReflectUtil.assertNonFinal(field);
+                    receivers.add(new ReceiveBinding(field, commField.value(), commField.flags(),
+                            reception(kind, field.getType(), fieldSetter(field))));
+                }
+            });
+        }
+    }
+
+    private static final class TransmitBinding {
+
+        private final Member member;
+        private final String key;
+        private final int pollRateMs;
+        private final Transmission transmission;
+
+        private TransmitBinding(Member member, String key, int pollRateMs, Transmission transmission) {
+            this.member = member;
+            this.key = key;
+            this.pollRateMs = pollRateMs;
+            this.transmission = transmission;
+        }
+
+        private Runnable newRunnable(Object obj, NTEntry entry) {
+            return () -> {
+                try {
+                    transmission.transmit(obj, entry);
+                } catch (Throwable t) {
+                    logCallbackException(t);
+                }
+            };
+        }
+    }
+
+    private static final class ReceiveBinding {
+
+        private final Member member;
+        private final String key;
+        private final int flags;
+        private final Reception reception;
+
+        private ReceiveBinding(Member member, String key, int flags, Reception reception) {
+            this.member = member;
+            this.key = key;
+            this.flags = flags;
+            this.reception = reception;
+        }
+
+        private Consumer<EntryNotification> newConsumer(Object obj) {
+            return notification -> {
+                try {
+                    reception.receive(obj, notification);
+                } catch (Throwable t) {
+                    logCallbackException(t);
+                }
+            };
+        }
     }
 
-    private void findCommAnnotations(Object obj, Class<?> cls, Name prefix, NetworkTable table) {
-        ReflectUtil.getMethodAnnotationStream(cls, Transmit.class).forEach(pair -> {
-            Method method = pair.getLeft();
-            Transmit transmit = pair.getRight();
+    private static void logCallbackException(Throwable t) {
+        LOGGER.log(Level.SEVERE, "Communicator callback threw an exception.", t);
+    }
 
-            // Sanity checks.
-            if (method.getAnnotation(Receive.class) != null) {
-                throw new IllegalCommunicatorException("a method cannot be a transmitter and a receiver");
+    /**
+     * Build the transmission of values of the given kind from exactly one of the given method and field.
+     */
+    @SuppressWarnings("unchecked")
+    private static Transmission transmission(ValueKind kind, Method method, Field field) {
+        switch (kind) {
+            case DOUBLE: {
+                ToDoubleFunction<Object> getter;
+                if (field != null) {
+                    MethodHandle handle = fieldGetter(field, double.class);
+                    getter = obj -> {
+                        try {
+                            return (double) handle.invokeExact(obj);
+                        } catch (Throwable t) {
+                            throw unchecked(t);
+                        }
+                    };
+                } else if (Modifier.isStatic(method.getModifiers())) {
+                    DoubleSupplier supplier = spin(method, DoubleSupplier.class);
+                    getter = obj -> supplier.getAsDouble();
+                } else {
+                    getter = spin(method, ToDoubleFunction.class);
+                }
+                return (obj, entry) -> entry.setDouble(getter.applyAsDouble(obj));
             }
-            doMethodAssertions(obj, method);
-            ReflectUtil.assertParameterCount(method, 0);
-            assertValidNTType(method.getReturnType());
-
-            NetworkTableEntry entry = resolveEntry(table, prefix, transmit.value(), method);
-            Runnable runnable = () -> invokeWithHandling(entry::setValue, method, obj);
-            newTransmitter(runnable, transmit.pollRateMs(), entry);
-        });
-
-        ReflectUtil.getMethodAnnotationStream(cls, Receive.class).forEach(pair -> {
-            Method method = pair.getLeft();
-            Receive receive = pair.getRight();
-
-            // Sanity checks.
-            doMethodAssertions(obj, method);
-            ReflectUtil.assertParameterCount(method, 1);
-            ReflectUtil.assertReturnType(method, void.class);
-
-            Consumer<EntryNotification> consumer;
-            Consumer<Object> retConsumer = (x) -> {};  // Return type is void!
-            Class<?> paramType = method.getParameterTypes()[0];
-            if (paramType == EntryNotification.class) {
-                consumer = notification -> invokeWithHandling(retConsumer, method, obj, notification);
-            } else if (paramType == NetworkTableValue.class) {
-                consumer = notification -> invokeWithHandling(retConsumer, method, obj, notification.value);
-            } else if (isValidNTType(paramType)) {
-                consumer = notification -> invokeWithHandling(retConsumer, method, obj, notification.value.getValue());
-            } else {
-                throw new IllegalCommunicatorException("invalid method parameter type; expected one of: " +
-                        "'EntryNotification', 'NetworkTableValue', or any valid networktables type");
+            case BOOLEAN: {
+                Predicate<Object> getter;
+                if (field != null) {
+                    MethodHandle handle = fieldGetter(field, boolean.class);
+                    getter = obj -> {
+                        try {
+                            return (boolean) handle.invokeExact(obj);
+                        } catch (Throwable t) {
+                            throw unchecked(t);
+                        }
+                    };
+                } else if (Modifier.isStatic(method.getModifiers())) {
+                    BooleanSupplier supplier = spin(method, BooleanSupplier.class);
+                    getter = obj -> supplier.getAsBoolean();
+                } else {
+                    getter = spin(method, Predicate.class);
+                }
+                return (obj, entry) -> entry.setBoolean(getter.test(obj));
             }
-            NetworkTableEntry entry = resolveEntry(table, prefix, receive.value(), method);
-            newReceiver(consumer, receive.flags(), entry);
-        });
-
-        ReflectUtil.getFieldAnnotationStream(cls, CommField.class).forEach(pair -> {
-            Field field = pair.getLeft();
-            CommField commField = pair.getRight();
-
-            // Sanity checks.
-            doFieldAssertions(obj, field);
-
-            NetworkTableEntry entry = resolveEntry(table, prefix, commField.value(), field);
-            if (commField.transmit()) {
-                Runnable runnable = () -> {
-                    try {
-                        tryMakeAccessible(field);
-                        entry.setValue(field.get(obj));
-                    } catch (IllegalAccessException e) {
-                        LOGGER.log(Level.SEVERE, "Failed to access field.", e);
-                    }
-                };
-                newTransmitter(runnable, commField.pollRateMs(), entry);
+            default: {
+                Function<Object, Object> getter;
+                if (field != null) {
+                    MethodHandle handle = fieldGetter(field, Object.class);
+                    getter = obj -> {
+                        try {
+                            return (Object) handle.invokeExact(obj);
+                        } catch (Throwable t) {
+                            throw unchecked(t);
+                        }
+                    };
+                } else if (Modifier.isStatic(method.getModifiers())) {
+                    Supplier<Object> supplier = spin(method, Supplier.class);
+                    getter = obj -> supplier.get();
+                } else {
+                    getter = spin(method, Function.class);
+                }
+                return (obj, entry) -> entry.setValue(getter.apply(obj));
             }
-            if (commField.receive()) {
-                ReflectUtil.assertNonFinal(field);
-                Consumer<EntryNotification> consumer = notification -> {
-                    try {
-                        tryMakeAccessible(field);
-                        field.set(obj, notification.value.getValue());
-                    } catch (IllegalAccessException e) {
-                        LOGGER.log(Level.SEVERE, "Failed to access field.", e);
-                    }
-                };
-                newReceiver(consumer, commField.flags(), entry);
+        }
+    }
+
+    /**
+     * Build the reception of values of the given kind into a member of the given type through the given setter, which
+     * takes the object and the value boxed as the member's type.
+     */
+    private static Reception reception(ValueKind kind, Class<?> type, BiConsumer<Object, Object> setter) {
+        switch (kind) {
+            case ENTRY_NOTIFICATION:
+                return setter::accept;
+            case NETWORK_TABLE_VALUE:
+                return (obj, notification) -> setter.accept(obj, notification.value);
+            case BOOLEAN:
+                return (obj, notification) -> setter.accept(obj, notification.value.getBoolean());
+            case DOUBLE:
+                // NetworkTables only has doubles, so narrow them as a cast would.
+                if (type == float.class) {
+                    return (obj, notification) -> setter.accept(obj, (float) notification.value.getDouble());
+                } else if (type == long.class) {
+                    return (obj, notification) -> setter.accept(obj, (long) notification.value.getDouble());
+                } else if (type == int.class) {
+                    return (obj, notification) -> setter.accept(obj, (int) notification.value.getDouble());
+                } else if (type == short.class) {
+                    return (obj, notification) -> setter.accept(obj, (short) notification.value.getDouble());
+                } else if (type == byte.class) {
+                    return (obj, notification) -> setter.accept(obj, (byte) notification.value.getDouble());
+                }
+                return (obj, notification) -> setter.accept(obj, notification.value.getDouble());
+            default:
+                return (obj, notification) -> setter.accept(obj, notification.value.getValue());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static BiConsumer<Object, Object> spinSetter(Method method) {
+        if (Modifier.isStatic(method.getModifiers())) {
+            Consumer<Object> consumer = spin(method, Consumer.class);
+            return (obj, value) -> consumer.accept(value);
+        }
+        return spin(method, BiConsumer.class);
+    }
+
+    /**
+     * Spin an implementation of the given functional interface that calls the given method, as a lambda expression
+     * calling it from its own class would. The receiver (for an instance method) and the parameter are taken as the
+     * interface method's parameters, in that order; primitive parameters are unboxed, and primitive results are
+     * widened or boxed, as the interface method requires.
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> T spin(Method method, Class<? super T> iface) {
+        Method sam = null;
+        for (Method m : iface.getMethods()) {
+            if (Modifier.isAbstract(m.getModifiers())) {
+                sam = m;
+            }
+        }
+        MethodType samType = MethodType.methodType(sam.getReturnType(), sam.getParameterTypes());
+        List<Class<?>> params = new ArrayList<>();
+        if (!Modifier.isStatic(method.getModifiers())) {
+            params.add(method.getDeclaringClass());
+        }
+        for (Class<?> param : method.getParameterTypes()) {
+            params.add(MethodType.methodType(param).wrap().returnType());
+        }
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(method.getDeclaringClass(),
+                    MethodHandles.lookup());
+            return (T) LambdaMetafactory.metafactory(
+                    lookup,
+                    sam.getName(),
+                    MethodType.methodType(iface),
+                    samType,
+                    lookup.unreflect(method),
+                    MethodType.methodType(samType.returnType(), params)
+            ).getTarget().invoke();
+        } catch (Throwable t) {
+            throw new IllegalCommunicatorException("failed to access method", t);
+        }
+    }
+
+    /**
+     * @return a handle of type {@code (Object)type} that gets the given field of its argument (which is ignored for a
+     * static field), widening or boxing it as needed.
+     */
+    private static MethodHandle fieldGetter(Field field, Class<?> type) {
+        MethodHandle getter;
+        try {
+            getter = MethodHandles.privateLookupIn(field.getDeclaringClass(), MethodHandles.lookup())
+                    .unreflectGetter(field);
+        } catch (IllegalAccessException e) {
+            throw new IllegalCommunicatorException("failed to access field", e);
+        }
+        if (Modifier.isStatic(field.getModifiers())) {
+            getter = MethodHandles.dropArguments(getter, 0, Object.class);
+        }
+        return MethodHandles.explicitCastArguments(getter, MethodType.methodType(type, Object.class));
+    }
+
+    /**
+     * @return a setter of the given field of its first argument (which is ignored for a static field), taking the
+     * value boxed as the field's type.
+     */
+    private static BiConsumer<Object, Object> fieldSetter(Field field) {
+        MethodHandle setter;
+        try {
+            setter = MethodHandles.privateLookupIn(field.getDeclaringClass(), MethodHandles.lookup())
+                    .unreflectSetter(field);
+        } catch (IllegalAccessException e) {
+            throw new IllegalCommunicatorException("failed to access field", e);
+        }
+        if (Modifier.isStatic(field.getModifiers())) {
+            setter = MethodHandles.dropArguments(setter, 0, Object.class);
+        }
+        MethodHandle handle = MethodHandles.explicitCastArguments(
+                setter, MethodType.methodType(void.class, Object.class, Object.class));
+        return (obj, value) -> {
+            try {
+                handle.invokeExact(obj, value);
+            } catch (Throwable t) {
+                throw unchecked(t);
             }
-        });
+        };
     }
 
-    private void newTransmitter(Runnable runnable, int pollRateMs, NetworkTableEntry entry) {
-        Transmitter transmitter = new Transmitter(runnable, pollRateMs, entry);
+    private static RuntimeException unchecked(Throwable t) {
+        if (t instanceof Error) {
+            throw (Error) t;
+        }
+        return t instanceof RuntimeException ? (RuntimeException) t : new UndeclaredThrowableException(t);
+    }
+
+    private synchronized void newTransmitter(Runnable runnable, int pollRateMs, NTEntry entry) {
+        Transmitter transmitter = new Transmitter(runnable, pollRateMs, entry, transmitScheduler);
         if (!transmitter.start()) {
             transmitter.invoke();
+        } else if (transmitCommand == null && transmitLooper == null) {
+            startTransmitCommand();
         }
         Transmitter old = transmitterMap.put(transmitter.getName(), transmitter);
         if (old != null) {
@@ -138,7 +559,15 @@ public final class Communication implements Named {
         }
     }
 
-    private void newReceiver(Consumer<EntryNotification> consumer, int flags, NetworkTableEntry entry) {
+    /**
+     * @return the most recently registered transmitter with the given (entry) name, or {@code null} if there is
+     * none.
+     */
+    synchronized Transmitter getTransmitter(String name) {
+        return transmitterMap.get(name);
+    }
+
+    private void newReceiver(Consumer<EntryNotification> consumer, int flags, NTEntry entry) {
         Receiver receiver = new Receiver(consumer, flags, entry);
         receiver.start();
         Receiver old = receiverMap.put(receiver.getName(), receiver);
@@ -148,22 +577,6 @@ public final class Communication implements Named {
         }
     }
 
-    private static void doMethodAssertions(Object obj, Method method) {
-        assertStaticness(obj, method);
-        ReflectUtil.assertInvokable(method);
-    }
-
-    private static void doFieldAssertions(Object obj, Field field) {
-        assertStaticness(obj, field);
-        assertValidNTType(field.getType());
-    }
-
-    private static void tryMakeAccessible(AccessibleObject accessibleObject) {
-        if (!accessibleObject.trySetAccessible()) {
-            LOGGER.warning("Failed to make object accessible.");
-        }
-    }
-
     private static void assertStaticness(Object obj, Member member) {
         boolean isStatic = Modifier.isStatic(member.getModifiers());
         if (!((obj != null && !isStatic) || (obj == null && isStatic))) {
@@ -206,18 +619,8 @@ public final class Communication implements Named {
         }
     }
 
-    private static void invokeWithHandling(Consumer<Object> retConsumer, Method method, Object obj, Object... args) {
-        tryMakeAccessible(method);
-        try {
-            retConsumer.accept(method.invoke(obj, (Object[]) args));
-        } catch (IllegalAccessException e) {
-            LOGGER.log(Level.SEVERE, "Failed to access method.", e);
-        } catch (InvocationTargetException e) {
-            LOGGER.log(Level.SEVERE, "Communicator callback threw an exception.", e);
-        }
-    }
-
-    private static NetworkTableEntry resolveEntry(NetworkTable baseTable, Name prefix, String key, Member member) {
+    private static NTEntry resolveEntry(NTTransport transport, String tablePath, Name prefix, String key,
+                                        Member member) {
         String[] keyComponents;
         if (key.isEmpty()) {
             keyComponents = new String[] {member.getName()};
@@ -227,15 +630,18 @@ public final class Communication implements Named {
                 Name.requireValidName(kc);
             }
         }
-        NetworkTable table = baseTable;
+        StringBuilder fullKey = new StringBuilder(tablePath);
+        if (fullKey.length() == 0 || fullKey.charAt(fullKey.length() - 1) != NetworkTable.PATH_SEPARATOR) {
+            fullKey.append(NetworkTable.PATH_SEPARATOR);
+        }
         for (int i = 0; i < keyComponents.length - 1; ++i) {
-            table = table.getSubTable(keyComponents[i]);
+            fullKey.append(keyComponents[i]).append(NetworkTable.PATH_SEPARATOR);
         }
-        String entryName = keyComponents[keyComponents.length - 1];
         if (!prefix.equals(Name.UNNAMED)) {
-            entryName = prefix + ENTRY_NAME_PREFIX_SEP + entryName;
+            fullKey.append(prefix).append(ENTRY_NAME_PREFIX_SEP);
         }
-        return table.getEntry(entryName);
+        fullKey.append(keyComponents[keyComponents.length - 1]);
+        return transport.getEntry(fullKey.toString());
     }
 
     private static String[] decomposeKey(String key) {
@@ -1,14 +1,14 @@
 package frc.team7170.lib.networktables;
 
-import edu.wpi.first.networktables.NetworkTableEntry;
+import frc.team7170.lib.networktables.transport.NTEntry;
 import frc.team7170.lib.Named;
 
 // TODO: Make a more general version of this (no NT entry) to extend a DataLogger class from and control data logging from annotations
 public abstract class Communicator implements Named {
 
-    private final NetworkTableEntry entry;
+    private final NTEntry entry;
 
-    protected Communicator(NetworkTableEntry entry) {
+    protected Communicator(NTEntry entry) {
         this.entry = entry;
     }
 
@@ -20,7 +20,7 @@ public abstract class Communicator implements Named {
 
     public abstract void invoke();
 
-    public NetworkTableEntry getEntry() {
+    public NTEntry getEntry() {
         return entry;
     }
 
@@ -7,4 +7,8 @@ public class IllegalCommunicatorException extends RuntimeException {
     public IllegalCommunicatorException(String message) {
         super(message);
     }
+
+    public IllegalCommunicatorException(String message, Throwable cause) {
+        super(message, cause);
+    }
 }
@@ -1,6 +1,8 @@
 package frc.team7170.lib.networktables;
 
-import edu.wpi.first.networktables.*;
+import edu.wpi.first.networktables.EntryListenerFlags;
+import edu.wpi.first.networktables.EntryNotification;
+import frc.team7170.lib.networktables.transport.NTEntry;
 
 import java.util.function.Consumer;
 
@@ -11,7 +13,7 @@ public class Receiver extends Communicator {
     private int listenerId;
     private boolean running = false;
 
-    Receiver(Consumer<EntryNotification> consumer, int flags, NetworkTableEntry entry) {
+    Receiver(Consumer<EntryNotification> consumer, int flags, NTEntry entry) {
         super(entry);
         this.consumer = consumer;
         this.flags = flags;
@@ -43,7 +45,7 @@ public class Receiver extends Communicator {
     @Override
     public void invoke() {
         consumer.accept(new EntryNotification(
-                NetworkTableInstance.getDefault(),
+                getEntry().getTransport().getInstance(),
                 listenerId,
                 getEntry().getHandle(),
                 getName(),
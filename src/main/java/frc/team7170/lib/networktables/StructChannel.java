@@ -0,0 +1,181 @@
+package frc.team7170.lib.networktables;
+
+import edu.wpi.first.networktables.EntryListenerFlags;
+import edu.wpi.first.networktables.NetworkTableEntry;
+import edu.wpi.first.networktables.NetworkTableType;
+import edu.wpi.first.networktables.NetworkTableValue;
+import frc.team7170.lib.networktables.transport.NTCoreTransport;
+import frc.team7170.lib.networktables.transport.NTEntry;
+
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * <p>
+ * Sends records of related primitives (e.g. a pose, or the states of swerve modules) as one raw entry, rather than as
+ * one entry per value. Each record is laid out by a {@link StructSchema StructSchema}, so it costs only the bytes of
+ * its fields, and, since a record is published with a single set, a receiver never sees some fields from one cycle and
+ * some from another.
+ * </p>
+ * <p>
+ * The transmitting side {@linkplain StructChannel#StructChannel(NTEntry, StructSchema) constructs} a channel with its
+ * schema, which publishes the schema's {@linkplain StructSchema#toDescriptor() descriptor} to the entry with the
+ * channel's key plus {@link StructChannel#SCHEMA_SUFFIX SCHEMA_SUFFIX}. Each cycle, it sets fields by index (the
+ * order in which they were added to the schema) and then {@linkplain StructChannel#publish() publishes} the record.
+ * The receiving side either constructs a channel with the same schema or
+ * {@linkplain StructChannel#subscribe(NTEntry) subscribes}, which reads the descriptor, and then
+ * {@linkplain StructChannel#read() reads} or {@linkplain StructChannel#addListener(Consumer) listens for}
+ * {@link StructFrame StructFrame}s.
+ * </p>
+ *
+ * @apiNote This class is not thread-safe: fields should be set and published by one thread (such as that of a
+ * {@link Transmitter Transmitter}). Reading and listening are thread-safe, since each {@code StructFrame} is
+ * immutable.
+ */
+public final class StructChannel {
+
+    public static final String SCHEMA_SUFFIX = "/schema";
+
+    private final NTEntry entry;
+    private final StructSchema schema;
+    // The record being built; copied by the entry on every publish, so it's safe to keep writing it.
+    private final StructWriter writer;
+
+    /**
+     * Construct a channel and publish its schema's descriptor.
+     *
+     * @throws NullPointerException if the given {@code NTEntry} or {@code StructSchema} is {@code null}.
+     */
+    public StructChannel(NTEntry entry, StructSchema schema) {
+        this(entry, schema, true);
+    }
+
+    public StructChannel(NetworkTableEntry entry, StructSchema schema) {
+        this(NTCoreTransport.wrap(entry), schema);
+    }
+
+    private StructChannel(NTEntry entry, StructSchema schema, boolean publishDescriptor) {
+        this.entry = Objects.requireNonNull(entry, "entry must be non-null");
+        this.schema = Objects.requireNonNull(schema, "schema must be non-null");
+        writer = new StructWriter(schema);
+        if (publishDescriptor) {
+            getSchemaEntry(entry).setStringArray(schema.toDescriptor());
+        }
+    }
+
+    /**
+     * Construct a channel for receiving only, with the schema given by the descriptor published by the transmitting
+     * side.
+     *
+     * @throws IllegalStateException if no descriptor has been published.
+     * @throws IllegalArgumentException if the published descriptor is malformed.
+     */
+    public static StructChannel subscribe(NTEntry entry) {
+        String[] descriptor = getSchemaEntry(entry).getStringArray(null);
+        if (descriptor == null) {
+            throw new IllegalStateException(String.format("no schema published for '%s'", entry.getName()));
+        }
+        return new StructChannel(entry, StructSchema.fromDescriptor(descriptor), false);
+    }
+
+    public static StructChannel subscribe(NetworkTableEntry entry) {
+        return subscribe(NTCoreTransport.wrap(entry));
+    }
+
+    private static NTEntry getSchemaEntry(NTEntry entry) {
+        return entry.getTransport().getEntry(entry.getName() + SCHEMA_SUFFIX);
+    }
+
+    public NTEntry getEntry() {
+        return entry;
+    }
+
+    public StructSchema getSchema() {
+        return schema;
+    }
+
+    public StructChannel setBoolean(int field, boolean value) {
+        writer.setBoolean(field, value);
+        return this;
+    }
+
+    public StructChannel setByte(int field, byte value) {
+        writer.setByte(field, value);
+        return this;
+    }
+
+    public StructChannel setShort(int field, short value) {
+        writer.setShort(field, value);
+        return this;
+    }
+
+    public StructChannel setInt(int field, int value) {
+        writer.setInt(field, value);
+        return this;
+    }
+
+    public StructChannel setLong(int field, long value) {
+        writer.setLong(field, value);
+        return this;
+    }
+
+    public StructChannel setFloat(int field, float value) {
+        writer.setFloat(field, value);
+        return this;
+    }
+
+    public StructChannel setDouble(int field, double value) {
+        writer.setDouble(field, value);
+        return this;
+    }
+
+    /**
+     * Publish the fields as they are now set as one record. Fields keep their values between publishes, so only those
+     * that changed need be set before the next.
+     *
+     * @return whether or not the record was published; it isn't if the entry has a type other than raw.
+     */
+    public boolean publish() {
+        return entry.setRaw(writer.record());
+    }
+
+    /**
+     * @return the most recently published record, or {@code null} if there is none or it doesn't match this channel's
+     * schema.
+     */
+    public StructFrame read() {
+        return toFrame(entry.getRaw(null));
+    }
+
+    private StructFrame toFrame(byte[] received) {
+        if (received == null || received.length != schema.getSize()) {
+            return null;
+        }
+        return StructFrame.wrap(schema, received);
+    }
+
+    /**
+     * Listen for published records, including the current one, if any. Records that don't match this channel's schema
+     * are ignored.
+     *
+     * @return the handle of the listener, for {@link StructChannel#removeListener(int) removeListener}.
+     */
+    public int addListener(Consumer<StructFrame> listener) {
+        return entry.addListener(notification -> {
+            NetworkTableValue value = notification.value;
+            if (value == null || value.getType() != NetworkTableType.kRaw) {
+                return;
+            }
+            // The notification's array may be shared with other listeners, so copy it before handing it off.
+            StructFrame frame = toFrame(value.getRaw().clone());
+            if (frame != null) {
+                listener.accept(frame);
+            }
+        }, EntryListenerFlags.kImmediate | EntryListenerFlags.kLocal | EntryListenerFlags.kNew
+                | EntryListenerFlags.kUpdate);
+    }
+
+    public void removeListener(int listener) {
+        entry.removeListener(listener);
+    }
+}
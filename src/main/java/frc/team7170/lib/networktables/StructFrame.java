@@ -0,0 +1,166 @@
+package frc.team7170.lib.networktables;
+
+import frc.team7170.lib.data.Value;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * One record received over a {@link StructChannel StructChannel}, decoded lazily: each getter reads its field directly
+ * out of the record's bytes.
+ *
+ * @apiNote This class is immutable and thus thread-safe.
+ */
+public final class StructFrame {
+
+    private final StructSchema schema;
+    private final ByteBuffer buffer;
+
+    private StructFrame(StructSchema schema, byte[] record) {
+        this.schema = schema;
+        buffer = ByteBuffer.wrap(record);
+    }
+
+    /**
+     * @param schema the schema of the record.
+     * @param record the packed record; it is copied.
+     * @throws IllegalArgumentException if the record's length doesn't match the schema's
+     * {@linkplain StructSchema#getSize() size}.
+     */
+    public static StructFrame of(StructSchema schema, byte[] record) {
+        return wrap(Objects.requireNonNull(schema, "schema must be non-null"), record.clone());
+    }
+
+    /**
+     * @throws IllegalArgumentException if the value isn't {@linkplain frc.team7170.lib.data.ValueType#RAW raw} or its
+     * length doesn't match the schema's {@linkplain StructSchema#getSize() size}.
+     * @see StructFrame#of(StructSchema, byte[])
+     */
+    public static StructFrame of(StructSchema schema, Value record) {
+        try {
+            return of(schema, record.getRaw());
+        } catch (UnsupportedOperationException e) {
+            throw new IllegalArgumentException(e.getMessage());
+        }
+    }
+
+    /**
+     * Like {@link StructFrame#of(StructSchema, byte[]) of}, but takes ownership of the given record rather than copying
+     * it.
+     */
+    static StructFrame wrap(StructSchema schema, byte[] record) {
+        if (record.length != schema.getSize()) {
+            throw new IllegalArgumentException(String.format("record is %d bytes but schema is %d bytes",
+                    record.length, schema.getSize()));
+        }
+        return new StructFrame(schema, record);
+    }
+
+    public StructSchema getSchema() {
+        return schema;
+    }
+
+    public boolean getBoolean(int field) {
+        int bit = schema.bitOffset(field);
+        return (buffer.get(bit / Byte.SIZE) & (1 << (bit % Byte.SIZE))) != 0;
+    }
+
+    public byte getByte(int field) {
+        return buffer.get(schema.byteOffset(field, StructSchema.Type.BYTE));
+    }
+
+    public short getShort(int field) {
+        return buffer.getShort(schema.byteOffset(field, StructSchema.Type.SHORT));
+    }
+
+    public int getInt(int field) {
+        return buffer.getInt(schema.byteOffset(field, StructSchema.Type.INT));
+    }
+
+    public long getLong(int field) {
+        return buffer.getLong(schema.byteOffset(field, StructSchema.Type.LONG));
+    }
+
+    public float getFloat(int field) {
+        return buffer.getFloat(schema.byteOffset(field, StructSchema.Type.FLOAT));
+    }
+
+    public double getDouble(int field) {
+        return buffer.getDouble(schema.byteOffset(field, StructSchema.Type.DOUBLE));
+    }
+
+    /**
+     * Get the value of any numeric field, widened to a double.
+     *
+     * @throws IllegalArgumentException if the field is boolean.
+     */
+    public double getNumber(int field) {
+        switch (schema.getType(field)) {
+            case BYTE:
+                return getByte(field);
+            case SHORT:
+                return getShort(field);
+            case INT:
+                return getInt(field);
+            case LONG:
+                return getLong(field);
+            case FLOAT:
+                return getFloat(field);
+            case DOUBLE:
+                return getDouble(field);
+        }
+        throw new IllegalArgumentException(String.format("field '%s' is not numeric", schema.getName(field)));
+    }
+
+    /**
+     * @return the packed record, as a {@linkplain frc.team7170.lib.data.ValueType#RAW raw} {@link Value Value} (for
+     * example, for logging).
+     */
+    public Value toValue() {
+        return Value.newRawValue(buffer.array().clone());
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == this) {
+            return true;
+        }
+        if (!(obj instanceof StructFrame)) {
+            return false;
+        }
+        StructFrame other = (StructFrame) obj;
+        return schema.equals(other.schema) && Arrays.equals(buffer.array(), other.buffer.array());
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * schema.hashCode() + Arrays.hashCode(buffer.array());
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("{");
+        for (int i = 0; i < schema.getNumFields(); ++i) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            sb.append(schema.getName(i)).append('=');
+            switch (schema.getType(i)) {
+                case BOOLEAN:
+                    sb.append(getBoolean(i));
+                    break;
+                case FLOAT:
+                case DOUBLE:
+                    sb.append(getNumber(i));
+                    break;
+                case LONG:
+                    sb.append(getLong(i));
+                    break;
+                default:
+                    sb.append((long) getNumber(i));
+            }
+        }
+        return sb.append('}').toString();
+    }
+}
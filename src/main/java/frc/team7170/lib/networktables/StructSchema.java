@@ -0,0 +1,262 @@
+package frc.team7170.lib.networktables;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * <p>
+ * The layout of the records sent over a {@link StructChannel StructChannel}: an ordered list of named primitive
+ * fields.
+ * </p>
+ * <p>
+ * Records are packed big-endian (as by {@link frc.team7170.lib.data.RawUtil RawUtil}) with no padding. Non-boolean
+ * fields come first, in declaration order, each taking the number of bytes of its Java type; boolean fields follow,
+ * packed eight to a byte, least significant bit first, also in declaration order. The layout is therefore entirely
+ * determined by the {@linkplain StructSchema#toDescriptor() descriptor}, which is all a dashboard needs to
+ * {@linkplain StructSchema#fromDescriptor(String[]) rebuild} the schema and unpack records.
+ * </p>
+ *
+ * @apiNote This class is immutable and thus thread-safe.
+ */
+public final class StructSchema {
+
+    public enum Type {
+        BOOLEAN(0),
+        BYTE(Byte.BYTES),
+        SHORT(Short.BYTES),
+        INT(Integer.BYTES),
+        LONG(Long.BYTES),
+        FLOAT(Float.BYTES),
+        DOUBLE(Double.BYTES);
+
+        private final int size;
+
+        Type(int size) {
+            this.size = size;
+        }
+
+        /**
+         * @return the number of bytes taken by a field of this type, or zero for {@link Type#BOOLEAN BOOLEAN}, which
+         * takes one bit.
+         */
+        public int getSize() {
+            return size;
+        }
+
+        String getDescriptorName() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    public static final class Builder {
+
+        private final List<String> names = new ArrayList<>();
+        private final List<Type> types = new ArrayList<>();
+
+        public Builder() {}
+
+        /**
+         * Append a field to the schema. Its index is the number of fields added before it.
+         *
+         * @throws IllegalArgumentException if the name is empty, contains whitespace, or is already used by another
+         * field.
+         */
+        public Builder add(String name, Type type) {
+            Objects.requireNonNull(type, "type must be non-null");
+            if (name.isEmpty() || name.chars().anyMatch(Character::isWhitespace)) {
+                throw new IllegalArgumentException(String.format("invalid field name '%s'", name));
+            }
+            if (names.contains(name)) {
+                throw new IllegalArgumentException(String.format("duplicate field name '%s'", name));
+            }
+            names.add(name);
+            types.add(type);
+            return this;
+        }
+
+        public Builder addBoolean(String name) {
+            return add(name, Type.BOOLEAN);
+        }
+
+        public Builder addByte(String name) {
+            return add(name, Type.BYTE);
+        }
+
+        public Builder addShort(String name) {
+            return add(name, Type.SHORT);
+        }
+
+        public Builder addInt(String name) {
+            return add(name, Type.INT);
+        }
+
+        public Builder addLong(String name) {
+            return add(name, Type.LONG);
+        }
+
+        public Builder addFloat(String name) {
+            return add(name, Type.FLOAT);
+        }
+
+        public Builder addDouble(String name) {
+            return add(name, Type.DOUBLE);
+        }
+
+        /**
+         * @throws IllegalStateException if no fields have been added.
+         */
+        public StructSchema build() {
+            if (names.isEmpty()) {
+                throw new IllegalStateException("schema must have at least one field");
+            }
+            return new StructSchema(names.toArray(new String[0]), types.toArray(new Type[0]));
+        }
+    }
+
+    private final String[] names;
+    private final Type[] types;
+    /**
+     * The byte offset of each non-boolean field, and the bit offset from the start of the bitfield of each boolean
+     * field.
+     */
+    private final int[] offsets;
+    private final int bitfieldOffset;
+    private final int size;
+    private final Map<String, Integer> indices = new HashMap<>();
+
+    private StructSchema(String[] names, Type[] types) {
+        this.names = names;
+        this.types = types;
+        offsets = new int[names.length];
+        int byteOffset = 0;
+        int bitOffset = 0;
+        for (int i = 0; i < names.length; ++i) {
+            indices.put(names[i], i);
+            if (types[i] == Type.BOOLEAN) {
+                offsets[i] = bitOffset++;
+            } else {
+                offsets[i] = byteOffset;
+                byteOffset += types[i].getSize();
+            }
+        }
+        bitfieldOffset = byteOffset;
+        size = byteOffset + (bitOffset + Byte.SIZE - 1) / Byte.SIZE;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * @return the descriptor of this schema: one string per field, in declaration order, of the form
+     * {@code "<type> <name>"}, where {@code <type>} is the lower-case name of the field's {@link Type Type}.
+     */
+    public String[] toDescriptor() {
+        String[] descriptor = new String[names.length];
+        for (int i = 0; i < names.length; ++i) {
+            descriptor[i] = types[i].getDescriptorName() + " " + names[i];
+        }
+        return descriptor;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the descriptor is malformed.
+     * @see StructSchema#toDescriptor()
+     */
+    public static StructSchema fromDescriptor(String[] descriptor) {
+        Builder builder = new Builder();
+        for (String field : descriptor) {
+            int space = field.indexOf(' ');
+            if (space < 0) {
+                throw new IllegalArgumentException(String.format("malformed field descriptor '%s'", field));
+            }
+            Type type;
+            try {
+                type = Type.valueOf(field.substring(0, space).toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException(String.format("unknown field type in descriptor '%s'", field));
+            }
+            builder.add(field.substring(space + 1), type);
+        }
+        return builder.build();
+    }
+
+    public int getNumFields() {
+        return names.length;
+    }
+
+    public String getName(int field) {
+        return names[field];
+    }
+
+    public Type getType(int field) {
+        return types[field];
+    }
+
+    /**
+     * @return the index of the field with the given name, or -1 if there is none.
+     */
+    public int indexOf(String name) {
+        Integer index = indices.get(name);
+        return index != null ? index : -1;
+    }
+
+    /**
+     * @return the number of bytes in a record of this schema.
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * @return the byte offset of the given non-boolean field within a record.
+     * @throws IllegalArgumentException if the field is not of the given type.
+     */
+    int byteOffset(int field, Type type) {
+        checkType(field, type);
+        return offsets[field];
+    }
+
+    /**
+     * @return the bit offset of the given boolean field within a record.
+     * @throws IllegalArgumentException if the field is not boolean.
+     */
+    int bitOffset(int field) {
+        checkType(field, Type.BOOLEAN);
+        return bitfieldOffset * Byte.SIZE + offsets[field];
+    }
+
+    private void checkType(int field, Type type) {
+        if (types[field] != type) {
+            throw new IllegalArgumentException(String.format("field '%s' is of type %s, not %s",
+                    names[field], types[field].name(), type.name()));
+        }
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == this) {
+            return true;
+        }
+        if (!(obj instanceof StructSchema)) {
+            return false;
+        }
+        StructSchema other = (StructSchema) obj;
+        return Arrays.equals(names, other.names) && Arrays.equals(types, other.types);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Arrays.hashCode(names) + Arrays.hashCode(types);
+    }
+
+    @Override
+    public String toString() {
+        return String.join(", ", toDescriptor());
+    }
+}
@@ -0,0 +1,92 @@
+package frc.team7170.lib.networktables;
+
+import frc.team7170.lib.data.Value;
+
+import java.nio.ByteBuffer;
+import java.util.Objects;
+
+/**
+ * Packs fields into a record laid out by a {@link StructSchema StructSchema}. The record is reused: fields keep their
+ * values until they are set again, and {@link StructWriter#toFrame() toFrame} copies the record as it is now.
+ *
+ * @apiNote This class is not thread-safe.
+ */
+public final class StructWriter {
+
+    private final StructSchema schema;
+    private final byte[] record;
+    private final ByteBuffer buffer;
+
+    /**
+     * @throws NullPointerException if the given {@code StructSchema} is {@code null}.
+     */
+    public StructWriter(StructSchema schema) {
+        this.schema = Objects.requireNonNull(schema, "schema must be non-null");
+        record = new byte[schema.getSize()];
+        buffer = ByteBuffer.wrap(record);
+    }
+
+    public StructSchema getSchema() {
+        return schema;
+    }
+
+    public StructWriter setBoolean(int field, boolean value) {
+        int bit = schema.bitOffset(field);
+        int mask = 1 << (bit % Byte.SIZE);
+        int i = bit / Byte.SIZE;
+        record[i] = (byte) (value ? record[i] | mask : record[i] & ~mask);
+        return this;
+    }
+
+    public StructWriter setByte(int field, byte value) {
+        buffer.put(schema.byteOffset(field, StructSchema.Type.BYTE), value);
+        return this;
+    }
+
+    public StructWriter setShort(int field, short value) {
+        buffer.putShort(schema.byteOffset(field, StructSchema.Type.SHORT), value);
+        return this;
+    }
+
+    public StructWriter setInt(int field, int value) {
+        buffer.putInt(schema.byteOffset(field, StructSchema.Type.INT), value);
+        return this;
+    }
+
+    public StructWriter setLong(int field, long value) {
+        buffer.putLong(schema.byteOffset(field, StructSchema.Type.LONG), value);
+        return this;
+    }
+
+    public StructWriter setFloat(int field, float value) {
+        buffer.putFloat(schema.byteOffset(field, StructSchema.Type.FLOAT), value);
+        return this;
+    }
+
+    public StructWriter setDouble(int field, double value) {
+        buffer.putDouble(schema.byteOffset(field, StructSchema.Type.DOUBLE), value);
+        return this;
+    }
+
+    /**
+     * @return a copy of the record as it is now.
+     */
+    public StructFrame toFrame() {
+        return StructFrame.wrap(schema, record.clone());
+    }
+
+    /**
+     * @return a copy of the record as it is now, as a {@linkplain frc.team7170.lib.data.ValueType#RAW raw}
+     * {@link Value Value} (for example, for logging).
+     */
+    public Value toValue() {
+        return Value.newRawValue(record.clone());
+    }
+
+    /**
+     * @return the record itself, not a copy.
+     */
+    byte[] record() {
+        return record;
+    }
+}
@@ -0,0 +1,234 @@
+package frc.team7170.lib.networktables;
+
+import frc.team7170.lib.looping.Loop;
+import frc.team7170.lib.networktables.transport.NTTransport;
+
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * <p>
+ * Runs all started {@link Transmitter Transmitter}s from one place. Transmitters are grouped into buckets by their
+ * {@linkplain Transmitter#getPollRateMs() poll rate}, and each {@linkplain TransmitScheduler#run() run} only checks
+ * one deadline per bucket: when a bucket is due, all of its transmitters are invoked back-to-back (so their
+ * {@code NetworkTableEntry} updates are batched together) and, if
+ * {@linkplain TransmitScheduler#setFlushPerBucket(boolean) enabled}, each {@link NTTransport NTTransport} that they
+ * publish through is flushed once for the whole bucket.
+ * </p>
+ * <p>
+ * {@code TransmitScheduler} is a {@link Loop Loop}, so it can be registered with any
+ * {@link frc.team7170.lib.looping.Looper Looper}; see {@link Communication#setTransmitLooper} for the default.
+ * The time it spends in each run is recorded and exposed through
+ * {@link TransmitScheduler#getLastRunNs() getLastRunNs}, {@link TransmitScheduler#getMaxRunNs() getMaxRunNs}, and
+ * {@link TransmitScheduler#getMeanRunNs() getMeanRunNs}.
+ * </p>
+ *
+ * @apiNote This class is thread-safe; transmitters may be started and cancelled from any thread.
+ */
+public final class TransmitScheduler extends Loop {
+
+    private static final class Members {
+
+        private static final Members EMPTY = new Members(new Transmitter[0]);
+
+        private final Transmitter[] transmitters;
+        // The distinct transports that the transmitters publish through; almost always just one.
+        private final NTTransport[] transports;
+
+        private Members(Transmitter[] transmitters) {
+            this.transmitters = transmitters;
+            Set<NTTransport> transports = new LinkedHashSet<>();
+            for (Transmitter transmitter : transmitters) {
+                transports.add(transmitter.getEntry().getTransport());
+            }
+            this.transports = transports.toArray(new NTTransport[0]);
+        }
+    }
+
+    private static final class Bucket {
+
+        private final int pollRateMs;
+        private final long periodNs;
+        // Replaced rather than modified, so that a run can use a snapshot of it without holding the lock.
+        private Members members = Members.EMPTY;
+        private long nextDueNs;
+
+        private Bucket(int pollRateMs, long nowNs) {
+            this.pollRateMs = pollRateMs;
+            periodNs = pollRateMs * 1_000_000L;
+            nextDueNs = nowNs;
+        }
+    }
+
+    // Few distinct poll rates are ever used, so an array is faster to scan than a map. Like each bucket's
+    // transmitters, it is replaced rather than modified.
+    private volatile Bucket[] buckets = new Bucket[0];
+    private volatile boolean flushPerBucket = false;
+
+    private long lastRunNs = 0;
+    private long maxRunNs = 0;
+    private long totalRunNs = 0;
+    private long runCount = 0;
+
+    TransmitScheduler() {}
+
+    synchronized void add(Transmitter transmitter) {
+        int pollRateMs = transmitter.getPollRateMs();
+        Bucket bucket = null;
+        for (Bucket b : buckets) {
+            if (b.pollRateMs == pollRateMs) {
+                bucket = b;
+                break;
+            }
+        }
+        if (bucket == null) {
+            bucket = new Bucket(pollRateMs, System.nanoTime());
+            Bucket[] newBuckets = Arrays.copyOf(buckets, buckets.length + 1);
+            newBuckets[buckets.length] = bucket;
+            buckets = newBuckets;
+        }
+        Transmitter[] transmitters = bucket.members.transmitters;
+        Transmitter[] newTransmitters = Arrays.copyOf(transmitters, transmitters.length + 1);
+        newTransmitters[transmitters.length] = transmitter;
+        bucket.members = new Members(newTransmitters);
+    }
+
+    synchronized void remove(Transmitter transmitter) {
+        for (int i = 0; i < buckets.length; ++i) {
+            Bucket bucket = buckets[i];
+            if (bucket.pollRateMs != transmitter.getPollRateMs()) {
+                continue;
+            }
+            Transmitter[] transmitters = bucket.members.transmitters;
+            int j = Arrays.asList(transmitters).indexOf(transmitter);
+            if (j < 0) {
+                return;
+            }
+            if (transmitters.length == 1) {
+                buckets = without(buckets, i, new Bucket[buckets.length - 1]);
+            } else {
+                bucket.members = new Members(without(transmitters, j, new Transmitter[transmitters.length - 1]));
+            }
+            return;
+        }
+    }
+
+    /**
+     * @return {@code dst}, filled with the elements of {@code src} except the one at the given index.
+     */
+    private static <T> T[] without(T[] src, int index, T[] dst) {
+        System.arraycopy(src, 0, dst, 0, index);
+        System.arraycopy(src, index + 1, dst, index, dst.length - index);
+        return dst;
+    }
+
+    /**
+     * If the given bucket is due, schedule its next run and return its members; otherwise return {@code null}.
+     */
+    private synchronized Members claimIfDue(Bucket bucket, long nowNs) {
+        if (nowNs - bucket.nextDueNs < 0) {
+            return null;
+        }
+        bucket.nextDueNs += bucket.periodNs;
+        // Don't try to catch up on missed periods (e.g. after a long loop overrun); just resume from now.
+        if (nowNs - bucket.nextDueNs >= 0) {
+            bucket.nextDueNs = nowNs + bucket.periodNs;
+        }
+        return bucket.members;
+    }
+
+    /**
+     * Invoke the transmitters in every bucket that is due. Transmitters are invoked without holding any lock, so they
+     * may start and cancel transmitters (including themselves); a transmitter cancelled during a run is not invoked
+     * later in that run, and one started during a run is first invoked in a later one.
+     */
+    public void run() {
+        long startNs = System.nanoTime();
+        for (Bucket bucket : buckets) {
+            Members members = claimIfDue(bucket, startNs);
+            if (members == null) {
+                continue;
+            }
+            for (Transmitter transmitter : members.transmitters) {
+                if (transmitter.isRunning()) {
+                    transmitter.invoke();
+                }
+            }
+            if (flushPerBucket) {
+                for (NTTransport transport : members.transports) {
+                    transport.flush();
+                }
+            }
+        }
+        long durationNs = System.nanoTime() - startNs;
+        synchronized (this) {
+            lastRunNs = durationNs;
+            maxRunNs = Math.max(maxRunNs, durationNs);
+            totalRunNs += durationNs;
+            ++runCount;
+        }
+    }
+
+    @Override
+    protected void onLoop() {
+        run();
+    }
+
+    /**
+     * Set whether or not to {@linkplain NTTransport#flush() flush} the {@link NTTransport NTTransport}s that a bucket
+     * of transmitters publishes through after it runs, rather than leaving them to send updates at their own rates.
+     * Defaults to {@code false}.
+     *
+     * @param flushPerBucket whether or not to flush after each bucket.
+     */
+    public void setFlushPerBucket(boolean flushPerBucket) {
+        this.flushPerBucket = flushPerBucket;
+    }
+
+    public boolean isFlushPerBucket() {
+        return flushPerBucket;
+    }
+
+    public int getNumBuckets() {
+        return buckets.length;
+    }
+
+    public synchronized int getNumTransmitters() {
+        int n = 0;
+        for (Bucket bucket : buckets) {
+            n += bucket.members.transmitters.length;
+        }
+        return n;
+    }
+
+    /**
+     * @return the duration of the most recent {@link TransmitScheduler#run() run}, in nanoseconds.
+     */
+    public synchronized long getLastRunNs() {
+        return lastRunNs;
+    }
+
+    /**
+     * @return the longest duration of any {@link TransmitScheduler#run() run} since construction or the last
+     * {@link TransmitScheduler#resetMetrics() resetMetrics}, in nanoseconds.
+     */
+    public synchronized long getMaxRunNs() {
+        return maxRunNs;
+    }
+
+    /**
+     * @return the mean duration of all {@link TransmitScheduler#run() run}s since construction or the last
+     * {@link TransmitScheduler#resetMetrics() resetMetrics}, in nanoseconds, or {@code NaN} if there have been none.
+     */
+    public synchronized double getMeanRunNs() {
+        return (double) totalRunNs / runCount;
+    }
+
+    public synchronized void resetMetrics() {
+        lastRunNs = 0;
+        maxRunNs = 0;
+        totalRunNs = 0;
+        runCount = 0;
+    }
+}
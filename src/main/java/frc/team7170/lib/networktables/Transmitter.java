@@ -1,35 +1,37 @@
 package frc.team7170.lib.networktables;
 
-import edu.wpi.first.networktables.NetworkTableEntry;
-import frc.team7170.lib.command.CmdTimedRunnable;
+import frc.team7170.lib.networktables.transport.NTEntry;
 
 public class Transmitter extends Communicator {
 
     private final Runnable runnable;
     private final int pollRateMs;
-    private CmdTimedRunnable cmdTimedRunnable;
+    private final TransmitScheduler scheduler;
+    // Read by the scheduler without locking.
+    private volatile boolean running = false;
 
-    Transmitter(Runnable runnable, int pollRateMs, NetworkTableEntry entry) {
+    Transmitter(Runnable runnable, int pollRateMs, NTEntry entry, TransmitScheduler scheduler) {
         super(entry);
         this.runnable = runnable;
         this.pollRateMs = pollRateMs;
+        this.scheduler = scheduler;
     }
 
     @Override
-    public boolean start() {
+    public synchronized boolean start() {
         if (!isRunning() && pollRateMs != TransmitFrequency.STATIC) {
-            cmdTimedRunnable = new CmdTimedRunnable(runnable, pollRateMs);
-            cmdTimedRunnable.start();
+            running = true;
+            scheduler.add(this);
             return true;
         }
         return false;
     }
 
     @Override
-    public boolean cancel() {
+    public synchronized boolean cancel() {
         if (isRunning()) {
-            cmdTimedRunnable.cancel();
-            cmdTimedRunnable = null;
+            running = false;
+            scheduler.remove(this);
             return true;
         }
         return false;
@@ -37,7 +39,7 @@ public class Transmitter extends Communicator {
 
     @Override
     public boolean isRunning() {
-        return cmdTimedRunnable != null;
+        return running;
     }
 
     @Override
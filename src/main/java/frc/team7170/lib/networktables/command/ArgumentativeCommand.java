@@ -2,7 +2,6 @@ package frc.team7170.lib.networktables.command;
 
 import frc.team7170.lib.Name;
 
-import java.util.Arrays;
 import java.util.HashMap;
 import java.util.function.Consumer;
 import java.util.logging.Logger;
@@ -71,40 +70,29 @@ public class ArgumentativeCommand implements Consumer<StringArguments> {
 
     private ParsedArguments parseArgs(StringArguments args) {
         HashMap<String, StringArguments> argMap = new HashMap<>();
-        int currConsume = 0;
-        String[] currArray = null;
-        int skip = 0;
         int idx = 0;
-        for (String token : args.args) {
-            if (skip > 0) {
-                currArray[currConsume - skip] = token;
-                --skip;
-            }
-            if (token.startsWith(SHORT_ARG_PREFIX)) {
-                String argName;
-                if (token.startsWith(LONG_ARG_PREFIX)) {
-                    argName = token.substring(LONG_ARG_PREFIX.length());
-                } else {
-                    argName = token.substring(SHORT_ARG_PREFIX.length());
-                }
-                try {
-                    Argument argument = nameArgumentMap.get(argName);
-                    currConsume = argument.consume;
-                    currArray = new String[currConsume];
-                    argMap.put(argument.longName, new StringArguments(currArray));
-                    skip = currConsume;
-                } catch (NullPointerException e) {
-                    // This occurs when an unrecognized argument was given.
-                    LOGGER.warning(String.format("an unrecognized argument '%s' was given; " +
-                            "stopping parsing and remaining arguments will be put in 'rest'", token));
-                    break;
-                }
+        while (idx < args.numArgs() && args.startsWith(idx, SHORT_ARG_PREFIX)) {
+            String token = args.get(idx);
+            String argName;
+            if (token.startsWith(LONG_ARG_PREFIX)) {
+                argName = token.substring(LONG_ARG_PREFIX.length());
             } else {
+                argName = token.substring(SHORT_ARG_PREFIX.length());
+            }
+            Argument argument = nameArgumentMap.get(argName);
+            if (argument == null) {
+                LOGGER.warning(String.format("an unrecognized argument '%s' was given; " +
+                        "stopping parsing and remaining arguments will be put in 'rest'", token));
                 break;
             }
-            ++idx;
+            int end = idx + 1 + argument.consume;
+            if (end > args.numArgs()) {
+                throw new CommandAbortException(String.format("argument '%s' expects %d values, got %d",
+                        token, argument.consume, args.numArgs() - idx - 1));
+            }
+            argMap.put(argument.longName, args.subArguments(idx + 1, end));
+            idx = end;
         }
-        String[] rest = Arrays.copyOfRange(args.args, idx, args.numArgs());
-        return new ParsedArguments(argMap, new StringArguments(rest));
+        return new ParsedArguments(argMap, args.subArguments(idx, args.numArgs()));
     }
 }
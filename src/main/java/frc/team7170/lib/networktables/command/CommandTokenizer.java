@@ -0,0 +1,48 @@
+package frc.team7170.lib.networktables.command;
+
+/**
+ * Splits command lines into whitespace-separated tokens. Tokens are represented by their bounds in the line rather
+ * than as strings, so tokenizing a line allocates nothing but the bounds array.
+ */
+final class CommandTokenizer {
+
+    private CommandTokenizer() {}
+
+    /**
+     * @param line the line to tokenize.
+     * @return the bounds of the tokens in the line: the start (inclusive) of the {@code i}th token is at index
+     * {@code 2 * i} and its end (exclusive) is at index {@code 2 * i + 1}.
+     */
+    static int[] tokenize(CharSequence line) {
+        int[] bounds = new int[2 * countTokens(line)];
+        int length = line.length();
+        int n = 0;
+        int i = 0;
+        while (true) {
+            while (i < length && Character.isWhitespace(line.charAt(i))) {
+                ++i;
+            }
+            if (i == length) {
+                return bounds;
+            }
+            bounds[n++] = i;
+            while (i < length && !Character.isWhitespace(line.charAt(i))) {
+                ++i;
+            }
+            bounds[n++] = i;
+        }
+    }
+
+    private static int countTokens(CharSequence line) {
+        int count = 0;
+        boolean inToken = false;
+        for (int i = 0; i < line.length(); ++i) {
+            boolean whitespace = Character.isWhitespace(line.charAt(i));
+            if (!whitespace && !inToken) {
+                ++count;
+            }
+            inToken = !whitespace;
+        }
+        return count;
+    }
+}
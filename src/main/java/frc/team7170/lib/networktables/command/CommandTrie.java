@@ -0,0 +1,95 @@
+package frc.team7170.lib.networktables.command;
+
+/**
+ * A case-insensitive map from command names to values, which looks names up directly from a range of a
+ * {@link CharSequence CharSequence} so that tokens never need to be copied into strings (or upper-cased) first.
+ *
+ * @apiNote This class is not thread-safe.
+ */
+final class CommandTrie<V> {
+
+    private static final class Node<V> {
+
+        // Children are kept in parallel arrays, in the order they were added; command names rarely share long
+        // prefixes, so the arrays are short and a linear scan beats hashing.
+        private char[] keys = new char[0];
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        private Node<V>[] children = new Node[0];
+        private V value;
+
+        private Node<V> child(char key) {
+            for (int i = 0; i < keys.length; ++i) {
+                if (keys[i] == key) {
+                    return children[i];
+                }
+            }
+            return null;
+        }
+
+        private Node<V> addChild(char key) {
+            int n = keys.length;
+            char[] newKeys = new char[n + 1];
+            System.arraycopy(keys, 0, newKeys, 0, n);
+            newKeys[n] = key;
+            @SuppressWarnings({"unchecked", "rawtypes"})
+            Node<V>[] newChildren = new Node[n + 1];
+            System.arraycopy(children, 0, newChildren, 0, n);
+            Node<V> child = new Node<>();
+            newChildren[n] = child;
+            keys = newKeys;
+            children = newChildren;
+            return child;
+        }
+    }
+
+    private final Node<V> root = new Node<>();
+
+    private static char fold(char c) {
+        return Character.toUpperCase(c);
+    }
+
+    /**
+     * @return the previous value for the given key, or {@code null} if there was none.
+     */
+    V put(CharSequence key, V value) {
+        Node<V> node = root;
+        for (int i = 0; i < key.length(); ++i) {
+            char c = fold(key.charAt(i));
+            Node<V> child = node.child(c);
+            node = child != null ? child : node.addChild(c);
+        }
+        V previous = node.value;
+        node.value = value;
+        return previous;
+    }
+
+    /**
+     * @return the removed value for the given key, or {@code null} if there was none.
+     */
+    V remove(CharSequence key) {
+        // Empty nodes are left in place; commands are rarely unregistered, so it isn't worth pruning them.
+        Node<V> node = find(key, 0, key.length());
+        if (node == null) {
+            return null;
+        }
+        V previous = node.value;
+        node.value = null;
+        return previous;
+    }
+
+    /**
+     * @return the value for the key in the given range of the given sequence, or {@code null} if there is none.
+     */
+    V get(CharSequence seq, int start, int end) {
+        Node<V> node = find(seq, start, end);
+        return node != null ? node.value : null;
+    }
+
+    private Node<V> find(CharSequence seq, int start, int end) {
+        Node<V> node = root;
+        for (int i = start; i < end && node != null; ++i) {
+            node = node.child(fold(seq.charAt(i)));
+        }
+        return node;
+    }
+}
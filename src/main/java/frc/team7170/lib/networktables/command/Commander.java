@@ -2,16 +2,34 @@ package frc.team7170.lib.networktables.command;
 
 import edu.wpi.first.networktables.EntryNotification;
 import edu.wpi.first.networktables.NetworkTable;
-import edu.wpi.first.networktables.NetworkTableEntry;
 import frc.team7170.lib.Name;
 import frc.team7170.lib.networktables.stream.StringStream;
+import frc.team7170.lib.networktables.transport.NTCoreTransport;
+import frc.team7170.lib.networktables.transport.NTEntry;
+import frc.team7170.lib.networktables.transport.NTTransport;
 
-import java.util.Arrays;
-import java.util.HashMap;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Consumer;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+/**
+ * <p>
+ * Runs commands sent from the dashboard as lines of whitespace-separated tokens, the first of which is the
+ * (case-insensitive) name of the command and the rest of which are its {@link StringArguments arguments}.
+ * </p>
+ * <p>
+ * The NetworkTables listener thread only reads received lines and queues them; tokenizing, looking up, and running
+ * commands is done by a task submitted to the {@link Executor Executor} given upon construction, so slow commands
+ * never hold up NetworkTables. At most one such task runs at a time, so commands are run one at a time in the order
+ * they were received, even if the {@code Executor} is multi-threaded.
+ * </p>
+ */
 public class Commander {
 
     // TODO: add help messages for commands (and arguments)?
@@ -23,42 +41,116 @@ public class Commander {
     // I.e. Robot -> dashboard
     private static final String DOWNLOAD_SUFFIX = "_DOWNLOAD";
 
-    private final HashMap<String, Consumer<StringArguments>> commandMap = new HashMap<>();
+    private static final String PATH_SEPARATOR = String.valueOf(NetworkTable.PATH_SEPARATOR);
+
+    private static final class DefaultExecutorHolder {
+        private static final Executor EXECUTOR = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "Commander");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    private final CommandTrie<Consumer<StringArguments>> commands = new CommandTrie<>();
     private final StringStream commandStream;
+    private final Executor executor;
+    private final Queue<String> queue = new ConcurrentLinkedQueue<>();
 
-    public Commander(NetworkTable table, Name namePrefix) {
-        NetworkTableEntry receivingEntry = table.getEntry(namePrefix + UPLOAD_SUFFIX);
-        NetworkTableEntry transmittingEntry = table.getEntry(namePrefix + DOWNLOAD_SUFFIX);
+    /**
+     * {@code draining} is true if the dispatching task is running or pending; false otherwise.
+     */
+    private final AtomicBoolean draining = new AtomicBoolean(false);
+
+    private final Runnable drainTask = this::drain;
+
+    /**
+     * @param transport the {@link NTTransport NTTransport} through which to receive commands.
+     * @param tablePath the path of the table in which to put the command entries.
+     * @param namePrefix the prefix of the command entries' keys.
+     * @param executor the {@link Executor Executor} with which to run commands.
+     * @throws NullPointerException if the given {@code NTTransport} or {@code Executor} is {@code null}.
+     */
+    public Commander(NTTransport transport, String tablePath, Name namePrefix, Executor executor) {
+        Objects.requireNonNull(transport, "transport must be non-null");
+        this.executor = Objects.requireNonNull(executor, "executor must be non-null");
+        String keyPrefix = tablePath.endsWith(PATH_SEPARATOR) ? tablePath + namePrefix
+                : tablePath + PATH_SEPARATOR + namePrefix;
+        NTEntry receivingEntry = transport.getEntry(keyPrefix + UPLOAD_SUFFIX);
+        NTEntry transmittingEntry = transport.getEntry(keyPrefix + DOWNLOAD_SUFFIX);
         commandStream = new StringStream(new StringStream.Config()
                 .receivingEntry(receivingEntry)
                 .transmittingEntry(transmittingEntry));
-        // Not peak mode (by default), so the input won't be blocked.
+        // Not peak mode (by default), so received commands are acknowledged.
         commandStream.addListener(this::listenerCallback);
     }
 
+    public Commander(NetworkTable table, Name namePrefix, Executor executor) {
+        this(NTCoreTransport.of(table.getInstance()), table.getPath(), namePrefix, executor);
+    }
+
+    /**
+     * Construct a {@code Commander} whose commands are run by a single daemon thread shared by all such
+     * {@code Commander}s.
+     */
+    public Commander(NetworkTable table, Name namePrefix) {
+        this(table, namePrefix, DefaultExecutorHolder.EXECUTOR);
+    }
+
     public boolean registerCommand(Name name, Consumer<StringArguments> callback) {
-        return commandMap.put(name.getName().toUpperCase(), callback) == null;
+        synchronized (commands) {
+            return commands.put(name.toString(), callback) == null;
+        }
     }
 
     public boolean unregisterCommand(Name name) {
-        return commandMap.remove(name.getName().toUpperCase()) != null;
+        synchronized (commands) {
+            return commands.remove(name.toString()) != null;
+        }
     }
 
     private void listenerCallback(EntryNotification notification) {
-        Arrays.stream(notification.value.getStringArray())
-                .map(String::strip)
-                .map(str -> str.split("\\s+"))
-                .forEach(tokens -> {
-                    String cmdName = tokens[0].toUpperCase();
-                    try {
-                        commandMap.get(cmdName).accept(
-                                new StringArguments(Arrays.copyOfRange(tokens, 1, tokens.length)));
-                    } catch (NullPointerException e) {
-                        // throw new RuntimeException("unmapped command received");
-                        LOGGER.warning(String.format("unmapped command ('%s') received", cmdName));
-                    } catch (CommandAbortException e) {
-                        LOGGER.log(Level.WARNING, String.format("command '%s' aborted", cmdName), e);
-                    }
-                });
+        for (String line : commandStream.read()) {
+            queue.add(line);
+        }
+        if (!queue.isEmpty() && draining.compareAndSet(false, true)) {
+            executor.execute(drainTask);
+        }
+    }
+
+    private void drain() {
+        while (true) {
+            String line;
+            while ((line = queue.poll()) != null) {
+                dispatch(line);
+            }
+            draining.set(false);
+            // A line may have been queued after the last poll but before draining was cleared, in which case its
+            // listener callback saw draining set and didn't submit a task; so check again before giving up.
+            if (queue.isEmpty() || !draining.compareAndSet(false, true)) {
+                return;
+            }
+        }
+    }
+
+    private void dispatch(String line) {
+        int[] bounds = CommandTokenizer.tokenize(line);
+        if (bounds.length == 0) {
+            return;
+        }
+        Consumer<StringArguments> command;
+        synchronized (commands) {
+            command = commands.get(line, bounds[0], bounds[1]);
+        }
+        if (command == null) {
+            LOGGER.warning(String.format("unmapped command ('%s') received", line.substring(bounds[0], bounds[1])));
+            return;
+        }
+        try {
+            command.accept(new StringArguments(line, bounds, 1, bounds.length / 2 - 1));
+        } catch (CommandAbortException e) {
+            LOGGER.log(Level.WARNING, String.format("command '%s' aborted", line.substring(bounds[0], bounds[1])), e);
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.SEVERE, String.format("command '%s' threw", line.substring(bounds[0], bounds[1])), e);
+        }
     }
 }
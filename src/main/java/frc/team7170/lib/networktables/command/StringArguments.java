@@ -1,19 +1,72 @@
 package frc.team7170.lib.networktables.command;
 
+/**
+ * The arguments to a command: a view of a range of the tokens in a command line. Arguments are only copied into strings
+ * when {@link StringArguments#get(int) get} is called; the typed getters decode them directly from the line.
+ */
 public class StringArguments {
 
-    public final String[] args;
+    // The classic fast path for parsing decimals: with at most MAX_FAST_DIGITS significant digits and at most
+    // MAX_EXACT_POW10 digits after the point, both the mantissa and the power of ten are exact doubles, so one
+    // (correctly rounded) division gives the correctly rounded result. The FLOAT limits do the same for floats.
+    private static final int MAX_FAST_DIGITS = 15;
+    private static final int MAX_EXACT_POW10 = 22;
+    private static final int MAX_FAST_FLOAT_DIGITS = 7;
+    private static final int MAX_EXACT_FLOAT_POW10 = 10;
+    private static final double[] POW10 = new double[MAX_EXACT_POW10 + 1];
 
-    StringArguments(String[] args) {
-        this.args = args;
+    static {
+        POW10[0] = 1.0;
+        for (int i = 1; i < POW10.length; ++i) {
+            POW10[i] = POW10[i - 1] * 10.0;
+        }
+    }
+
+    private final CharSequence line;
+    private final int[] bounds;
+    private final int first;
+    private final int numArgs;
+
+    StringArguments(CharSequence line, int[] bounds, int first, int numArgs) {
+        this.line = line;
+        this.bounds = bounds;
+        this.first = first;
+        this.numArgs = numArgs;
+    }
+
+    StringArguments(CharSequence line, int[] bounds) {
+        this(line, bounds, 0, bounds.length / 2);
     }
 
     public String get(int i) {
-        return args[i];
+        return line.subSequence(start(i), end(i)).toString();
+    }
+
+    /**
+     * @return whether or not the given argument is equal to the given sequence.
+     */
+    public boolean matches(int i, CharSequence seq) {
+        return length(i) == seq.length() && startsWith(i, seq);
+    }
+
+    /**
+     * @return whether or not the given argument starts with the given sequence.
+     */
+    public boolean startsWith(int i, CharSequence prefix) {
+        int start = start(i);
+        if (length(i) < prefix.length()) {
+            return false;
+        }
+        for (int j = 0; j < prefix.length(); ++j) {
+            if (line.charAt(start + j) != prefix.charAt(j)) {
+                return false;
+            }
+        }
+        return true;
     }
 
     public int numArgs() {
-        return args.length;
+        return numArgs;
     }
 
     public void assertArgsLength(int nargs) {
@@ -23,7 +76,186 @@ public class StringArguments {
         }
     }
 
+    /**
+     * @return the given range of these arguments, without copying them.
+     */
+    public StringArguments subArguments(int from, int to) {
+        if (from < 0 || from > to || to > numArgs) {
+            throw new IndexOutOfBoundsException(String.format("invalid range [%d, %d) of %d args", from, to, numArgs));
+        }
+        return new StringArguments(line, bounds, first + from, to - from);
+    }
+
+    public String[] toArray() {
+        String[] args = new String[numArgs];
+        for (int i = 0; i < numArgs; ++i) {
+            args[i] = get(i);
+        }
+        return args;
+    }
+
     public StringArgumentsIterator asIterator() {
         return new StringArgumentsIterator(this);
     }
+
+    public byte getByte(int i) {
+        int value = parseInt(i, "byte");
+        if (value < Byte.MIN_VALUE || value > Byte.MAX_VALUE) {
+            throw parseFailure(i, "byte");
+        }
+        return (byte) value;
+    }
+
+    public short getShort(int i) {
+        int value = parseInt(i, "short");
+        if (value < Short.MIN_VALUE || value > Short.MAX_VALUE) {
+            throw parseFailure(i, "short");
+        }
+        return (short) value;
+    }
+
+    public int getInt(int i) {
+        return parseInt(i, "int");
+    }
+
+    public long getLong(int i) {
+        try {
+            return Long.parseLong(line, start(i), end(i), 10);
+        } catch (NumberFormatException e) {
+            throw parseFailure(i, "long");
+        }
+    }
+
+    public float getFloat(int i) {
+        // Both the mantissa and the power of ten are exact floats, and a double has more than twice a float's
+        // precision, so rounding the double quotient to a float gives the correctly rounded float quotient.
+        double value = parseFastDecimal(i, MAX_FAST_FLOAT_DIGITS, MAX_EXACT_FLOAT_POW10);
+        if (!Double.isNaN(value)) {
+            return (float) value;
+        }
+        try {
+            return Float.parseFloat(get(i));
+        } catch (NumberFormatException e) {
+            throw parseFailure(i, "float");
+        }
+    }
+
+    public double getDouble(int i) {
+        double value = parseFastDecimal(i, MAX_FAST_DIGITS, MAX_EXACT_POW10);
+        if (!Double.isNaN(value)) {
+            return value;
+        }
+        try {
+            return Double.parseDouble(get(i));
+        } catch (NumberFormatException e) {
+            throw parseFailure(i, "double");
+        }
+    }
+
+    /**
+     * Parse the given argument as a plain decimal with at most the given numbers of significant digits and of digits
+     * after the point.
+     *
+     * @return the argument, or NaN if it isn't such a decimal. Exponents, long mantissas, infinities, NaN, and
+     * malformed input are all left to the JDK.
+     */
+    private double parseFastDecimal(int i, int maxDigits, int maxScale) {
+        int end = end(i);
+        int pos = start(i);
+        boolean negative = false;
+        if (pos < end && (line.charAt(pos) == '-' || line.charAt(pos) == '+')) {
+            negative = line.charAt(pos) == '-';
+            ++pos;
+        }
+        long mantissa = 0;
+        int digits = 0;
+        int scale = 0;
+        boolean seenPoint = false;
+        boolean seenDigit = false;
+        for (; pos < end; ++pos) {
+            char c = line.charAt(pos);
+            if (c >= '0' && c <= '9') {
+                seenDigit = true;
+                if (mantissa != 0 || c != '0') {
+                    if (++digits > maxDigits) {
+                        return Double.NaN;
+                    }
+                }
+                mantissa = mantissa * 10 + (c - '0');
+                if (seenPoint) {
+                    ++scale;
+                }
+            } else if (c == '.' && !seenPoint) {
+                seenPoint = true;
+            } else {
+                return Double.NaN;
+            }
+        }
+        if (!seenDigit || scale > maxScale) {
+            return Double.NaN;
+        }
+        double value = mantissa / POW10[scale];
+        return negative ? -value : value;
+    }
+
+    /**
+     * Arguments are parsed as booleans case-insensitively: "true", "on", "yes", and "1" are true, and "false", "off",
+     * "no", and "0" are false.
+     */
+    public boolean getBoolean(int i) {
+        if (equalsIgnoreCase(i, "true") || equalsIgnoreCase(i, "on") || equalsIgnoreCase(i, "yes")
+                || equalsIgnoreCase(i, "1")) {
+            return true;
+        }
+        if (equalsIgnoreCase(i, "false") || equalsIgnoreCase(i, "off") || equalsIgnoreCase(i, "no")
+                || equalsIgnoreCase(i, "0")) {
+            return false;
+        }
+        throw parseFailure(i, "boolean");
+    }
+
+    private boolean equalsIgnoreCase(int i, String str) {
+        int start = start(i);
+        if (end(i) - start != str.length()) {
+            return false;
+        }
+        for (int j = 0; j < str.length(); ++j) {
+            if (Character.toLowerCase(line.charAt(start + j)) != str.charAt(j)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int parseInt(int i, String type) {
+        try {
+            return Integer.parseInt(line, start(i), end(i), 10);
+        } catch (NumberFormatException e) {
+            throw parseFailure(i, type);
+        }
+    }
+
+    private CommandAbortException parseFailure(int i, String type) {
+        return new CommandAbortException(String.format("could not parse '%s' to %s", get(i), type));
+    }
+
+    int start(int i) {
+        checkIndex(i);
+        return bounds[2 * (first + i)];
+    }
+
+    int end(int i) {
+        checkIndex(i);
+        return bounds[2 * (first + i) + 1];
+    }
+
+    int length(int i) {
+        return end(i) - start(i);
+    }
+
+    private void checkIndex(int i) {
+        if (i < 0 || i >= numArgs) {
+            throw new CommandAbortException(String.format("missing argument %d; got %d args", i, numArgs));
+        }
+    }
 }
@@ -28,56 +28,30 @@ public class StringArgumentsIterator implements Iterator<String> {
     }
 
     public byte nextByte() {
-        String next = next();
-        try {
-            return Byte.parseByte(next);
-        } catch (NumberFormatException e) {
-            throw new CommandAbortException(String.format("could not parse '%s' to byte", next));
-        }
+        return args.getByte(idx++);
     }
 
     public short nextShort() {
-        String next = next();
-        try {
-            return Short.parseShort(next);
-        } catch (NumberFormatException e) {
-            throw new CommandAbortException(String.format("could not parse '%s' to short", next));
-        }
+        return args.getShort(idx++);
     }
 
     public int nextInt() {
-        String next = next();
-        try {
-            return Integer.parseInt(next);
-        } catch (NumberFormatException e) {
-            throw new CommandAbortException(String.format("could not parse '%s' to int", next));
-        }
+        return args.getInt(idx++);
     }
 
     public long nextLong() {
-        String next = next();
-        try {
-            return Long.parseLong(next);
-        } catch (NumberFormatException e) {
-            throw new CommandAbortException(String.format("could not parse '%s' to long", next));
-        }
+        return args.getLong(idx++);
     }
 
     public float nextFloat() {
-        String next = next();
-        try {
-            return Float.parseFloat(next);
-        } catch (NumberFormatException e) {
-            throw new CommandAbortException(String.format("could not parse '%s' to float", next));
-        }
+        return args.getFloat(idx++);
     }
 
     public double nextDouble() {
-        String next = next();
-        try {
-            return Double.parseDouble(next);
-        } catch (NumberFormatException e) {
-            throw new CommandAbortException(String.format("could not parse '%s' to double", next));
-        }
+        return args.getDouble(idx++);
+    }
+
+    public boolean nextBoolean() {
+        return args.getBoolean(idx++);
     }
 }
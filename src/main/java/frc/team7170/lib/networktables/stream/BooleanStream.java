@@ -1,14 +1,23 @@
 package frc.team7170.lib.networktables.stream;
 
-import edu.wpi.first.networktables.NetworkTableEntry;
+import edu.wpi.first.networktables.NetworkTableValue;
+import frc.team7170.lib.networktables.transport.NTEntry;
 
+/**
+ * An {@link NTStream NTStream} of booleans. Written values are cached in a primitive ring buffer and sent from a
+ * reused primitive array, so writing with {@link BooleanStream#write(boolean)} or
+ * {@link BooleanStream#write(boolean[])} does not allocate per element; {@link BooleanStream#readBooleans()} likewise
+ * reads without boxing. The header is the sequence number, as the first 64 elements of the array (least significant
+ * bit first).
+ */
 public class BooleanStream extends NTStream<Boolean> {
 
-    private static final Boolean[] empty = new Boolean[0];
+    private static final boolean[] empty = new boolean[0];
+    private static final int HEADER_LENGTH = Long.SIZE;
 
     public static class Config extends NTStream.Config {
         @Override
-        protected boolean isMatchingEntryType(NetworkTableEntry entry) {
+        protected boolean isMatchingEntryType(NTEntry entry) {
             switch (entry.getType()) {
                 case kBoolean:
                 case kBooleanArray:
@@ -18,32 +27,109 @@ public class BooleanStream extends NTStream<Boolean> {
         }
 
         @Override
-        void setUnassignedEntry(NetworkTableEntry entry) {
+        void setUnassignedEntry(NTEntry entry) {
             entry.setBooleanArray(empty);
         }
     }
 
+    private final boolean[] cache;
+    // Big enough for a full cache, so it is never reallocated; only its first elements are sent.
+    private final boolean[] sendBuffer;
+    private boolean[] received = empty;
+
     public BooleanStream(NTStream.Config config) {
         super(config);
+        cache = new boolean[cacheCapacity];
+        sendBuffer = new boolean[cacheCapacity + HEADER_LENGTH];
+    }
+
+    public boolean write(boolean value) {
+        cache[nextCacheSlot()] = value;
+        return flush(false);
+    }
+
+    public boolean write(boolean[] data) {
+        return write(data, 0, data.length);
+    }
+
+    public boolean write(boolean[] data, int offset, int length) {
+        if (offset < 0 || length < 0 || offset + length > data.length) {
+            throw new IndexOutOfBoundsException("offset and length out of bounds of data");
+        }
+        for (int i = offset; i < offset + length; ++i) {
+            cache[nextCacheSlot()] = data[i];
+        }
+        return flush(false);
+    }
+
+    /**
+     * The same as {@link NTStream#read() read}, but without boxing.
+     */
+    public synchronized boolean[] readBooleans() {
+        int offset = beginRead(true);
+        boolean[] data = new boolean[getReceivedLength() - offset];
+        System.arraycopy(received, HEADER_LENGTH + offset, data, 0, data.length);
+        return data;
     }
 
     @Override
-    protected Boolean[] getReceiving() {
-        return receivingEntry.getBooleanArray(empty);
+    protected long fetchReceiving() {
+        boolean[] value = receivingEntry.getBooleanArray(empty);
+        long firstSeq = getFirstSequence(value);
+        received = firstSeq < 0 ? empty : value;
+        return firstSeq;
+    }
+
+    private static long getFirstSequence(boolean[] value) {
+        if (value.length < HEADER_LENGTH) {
+            return -1;
+        }
+        long seq = 0;
+        for (int i = 0; i < HEADER_LENGTH; ++i) {
+            if (value[i]) {
+                seq |= 1L << i;
+            }
+        }
+        return seq;
+    }
+
+    @Override
+    protected int getReceivedLength() {
+        return Math.max(0, received.length - HEADER_LENGTH);
     }
 
     @Override
-    protected void clearReceiving() {
-        receivingEntry.setBooleanArray(empty);
+    protected Boolean[] copyReceived(int offset, int length) {
+        Boolean[] data = new Boolean[length];
+        for (int i = 0; i < length; ++i) {
+            data[i] = received[HEADER_LENGTH + offset + i];
+        }
+        return data;
+    }
+
+    @Override
+    protected long getEndSequence(NetworkTableValue value) {
+        if (!value.isBooleanArray()) {
+            return -1;
+        }
+        boolean[] array = value.getBooleanArray();
+        long firstSeq = getFirstSequence(array);
+        return firstSeq < 0 ? -1 : firstSeq + array.length - HEADER_LENGTH;
     }
 
     @Override
-    protected void setTransmitting(Boolean[] data) {
-        transmittingEntry.setBooleanArray(data);
+    protected void cache(int slot, Boolean value) {
+        cache[slot] = value;
     }
 
     @Override
-    protected Boolean[] getTransmitting() {
-        return transmittingEntry.getBooleanArray(empty);
+    protected void setTransmitting(long firstSeq, int firstSlot, int count) {
+        for (int i = 0; i < HEADER_LENGTH; ++i) {
+            sendBuffer[i] = (firstSeq >>> i & 1L) != 0;
+        }
+        int tail = Math.min(count, cache.length - firstSlot);
+        System.arraycopy(cache, firstSlot, sendBuffer, HEADER_LENGTH, tail);
+        System.arraycopy(cache, 0, sendBuffer, HEADER_LENGTH + tail, count - tail);
+        transmittingEntry.setBooleanArray(sendBuffer, count + HEADER_LENGTH);
     }
 }
@@ -1,14 +1,21 @@
 package frc.team7170.lib.networktables.stream;
 
-import edu.wpi.first.networktables.NetworkTableEntry;
+import edu.wpi.first.networktables.NetworkTableValue;
+import frc.team7170.lib.networktables.transport.NTEntry;
 
+/**
+ * An {@link NTStream NTStream} of doubles. Written values are cached in a primitive ring buffer and sent from a reused
+ * primitive array, so writing with {@link DoubleStream#write(double)} or {@link DoubleStream#write(double[])} does
+ * not allocate per element; {@link DoubleStream#readDoubles()} likewise reads without boxing. The header is the
+ * sequence number, as the first element of the array.
+ */
 public class DoubleStream extends NTStream<Double> {
 
-    private static final Double[] empty = new Double[0];
+    private static final double[] empty = new double[0];
 
     public static class Config extends NTStream.Config {
         @Override
-        protected boolean isMatchingEntryType(NetworkTableEntry entry) {
+        protected boolean isMatchingEntryType(NTEntry entry) {
             switch (entry.getType()) {
                 case kDouble:
                 case kDoubleArray:
@@ -18,32 +25,98 @@ public class DoubleStream extends NTStream<Double> {
         }
 
         @Override
-        void setUnassignedEntry(NetworkTableEntry entry) {
-            entry.setNumberArray(empty);
+        void setUnassignedEntry(NTEntry entry) {
+            entry.setDoubleArray(empty);
         }
     }
 
+    private final double[] cache;
+    // Big enough for a full cache, so it is never reallocated; only its first elements are sent.
+    private final double[] sendBuffer;
+    private double[] received = empty;
+
     public DoubleStream(NTStream.Config config) {
         super(config);
+        cache = new double[cacheCapacity];
+        sendBuffer = new double[cacheCapacity + 1];
+    }
+
+    public boolean write(double value) {
+        cache[nextCacheSlot()] = value;
+        return flush(false);
+    }
+
+    public boolean write(double[] data) {
+        return write(data, 0, data.length);
+    }
+
+    public boolean write(double[] data, int offset, int length) {
+        if (offset < 0 || length < 0 || offset + length > data.length) {
+            throw new IndexOutOfBoundsException("offset and length out of bounds of data");
+        }
+        for (int i = offset; i < offset + length; ++i) {
+            cache[nextCacheSlot()] = data[i];
+        }
+        return flush(false);
+    }
+
+    /**
+     * The same as {@link NTStream#read() read}, but without boxing.
+     */
+    public synchronized double[] readDoubles() {
+        int offset = beginRead(true);
+        double[] data = new double[getReceivedLength() - offset];
+        System.arraycopy(received, 1 + offset, data, 0, data.length);
+        return data;
     }
 
     @Override
-    protected Double[] getReceiving() {
-        return receivingEntry.getDoubleArray(empty);
+    protected long fetchReceiving() {
+        double[] value = receivingEntry.getDoubleArray(empty);
+        long firstSeq = getFirstSequence(value);
+        received = firstSeq < 0 ? empty : value;
+        return firstSeq;
+    }
+
+    private static long getFirstSequence(double[] value) {
+        return value.length > 0 && value[0] >= 0 ? (long) value[0] : -1;
+    }
+
+    @Override
+    protected int getReceivedLength() {
+        return Math.max(0, received.length - 1);
     }
 
     @Override
-    protected void clearReceiving() {
-        receivingEntry.setNumberArray(empty);
+    protected Double[] copyReceived(int offset, int length) {
+        Double[] data = new Double[length];
+        for (int i = 0; i < length; ++i) {
+            data[i] = received[1 + offset + i];
+        }
+        return data;
+    }
+
+    @Override
+    protected long getEndSequence(NetworkTableValue value) {
+        if (!value.isDoubleArray()) {
+            return -1;
+        }
+        double[] array = value.getDoubleArray();
+        long firstSeq = getFirstSequence(array);
+        return firstSeq < 0 ? -1 : firstSeq + array.length - 1;
     }
 
     @Override
-    protected void setTransmitting(Double[] data) {
-        transmittingEntry.setNumberArray(data);
+    protected void cache(int slot, Double value) {
+        cache[slot] = value;
     }
 
     @Override
-    protected Double[] getTransmitting() {
-        return transmittingEntry.getDoubleArray(empty);
+    protected void setTransmitting(long firstSeq, int firstSlot, int count) {
+        sendBuffer[0] = firstSeq;
+        int tail = Math.min(count, cache.length - firstSlot);
+        System.arraycopy(cache, firstSlot, sendBuffer, 1, tail);
+        System.arraycopy(cache, 0, sendBuffer, 1 + tail, count - tail);
+        transmittingEntry.setDoubleArray(sendBuffer, count + 1);
     }
 }
@@ -4,34 +4,78 @@ import edu.wpi.first.networktables.EntryListenerFlags;
 import edu.wpi.first.networktables.EntryNotification;
 import edu.wpi.first.networktables.NetworkTableEntry;
 import edu.wpi.first.networktables.NetworkTableType;
+import edu.wpi.first.networktables.NetworkTableValue;
+import frc.team7170.lib.networktables.transport.NTCoreTransport;
+import frc.team7170.lib.networktables.transport.NTEntry;
 
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
-import java.util.LinkedList;
 import java.util.function.Consumer;
 
+/**
+ * <p>
+ * A lossless stream of elements over an array {@link NTEntry NTEntry}.
+ * </p>
+ * <p>
+ * Every element written to a stream is given a sequence number, counting up from zero. The transmitter publishes all
+ * the elements that the receiver has not yet acknowledged as one array, headed by the sequence number of its first
+ * element (the header is in the array itself, so each update is atomic). The receiver takes the elements it has not
+ * seen yet and acknowledges them by setting the sequence number of the next element it expects in the ack entry,
+ * which is the data entry's key with {@link NTStream#ACK_SUFFIX ACK_SUFFIX} appended. Neither side ever clears the
+ * data entry, so nothing written between a read and an acknowledgement can be lost.
+ * </p>
+ * <p>
+ * The transmitter doesn't wait for acknowledgements before sending more: every flush republishes the elements
+ * written since the latest acknowledgement (an entry only holds its latest value, so any that were sent but not yet
+ * read must be sent again), so several chunks can be in flight at once. The window is bounded by the configured cache
+ * size; if the receiver falls that far behind, writing more drops the oldest unacknowledged elements, which is
+ * counted by {@link NTStream#getDroppedCount() getDroppedCount} and seen by the receiver as a gap
+ * ({@link NTStream#getGapCount() getGapCount}). {@link NTStream#getBacklog() getBacklog} exposes how far behind the
+ * receiver is, so producers can apply backpressure before that happens.
+ * </p>
+ * <p>
+ * Both sides start from the sequence number in the ack entry, so a stream picks up where it left off if either end
+ * is restarted.
+ * </p>
+ *
+ * @apiNote Reading is thread-safe, since listeners are called from the NetworkTables thread while the stream may also
+ * be read from another. Writing is not thread-safe: a stream should only be written to from one thread.
+ */
 public abstract class NTStream<T> {
 
+    /**
+     * The suffix appended to a data entry's key to get its ack entry's key.
+     */
+    public static final String ACK_SUFFIX = "/ack";
+
     public abstract static class Config {
 
-        private NetworkTableEntry receivingEntry;
-        private NetworkTableEntry transmittingEntry;
+        private NTEntry receivingEntry;
+        private NTEntry transmittingEntry;
         private int cacheSize = 100;
         private int minSendSize = 0;
 
-        public Config receivingEntry(NetworkTableEntry receivingEntry) {
+        public Config receivingEntry(NTEntry receivingEntry) {
             checkMatchingEntryType(receivingEntry);
             this.receivingEntry = receivingEntry;
             return this;
         }
 
-        public Config transmittingEntry(NetworkTableEntry transmittingEntry) {
+        public Config receivingEntry(NetworkTableEntry receivingEntry) {
+            return receivingEntry(NTCoreTransport.wrap(receivingEntry));
+        }
+
+        public Config transmittingEntry(NTEntry transmittingEntry) {
             checkMatchingEntryType(transmittingEntry);
             this.transmittingEntry = transmittingEntry;
             return this;
         }
 
+        public Config transmittingEntry(NetworkTableEntry transmittingEntry) {
+            return transmittingEntry(NTCoreTransport.wrap(transmittingEntry));
+        }
+
         public Config cacheSize(int cacheSize) {
             this.cacheSize = cacheSize;
             return this;
@@ -42,42 +86,18 @@ public abstract class NTStream<T> {
             return this;
         }
 
-        private void checkMatchingEntryType(NetworkTableEntry entry) {
-            NetworkTableType entryType = receivingEntry.getType();
+        private void checkMatchingEntryType(NTEntry entry) {
+            NetworkTableType entryType = entry.getType();
             if (entryType == NetworkTableType.kUnassigned) {
                 setUnassignedEntry(entry);
-            } else if (!isMatchingEntryType(receivingEntry)) {
+            } else if (!isMatchingEntryType(entry)) {
                 throw new IllegalStateException("invalid entry type (" + entryType.name() + ")");
             }
         }
 
-        abstract boolean isMatchingEntryType(NetworkTableEntry entry);
-
-        abstract void setUnassignedEntry(NetworkTableEntry entry);
-    }
-
-    private static class LimitedCache<E> extends LinkedList<E> {
-        // This is a pretty naive implementation if memory is a concern (which it isn't, but it's worth noting)
-        // (Because addAll adds all the given elements *before* trimming to the max capacity)
-
-        private final int capacity;
-
-        public LimitedCache(int capacity) {
-            this.capacity = capacity;
-        }
-
-        @Override
-        public boolean addAll(Collection<? extends E> c) {
-            boolean ret = super.addAll(c);
-            checkCapacity();
-            return ret;
-        }
+        abstract boolean isMatchingEntryType(NTEntry entry);
 
-        private void checkCapacity() {
-            while (size() > capacity) {
-                remove();
-            }
-        }
+        abstract void setUnassignedEntry(NTEntry entry);
     }
 
     private static class Listener {
@@ -94,15 +114,28 @@ public abstract class NTStream<T> {
     }
 
     // Attributes for receiving streams:
-    final NetworkTableEntry receivingEntry;
+    final NTEntry receivingEntry;
+    private final NTEntry receivingAckEntry;
+    // Written with the lock held, but volatile so that they can be read without it.
+    private volatile long readSeq;
+    private volatile long gapCount = 0;
     private int listenerFlags = 0;
     private int listenerCallbackID;
     private final ArrayList<Listener> listeners;
 
     // Attributes for transmitting streams:
-    final NetworkTableEntry transmittingEntry;
+    final NTEntry transmittingEntry;
+    private final NTEntry transmittingAckEntry;
     private final int minSendSize;
-    private final LimitedCache<T> cache;
+    // The cache is a ring buffer whose elements are held by subclasses (in primitive arrays where possible). It holds
+    // the elements with sequence numbers in [nextSeq - cacheCount, nextSeq), of which those from sentSeq on haven't
+    // been sent yet.
+    final int cacheCapacity;
+    private int cacheNext = 0;
+    private int cacheCount = 0;
+    private long nextSeq;
+    private long sentSeq;
+    private long droppedCount = 0;
 
     NTStream(Config config) {
         if (config.receivingEntry == null && config.transmittingEntry == null) {
@@ -111,29 +144,120 @@ public abstract class NTStream<T> {
         if (config.transmittingEntry != null && config.cacheSize < config.minSendSize) {
             throw new IllegalStateException("cacheSize must be bigger than minSendSize");
         }
+        if (config.transmittingEntry != null && config.cacheSize <= 0) {
+            throw new IllegalStateException("cacheSize must be positive");
+        }
         this.receivingEntry = config.receivingEntry;
         this.transmittingEntry = config.transmittingEntry;
         this.minSendSize = config.minSendSize;
 
-        listeners = isReadable() ? new ArrayList<>() : null;
-        cache = isWriteable() ? new LimitedCache<>(config.cacheSize) : null;
+        if (isReadable()) {
+            receivingAckEntry = getAckEntry(receivingEntry);
+            readSeq = getAck(receivingAckEntry);
+            listeners = new ArrayList<>();
+        } else {
+            receivingAckEntry = null;
+            listeners = null;
+        }
+
+        if (isWriteable()) {
+            transmittingAckEntry = getAckEntry(transmittingEntry);
+            nextSeq = getAck(transmittingAckEntry);
+            sentSeq = nextSeq;
+            cacheCapacity = config.cacheSize;
+        } else {
+            transmittingAckEntry = null;
+            cacheCapacity = 0;
+        }
+    }
+
+    private static NTEntry getAckEntry(NTEntry entry) {
+        return entry.getTransport().getEntry(entry.getName() + ACK_SUFFIX);
+    }
+
+    private static long getAck(NTEntry ackEntry) {
+        return Math.max(0, (long) ackEntry.getDouble(0));
     }
 
+    /**
+     * Read the elements that have been received since the last read, and acknowledge them to the transmitter.
+     *
+     * @return the new elements, in the order they were written.
+     */
     public T[] read() {
-        assertReadable("cannot read a write-only stream");
-        T[] data = getReceiving();
-        clearReceiving();
-        return data;
+        return read(true);
     }
 
+    /**
+     * Get the elements that have been received since the last read, without acknowledging them.
+     *
+     * @return the new elements, in the order they were written.
+     */
     public T[] peek() {
+        return read(false);
+    }
+
+    private synchronized T[] read(boolean consume) {
+        int offset = beginRead(consume);
+        return copyReceived(offset, getReceivedLength() - offset);
+    }
+
+    /**
+     * Fetch the receiving entry's value and work out which of its elements haven't been read yet, acknowledging them
+     * if consuming. Callers must hold the lock until they are done with the fetched value.
+     *
+     * @return the offset of the first unread element in the fetched value.
+     */
+    final synchronized int beginRead(boolean consume) {
         assertReadable("cannot read a write-only stream");
-        return getReceiving();
+        long firstSeq = fetchReceiving();
+        if (firstSeq < 0) {
+            return getReceivedLength();
+        }
+        int length = getReceivedLength();
+        int offset;
+        if (firstSeq > readSeq) {
+            // The transmitter dropped elements before we acknowledged them.
+            if (consume) {
+                gapCount += firstSeq - readSeq;
+            }
+            offset = 0;
+        } else {
+            offset = (int) Math.min(length, readSeq - firstSeq);
+        }
+        if (consume) {
+            acknowledge(firstSeq + length);
+        }
+        return offset;
+    }
+
+    private synchronized void acknowledge(long endSeq) {
+        if (endSeq > readSeq) {
+            readSeq = endSeq;
+            receivingAckEntry.setDouble(readSeq);
+        }
+    }
+
+    /**
+     * @return the sequence number of the next element this stream expects to read.
+     */
+    public long getReadSequence() {
+        assertReadable("cannot read a write-only stream");
+        return readSeq;
+    }
+
+    /**
+     * @return the number of elements that the transmitter dropped before this stream read them.
+     */
+    public long getGapCount() {
+        assertReadable("cannot read a write-only stream");
+        return gapCount;
     }
 
     public boolean write(Collection<T> data) {
-        assertWriteable("cannot write to a read-only stream");
-        cache.addAll(data);
+        for (T value : data) {
+            cache(nextCacheSlot(), value);
+        }
         return flush(false);
     }
 
@@ -141,27 +265,92 @@ public abstract class NTStream<T> {
         return write(Arrays.asList(data));
     }
 
-    @SuppressWarnings("unchecked")
+    /**
+     * Claim the cache slot for the next written element, dropping the oldest cached element if the cache is full.
+     */
+    final int nextCacheSlot() {
+        assertWriteable("cannot write to a read-only stream");
+        if (cacheCount == cacheCapacity) {
+            // Acknowledged elements can be dropped for free, so check for any before dropping one that isn't.
+            pollAck();
+            if (cacheCount == cacheCapacity) {
+                --cacheCount;
+                ++droppedCount;
+                if (sentSeq < nextSeq - cacheCount) {
+                    sentSeq = nextSeq - cacheCount;
+                }
+            }
+        }
+        int slot = cacheNext;
+        if (++cacheNext == cacheCapacity) {
+            cacheNext = 0;
+        }
+        ++cacheCount;
+        ++nextSeq;
+        return slot;
+    }
+
+    /**
+     * Drop the cached elements that the receiver has acknowledged.
+     */
+    private void pollAck() {
+        long ack = Math.min((long) transmittingAckEntry.getDouble(0), sentSeq);
+        long oldestSeq = nextSeq - cacheCount;
+        if (ack > oldestSeq) {
+            cacheCount -= (int) (ack - oldestSeq);
+        }
+    }
+
+    /**
+     * Publish every unacknowledged element, if there are any that haven't been sent yet.
+     *
+     * @param force if {@code false}, only publish if at least {@code minSendSize} elements haven't been sent yet.
+     * @return whether or not anything was published.
+     */
     public boolean flush(boolean force) {
         assertWriteable("cannot flush a read-only stream");
-        if (!outputBlocked() && (force || enoughDataInCache())) {
-            setTransmitting((T[]) cache.toArray());
-            cache.clear();
-            return true;
+        long unsent = nextSeq - sentSeq;
+        if (unsent == 0 || (!force && unsent < minSendSize)) {
+            return false;
+        }
+        pollAck();
+        int first = cacheNext - cacheCount;
+        if (first < 0) {
+            first += cacheCapacity;
         }
-        return false;
+        setTransmitting(nextSeq - cacheCount, first, cacheCount);
+        sentSeq = nextSeq;
+        return true;
     }
 
     public boolean flush() {
         return flush(true);
     }
 
-    private boolean outputBlocked() {
-        return getTransmitting().length > 0;
+    /**
+     * @return the number of written elements that the receiver hasn't acknowledged yet, as of the last write or
+     * flush. Once this reaches the cache size, further writes drop the oldest of them.
+     */
+    public int getBacklog() {
+        assertWriteable("cannot get the backlog of a read-only stream");
+        return cacheCount;
+    }
+
+    /**
+     * @return the number of elements that were dropped because the receiver hadn't acknowledged them when the cache
+     * filled up.
+     */
+    public long getDroppedCount() {
+        assertWriteable("cannot get the dropped count of a read-only stream");
+        return droppedCount;
     }
 
-    private boolean enoughDataInCache() {
-        return cache.size() >= minSendSize;
+    /**
+     * @return the sequence number that the next written element will get.
+     */
+    public long getWriteSequence() {
+        assertWriteable("cannot get the write sequence of a read-only stream");
+        return nextSeq;
     }
 
     public boolean isReadable() {
@@ -225,25 +414,55 @@ public abstract class NTStream<T> {
     }
 
     private void listenerCallback(EntryNotification notification) {
-        boolean clearAfter = false;
+        boolean consumed = false;
         for (Listener listener : listeners) {
             if ((listener.flags & notification.flags) == notification.flags) {
                 if (!listener.peekOnly) {
-                    clearAfter = true;
+                    consumed = true;
                 }
                 listener.callback.accept(notification);
             }
         }
-        if (clearAfter) {
-            clearReceiving();
+        if (consumed) {
+            // Only acknowledge what was in the notification; anything that has arrived since is still unread.
+            long endSeq = getEndSequence(notification.value);
+            if (endSeq >= 0) {
+                acknowledge(endSeq);
+            }
         }
     }
 
-    abstract T[] getReceiving();
-
-    abstract void clearReceiving();
-
-    abstract void setTransmitting(T[] data);
-
-    abstract T[] getTransmitting();
+    /**
+     * Get the current value of the receiving entry, and hold on to it for
+     * {@link NTStream#getReceivedLength() getReceivedLength} and {@link NTStream#copyReceived(int, int) copyReceived}.
+     *
+     * @return the sequence number of the first element in the value, or -1 if it doesn't hold a valid stream array.
+     */
+    abstract long fetchReceiving();
+
+    /**
+     * @return the number of elements (excluding the header) in the last fetched value, or 0 if it wasn't valid.
+     */
+    abstract int getReceivedLength();
+
+    /**
+     * @return a new array of the given range of elements in the last fetched value.
+     */
+    abstract T[] copyReceived(int offset, int length);
+
+    /**
+     * @return the sequence number after the last element in the given value, or -1 if it isn't a valid stream array.
+     */
+    abstract long getEndSequence(NetworkTableValue value);
+
+    /**
+     * Store the given element in the given cache slot.
+     */
+    abstract void cache(int slot, T value);
+
+    /**
+     * Publish the given number of cached elements, starting from the given slot and wrapping around the end of the
+     * cache, headed by the sequence number of the first one.
+     */
+    abstract void setTransmitting(long firstSeq, int firstSlot, int count);
 }
@@ -1,14 +1,19 @@
 package frc.team7170.lib.networktables.stream;
 
-import edu.wpi.first.networktables.NetworkTableEntry;
+import edu.wpi.first.networktables.NetworkTableValue;
+import frc.team7170.lib.networktables.transport.NTEntry;
 
+/**
+ * An {@link NTStream NTStream} of strings. The header is the sequence number, in decimal, as the first element of the
+ * array.
+ */
 public class StringStream extends NTStream<String> {
 
     private static final String[] empty = new String[0];
 
     public static class Config extends NTStream.Config {
         @Override
-        protected boolean isMatchingEntryType(NetworkTableEntry entry) {
+        protected boolean isMatchingEntryType(NTEntry entry) {
             switch (entry.getType()) {
                 case kString:
                 case kStringArray:
@@ -18,32 +23,74 @@ public class StringStream extends NTStream<String> {
         }
 
         @Override
-        void setUnassignedEntry(NetworkTableEntry entry) {
+        void setUnassignedEntry(NTEntry entry) {
             entry.setStringArray(empty);
         }
     }
 
+    private final String[] cache;
+    // Big enough for a full cache, so it is never reallocated; only its first elements are sent.
+    private final String[] sendBuffer;
+    private String[] received = empty;
+
     public StringStream(NTStream.Config config) {
         super(config);
+        cache = new String[cacheCapacity];
+        sendBuffer = new String[cacheCapacity + 1];
+    }
+
+    @Override
+    protected long fetchReceiving() {
+        String[] value = receivingEntry.getStringArray(empty);
+        long firstSeq = getFirstSequence(value);
+        received = firstSeq < 0 ? empty : value;
+        return firstSeq;
+    }
+
+    private static long getFirstSequence(String[] value) {
+        if (value.length == 0) {
+            return -1;
+        }
+        try {
+            return Math.max(-1, Long.parseLong(value[0]));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    @Override
+    protected int getReceivedLength() {
+        return Math.max(0, received.length - 1);
     }
 
     @Override
-    protected String[] getReceiving() {
-        return receivingEntry.getStringArray(empty);
+    protected String[] copyReceived(int offset, int length) {
+        String[] data = new String[length];
+        System.arraycopy(received, 1 + offset, data, 0, length);
+        return data;
     }
 
     @Override
-    protected void clearReceiving() {
-        receivingEntry.setStringArray(empty);
+    protected long getEndSequence(NetworkTableValue value) {
+        if (!value.isStringArray()) {
+            return -1;
+        }
+        String[] array = value.getStringArray();
+        long firstSeq = getFirstSequence(array);
+        return firstSeq < 0 ? -1 : firstSeq + array.length - 1;
     }
 
     @Override
-    protected void setTransmitting(String[] data) {
-        transmittingEntry.setStringArray(data);
+    protected void cache(int slot, String value) {
+        cache[slot] = value;
     }
 
     @Override
-    protected String[] getTransmitting() {
-        return transmittingEntry.getStringArray(empty);
+    protected void setTransmitting(long firstSeq, int firstSlot, int count) {
+        sendBuffer[0] = Long.toString(firstSeq);
+        int tail = Math.min(count, cache.length - firstSlot);
+        System.arraycopy(cache, firstSlot, sendBuffer, 1, tail);
+        System.arraycopy(cache, 0, sendBuffer, 1 + tail, count - tail);
+        transmittingEntry.setStringArray(sendBuffer, count + 1);
     }
 }
@@ -0,0 +1,307 @@
+package frc.team7170.lib.networktables.transport;
+
+import edu.wpi.first.networktables.EntryListenerFlags;
+import edu.wpi.first.networktables.EntryNotification;
+import edu.wpi.first.networktables.NetworkTableInstance;
+import edu.wpi.first.networktables.NetworkTableType;
+import edu.wpi.first.networktables.NetworkTableValue;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * <p>
+ * An in-process {@link NTTransport NTTransport}, for testing and benchmarking code that uses NetworkTables without an
+ * ntcore server (or ntcore's native library).
+ * </p>
+ * <p>
+ * Each entry's value is an immutable {@link NetworkTableValue NetworkTableValue} swapped in atomically, and listeners
+ * are kept in copy-on-write lists, so reads and writes never lock. Listeners are called synchronously by the thread
+ * that changed the value, once the value is visible to all threads. Every change is treated as if it came from a
+ * remote peer, so listeners are called whether or not they asked for
+ * {@link EntryListenerFlags#kLocal kLocal} events. As with ntcore, setting an entry to the value it already has
+ * doesn't notify anyone.
+ * </p>
+ *
+ * @apiNote This class is thread-safe.
+ */
+public final class LocalTransport implements NTTransport {
+
+    private final ConcurrentHashMap<String, LocalEntry> entries = new ConcurrentHashMap<>();
+    private final AtomicInteger nextHandle = new AtomicInteger(1);
+    private final AtomicInteger nextListener = new AtomicInteger(1);
+
+    @Override
+    public NTEntry getEntry(String key) {
+        LocalEntry entry = entries.get(key);
+        if (entry == null) {
+            entry = entries.computeIfAbsent(key, k -> new LocalEntry(this, k, nextHandle.getAndIncrement()));
+        }
+        return entry;
+    }
+
+    /**
+     * Does nothing, since updates are visible as soon as they are made.
+     */
+    @Override
+    public void flush() {}
+
+    /**
+     * @return {@code null}.
+     */
+    @Override
+    public NetworkTableInstance getInstance() {
+        return null;
+    }
+
+    private static final class Listener {
+
+        private final int handle;
+        private final Consumer<EntryNotification> callback;
+        private final int flags;
+
+        private Listener(int handle, Consumer<EntryNotification> callback, int flags) {
+            this.handle = handle;
+            this.callback = callback;
+            this.flags = flags;
+        }
+    }
+
+    private static final class LocalEntry implements NTEntry {
+
+        private final LocalTransport transport;
+        private final String name;
+        private final int handle;
+        private final AtomicReference<NetworkTableValue> value = new AtomicReference<>();
+        private final CopyOnWriteArrayList<Listener> listeners = new CopyOnWriteArrayList<>();
+
+        private LocalEntry(LocalTransport transport, String name, int handle) {
+            this.transport = transport;
+            this.name = name;
+            this.handle = handle;
+        }
+
+        @Override
+        public NTTransport getTransport() {
+            return transport;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public int getHandle() {
+            return handle;
+        }
+
+        @Override
+        public NetworkTableType getType() {
+            NetworkTableValue v = value.get();
+            return v != null ? v.getType() : NetworkTableType.kUnassigned;
+        }
+
+        /**
+         * @return the value, or {@code null} if the entry is unassigned.
+         */
+        @Override
+        public NetworkTableValue getValue() {
+            return value.get();
+        }
+
+        @Override
+        public boolean setValue(Object value) {
+            return set(toValue(value));
+        }
+
+        /**
+         * Set the value if the entry is unassigned or already has the new value's type, and notify listeners if it
+         * changed.
+         */
+        private boolean set(NetworkTableValue newValue) {
+            NetworkTableValue oldValue;
+            do {
+                oldValue = value.get();
+                if (oldValue != null && oldValue.getType() != newValue.getType()) {
+                    return false;
+                }
+                if (oldValue != null && Objects.deepEquals(oldValue.getValue(), newValue.getValue())) {
+                    return true;
+                }
+            } while (!value.compareAndSet(oldValue, newValue));
+            notifyListeners(newValue, oldValue == null ? EntryListenerFlags.kNew : EntryListenerFlags.kUpdate);
+            return true;
+        }
+
+        private void notifyListeners(NetworkTableValue v, int kind) {
+            for (Listener listener : listeners) {
+                if ((listener.flags & kind) != 0) {
+                    listener.callback.accept(
+                            new EntryNotification(null, listener.handle, handle, name, v, kind));
+                }
+            }
+        }
+
+        private NetworkTableValue get(NetworkTableType type) {
+            NetworkTableValue v = value.get();
+            return v != null && v.getType() == type ? v : null;
+        }
+
+        @Override
+        public boolean getBoolean(boolean defaultValue) {
+            NetworkTableValue v = get(NetworkTableType.kBoolean);
+            return v != null ? v.getBoolean() : defaultValue;
+        }
+
+        @Override
+        public boolean setBoolean(boolean value) {
+            return set(NetworkTableValue.makeBoolean(value));
+        }
+
+        @Override
+        public double getDouble(double defaultValue) {
+            NetworkTableValue v = get(NetworkTableType.kDouble);
+            return v != null ? v.getDouble() : defaultValue;
+        }
+
+        @Override
+        public boolean setDouble(double value) {
+            return set(NetworkTableValue.makeDouble(value));
+        }
+
+        @Override
+        public String getString(String defaultValue) {
+            NetworkTableValue v = get(NetworkTableType.kString);
+            return v != null ? v.getString() : defaultValue;
+        }
+
+        @Override
+        public boolean setString(String value) {
+            return set(NetworkTableValue.makeString(value));
+        }
+
+        // Arrays are copied in and out, as ntcore does, so callers are free to reuse theirs and values stay immutable.
+
+        @Override
+        public byte[] getRaw(byte[] defaultValue) {
+            NetworkTableValue v = get(NetworkTableType.kRaw);
+            return v != null ? v.getRaw().clone() : defaultValue;
+        }
+
+        @Override
+        public boolean setRaw(byte[] value) {
+            return set(NetworkTableValue.makeRaw(value.clone()));
+        }
+
+        @Override
+        public boolean[] getBooleanArray(boolean[] defaultValue) {
+            NetworkTableValue v = get(NetworkTableType.kBooleanArray);
+            return v != null ? v.getBooleanArray().clone() : defaultValue;
+        }
+
+        @Override
+        public boolean setBooleanArray(boolean[] value) {
+            return set(NetworkTableValue.makeBooleanArray(value.clone()));
+        }
+
+        @Override
+        public boolean setBooleanArray(boolean[] value, int length) {
+            return set(NetworkTableValue.makeBooleanArray(Arrays.copyOf(value, length)));
+        }
+
+        @Override
+        public double[] getDoubleArray(double[] defaultValue) {
+            NetworkTableValue v = get(NetworkTableType.kDoubleArray);
+            return v != null ? v.getDoubleArray().clone() : defaultValue;
+        }
+
+        @Override
+        public boolean setDoubleArray(double[] value) {
+            return set(NetworkTableValue.makeDoubleArray(value.clone()));
+        }
+
+        @Override
+        public boolean setDoubleArray(double[] value, int length) {
+            return set(NetworkTableValue.makeDoubleArray(Arrays.copyOf(value, length)));
+        }
+
+        @Override
+        public String[] getStringArray(String[] defaultValue) {
+            NetworkTableValue v = get(NetworkTableType.kStringArray);
+            return v != null ? v.getStringArray().clone() : defaultValue;
+        }
+
+        @Override
+        public boolean setStringArray(String[] value) {
+            return set(NetworkTableValue.makeStringArray(value.clone()));
+        }
+
+        @Override
+        public boolean setStringArray(String[] value, int length) {
+            return set(NetworkTableValue.makeStringArray(Arrays.copyOf(value, length)));
+        }
+
+        @Override
+        public int addListener(Consumer<EntryNotification> listener, int flags) {
+            int listenerHandle = transport.nextListener.getAndIncrement();
+            listeners.add(new Listener(listenerHandle, listener, flags));
+            NetworkTableValue v = value.get();
+            if ((flags & EntryListenerFlags.kImmediate) != 0 && (flags & EntryListenerFlags.kNew) != 0 && v != null) {
+                listener.accept(new EntryNotification(null, listenerHandle, handle, name, v,
+                        EntryListenerFlags.kNew | EntryListenerFlags.kImmediate));
+            }
+            return listenerHandle;
+        }
+
+        @Override
+        public void removeListener(int listener) {
+            listeners.removeIf(l -> l.handle == listener);
+        }
+    }
+
+    /**
+     * Convert the given object to a value the same way
+     * {@link edu.wpi.first.networktables.NetworkTableEntry#setValue(Object)} does.
+     */
+    private static NetworkTableValue toValue(Object value) {
+        if (value instanceof NetworkTableValue) {
+            return (NetworkTableValue) value;
+        } else if (value instanceof Boolean) {
+            return NetworkTableValue.makeBoolean((Boolean) value);
+        } else if (value instanceof Number) {
+            return NetworkTableValue.makeDouble(((Number) value).doubleValue());
+        } else if (value instanceof String) {
+            return NetworkTableValue.makeString((String) value);
+        } else if (value instanceof byte[]) {
+            return NetworkTableValue.makeRaw(((byte[]) value).clone());
+        } else if (value instanceof boolean[]) {
+            return NetworkTableValue.makeBooleanArray(((boolean[]) value).clone());
+        } else if (value instanceof double[]) {
+            return NetworkTableValue.makeDoubleArray(((double[]) value).clone());
+        } else if (value instanceof Boolean[]) {
+            Boolean[] boxed = (Boolean[]) value;
+            boolean[] array = new boolean[boxed.length];
+            for (int i = 0; i < boxed.length; ++i) {
+                array[i] = boxed[i];
+            }
+            return NetworkTableValue.makeBooleanArray(array);
+        } else if (value instanceof Number[]) {
+            Number[] boxed = (Number[]) value;
+            double[] array = new double[boxed.length];
+            for (int i = 0; i < boxed.length; ++i) {
+                array[i] = boxed[i].doubleValue();
+            }
+            return NetworkTableValue.makeDoubleArray(array);
+        } else if (value instanceof String[]) {
+            return NetworkTableValue.makeStringArray(((String[]) value).clone());
+        }
+        throw new IllegalArgumentException("value of type " + value.getClass().getName() +
+                " cannot be put into a table");
+    }
+}
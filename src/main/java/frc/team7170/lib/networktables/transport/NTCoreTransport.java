@@ -0,0 +1,189 @@
+package frc.team7170.lib.networktables.transport;
+
+import edu.wpi.first.networktables.EntryNotification;
+import edu.wpi.first.networktables.NetworkTableEntry;
+import edu.wpi.first.networktables.NetworkTableInstance;
+import edu.wpi.first.networktables.NetworkTableType;
+import edu.wpi.first.networktables.NetworkTableValue;
+
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * An {@link NTTransport NTTransport} backed by an ntcore {@link NetworkTableInstance NetworkTableInstance}; each
+ * {@link NTEntry NTEntry} just forwards to a {@link NetworkTableEntry NetworkTableEntry}.
+ */
+public final class NTCoreTransport implements NTTransport {
+
+    // Held lazily so that merely loading this class doesn't load ntcore's native library.
+    private static final class DefaultHolder {
+        private static final NTCoreTransport INSTANCE = new NTCoreTransport(NetworkTableInstance.getDefault());
+    }
+
+    private final NetworkTableInstance instance;
+
+    /**
+     * @throws NullPointerException if the given {@code NetworkTableInstance} is {@code null}.
+     */
+    public NTCoreTransport(NetworkTableInstance instance) {
+        this.instance = Objects.requireNonNull(instance, "instance must be non-null");
+    }
+
+    public static NTCoreTransport getDefault() {
+        return DefaultHolder.INSTANCE;
+    }
+
+    /**
+     * @return the {@code NTCoreTransport} of the given {@code NetworkTableInstance}.
+     */
+    public static NTCoreTransport of(NetworkTableInstance instance) {
+        NTCoreTransport defaultTransport = getDefault();
+        return defaultTransport.instance.equals(instance) ? defaultTransport : new NTCoreTransport(instance);
+    }
+
+    /**
+     * @return the given {@code NetworkTableEntry} as an {@link NTEntry NTEntry} of the {@code NTCoreTransport} of its
+     * instance.
+     * @throws NullPointerException if the given {@code NetworkTableEntry} is {@code null}.
+     */
+    public static NTEntry wrap(NetworkTableEntry entry) {
+        Objects.requireNonNull(entry, "entry must be non-null");
+        return new Entry(of(entry.getInstance()), entry);
+    }
+
+    @Override
+    public NTEntry getEntry(String key) {
+        return new Entry(this, instance.getEntry(key));
+    }
+
+    @Override
+    public void flush() {
+        instance.flush();
+    }
+
+    @Override
+    public NetworkTableInstance getInstance() {
+        return instance;
+    }
+
+    private static final class Entry implements NTEntry {
+
+        private final NTCoreTransport transport;
+        private final NetworkTableEntry entry;
+
+        private Entry(NTCoreTransport transport, NetworkTableEntry entry) {
+            this.transport = transport;
+            this.entry = entry;
+        }
+
+        @Override
+        public NTTransport getTransport() {
+            return transport;
+        }
+
+        @Override
+        public String getName() {
+            return entry.getName();
+        }
+
+        @Override
+        public int getHandle() {
+            return entry.getHandle();
+        }
+
+        @Override
+        public NetworkTableType getType() {
+            return entry.getType();
+        }
+
+        @Override
+        public NetworkTableValue getValue() {
+            return entry.getValue();
+        }
+
+        @Override
+        public boolean setValue(Object value) {
+            return entry.setValue(value);
+        }
+
+        @Override
+        public boolean getBoolean(boolean defaultValue) {
+            return entry.getBoolean(defaultValue);
+        }
+
+        @Override
+        public boolean setBoolean(boolean value) {
+            return entry.setBoolean(value);
+        }
+
+        @Override
+        public double getDouble(double defaultValue) {
+            return entry.getDouble(defaultValue);
+        }
+
+        @Override
+        public boolean setDouble(double value) {
+            return entry.setDouble(value);
+        }
+
+        @Override
+        public String getString(String defaultValue) {
+            return entry.getString(defaultValue);
+        }
+
+        @Override
+        public boolean setString(String value) {
+            return entry.setString(value);
+        }
+
+        @Override
+        public byte[] getRaw(byte[] defaultValue) {
+            return entry.getRaw(defaultValue);
+        }
+
+        @Override
+        public boolean setRaw(byte[] value) {
+            return entry.setRaw(value);
+        }
+
+        @Override
+        public boolean[] getBooleanArray(boolean[] defaultValue) {
+            return entry.getBooleanArray(defaultValue);
+        }
+
+        @Override
+        public boolean setBooleanArray(boolean[] value) {
+            return entry.setBooleanArray(value);
+        }
+
+        @Override
+        public double[] getDoubleArray(double[] defaultValue) {
+            return entry.getDoubleArray(defaultValue);
+        }
+
+        @Override
+        public boolean setDoubleArray(double[] value) {
+            return entry.setDoubleArray(value);
+        }
+
+        @Override
+        public String[] getStringArray(String[] defaultValue) {
+            return entry.getStringArray(defaultValue);
+        }
+
+        @Override
+        public boolean setStringArray(String[] value) {
+            return entry.setStringArray(value);
+        }
+
+        @Override
+        public int addListener(Consumer<EntryNotification> listener, int flags) {
+            return entry.addListener(listener, flags);
+        }
+
+        @Override
+        public void removeListener(int listener) {
+            entry.removeListener(listener);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package frc.team7170.lib.networktables.transport;
+
+import edu.wpi.first.networktables.EntryNotification;
+import edu.wpi.first.networktables.NetworkTableType;
+import edu.wpi.first.networktables.NetworkTableValue;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * An entry of an {@link NTTransport NTTransport}. The methods are the subset of those of
+ * {@link edu.wpi.first.networktables.NetworkTableEntry NetworkTableEntry} used by this library, with the same
+ * semantics: getters return the given default if the entry has a different type, and setters return {@code false}
+ * (and do nothing) if it does.
+ */
+public interface NTEntry {
+
+    NTTransport getTransport();
+
+    String getName();
+
+    int getHandle();
+
+    NetworkTableType getType();
+
+    /**
+     * @return the entry's value. Depending on the transport, an unassigned entry's value is either {@code null} or of
+     * type {@link NetworkTableType#kUnassigned kUnassigned}.
+     */
+    NetworkTableValue getValue();
+
+    boolean setValue(Object value);
+
+    boolean getBoolean(boolean defaultValue);
+
+    boolean setBoolean(boolean value);
+
+    double getDouble(double defaultValue);
+
+    boolean setDouble(double value);
+
+    String getString(String defaultValue);
+
+    boolean setString(String value);
+
+    byte[] getRaw(byte[] defaultValue);
+
+    boolean setRaw(byte[] value);
+
+    boolean[] getBooleanArray(boolean[] defaultValue);
+
+    boolean setBooleanArray(boolean[] value);
+
+    /**
+     * Set the entry to the first {@code length} elements of the given array, so that callers can publish from a
+     * reused buffer. The default implementation copies them into an array of their own first.
+     */
+    default boolean setBooleanArray(boolean[] value, int length) {
+        return setBooleanArray(value.length == length ? value : Arrays.copyOf(value, length));
+    }
+
+    double[] getDoubleArray(double[] defaultValue);
+
+    boolean setDoubleArray(double[] value);
+
+    /**
+     * Set the entry to the first {@code length} elements of the given array, so that callers can publish from a
+     * reused buffer. The default implementation copies them into an array of their own first.
+     */
+    default boolean setDoubleArray(double[] value, int length) {
+        return setDoubleArray(value.length == length ? value : Arrays.copyOf(value, length));
+    }
+
+    String[] getStringArray(String[] defaultValue);
+
+    boolean setStringArray(String[] value);
+
+    /**
+     * Set the entry to the first {@code length} elements of the given array, so that callers can publish from a
+     * reused buffer. The default implementation copies them into an array of their own first.
+     */
+    default boolean setStringArray(String[] value, int length) {
+        return setStringArray(value.length == length ? value : Arrays.copyOf(value, length));
+    }
+
+    /**
+     * @param listener the callback.
+     * @param flags the {@link edu.wpi.first.networktables.EntryListenerFlags EntryListenerFlags} of the events to
+     * listen to.
+     * @return the handle of the listener, for {@link NTEntry#removeListener(int) removeListener}.
+     */
+    int addListener(Consumer<EntryNotification> listener, int flags);
+
+    void removeListener(int listener);
+}
@@ -0,0 +1,43 @@
+package frc.team7170.lib.networktables.transport;
+
+import edu.wpi.first.networktables.NetworkTableInstance;
+
+/**
+ * <p>
+ * A source of {@link NTEntry NTEntry}s. {@link frc.team7170.lib.networktables.Communication Communication},
+ * {@link frc.team7170.lib.networktables.stream.NTStream NTStream},
+ * {@link frc.team7170.lib.networktables.command.Commander Commander}, and the NetworkTables-backed controls in
+ * {@link frc.team7170.lib.oi} all talk to NetworkTables through this interface, so they can be run against something
+ * other than ntcore.
+ * </p>
+ * <p>
+ * {@link NTCoreTransport NTCoreTransport} (the {@linkplain NTTransport#getDefault() default}) is backed by ntcore;
+ * {@link LocalTransport LocalTransport} is an in-process stand-in for testing and benchmarking off the robot.
+ * </p>
+ */
+public interface NTTransport {
+
+    /**
+     * @param key the full key of the entry, e.g. {@code "/SmartDashboard/speed"}.
+     * @return the entry with the given key, creating it (unassigned) if need be.
+     */
+    NTEntry getEntry(String key);
+
+    /**
+     * Send all pending updates now, rather than at the transport's own rate.
+     */
+    void flush();
+
+    /**
+     * @return the {@link NetworkTableInstance NetworkTableInstance} backing this transport, or {@code null} if it isn't
+     * backed by ntcore.
+     */
+    NetworkTableInstance getInstance();
+
+    /**
+     * @return the {@link NTCoreTransport NTCoreTransport} of the default {@code NetworkTableInstance}.
+     */
+    static NTTransport getDefault() {
+        return NTCoreTransport.getDefault();
+    }
+}
@@ -1,25 +1,30 @@
 package frc.team7170.lib.oi;
 
-import java.util.ArrayList;
-import java.util.List;
 import java.util.function.Consumer;
 
+/**
+ * An {@link Axis Axis} that delegates to whichever {@code Axis} is bound to a given {@link AxisAction AxisAction} in
+ * the {@linkplain KeyBindings#getCurrKeyMap() current key map}. The binding is looked up by the action's
+ * {@linkplain KeyBindings#indexOf(AxisAction) index} on every call, so it follows key map changes without being
+ * refreshed.
+ */
 public class AxisPollHelper implements Axis {
 
-    private static final List<AxisPollHelper> instances = new ArrayList<>();
     private static final String errorFormat = "Unbound AxisAction '%s' requested.";
 
     private final AxisAction action;
+    private final int index;
     private final Consumer<String> errorHandler;
     private final double defaultValue;
-    private Axis axis;
 
     public AxisPollHelper(AxisAction action, Consumer<String> errorHandler, double defaultValue) {
         this.action = action;
         this.errorHandler = errorHandler;
         this.defaultValue = defaultValue;
+        KeyBindings keyBindings = KeyBindings.getInstance();
+        index = keyBindings.indexOf(action);
         refresh();
-        instances.add(this);
+        keyBindings.addHelper(this);
     }
 
     public AxisPollHelper(AxisAction action, Consumer<String> errorHandler) {
@@ -34,8 +39,13 @@ public class AxisPollHelper implements Axis {
         this(action, System.out::println, 0.0);
     }
 
+    private Axis axis() {
+        return KeyBindings.getInstance().getAxis(index);
+    }
+
     @Override
     public double get() {
+        Axis axis = axis();
         if (axis == null) {
             return defaultValue;
         }
@@ -44,12 +54,20 @@ public class AxisPollHelper implements Axis {
 
     @Override
     public String getName() {
-        return axis.getName();
+        return axis().getName();
+    }
+
+    @Override
+    public Controller getController() {
+        return axis().getController();
     }
 
+    /**
+     * Report an error through the error handler if the action is unbound in the current key map. This is called
+     * automatically whenever the current key map changes.
+     */
     public void refresh() {
-        axis = KeyBindings.getInstance().actionToAxis(action);
-        if (axis == null) {
+        if (axis() == null) {
             handleError();
         }
     }
@@ -57,10 +75,4 @@ public class AxisPollHelper implements Axis {
     private void handleError() {
         errorHandler.accept(String.format(errorFormat, action.name()));
     }
-
-    static void refreshInstances() {
-        for (AxisPollHelper instance : instances) {
-            instance.refresh();
-        }
-    }
 }
@@ -1,25 +1,30 @@
 package frc.team7170.lib.oi;
 
-import java.util.ArrayList;
-import java.util.List;
 import java.util.function.Consumer;
 
+/**
+ * A {@link Button Button} that delegates to whichever {@code Button} is bound to a given
+ * {@link ButtonAction ButtonAction} in the {@linkplain KeyBindings#getCurrKeyMap() current key map}. The binding is
+ * looked up by the action's {@linkplain KeyBindings#indexOf(ButtonAction) index} on every call, so it follows key map
+ * changes without being refreshed.
+ */
 public class ButtonPollHelper implements Button {
 
-    private static final List<ButtonPollHelper> instances = new ArrayList<>();
     private static final String errorFormat = "Unbound ButtonAction '%s' requested.";
 
     private final ButtonAction action;
+    private final int index;
     private final Consumer<String> errorHandler;
     private final boolean defaultValue;
-    private Button button;
 
     public ButtonPollHelper(ButtonAction action, Consumer<String> errorHandler, boolean defaultValue) {
         this.action = action;
         this.errorHandler = errorHandler;
         this.defaultValue = defaultValue;
+        KeyBindings keyBindings = KeyBindings.getInstance();
+        index = keyBindings.indexOf(action);
         refresh();
-        instances.add(this);
+        keyBindings.addHelper(this);
     }
 
     public ButtonPollHelper(ButtonAction action, Consumer<String> errorHandler) {
@@ -34,8 +39,13 @@ public class ButtonPollHelper implements Button {
         this(action, System.out::println, false);
     }
 
+    private Button button() {
+        return KeyBindings.getInstance().getButton(index);
+    }
+
     @Override
     public boolean get() {
+        Button button = button();
         if (button == null) {
             return defaultValue;
         }
@@ -44,6 +54,7 @@ public class ButtonPollHelper implements Button {
 
     @Override
     public boolean getPressed() {
+        Button button = button();
         if (button == null) {
             return false;
         }
@@ -52,6 +63,7 @@ public class ButtonPollHelper implements Button {
 
     @Override
     public boolean getReleased() {
+        Button button = button();
         if (button == null) {
             return false;
         }
@@ -60,12 +72,20 @@ public class ButtonPollHelper implements Button {
 
     @Override
     public String getName() {
-        return button.getName();
+        return button().getName();
+    }
+
+    @Override
+    public Controller getController() {
+        return button().getController();
     }
 
+    /**
+     * Report an error through the error handler if the action is unbound in the current key map. This is called
+     * automatically whenever the current key map changes.
+     */
     public void refresh() {
-        button = KeyBindings.getInstance().actionToButton(action);
-        if (button == null) {
+        if (button() == null) {
             handleError();
         }
     }
@@ -73,10 +93,4 @@ public class ButtonPollHelper implements Button {
     private void handleError() {
         errorHandler.accept(String.format(errorFormat, action.name()));
     }
-
-    static void refreshInstances() {
-        for (ButtonPollHelper instance : instances) {
-            instance.refresh();
-        }
-    }
 }
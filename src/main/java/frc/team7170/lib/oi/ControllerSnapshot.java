@@ -0,0 +1,394 @@
+package frc.team7170.lib.oi;
+
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.GenericHID;
+import frc.team7170.lib.command.CmdTimedRunnable;
+import frc.team7170.lib.looping.Loop;
+import frc.team7170.lib.looping.Looper;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.function.BooleanSupplier;
+
+/**
+ * <p>
+ * Reads the state of every registered control once per loop, so that reading a {@link Button Button} or
+ * {@link Axis Axis} is a field access rather than a call into the {@link DriverStation DriverStation}.
+ * </p>
+ * <p>
+ * For each registered {@link GenericHID GenericHID}, each {@linkplain ControllerSnapshot#update() update} reads all of
+ * its buttons as one bitfield, and all of its axes and POVs into arrays. Since the {@code DriverStation} reports at
+ * most 32 buttons per HID, only buttons 1 to 32 can be read. Other boolean controls (such as limit switches) can be
+ * {@linkplain ControllerSnapshot#register(BooleanSupplier) registered} as suppliers, whose values are packed into
+ * bitfields too, and {@linkplain ControllerSnapshot#unregister(int) unregistered} once they are no longer used. Edges
+ * are found by XOR-ing each update's bitfields with the previous update's, and are latched until they are consumed by
+ * {@code getPressed} or {@code getReleased}, so an edge is never missed by a caller who checks less often than once
+ * per update (an edge is missed, however, if a control is pressed and released between two updates, so controls that
+ * can change faster than that, such as {@link NTButton NTButton}s, aren't read through the snapshot).
+ * </p>
+ * <p>
+ * By default, the snapshot updates itself in a WPILib {@code Command}, started when the first control is registered.
+ * Since that runs in no particular order relative to the code reading the controls, it is better to
+ * {@linkplain ControllerSnapshot#setLooper(Looper) run it in} the {@link Looper Looper} that runs that code, which
+ * updates it before that code's loops if it is set before they are registered.
+ * </p>
+ *
+ * @apiNote This class is thread-safe. Reads take the same lock as updates, so that edges are latched and consumed
+ * atomically; it is uncontended when controls are read from the thread that updates the snapshot.
+ */
+public final class ControllerSnapshot extends Loop {
+
+    // The limits of the DriverStation protocol.
+    private static final int MAX_AXES = 12;
+    private static final int MAX_POVS = 12;
+
+    /**
+     * The state of one {@link GenericHID GenericHID} as of the last {@link ControllerSnapshot#update() update}.
+     */
+    public static final class HIDState {
+
+        private final int port;
+
+        // Bit (n - 1) is button n, as with DriverStation#getStickButtons.
+        private int buttons = 0;
+        private int pressed = 0;
+        private int released = 0;
+
+        private final double[] axes = new double[MAX_AXES];
+        private final int[] povs = new int[MAX_POVS];
+        private final int[] lastPovs = new int[MAX_POVS];
+        // Bit i of pressedAngles[pov] is set if the POV changed to the angle i * 45 degrees.
+        private final int[] pressedAngles = new int[MAX_POVS];
+        private final int[] releasedAngles = new int[MAX_POVS];
+
+        private HIDState(int port) {
+            this.port = port;
+            Arrays.fill(povs, -1);
+            Arrays.fill(lastPovs, -1);
+        }
+
+        private synchronized void update(DriverStation ds) {
+            int last = buttons;
+            buttons = ds.getStickButtons(port);
+            int edges = buttons ^ last;
+            pressed |= edges & buttons;
+            released |= edges & last;
+
+            int axisCount = Math.min(ds.getStickAxisCount(port), MAX_AXES);
+            for (int i = 0; i < axisCount; ++i) {
+                axes[i] = ds.getStickAxis(port, i);
+            }
+            Arrays.fill(axes, axisCount, MAX_AXES, 0.0);
+
+            int povCount = Math.min(ds.getStickPOVCount(port), MAX_POVS);
+            for (int i = 0; i < MAX_POVS; ++i) {
+                lastPovs[i] = povs[i];
+                povs[i] = i < povCount ? ds.getStickPOV(port, i) : -1;
+                if (povs[i] != lastPovs[i]) {
+                    pressedAngles[i] |= angleBit(povs[i]);
+                    releasedAngles[i] |= angleBit(lastPovs[i]);
+                }
+            }
+        }
+
+        public int getPort() {
+            return port;
+        }
+
+        /**
+         * @return the states of all buttons, as a bitfield in which bit {@code n - 1} is button {@code n}.
+         */
+        public synchronized int getButtons() {
+            return buttons;
+        }
+
+        /**
+         * @param button the button number, starting at 1.
+         * @throws IllegalArgumentException if the button number is not between 1 and 32.
+         */
+        public synchronized boolean getButton(int button) {
+            return (buttons & buttonBit(button)) != 0;
+        }
+
+        /**
+         * @param button the button number, starting at 1.
+         * @return whether or not the button has been pressed since the last call to this method for it.
+         * @throws IllegalArgumentException if the button number is not between 1 and 32.
+         */
+        public synchronized boolean getButtonPressed(int button) {
+            int bit = buttonBit(button);
+            if ((pressed & bit) != 0) {
+                pressed &= ~bit;
+                return true;
+            }
+            return false;
+        }
+
+        /**
+         * @param button the button number, starting at 1.
+         * @return whether or not the button has been released since the last call to this method for it.
+         * @throws IllegalArgumentException if the button number is not between 1 and 32.
+         */
+        public synchronized boolean getButtonReleased(int button) {
+            int bit = buttonBit(button);
+            if ((released & bit) != 0) {
+                released &= ~bit;
+                return true;
+            }
+            return false;
+        }
+
+        /**
+         * @return the value of the axis, or 0 if the HID doesn't have it (including if the axis number is beyond what
+         * the DriverStation supports, as {@link GenericHID#getRawAxis(int) getRawAxis} does).
+         */
+        public synchronized double getAxis(int axis) {
+            return axis >= 0 && axis < MAX_AXES ? axes[axis] : 0.0;
+        }
+
+        /**
+         * @return the angle of the POV in degrees, or -1 if it isn't pressed or the HID doesn't have it (including if
+         * the POV number is beyond what the DriverStation supports).
+         */
+        public synchronized int getPOV(int pov) {
+            return pov >= 0 && pov < MAX_POVS ? povs[pov] : -1;
+        }
+
+        /**
+         * @return whether or not the POV has changed to the given angle since the last call to this method for it.
+         */
+        public synchronized boolean getPOVPressed(int pov, int angle) {
+            if (pov < 0 || pov >= MAX_POVS) {
+                return false;
+            }
+            int bit = angleBit(angle);
+            if ((pressedAngles[pov] & bit) != 0) {
+                pressedAngles[pov] &= ~bit;
+                return true;
+            }
+            return false;
+        }
+
+        /**
+         * @return whether or not the POV has changed from the given angle since the last call to this method for it.
+         */
+        public synchronized boolean getPOVReleased(int pov, int angle) {
+            if (pov < 0 || pov >= MAX_POVS) {
+                return false;
+            }
+            int bit = angleBit(angle);
+            if ((releasedAngles[pov] & bit) != 0) {
+                releasedAngles[pov] &= ~bit;
+                return true;
+            }
+            return false;
+        }
+
+        static int buttonBit(int button) {
+            if (button < 1 || button > Integer.SIZE) {
+                throw new IllegalArgumentException(String.format("invalid button number %d", button));
+            }
+            return 1 << (button - 1);
+        }
+
+        private static int angleBit(int angle) {
+            return angle < 0 ? 0 : 1 << (angle / 45);
+        }
+    }
+
+    private static final ControllerSnapshot INSTANCE = new ControllerSnapshot();
+
+    public static ControllerSnapshot getInstance() {
+        return INSTANCE;
+    }
+
+    private HIDState[] hids = new HIDState[0];
+
+    private Looper looper = null;
+    private CmdTimedRunnable updateCommand = null;
+
+    // Unregistered suppliers are nulled out rather than removed, so that indices stay valid.
+    private BooleanSupplier[] suppliers = new BooleanSupplier[0];
+    // Bit (i % 64) of word (i / 64) is supplier i.
+    private long[] values = new long[0];
+    private long[] pressed = new long[0];
+    private long[] released = new long[0];
+
+    ControllerSnapshot() {}
+
+    /**
+     * Update the snapshot in the given {@link Looper Looper} rather than in a single WPILib {@code Command} (the
+     * default).
+     *
+     * @param looper the {@code Looper} to update the snapshot in, or {@code null} to go back to the default.
+     */
+    public synchronized void setLooper(Looper looper) {
+        if (looper == this.looper) {
+            return;
+        }
+        if (this.looper != null) {
+            this.looper.removeLoop(this);
+        }
+        if (updateCommand != null) {
+            updateCommand.cancel();
+            updateCommand = null;
+        }
+        this.looper = looper;
+        if (looper != null) {
+            looper.registerLoop(this);
+        } else if (hids.length > 0 || suppliers.length > 0) {
+            startUpdateCommand();
+        }
+    }
+
+    private void startUpdateCommand() {
+        updateCommand = new CmdTimedRunnable(this::update, 0);
+        updateCommand.start();
+    }
+
+    /**
+     * Make sure that something updates the snapshot, now that a control is registered.
+     */
+    private void requireUpdater() {
+        if (looper == null && updateCommand == null) {
+            startUpdateCommand();
+        }
+    }
+
+    /**
+     * Start reading the given {@link GenericHID GenericHID} on every update. Registering a {@code GenericHID} on a
+     * port that is already registered returns the state already being updated for that port.
+     *
+     * @return the state of the {@code GenericHID}, which is updated in place.
+     */
+    public synchronized HIDState register(GenericHID hid) {
+        int port = Objects.requireNonNull(hid, "hid must be non-null").getPort();
+        for (HIDState state : hids) {
+            if (state.port == port) {
+                return state;
+            }
+        }
+        HIDState state = new HIDState(port);
+        HIDState[] newHids = Arrays.copyOf(hids, hids.length + 1);
+        newHids[hids.length] = state;
+        hids = newHids;
+        requireUpdater();
+        return state;
+    }
+
+    /**
+     * Start reading the given boolean control on every update.
+     *
+     * @return the index of the control, for {@link ControllerSnapshot#get(int) get},
+     * {@link ControllerSnapshot#getPressed(int) getPressed}, {@link ControllerSnapshot#getReleased(int) getReleased},
+     * and {@link ControllerSnapshot#unregister(int) unregister}.
+     */
+    public synchronized int register(BooleanSupplier supplier) {
+        Objects.requireNonNull(supplier, "supplier must be non-null");
+        int index = suppliers.length;
+        suppliers = Arrays.copyOf(suppliers, index + 1);
+        suppliers[index] = supplier;
+        int words = (suppliers.length + Long.SIZE - 1) / Long.SIZE;
+        if (words > values.length) {
+            values = Arrays.copyOf(values, words);
+            pressed = Arrays.copyOf(pressed, words);
+            released = Arrays.copyOf(released, words);
+        }
+        requireUpdater();
+        return index;
+    }
+
+    /**
+     * Stop reading the boolean control with the given index, and release its supplier. The control reads as off from
+     * then on, and its index is not reused.
+     *
+     * @throws IllegalArgumentException if no control was ever registered with the given index.
+     */
+    public synchronized void unregister(int index) {
+        checkIndex(index);
+        suppliers[index] = null;
+        long bit = 1L << index;
+        int word = index / Long.SIZE;
+        values[word] &= ~bit;
+        pressed[word] &= ~bit;
+        released[word] &= ~bit;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= suppliers.length) {
+            throw new IllegalArgumentException(String.format("no control registered with index %d", index));
+        }
+    }
+
+    /**
+     * Read every registered control.
+     */
+    public synchronized void update() {
+        if (hids.length > 0) {
+            DriverStation ds = DriverStation.getInstance();
+            for (HIDState state : hids) {
+                state.update(ds);
+            }
+        }
+        for (int word = 0; word < values.length; ++word) {
+            long current = 0;
+            int end = Math.min(suppliers.length, (word + 1) * Long.SIZE);
+            for (int i = word * Long.SIZE; i < end; ++i) {
+                if (suppliers[i] != null && suppliers[i].getAsBoolean()) {
+                    current |= 1L << i;
+                }
+            }
+            long last = values[word];
+            long edges = current ^ last;
+            pressed[word] |= edges & current;
+            released[word] |= edges & last;
+            values[word] = current;
+        }
+    }
+
+    @Override
+    protected void onLoop() {
+        update();
+    }
+
+    /**
+     * @return the value of the registered boolean control with the given index as of the last update.
+     * @throws IllegalArgumentException if no control was ever registered with the given index.
+     */
+    public synchronized boolean get(int index) {
+        checkIndex(index);
+        return (values[index / Long.SIZE] & (1L << index)) != 0;
+    }
+
+    /**
+     * @return whether or not the registered boolean control with the given index has turned on since the last call to
+     * this method for it.
+     * @throws IllegalArgumentException if no control was ever registered with the given index.
+     */
+    public synchronized boolean getPressed(int index) {
+        checkIndex(index);
+        long bit = 1L << index;
+        int word = index / Long.SIZE;
+        if ((pressed[word] & bit) != 0) {
+            pressed[word] &= ~bit;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * @return whether or not the registered boolean control with the given index has turned off since the last call
+     * to this method for it.
+     * @throws IllegalArgumentException if no control was ever registered with the given index.
+     */
+    public synchronized boolean getReleased(int index) {
+        checkIndex(index);
+        long bit = 1L << index;
+        int word = index / Long.SIZE;
+        if ((released[word] & bit) != 0) {
+            released[word] &= ~bit;
+            return true;
+        }
+        return false;
+    }
+}
@@ -6,7 +6,7 @@ import java.util.Objects;
 
 /**
  * A {@link ScaledAxis ScaledAxis} that retrieves its value from a single {@link GenericHID#getRawAxis(int) axis} on a
- * {@link GenericHID GenericHID}.
+ * {@link GenericHID GenericHID}, as read by the {@link ControllerSnapshot ControllerSnapshot}.
  *
  * @author Robert Russell
  */
@@ -15,6 +15,7 @@ public class HIDAxis extends ScaledAxis {
 
     private final GenericHID hid;
     private final int port;
+    private final ControllerSnapshot.HIDState state;
 
     /**
      * Construct a new {@code HIDAxis} with an explicit name.
@@ -35,6 +36,7 @@ public class HIDAxis extends ScaledAxis {
         */
         this.hid = Objects.requireNonNull(hid, "hid must be non-null");
         this.port = port;
+        state = ControllerSnapshot.getInstance().register(hid);
     }
 
     /**
@@ -52,7 +54,7 @@ public class HIDAxis extends ScaledAxis {
 
     @Override
     public double getRaw() {
-        return hid.getRawAxis(port);
+        return state.getAxis(port);
     }
 
     /**
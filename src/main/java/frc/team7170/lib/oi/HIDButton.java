@@ -6,7 +6,8 @@ import java.util.Objects;
 
 /**
  * A {@link TriggerButton TriggerButton} that retrieves its value from a single
- * {@linkplain GenericHID#getRawButton(int) button} on a {@link GenericHID GenericHID}.
+ * {@linkplain GenericHID#getRawButton(int) button} on a {@link GenericHID GenericHID}, as read by the
+ * {@link ControllerSnapshot ControllerSnapshot}.
  *
  * @author Robert Russell
  */
@@ -14,6 +15,7 @@ public class HIDButton extends TriggerButton {
 
     private final GenericHID hid;
     private final int port;
+    private final ControllerSnapshot.HIDState state;
 
     /**
      * Construct a new {@code HIDButton} with an explicit name.
@@ -24,7 +26,8 @@ public class HIDButton extends TriggerButton {
      * @param name the name of the {@code HIDButton}.
      * @throws NullPointerException if the given name or the given {@code GenericHID} is {@code null}.
      * @throws IllegalArgumentException if the given name is not valid according to the global naming rules set out in
-     * {@link frc.team7170.lib.Name Name}.
+     * {@link frc.team7170.lib.Name Name}, or if the button number is not between 1 and 32 (the most buttons the
+     * {@code DriverStation} reports).
      */
     public HIDButton(GenericHID hid, int port, String name) {
         super(name);
@@ -34,7 +37,10 @@ public class HIDButton extends TriggerButton {
         }
         */
         this.hid = Objects.requireNonNull(hid, "hid must be non-null");
+        // Checked up front, rather than on the first read.
+        ControllerSnapshot.HIDState.buttonBit(port);
         this.port = port;
+        state = ControllerSnapshot.getInstance().register(hid);
     }
 
     /**
@@ -45,7 +51,8 @@ public class HIDButton extends TriggerButton {
      * @param port the button number.
      * @throws NullPointerException if the given {@code GenericHID} is {@code null}.
      * @throws IllegalArgumentException if the derived name is not valid according to the global naming rules set out in
-     * {@link frc.team7170.lib.Name Name} (i.e. if the global naming rules disallow integer names).
+     * {@link frc.team7170.lib.Name Name} (i.e. if the global naming rules disallow integer names), or if the button
+     * number is not between 1 and 32 (the most buttons the {@code DriverStation} reports).
      */
     public HIDButton(GenericHID hid, int port) {
         this(hid, port, String.valueOf(port));
@@ -53,17 +60,17 @@ public class HIDButton extends TriggerButton {
 
     @Override
     public boolean get() {
-        return hid.getRawButton(port);
+        return state.getButton(port);
     }
 
     @Override
     public boolean getPressed() {
-        return hid.getRawButtonPressed(port);
+        return state.getButtonPressed(port);
     }
 
     @Override
     public boolean getReleased() {
-        return hid.getRawButtonReleased(port);
+        return state.getButtonReleased(port);
     }
 
     /**
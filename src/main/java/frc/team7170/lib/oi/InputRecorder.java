@@ -0,0 +1,128 @@
+package frc.team7170.lib.oi;
+
+import frc.team7170.lib.Name;
+import frc.team7170.lib.data.PropertyGroup;
+import frc.team7170.lib.data.Value;
+import frc.team7170.lib.data.property.RProperty;
+import frc.team7170.lib.logging.DataLogger;
+import frc.team7170.lib.logging.Loggable;
+import frc.team7170.lib.looping.Loop;
+import frc.team7170.lib.networktables.StructSchema;
+import frc.team7170.lib.networktables.StructWriter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * <p>
+ * Records the value of every {@link Axis Axis} and {@link Button Button} (including {@link POVButton POVButton}s) of
+ * the given {@linkplain Controller controllers} on every {@linkplain InputRecorder#record() tick}, through the
+ * {@link DataLogger DataLogger}, so that it can later be {@linkplain InputReplay replayed}.
+ * </p>
+ * <p>
+ * Each tick is logged as one {@linkplain frc.team7170.lib.data.ValueType#RAW raw} value: a record laid out by a
+ * {@link StructSchema StructSchema} with a float per axis and a bit per button, so a tick of a typical gamepad takes
+ * under 40 bytes. Fields are named {@code <controller>:<control>}. The schema's
+ * {@linkplain StructSchema#toDescriptor() descriptor} is logged on construction and whenever the recorder is started,
+ * so that an {@link InputRecording InputRecording} can be read back from the log alone.
+ * </p>
+ * <p>
+ * {@link ScaledAxis ScaledAxis}es are recorded {@linkplain ScaledAxis#getRaw() unscaled}, since their scale and offset
+ * are configuration rather than input; {@link SerializableKeyMap#withControllers withControllers} sets them again on
+ * the replayed axes.
+ * </p>
+ *
+ * @apiNote This class is not thread-safe: it should be recorded from the thread that reads the controls.
+ */
+public final class InputRecorder extends Loop implements Loggable {
+
+    static final String SCHEMA_KEY = "schema";
+    static final String FRAME_KEY = "frame";
+    static final char SEPARATOR = ':';
+
+    private final String name;
+    private final Axis[] axes;
+    private final Button[] buttons;
+    private final StructWriter writer;
+    private final DataLogger logger;
+    private final List<String> schemaLineage;
+    private final List<String> frameLineage;
+
+    /**
+     * @param name the name of the recorder, which is the first element of the lineage of everything it logs.
+     * @param controllers the controllers whose controls to record.
+     * @throws IllegalArgumentException if the given name is not valid according to the global naming rules set out in
+     * {@link Name Name}, or if two of the given controllers have the same name.
+     */
+    public InputRecorder(String name, Controller... controllers) {
+        this.name = Name.requireValidName(name);
+        StructSchema.Builder builder = StructSchema.builder();
+        List<Axis> axes = new ArrayList<>();
+        List<Button> buttons = new ArrayList<>();
+        for (Controller controller : controllers) {
+            // Sorted so that the layout doesn't depend on the controller's map implementation.
+            for (Map.Entry<String, Axis> entry : new TreeMap<>(controller.getAxesNamesMap()).entrySet()) {
+                builder.addFloat(controller.getName() + SEPARATOR + entry.getKey());
+                axes.add(entry.getValue());
+            }
+            for (Map.Entry<String, Button> entry : new TreeMap<>(controller.getButtonsNamesMap()).entrySet()) {
+                builder.addBoolean(controller.getName() + SEPARATOR + entry.getKey());
+                buttons.add(entry.getValue());
+            }
+        }
+        this.axes = axes.toArray(new Axis[0]);
+        this.buttons = buttons.toArray(new Button[0]);
+        writer = new StructWriter(builder.build());
+        schemaLineage = List.of(name, SCHEMA_KEY);
+        frameLineage = List.of(name, FRAME_KEY);
+        logger = DataLogger.registerDataLogger(this);
+        logSchema();
+    }
+
+    public StructSchema getSchema() {
+        return writer.getSchema();
+    }
+
+    /**
+     * Read every control and log their values as one tick.
+     */
+    public void record() {
+        // Axes come first in the schema, then buttons.
+        for (int i = 0; i < axes.length; ++i) {
+            Axis axis = axes[i];
+            double value = axis instanceof ScaledAxis ? ((ScaledAxis) axis).getRaw() : axis.get();
+            writer.setFloat(i, (float) value);
+        }
+        for (int i = 0; i < buttons.length; ++i) {
+            writer.setBoolean(axes.length + i, buttons[i].get());
+        }
+        logger.logValue(frameLineage, writer.toValue());
+    }
+
+    private void logSchema() {
+        logger.logValue(schemaLineage, Value.newStringArrayValue(writer.getSchema().toDescriptor()));
+    }
+
+    @Override
+    protected void onStart() {
+        logSchema();
+    }
+
+    @Override
+    protected void onLoop() {
+        record();
+    }
+
+    /**
+     * Does nothing; ticks are logged directly rather than polled.
+     */
+    @Override
+    public void registerProperties(PropertyGroup<RProperty> propertyGroup) {}
+
+    @Override
+    public String getName() {
+        return name;
+    }
+}
@@ -0,0 +1,174 @@
+package frc.team7170.lib.oi;
+
+import frc.team7170.lib.networktables.StructFrame;
+import frc.team7170.lib.networktables.StructSchema;
+import org.msgpack.core.MessageInsufficientBufferException;
+import org.msgpack.core.MessagePack;
+import org.msgpack.core.MessageUnpacker;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.logging.Logger;
+
+/**
+ * The ticks recorded by an {@link InputRecorder InputRecorder}, as read back from a log written by a
+ * {@link frc.team7170.lib.logging.MessagePackDataHandler MessagePackDataHandler}.
+ *
+ * @apiNote This class is immutable and thus thread-safe.
+ */
+public final class InputRecording {
+
+    private static final Logger LOGGER = Logger.getLogger(InputRecording.class.getName());
+
+    private final StructSchema schema;
+    private final double[] timestamps;
+    private final List<StructFrame> frames;
+    private final boolean truncated;
+
+    /**
+     * @param schema the schema of every frame.
+     * @param timestamps the time of each frame, in seconds.
+     * @param frames the frames.
+     * @throws IllegalArgumentException if the numbers of timestamps and frames differ, if any frame has a different
+     * schema, or if the timestamps aren't in order.
+     */
+    public InputRecording(StructSchema schema, double[] timestamps, List<StructFrame> frames) {
+        this(schema, timestamps, frames, false);
+    }
+
+    private InputRecording(StructSchema schema, double[] timestamps, List<StructFrame> frames, boolean truncated) {
+        this.schema = Objects.requireNonNull(schema, "schema must be non-null");
+        if (timestamps.length != frames.size()) {
+            throw new IllegalArgumentException("must have exactly one timestamp per frame");
+        }
+        for (int i = 0; i < timestamps.length; ++i) {
+            if (!frames.get(i).getSchema().equals(schema)) {
+                throw new IllegalArgumentException(String.format("frame %d has a different schema", i));
+            }
+            if (i > 0 && timestamps[i] < timestamps[i - 1]) {
+                throw new IllegalArgumentException(String.format("frame %d is earlier than the last", i));
+            }
+        }
+        this.timestamps = timestamps.clone();
+        this.frames = List.copyOf(frames);
+        this.truncated = truncated;
+    }
+
+    /**
+     * Read the ticks recorded by the {@code InputRecorder} with the given name from the given MessagePack log,
+     * ignoring everything else in it. The stream is read to its end but not closed.
+     * <p>
+     * A log whose last record is cut off (e.g. by the robot losing power while it was written) is read up to the last
+     * complete record, and the recording is {@linkplain InputRecording#isTruncated() marked as truncated}.
+     * </p>
+     *
+     * @throws IOException if reading fails, if the log is malformed, if it contains no schema for the recorder before
+     * its first tick, or if the recorder's schema changes partway through.
+     */
+    public static InputRecording read(InputStream stream, String recorderName) throws IOException {
+        List<String> schemaLineage = List.of(recorderName, InputRecorder.SCHEMA_KEY);
+        List<String> frameLineage = List.of(recorderName, InputRecorder.FRAME_KEY);
+        StructSchema schema = null;
+        double[] timestamps = new double[64];
+        List<StructFrame> frames = new ArrayList<>();
+        // Not closed, since that would close the stream.
+        MessageUnpacker unpacker = MessagePack.newDefaultUnpacker(stream);
+        boolean truncated = false;
+        // The number of frames in the complete records read so far.
+        int numComplete = 0;
+        try {
+            while (unpacker.hasNext()) {
+                double timestamp = unpacker.unpackDouble();
+                int numValues = unpacker.unpackMapHeader();
+                for (int i = 0; i < numValues; ++i) {
+                    String[] lineage = new String[unpacker.unpackArrayHeader()];
+                    for (int j = 0; j < lineage.length; ++j) {
+                        lineage[j] = unpacker.unpackString();
+                    }
+                    List<String> lineageList = Arrays.asList(lineage);
+                    if (lineageList.equals(schemaLineage)) {
+                        String[] descriptor = new String[unpacker.unpackArrayHeader()];
+                        for (int j = 0; j < descriptor.length; ++j) {
+                            descriptor[j] = unpacker.unpackString();
+                        }
+                        StructSchema newSchema = StructSchema.fromDescriptor(descriptor);
+                        if (schema != null && !schema.equals(newSchema)) {
+                            throw new IOException(String.format("schema of recorder '%s' changes partway through",
+                                    recorderName));
+                        }
+                        schema = newSchema;
+                    } else if (lineageList.equals(frameLineage)) {
+                        if (schema == null) {
+                            throw new IOException(String.format("tick of recorder '%s' before its schema",
+                                    recorderName));
+                        }
+                        byte[] record = unpacker.readPayload(unpacker.unpackBinaryHeader());
+                        if (frames.size() == timestamps.length) {
+                            timestamps = Arrays.copyOf(timestamps, 2 * timestamps.length);
+                        }
+                        timestamps[frames.size()] = timestamp;
+                        frames.add(StructFrame.of(schema, record));
+                    } else {
+                        unpacker.skipValue();
+                    }
+                }
+                numComplete = frames.size();
+            }
+        } catch (MessageInsufficientBufferException e) {
+            // The log ends partway through a record; keep the complete ones.
+            truncated = true;
+            frames.subList(numComplete, frames.size()).clear();
+            LOGGER.warning(String.format("log of recorder '%s' is truncated after %d frames", recorderName,
+                    numComplete));
+        } catch (IllegalArgumentException | org.msgpack.core.MessagePackException e) {
+            throw new IOException("malformed log", e);
+        }
+        if (schema == null) {
+            throw new IOException(String.format("no schema for recorder '%s' in log", recorderName));
+        }
+        return new InputRecording(schema, Arrays.copyOf(timestamps, frames.size()), frames, truncated);
+    }
+
+    /**
+     * @return whether or not this recording was {@linkplain InputRecording#read(InputStream, String) read} from a log
+     * whose last record was cut off.
+     */
+    public boolean isTruncated() {
+        return truncated;
+    }
+
+    public StructSchema getSchema() {
+        return schema;
+    }
+
+    public int size() {
+        return frames.size();
+    }
+
+    /**
+     * @return the time at which the given frame was recorded, in seconds.
+     */
+    public double getTimestamp(int frame) {
+        return timestamps[frame];
+    }
+
+    public StructFrame getFrame(int frame) {
+        return frames.get(frame);
+    }
+
+    public List<StructFrame> getFrames() {
+        return Collections.unmodifiableList(frames);
+    }
+
+    /**
+     * @return the time between the first and last frames, in seconds, or 0 if there are fewer than two.
+     */
+    public double getDuration() {
+        return timestamps.length < 2 ? 0.0 : timestamps[timestamps.length - 1] - timestamps[0];
+    }
+}
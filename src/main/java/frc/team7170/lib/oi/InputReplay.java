@@ -0,0 +1,191 @@
+package frc.team7170.lib.oi;
+
+import frc.team7170.lib.looping.Loop;
+import frc.team7170.lib.networktables.StructFrame;
+import frc.team7170.lib.networktables.StructSchema;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.LongSupplier;
+
+/**
+ * <p>
+ * Plays an {@link InputRecording InputRecording} back through {@link ReplayController ReplayController}s, one per
+ * recorded controller, which can be {@linkplain InputReplay#install() installed} in the
+ * {@link KeyBindings KeyBindings} in place of the recorded controllers; so code reading actions through the
+ * {@code KeyBindings} sees the recorded input.
+ * </p>
+ * <p>
+ * As a {@link Loop Loop}, an {@code InputReplay} applies, on each loop, every frame recorded no later than the time
+ * since it was started multiplied by its {@linkplain InputReplay#setRate(double) rate}, so a rate of 1 replays the
+ * recording at the rate it was recorded. At a rate of {@link Double#POSITIVE_INFINITY}, exactly one frame is applied
+ * per loop instead, which replays the recording as fast as the code under test can consume it while still giving that
+ * code every frame. Frames can also be {@linkplain InputReplay#advance() advanced} by hand.
+ * </p>
+ * <p>
+ * It should be registered with the {@link frc.team7170.lib.looping.Looper Looper} that runs the code reading the
+ * controls, before that code's loops.
+ * </p>
+ *
+ * @apiNote This class is not thread-safe: it should be run from the thread that reads the controls.
+ */
+public final class InputReplay extends Loop {
+
+    private final InputRecording recording;
+    private final Map<String, ReplayController> controllers = new LinkedHashMap<>();
+    private final List<ReplayController> controllerList;
+    private final LongSupplier nanoClock;
+    private double rate = 1.0;
+    private int next = 0;
+    private long startNanos;
+
+    /**
+     * @throws IllegalArgumentException if the recording's schema was not written by an
+     * {@link InputRecorder InputRecorder}.
+     */
+    public InputReplay(InputRecording recording) {
+        this(recording, System::nanoTime);
+    }
+
+    /**
+     * @param nanoClock the source of time, in nanoseconds, used when run as a {@code Loop}.
+     */
+    InputReplay(InputRecording recording, LongSupplier nanoClock) {
+        this.recording = Objects.requireNonNull(recording, "recording must be non-null");
+        this.nanoClock = Objects.requireNonNull(nanoClock, "nanoClock must be non-null");
+        StructSchema schema = recording.getSchema();
+        for (int i = 0; i < schema.getNumFields(); ++i) {
+            String field = schema.getName(i);
+            int sep = field.indexOf(InputRecorder.SEPARATOR);
+            if (sep < 0) {
+                throw new IllegalArgumentException(String.format("field '%s' does not name a controller", field));
+            }
+            ReplayController controller = controllers.computeIfAbsent(field.substring(0, sep), ReplayController::new);
+            String control = field.substring(sep + 1);
+            switch (schema.getType(i)) {
+                case FLOAT:
+                    controller.addAxis(control, i);
+                    break;
+                case BOOLEAN:
+                    controller.addButton(control, i);
+                    break;
+                default:
+                    throw new IllegalArgumentException(String.format("field '%s' is neither an axis nor a button",
+                            field));
+            }
+        }
+        controllerList = Collections.unmodifiableList(new ArrayList<>(controllers.values()));
+    }
+
+    public InputRecording getRecording() {
+        return recording;
+    }
+
+    public List<ReplayController> getControllers() {
+        return controllerList;
+    }
+
+    /**
+     * @return the replay controller standing in for the recorded controller with the given name, or {@code null} if
+     * no such controller was recorded.
+     */
+    public ReplayController getController(String name) {
+        return controllers.get(name);
+    }
+
+    /**
+     * {@linkplain KeyBindings#registerController(Controller) Register} every replay controller with the
+     * {@link KeyBindings KeyBindings} (replacing the recorded controllers of the same names) and, if the current
+     * {@code KeyMap} is a {@link SerializableKeyMap SerializableKeyMap}, make current a copy of it
+     * {@linkplain SerializableKeyMap#withControllers bound to} the replay controllers.
+     *
+     * @throws IllegalArgumentException if the current {@code KeyMap} binds a control that was not recorded.
+     */
+    public void install() {
+        KeyBindings keyBindings = KeyBindings.getInstance();
+        for (ReplayController controller : controllerList) {
+            keyBindings.registerController(controller);
+        }
+        KeyMap keyMap = keyBindings.getCurrKeyMap();
+        if (keyMap instanceof SerializableKeyMap) {
+            keyBindings.setCurrKeyMap(((SerializableKeyMap) keyMap).withControllers(controllerList));
+        }
+    }
+
+    /**
+     * @param rate the speed of replay relative to the recording, or {@link Double#POSITIVE_INFINITY} to apply one
+     * frame per loop.
+     * @throws IllegalArgumentException if the given rate is not positive.
+     */
+    public void setRate(double rate) {
+        if (!(rate > 0.0)) {
+            throw new IllegalArgumentException("rate must be positive");
+        }
+        this.rate = rate;
+    }
+
+    public double getRate() {
+        return rate;
+    }
+
+    /**
+     * Apply the next frame.
+     *
+     * @return {@code false} if every frame had already been applied, otherwise {@code true}.
+     */
+    public boolean advance() {
+        if (isFinished()) {
+            return false;
+        }
+        StructFrame frame = recording.getFrame(next++);
+        for (ReplayController controller : controllerList) {
+            controller.apply(frame);
+        }
+        return true;
+    }
+
+    public boolean isFinished() {
+        return next >= recording.size();
+    }
+
+    /**
+     * @return the number of frames applied so far.
+     */
+    public int getPosition() {
+        return next;
+    }
+
+    /**
+     * Return to the start of the recording, and every control to its initial value.
+     */
+    public void reset() {
+        next = 0;
+        for (ReplayController controller : controllerList) {
+            controller.reset();
+        }
+    }
+
+    @Override
+    protected void onStart() {
+        // Continue from the current position as if it had been reached in real time.
+        double elapsed = next == 0 || Double.isInfinite(rate) ? 0.0
+                : (recording.getTimestamp(next - 1) - recording.getTimestamp(0)) / rate;
+        startNanos = nanoClock.getAsLong() - (long) (elapsed * 1e9);
+    }
+
+    @Override
+    protected void onLoop() {
+        if (Double.isInfinite(rate)) {
+            advance();
+            return;
+        }
+        double recorded = (nanoClock.getAsLong() - startNanos) / 1e9 * rate;
+        while (!isFinished() && recording.getTimestamp(next) - recording.getTimestamp(0) <= recorded) {
+            advance();
+        }
+    }
+}
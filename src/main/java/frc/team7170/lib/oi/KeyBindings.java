@@ -11,21 +11,61 @@ import java.util.stream.Stream;
 // TODO: this should only facilitate a global structure; using the OI system with dependency injection should be fully supported too
 // TODO: warn if multiple actions have same binding
 // TODO: get rid of need to bind with controller AND containing controller?
+/**
+ * <p>
+ * The global registry of {@linkplain Controller controllers}, actions, and {@link KeyMap KeyMap}s, and the holder of
+ * the current {@code KeyMap}.
+ * </p>
+ * <p>
+ * Each registered action is given a dense index (in order of registration, separately for {@link AxisAction}s and
+ * {@link ButtonAction}s). When a {@code KeyMap} is made current, it is compiled into flat arrays from action index to
+ * control, and switching {@code KeyMap}s swaps a single volatile reference to those arrays; so resolving an action by
+ * its {@linkplain KeyBindings#indexOf(AxisAction) index} (as {@link AxisPollHelper AxisPollHelper} and
+ * {@link ButtonPollHelper ButtonPollHelper} do) is an array access, from any thread.
+ * </p>
+ */
 public final class KeyBindings implements Named {
 
     private static final String PREF_KEY_PREFIX = "KM_";
 
+    /**
+     * A {@link KeyMap KeyMap} resolved for every registered action.
+     */
+    private static final class CompiledKeyMap {
+
+        private final KeyMap keyMap;
+        private final Axis[] axes;
+        private final Button[] buttons;
+
+        private CompiledKeyMap(KeyMap keyMap, List<AxisAction> axisActions, List<ButtonAction> buttonActions) {
+            this.keyMap = keyMap;
+            axes = new Axis[axisActions.size()];
+            for (int i = 0; i < axes.length; ++i) {
+                axes[i] = keyMap.actionToAxis(axisActions.get(i));
+            }
+            buttons = new Button[buttonActions.size()];
+            for (int i = 0; i < buttons.length; ++i) {
+                buttons[i] = keyMap.actionToButton(buttonActions.get(i));
+            }
+        }
+    }
+
     private final Map<String, Controller> controllerMap = new HashMap<>();
     private final Map<String, AxisAction> axisActionMap = new HashMap<>();
     private final Map<String, ButtonAction> buttonActionMap = new HashMap<>();
+    private final List<AxisAction> axisActions = new ArrayList<>();
+    private final List<ButtonAction> buttonActions = new ArrayList<>();
+    private final Map<AxisAction, Integer> axisActionIndices = new HashMap<>();
+    private final Map<ButtonAction, Integer> buttonActionIndices = new HashMap<>();
     private final Map<String, KeyMap> keyMapMap = new HashMap<>();
     private final List<BiConsumer<KeyMap, KeyMap>> keyMapChangeCallbacks = new ArrayList<>(2);
-    private KeyMap currKeyMap = new SerializableKeyMap.Builder(new Name("dummy")).build();
+    // Held weakly so that helpers that are no longer used can be collected.
+    private final Set<AxisPollHelper> axisHelpers = Collections.newSetFromMap(new WeakHashMap<>());
+    private final Set<ButtonPollHelper> buttonHelpers = Collections.newSetFromMap(new WeakHashMap<>());
+    private volatile CompiledKeyMap curr = new CompiledKeyMap(
+            new SerializableKeyMap.Builder(new Name("dummy")).build(), List.of(), List.of());
 
-    private KeyBindings() {
-        onKeyMapChange((__, ___) -> ButtonPollHelper.refreshInstances());
-        onKeyMapChange((__, ___) -> AxisPollHelper.refreshInstances());
-    }
+    private KeyBindings() {}
 
     private static final KeyBindings INSTANCE = new KeyBindings();
 
@@ -34,28 +74,42 @@ public final class KeyBindings implements Named {
     }
 
     public void setCurrKeyMap(KeyMap keyMap) {
-        if (keyMap == null) {
-            throw new NullPointerException();
+        Objects.requireNonNull(keyMap, "keyMap must be non-null");
+        KeyMap oldKeyMap;
+        List<BiConsumer<KeyMap, KeyMap>> callbacksCopy;
+        List<AxisPollHelper> axisHelpersCopy;
+        List<ButtonPollHelper> buttonHelpersCopy;
+        synchronized (this) {
+            oldKeyMap = curr.keyMap;
+            curr = new CompiledKeyMap(keyMap, axisActions, buttonActions);
+            callbacksCopy = new ArrayList<>(keyMapChangeCallbacks);
+            axisHelpersCopy = new ArrayList<>(axisHelpers);
+            buttonHelpersCopy = new ArrayList<>(buttonHelpers);
         }
-        keyMapChangeCallbacks.forEach(callback -> callback.accept(currKeyMap, keyMap));
-        currKeyMap = keyMap;
+        // Outside the lock, since the callbacks and the helpers' error handlers are arbitrary code.
+        callbacksCopy.forEach(callback -> callback.accept(oldKeyMap, keyMap));
+        axisHelpersCopy.forEach(AxisPollHelper::refresh);
+        buttonHelpersCopy.forEach(ButtonPollHelper::refresh);
     }
 
     public void setCurrKeyMap(String keyMapName) {
-        KeyMap keyMap = keyMapMap.get(keyMapName);
+        KeyMap keyMap;
+        synchronized (this) {
+            keyMap = keyMapMap.get(keyMapName);
+        }
         if (keyMap == null) {
             throw new IllegalArgumentException("no keymap with the name '" + keyMapName + "' exists");
         }
         setCurrKeyMap(keyMap);
     }
 
-    public void onKeyMapChange(BiConsumer<KeyMap, KeyMap> callback) {
+    public synchronized void onKeyMapChange(BiConsumer<KeyMap, KeyMap> callback) {
         keyMapChangeCallbacks.add(callback);
     }
 
     // TODO: add way to remove KM change callback (using the BiConsumer might be awkward--use integer ID instead?)
 
-    public void loadFromPrefs() {
+    public synchronized void loadFromPrefs() {
         getKMKeyStream().forEach(key -> {
             String value = Preferences.getInstance().getString(key, null);
             Name name = new Name(key.substring(PREF_KEY_PREFIX.length()));
@@ -68,20 +122,57 @@ public final class KeyBindings implements Named {
         getKMKeyStream().forEach(key -> Preferences.getInstance().remove(key));
     }
 
-    public void registerController(Controller controller) {
+    public synchronized void registerController(Controller controller) {
         controllerMap.put(controller.getName(), controller);
     }
 
-    public void registerAxisActions(AxisAction... actions) {
+    public synchronized void registerAxisActions(AxisAction... actions) {
         for (AxisAction action : actions) {
-            axisActionMap.put(action.name(), action);
+            indexOf(action);
         }
     }
 
-    public void registerButtonActions(ButtonAction... actions) {
+    public synchronized void registerButtonActions(ButtonAction... actions) {
         for (ButtonAction action : actions) {
+            indexOf(action);
+        }
+    }
+
+    /**
+     * Get the index of the given {@link AxisAction AxisAction}, registering it if it isn't already registered.
+     *
+     * @return the index of the {@code AxisAction}, for {@link KeyBindings#getAxis(int) getAxis}.
+     * @throws NullPointerException if the given {@code AxisAction} is {@code null}.
+     */
+    public synchronized int indexOf(AxisAction action) {
+        Integer index = axisActionIndices.get(Objects.requireNonNull(action, "action must be non-null"));
+        if (index == null) {
+            index = axisActions.size();
+            axisActions.add(action);
+            axisActionIndices.put(action, index);
+            axisActionMap.put(action.name(), action);
+            // Recompile so that the new action is resolved by the current key map.
+            curr = new CompiledKeyMap(curr.keyMap, axisActions, buttonActions);
+        }
+        return index;
+    }
+
+    /**
+     * Get the index of the given {@link ButtonAction ButtonAction}, registering it if it isn't already registered.
+     *
+     * @return the index of the {@code ButtonAction}, for {@link KeyBindings#getButton(int) getButton}.
+     * @throws NullPointerException if the given {@code ButtonAction} is {@code null}.
+     */
+    public synchronized int indexOf(ButtonAction action) {
+        Integer index = buttonActionIndices.get(Objects.requireNonNull(action, "action must be non-null"));
+        if (index == null) {
+            index = buttonActions.size();
+            buttonActions.add(action);
+            buttonActionIndices.put(action, index);
             buttonActionMap.put(action.name(), action);
+            curr = new CompiledKeyMap(curr.keyMap, axisActions, buttonActions);
         }
+        return index;
     }
 
     public void registerSerializableKeyMap(SerializableKeyMap keyMap) {
@@ -89,24 +180,64 @@ public final class KeyBindings implements Named {
         registerKeyMap(keyMap);
     }
 
-    public void registerKeyMap(KeyMap keyMap) {
+    public synchronized void registerKeyMap(KeyMap keyMap) {
         keyMapMap.put(keyMap.getName(), keyMap);
     }
 
+    /**
+     * Look up the {@link Axis Axis} bound to the given {@link AxisAction AxisAction} in the current key map. This does
+     * not register the action; use {@link KeyBindings#registerAxisActions(AxisAction...) registerAxisActions} or
+     * {@link KeyBindings#indexOf(AxisAction) indexOf} for that.
+     *
+     * @return the bound {@code Axis}, or {@code null} if there is none.
+     * @throws NullPointerException if the given {@code AxisAction} is {@code null}.
+     */
     public Axis actionToAxis(AxisAction action) {
-        return currKeyMap.actionToAxis(action);
+        return curr.keyMap.actionToAxis(Objects.requireNonNull(action, "action must be non-null"));
     }
 
+    /**
+     * Look up the {@link Button Button} bound to the given {@link ButtonAction ButtonAction} in the current key map.
+     * This does not register the action; use {@link KeyBindings#registerButtonActions(ButtonAction...)
+     * registerButtonActions} or {@link KeyBindings#indexOf(ButtonAction) indexOf} for that.
+     *
+     * @return the bound {@code Button}, or {@code null} if there is none.
+     * @throws NullPointerException if the given {@code ButtonAction} is {@code null}.
+     */
     public Button actionToButton(ButtonAction action) {
-        return currKeyMap.actionToButton(action);
+        return curr.keyMap.actionToButton(Objects.requireNonNull(action, "action must be non-null"));
+    }
+
+    /**
+     * @param index the {@linkplain KeyBindings#indexOf(AxisAction) index} of an {@link AxisAction AxisAction}.
+     * @return the {@link Axis Axis} bound to the action in the current key map, or {@code null} if there is none.
+     */
+    public Axis getAxis(int index) {
+        return curr.axes[index];
+    }
+
+    /**
+     * @param index the {@linkplain KeyBindings#indexOf(ButtonAction) index} of a {@link ButtonAction ButtonAction}.
+     * @return the {@link Button Button} bound to the action in the current key map, or {@code null} if there is none.
+     */
+    public Button getButton(int index) {
+        return curr.buttons[index];
     }
 
     public KeyMap getCurrKeyMap() {
-        return currKeyMap;
+        return curr.keyMap;
+    }
+
+    public synchronized Collection<KeyMap> getKeyMaps() {
+        return new ArrayList<>(keyMapMap.values());
+    }
+
+    synchronized void addHelper(AxisPollHelper helper) {
+        axisHelpers.add(helper);
     }
 
-    public Collection<KeyMap> getKeyMaps() {
-        return keyMapMap.values();
+    synchronized void addHelper(ButtonPollHelper helper) {
+        buttonHelpers.add(helper);
     }
 
     // TODO: move decode functionality to SerializableKeyMap
@@ -123,11 +254,11 @@ public final class KeyBindings implements Named {
                     if (buttonActionMap.containsKey(triplet[0])) {
                         ButtonAction action = buttonActionMap.get(triplet[0]);
                         Button button = resolveButtonName(controller, triplet[2]);
-                        kmBuilder.addPair(action, controller, button);
+                        kmBuilder.bind(action, button);
                     } else if (axisActionMap.containsKey(triplet[0])) {
                         AxisAction action = axisActionMap.get(triplet[0]);
                         Axis axis = resolveAxisName(controller, triplet[2]);
-                        kmBuilder.addPair(action, controller, axis);
+                        kmBuilder.bind(action, axis);
                     } else {
                         throw new RuntimeException("unregistered action name ('" + triplet[0] + "') found in preference keymaps");
                     }
@@ -62,7 +62,7 @@ public final class LE3DPJoystick extends HIDController {
         B_11 = new HIDButton(hid, 11);
         B_12 = new HIDButton(hid, 12);
 
-        Map<POVButton.POVAngle, POVButton> povButtonMap = POVButton.newButtonsWithPoller(hid, 0);
+        Map<POVButton.POVAngle, POVButton> povButtonMap = POVButton.newButtons(hid, 0);
         POV0 = povButtonMap.get(POVButton.POVAngle.A0);
         POV45 = povButtonMap.get(POVButton.POVAngle.A45);
         POV90 = povButtonMap.get(POVButton.POVAngle.A90);
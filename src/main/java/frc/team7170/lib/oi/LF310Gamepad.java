@@ -77,7 +77,7 @@ public final class LF310Gamepad extends RumbleController {
         B_LJOY = new HIDButton(hid, 9);
         B_RJOY = new HIDButton(hid, 10);
 
-        Map<POVButton.POVAngle, POVButton> povButtonMap = POVButton.newButtonsWithPoller(hid, 0);
+        Map<POVButton.POVAngle, POVButton> povButtonMap = POVButton.newButtons(hid, 0);
         POV0 = povButtonMap.get(POVButton.POVAngle.A0);
         POV45 = povButtonMap.get(POVButton.POVAngle.A45);
         POV90 = povButtonMap.get(POVButton.POVAngle.A90);
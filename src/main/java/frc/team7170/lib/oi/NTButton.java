@@ -2,17 +2,20 @@ package frc.team7170.lib.oi;
 
 import edu.wpi.first.networktables.EntryListenerFlags;
 import edu.wpi.first.networktables.NetworkTableEntry;
+import frc.team7170.lib.networktables.transport.NTCoreTransport;
+import frc.team7170.lib.networktables.transport.NTEntry;
 
 import java.util.Objects;
 
 /**
- * A {@link TriggerButton TriggerButton} that retrieves its value from a {@link NetworkTableEntry NetworkTableEntry}.
+ * A {@link TriggerButton TriggerButton} that retrieves its value from an {@link NTEntry NTEntry} (usually a
+ * {@link NetworkTableEntry NetworkTableEntry}).
  *
  * @author Robert Russell
  */
 public class NTButton extends TriggerButton {
 
-    private final NetworkTableEntry entry;
+    private final NTEntry entry;
 
     /**
      * Whether or not the entry got enabled since the last invocation of {@link NTButton#getPressed() getPressed}.
@@ -31,17 +34,17 @@ public class NTButton extends TriggerButton {
     /**
      * Construct a new {@code NTButton with an explicit name.
      *
-     * @param entry the {@link NetworkTableEntry NetworkTableEntry} whose
-     * {@linkplain NetworkTableEntry#getBoolean(boolean) boolean value} is to be used as the value of this
+     * @param entry the {@link NTEntry NTEntry} whose
+     * {@linkplain NTEntry#getBoolean(boolean) boolean value} is to be used as the value of this
      * {@code NTButton}.
      * @param name the name of the {@code NTButton}.
-     * @throws NullPointerException if the given name or the given {@code NetworkTableEntry} is {@code null}.
+     * @throws NullPointerException if the given name or the given {@code NTEntry} is {@code null}.
      * @throws IllegalArgumentException if the given name is not valid according to the global naming rules set out in
-     * {@link frc.team7170.lib.Name Name}, or if the given {@code NetworkTableEntry} has a type other than
+     * {@link frc.team7170.lib.Name Name}, or if the given {@code NTEntry} has a type other than
      * {@link edu.wpi.first.networktables.NetworkTableType#kBoolean kBoolean} or
      * {@link edu.wpi.first.networktables.NetworkTableType#kUnassigned kUnassigned}.
      */
-    public NTButton(NetworkTableEntry entry, String name) {
+    public NTButton(NTEntry entry, String name) {
         super(name);
         this.entry = requireValidEntry(entry);
         this.entry.addListener(entryNotification -> {
@@ -57,22 +60,37 @@ public class NTButton extends TriggerButton {
 
     /**
      * Construct a new {@code NTButton} with the name set to the
-     * {@linkplain NetworkTableEntry#getName() name of the entry}.
+     * {@linkplain NTEntry#getName() name of the entry}.
      *
-     * @param entry the {@link NetworkTableEntry NetworkTableEntry} whose
-     * {@linkplain NetworkTableEntry#getBoolean(boolean) boolean value} is to be used as the value of this
+     * @param entry the {@link NTEntry NTEntry} whose
+     * {@linkplain NTEntry#getBoolean(boolean) boolean value} is to be used as the value of this
      * {@code NTButton}.
-     * @throws NullPointerException if the given {@code NetworkTableEntry} is {@code null}.
+     * @throws NullPointerException if the given {@code NTEntry} is {@code null}.
      * @throws IllegalArgumentException if the entry's name is not valid according to the global naming rules set out in
-     * {@link frc.team7170.lib.Name Name}, or if the given {@code NetworkTableEntry} has a type other than
+     * {@link frc.team7170.lib.Name Name}, or if the given {@code NTEntry} has a type other than
      * {@link edu.wpi.first.networktables.NetworkTableType#kBoolean kBoolean} or
      * {@link edu.wpi.first.networktables.NetworkTableType#kUnassigned kUnassigned}.
      */
-    public NTButton(NetworkTableEntry entry) {
+    public NTButton(NTEntry entry) {
         // This null check is redundant, but I'd like to have the error message be consistent.
         this(entry, Objects.requireNonNull(entry, "entry must be non-null").getName());
     }
 
+    /**
+     * The same as {@link NTButton#NTButton(NTEntry, String)}, for the given
+     * {@link NetworkTableEntry NetworkTableEntry}.
+     */
+    public NTButton(NetworkTableEntry entry, String name) {
+        this(NTCoreTransport.wrap(entry), name);
+    }
+
+    /**
+     * The same as {@link NTButton#NTButton(NTEntry)}, for the given {@link NetworkTableEntry NetworkTableEntry}.
+     */
+    public NTButton(NetworkTableEntry entry) {
+        this(NTCoreTransport.wrap(entry));
+    }
+
     @Override
     public boolean get() {
         return entry.getBoolean(false);
@@ -97,19 +115,19 @@ public class NTButton extends TriggerButton {
     }
 
     /**
-     * Require that the given {@link NetworkTableEntry NetworkTableEntry} be valid. A {@code NetworkTableEntry} is valid
-     * if and only if it is non-{@code null} and its {@linkplain NetworkTableEntry#getType() type} is either
+     * Require that the given {@link NTEntry NTEntry} be valid. A {@code NTEntry} is valid
+     * if and only if it is non-{@code null} and its {@linkplain NTEntry#getType() type} is either
      * {@link edu.wpi.first.networktables.NetworkTableType#kBoolean kBoolean} or
-     * {@link edu.wpi.first.networktables.NetworkTableType#kUnassigned kUnassigned}. If the {@code NetworkTableEntry}'s
-     * type is {@code kUnassigned}, then the {@code NetworkTableEntry} will be assigned a type of {@code kBoolean}.
+     * {@link edu.wpi.first.networktables.NetworkTableType#kUnassigned kUnassigned}. If the {@code NTEntry}'s
+     * type is {@code kUnassigned}, then the {@code NTEntry} will be assigned a type of {@code kBoolean}.
      *
-     * @param entry the {@code NetworkTableEntry} to require validity on.
-     * @return the given {@code NetworkTableEntry} for sake of composing calls to this function in variable assignments
+     * @param entry the {@code NTEntry} to require validity on.
+     * @return the given {@code NTEntry} for sake of composing calls to this function in variable assignments
      * or other function/method invocations.
-     * @throws NullPointerException if the given {@code NetworkTableEntry} is {@code null}.
-     * @throws IllegalArgumentException if the given {@code NetworkTableEntry} is of an invalid type.
+     * @throws NullPointerException if the given {@code NTEntry} is {@code null}.
+     * @throws IllegalArgumentException if the given {@code NTEntry} is of an invalid type.
      */
-    private static NetworkTableEntry requireValidEntry(NetworkTableEntry entry) {
+    private static NTEntry requireValidEntry(NTEntry entry) {
         Objects.requireNonNull(entry, "entry must be non-null");
         switch (entry.getType()) {
             case kBoolean:
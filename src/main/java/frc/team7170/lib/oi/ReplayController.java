@@ -0,0 +1,155 @@
+package frc.team7170.lib.oi;
+
+import frc.team7170.lib.Name;
+import frc.team7170.lib.networktables.StructFrame;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A {@link Controller Controller} whose {@linkplain Axis axes} and {@linkplain Button buttons} take their values from
+ * the frames of an {@link InputRecording InputRecording}, as {@linkplain InputReplay replayed}. Its name, and the names
+ * of its controls, are those of the recorded controller, so that a {@link SerializableKeyMap SerializableKeyMap} made
+ * for the recorded controller can be {@linkplain SerializableKeyMap#withControllers applied} to it. Its axes are
+ * {@link ScaledAxis ScaledAxis}es, initially unscaled.
+ *
+ * @apiNote Like the controls it stands in for, this class is not thread-safe: it should be read from the thread that
+ * replays the recording.
+ */
+public final class ReplayController implements Controller {
+
+    // A ScaledAxis since scaled axes are recorded unscaled, so that their scaling can be applied again on replay.
+    private final class ReplayAxis extends ScaledAxis {
+
+        private final int field;
+        private double value = 0.0;
+
+        private ReplayAxis(String name, int field) {
+            super(ReplayController.this, name);
+            this.field = field;
+        }
+
+        @Override
+        public double getRaw() {
+            return value;
+        }
+    }
+
+    private final class ReplayButton implements Button {
+
+        private final String name;
+        private final int field;
+        private boolean value = false;
+        private boolean pressed = false;
+        private boolean released = false;
+
+        private ReplayButton(String name, int field) {
+            this.name = name;
+            this.field = field;
+        }
+
+        private void set(boolean newValue) {
+            if (newValue != value) {
+                // Latched until consumed, as with ControllerSnapshot.
+                if (newValue) {
+                    pressed = true;
+                } else {
+                    released = true;
+                }
+                value = newValue;
+            }
+        }
+
+        @Override
+        public boolean get() {
+            return value;
+        }
+
+        @Override
+        public boolean getPressed() {
+            boolean ret = pressed;
+            pressed = false;
+            return ret;
+        }
+
+        @Override
+        public boolean getReleased() {
+            boolean ret = released;
+            released = false;
+            return ret;
+        }
+
+        @Override
+        public Controller getController() {
+            return ReplayController.this;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+    }
+
+    private final String name;
+    // Insertion-ordered so that frames are applied in field order.
+    private final Map<String, ReplayAxis> axes = new LinkedHashMap<>();
+    private final Map<String, ReplayButton> buttons = new LinkedHashMap<>();
+
+    /**
+     * @throws IllegalArgumentException if the given name is not valid according to the global naming rules set out in
+     * {@link Name Name}.
+     */
+    ReplayController(String name) {
+        this.name = Name.requireValidName(name);
+    }
+
+    void addAxis(String name, int field) {
+        axes.put(name, new ReplayAxis(name, field));
+    }
+
+    void addButton(String name, int field) {
+        buttons.put(name, new ReplayButton(name, field));
+    }
+
+    /**
+     * Set the value of every control from the given frame.
+     */
+    void apply(StructFrame frame) {
+        for (ReplayAxis axis : axes.values()) {
+            axis.value = frame.getFloat(axis.field);
+        }
+        for (ReplayButton button : buttons.values()) {
+            button.set(frame.getBoolean(button.field));
+        }
+    }
+
+    /**
+     * Return every control to its initial value (0 for axes, released for buttons), clearing any latched edges.
+     */
+    void reset() {
+        for (ReplayAxis axis : axes.values()) {
+            axis.value = 0.0;
+        }
+        for (ReplayButton button : buttons.values()) {
+            button.value = false;
+            button.pressed = false;
+            button.released = false;
+        }
+    }
+
+    @Override
+    public Map<String, Axis> getAxesNamesMap() {
+        return new HashMap<>(axes);
+    }
+
+    @Override
+    public Map<String, Button> getButtonsNamesMap() {
+        return new HashMap<>(buttons);
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+}
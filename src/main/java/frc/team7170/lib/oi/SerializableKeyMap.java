@@ -1,25 +1,32 @@
 package frc.team7170.lib.oi;
 
 import frc.team7170.lib.Name;
-import frc.team7170.lib.Pair;
+import frc.team7170.lib.Named;
 
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Objects;
 
+/**
+ * A {@link KeyMap KeyMap} that can be serialized to a string of {@code action:controller:control} triplets (and so
+ * saved in the robot's preferences). The controller of each binding is the one
+ * {@linkplain Controllered#getController() containing} the bound control, so it need not be stored separately.
+ */
 public class SerializableKeyMap implements KeyMap {
 
     public static final String ENTRY_SEP = ";";
     public static final String TRIPLET_SEP = ":";
 
-    private final Map<AxisAction, Pair<Controller, Axis>> axisMap;
-    private final Map<ButtonAction, Pair<Controller, Button>> buttonMap;
+    private final Map<AxisAction, Axis> axisMap;
+    private final Map<ButtonAction, Button> buttonMap;
     private final Name name;
 
-    public static class Builder {
+    public static class Builder implements KeyMap.Builder<SerializableKeyMap> {
 
         private final Name name;
-        private final Map<AxisAction, Pair<Controller, Axis>> axisMap;
-        private final Map<ButtonAction, Pair<Controller, Button>> buttonMap;
+        private final Map<AxisAction, Axis> axisMap;
+        private final Map<ButtonAction, Button> buttonMap;
 
         public Builder(Name name) {
             this.name = name;
@@ -29,28 +36,64 @@ public class SerializableKeyMap implements KeyMap {
 
         public Builder(SerializableKeyMap keyMap) {
             this.name = keyMap.name;
-            this.axisMap = keyMap.axisMap;
-            this.buttonMap = keyMap.buttonMap;
+            // Copied so that adding to this builder doesn't change the (immutable) key map.
+            this.axisMap = new HashMap<>(keyMap.axisMap);
+            this.buttonMap = new HashMap<>(keyMap.buttonMap);
         }
 
-        public Builder addPair(AxisAction action, Controller controller, Axis axis) {
-            axisMap.put(action, new Pair<>(controller, axis));
+        @Override
+        public Builder bind(AxisAction action, Axis axis) {
+            axisMap.put(Objects.requireNonNull(action, "action must be non-null"),
+                    Objects.requireNonNull(axis, "axis must be non-null"));
             return this;
         }
 
-        public Builder addPair(ButtonAction action, Controller controller, Button button) {
-            buttonMap.put(action, new Pair<>(controller, button));
+        @Override
+        public Builder bind(ButtonAction action, Button button) {
+            buttonMap.put(Objects.requireNonNull(action, "action must be non-null"),
+                    Objects.requireNonNull(button, "button must be non-null"));
             return this;
         }
 
+        /**
+         * @throws IllegalArgumentException if the given {@code Axis} is not contained in the given
+         * {@code Controller}.
+         * @deprecated the controller is now taken from the {@code Axis}; use
+         * {@link Builder#bind(AxisAction, Axis) bind} instead.
+         */
+        @Deprecated
+        public Builder addPair(AxisAction action, Controller controller, Axis axis) {
+            requireContainedIn(axis, controller);
+            return bind(action, axis);
+        }
+
+        /**
+         * @throws IllegalArgumentException if the given {@code Button} is not contained in the given
+         * {@code Controller}.
+         * @deprecated the controller is now taken from the {@code Button}; use
+         * {@link Builder#bind(ButtonAction, Button) bind} instead.
+         */
+        @Deprecated
+        public Builder addPair(ButtonAction action, Controller controller, Button button) {
+            requireContainedIn(button, controller);
+            return bind(action, button);
+        }
+
+        private static void requireContainedIn(Controllered controllered, Controller controller) {
+            if (controllered.getController() != controller) {
+                throw new IllegalArgumentException("control is not contained in the given controller");
+            }
+        }
+
+        @Override
         public SerializableKeyMap build() {
             return new SerializableKeyMap(this);
         }
     }
 
     private SerializableKeyMap(Builder builder) {
-        this.axisMap = builder.axisMap;
-        this.buttonMap = builder.buttonMap;
+        this.axisMap = new HashMap<>(builder.axisMap);
+        this.buttonMap = new HashMap<>(builder.buttonMap);
         this.name = builder.name;
     }
 
@@ -66,20 +109,12 @@ public class SerializableKeyMap implements KeyMap {
 
     @Override
     public Axis actionToAxis(AxisAction action) {
-        Pair<Controller, Axis> pair = axisMap.get(action);
-        if (pair == null) {
-            return null;
-        }
-        return pair.getRight();
+        return axisMap.get(action);
     }
 
     @Override
     public Button actionToButton(ButtonAction action) {
-        Pair<Controller, Button> pair = buttonMap.get(action);
-        if (pair == null) {
-            return null;
-        }
-        return pair.getRight();
+        return buttonMap.get(action);
     }
 
     @Override
@@ -92,26 +127,69 @@ public class SerializableKeyMap implements KeyMap {
         return buttonMap.containsKey(action);
     }
 
+    /**
+     * Get a copy of this key map in which each binding to a control of a controller with the same name as one of the
+     * given controllers is instead bound to the control with the same name on that controller. This is how, for
+     * example, a key map for physical controllers is applied to {@link ReplayController ReplayController}s.
+     * <p>
+     * Where both the bound axis and its replacement are {@link ScaledAxis ScaledAxis}es, the bound axis's current
+     * scale and offset are set on the replacement, so that the scaling is kept.
+     * </p>
+     *
+     * @throws IllegalArgumentException if a replacement controller lacks a control bound in this key map.
+     */
+    public SerializableKeyMap withControllers(Collection<? extends Controller> controllers) {
+        Map<String, Controller> replacements = new HashMap<>();
+        for (Controller controller : controllers) {
+            replacements.put(controller.getName(), controller);
+        }
+        Builder builder = new Builder(name);
+        axisMap.forEach((action, axis) -> {
+            Controller replacement = replacements.get(axis.getController().getName());
+            if (replacement == null) {
+                builder.bind(action, axis);
+                return;
+            }
+            Axis replacementAxis = requireControl(replacement.getAxesNamesMap(), replacement, axis.getName());
+            if (axis instanceof ScaledAxis && replacementAxis instanceof ScaledAxis) {
+                ((ScaledAxis) replacementAxis).setScale(((ScaledAxis) axis).getScale());
+                ((ScaledAxis) replacementAxis).setOffset(((ScaledAxis) axis).getOffset());
+            }
+            builder.bind(action, replacementAxis);
+        });
+        buttonMap.forEach((action, button) -> {
+            Controller replacement = replacements.get(button.getController().getName());
+            builder.bind(action, replacement == null ? button
+                    : requireControl(replacement.getButtonsNamesMap(), replacement, button.getName()));
+        });
+        return builder.build();
+    }
+
+    private static <T> T requireControl(Map<String, T> controls, Controller controller, String name) {
+        T control = controls.get(name);
+        if (control == null) {
+            throw new IllegalArgumentException(String.format("controller '%s' has no control '%s'",
+                    controller.getName(), name));
+        }
+        return control;
+    }
+
     public String serialize() {
         StringBuilder builder = new StringBuilder();
-        buttonMap.entrySet().iterator().forEachRemaining(entry ->
-                // ...action:controller:axis;...
-                builder.append(entry.getKey().name())
-                        .append(TRIPLET_SEP)
-                        .append(entry.getValue().getLeft().getName())
-                        .append(TRIPLET_SEP)
-                        .append(entry.getValue().getRight().getName())
-                        .append(ENTRY_SEP)
-        );
-        axisMap.entrySet().iterator().forEachRemaining(entry ->
-                // ...action:controller:button;...
-                builder.append(entry.getKey().name())
-                        .append(TRIPLET_SEP)
-                        .append(entry.getValue().getLeft().getName())
-                        .append(TRIPLET_SEP)
-                        .append(entry.getValue().getRight().getName())
-                        .append(ENTRY_SEP)
-        );
+        // ...action:controller:button;...
+        buttonMap.forEach((action, button) -> appendTriplet(builder, action.name(), button));
+        // ...action:controller:axis;...
+        axisMap.forEach((action, axis) -> appendTriplet(builder, action.name(), axis));
         return builder.toString();
     }
+
+    private static <T extends Controllered & Named> void appendTriplet(StringBuilder builder, String action,
+                                                                      T control) {
+        builder.append(action)
+                .append(TRIPLET_SEP)
+                .append(control.getController().getName())
+                .append(TRIPLET_SEP)
+                .append(control.getName())
+                .append(ENTRY_SEP);
+    }
 }
@@ -4,6 +4,9 @@ import java.util.*;
 
 class ParallelRoutineGroup extends BaseRoutineGroup {
 
+    // Updated as composed Routines stop so that isFinished need not check every composed Routine each loop.
+    int numCompleted = 0;
+
     ParallelRoutineGroup(boolean interruptable, Routine... routines) {
         super(
                 interruptable,
@@ -19,9 +22,14 @@ class ParallelRoutineGroup extends BaseRoutineGroup {
         routines.forEach(this::scheduleInternal);
     }
 
+    @Override
+    void onComposedStop(Routine routine) {
+        ++numCompleted;
+    }
+
     @Override
     protected boolean isFinished() {
-        return routines.stream().allMatch(Routine::hasCompleted);
+        return numCompleted == routines.size();
     }
 
     private static Set<Subsystem> extractAndCheckRequirements(Routine... routines) {
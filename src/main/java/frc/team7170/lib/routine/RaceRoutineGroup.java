@@ -8,7 +8,7 @@ class RaceRoutineGroup extends ParallelRoutineGroup {
 
     @Override
     protected boolean isFinished() {
-        // Note the use of "anyMatch" as opposed to "allMatch" like in the super class.
-        return routines.stream().anyMatch(Routine::hasCompleted);
+        // Note that any one completed Routine suffices as opposed to all like in the super class.
+        return numCompleted > 0;
     }
 }
@@ -4,6 +4,7 @@ import frc.team7170.lib.BooleanConsumer;
 import frc.team7170.lib.looping.Loop;
 
 import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.BooleanSupplier;
 
 // TODO: comment on why essentially remaking Command system; one-time use; immutability
@@ -16,6 +17,8 @@ import java.util.function.BooleanSupplier;
  */
 public abstract class Routine {
 
+    private static final AtomicLong NEXT_ID = new AtomicLong();
+
     private class RoutineLoop extends Loop {
 
         private boolean gracefulExit = false;
@@ -23,12 +26,23 @@ public abstract class Routine {
 
         @Override
         protected void onStart() {
+            RoutineProfiler profiler = scheduler.getProfiler();
+            if (profiler != null) {
+                profiler.recordStart(Routine.this);
+            }
             Routine.this.onStart();
         }
 
         @Override
         protected void onLoop() {
-            Routine.this.onLoop();
+            RoutineProfiler profiler = scheduler.getProfiler();
+            if (profiler != null) {
+                long startNs = System.nanoTime();
+                Routine.this.onLoop();
+                profiler.recordLoop(Routine.this, startNs, System.nanoTime() - startNs);
+            } else {
+                Routine.this.onLoop();
+            }
             if (isFinished()) {
                 gracefulExit = true;
                 scheduler.unschedule(Routine.this);
@@ -37,9 +51,24 @@ public abstract class Routine {
 
         @Override
         protected void onStop() {
-            interruptOnStop.stream().filter(Routine::isRunning).forEach(Routine::stop);
+            if (interruptOnStop != null) {
+                // Indexed loop to avoid allocating an iterator/stream on every stop.
+                for (int i = 0; i < interruptOnStop.size(); ++i) {
+                    Routine routine = interruptOnStop.get(i);
+                    if (routine.isRunning()) {
+                        routine.stop();
+                    }
+                }
+            }
             Routine.this.onStop(gracefulExit);
             running = false;
+            if (claimedBy != null) {
+                claimedBy.onComposedStop(Routine.this);
+            }
+            RoutineProfiler profiler = scheduler.getProfiler();
+            if (profiler != null) {
+                profiler.recordStop(Routine.this, gracefulExit);
+            }
         }
 
         private void interruptOnStop(Routine routine) {
@@ -51,8 +80,16 @@ public abstract class Routine {
     }
 
     private final boolean interruptable;
+    // Unique among all Routines (unlike identity hash codes), so that profiles can tell them apart.
+    final long id = NEXT_ID.getAndIncrement();
     final Set<Subsystem> requirements;  // comment on package private
     final RoutineLoop loop = new RoutineLoop();
+    // The following are managed by the RoutineScheduler this Routine is scheduled with.
+    long requirementsMask;
+    // The RoutineScheduler whose Subsystem IDs requirementsMask was computed with, if any.
+    RoutineScheduler maskScheduler;
+    Routine prevRunning;
+    Routine nextRunning;
     private RoutineScheduler scheduler;
     private boolean started = false;
     private boolean running = false;
@@ -119,9 +156,14 @@ public abstract class Routine {
 
     public final boolean start(RoutineScheduler scheduler) {
         checkIfCanRun();
-        this.scheduler = Objects.requireNonNull(scheduler, "scheduler must be non-null");
-        running = started = scheduler.trySchedule(this);
-        return started;
+        return Objects.requireNonNull(scheduler, "scheduler must be non-null").trySchedule(this);
+    }
+
+    // Called by the RoutineScheduler right before this Routine's loop is registered, so that the Routine is considered
+    // running by the time onStart is called (which matters for scheduling internal Routines from onStart).
+    final void markStarted(RoutineScheduler scheduler) {
+        this.scheduler = scheduler;
+        running = started = true;
     }
 
     final void checkIfCanRun() {
@@ -177,7 +219,7 @@ public abstract class Routine {
         if (interruptOnStop) {
             loop.interruptOnStop(routine);
         }
-        return scheduler.tryScheduleInContext(routine, requirements);
+        return scheduler.tryScheduleInContext(routine, requirementsMask);
     }
 
     protected final boolean scheduleInternal(Routine routine) {
@@ -194,6 +236,9 @@ public abstract class Routine {
         claimedBy = Objects.requireNonNull(claimer, "cannot claim Routine with a null Routine");
     }
 
+    // Called whenever a Routine composed by (i.e. claimed by) this Routine stops, gracefully or not.
+    void onComposedStop(Routine routine) {}
+
     protected void onStart() {}
 
     protected void onLoop() {}
@@ -0,0 +1,186 @@
+package frc.team7170.lib.routine;
+
+import java.io.*;
+import java.util.Objects;
+
+/**
+ * <p>
+ * Records {@link Routine Routine} start, stop, and interrupt events as well as the duration of every
+ * {@link Routine#onLoop() onLoop} call into a preallocated ring buffer. Once the buffer is full, the oldest events are
+ * overwritten.
+ * </p>
+ * <p>
+ * A {@code RoutineProfiler} is attached to a {@link RoutineScheduler RoutineScheduler} with
+ * {@link RoutineScheduler#setProfiler(RoutineProfiler) setProfiler}, after which all {@code Routine}s scheduled with
+ * that scheduler are recorded, including those composed in groups. The recorded events can be
+ * {@linkplain RoutineProfiler#exportChromeTrace(Writer) exported} in the Chrome trace event format to be viewed
+ * offline (e.g. in {@code chrome://tracing}).
+ * </p>
+ *
+ * @apiNote This class is not thread-safe; events must be recorded and exported from the thread the
+ * {@code RoutineScheduler}'s {@link frc.team7170.lib.looping.Looper Looper} runs in.
+ */
+public final class RoutineProfiler {
+
+    private static final byte START = 0;
+    private static final byte STOP = 1;
+    private static final byte INTERRUPT = 2;
+    private static final byte LOOP = 3;
+
+    private final byte[] types;
+    private final long[] timestampsNs;
+    private final long[] durationsNs;
+    private final Routine[] routines;
+    private int next = 0;
+    private int size = 0;
+
+    /**
+     * @param capacity the maximum number of events to hold at once.
+     * @throws IllegalArgumentException if the given capacity is not positive.
+     */
+    public RoutineProfiler(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        types = new byte[capacity];
+        timestampsNs = new long[capacity];
+        durationsNs = new long[capacity];
+        routines = new Routine[capacity];
+    }
+
+    public int getCapacity() {
+        return types.length;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void clear() {
+        // Drop references so Routines can be GCed.
+        for (int i = 0; i < routines.length; ++i) {
+            routines[i] = null;
+        }
+        next = size = 0;
+    }
+
+    void recordStart(Routine routine) {
+        record(START, routine, System.nanoTime(), 0);
+    }
+
+    void recordStop(Routine routine, boolean graceful) {
+        record(graceful ? STOP : INTERRUPT, routine, System.nanoTime(), 0);
+    }
+
+    void recordLoop(Routine routine, long startNs, long durationNs) {
+        record(LOOP, routine, startNs, durationNs);
+    }
+
+    private void record(byte type, Routine routine, long timestampNs, long durationNs) {
+        types[next] = type;
+        timestampsNs[next] = timestampNs;
+        durationsNs[next] = durationNs;
+        routines[next] = routine;
+        if (++next == types.length) {
+            next = 0;
+        }
+        if (size < types.length) {
+            ++size;
+        }
+    }
+
+    /**
+     * <p>
+     * Write all currently held events to the given {@link Writer Writer} as a Chrome trace event JSON object.
+     * </p>
+     * <p>
+     * Each {@link Routine Routine}'s lifetime is written as an async event spanning from its start to its stop (with
+     * the stop's gracefulness as an argument) and each {@link Routine#onLoop() onLoop} call is written as a complete
+     * event. Timestamps are relative to the earliest held event.
+     * </p>
+     *
+     * @param writer the {@code Writer} to write to. It is not closed by this method.
+     * @throws IOException if the given {@code Writer} throws an {@code IOException}.
+     * @throws NullPointerException if the given {@code Writer} is {@code null}.
+     */
+    public void exportChromeTrace(Writer writer) throws IOException {
+        Objects.requireNonNull(writer, "writer must be non-null");
+        int first = size < types.length ? 0 : next;
+        // onLoop events are recorded after they finish, so the oldest held event is not necessarily the earliest.
+        long originNs = Long.MAX_VALUE;
+        for (int n = 0; n < size; ++n) {
+            originNs = Math.min(originNs, timestampsNs[(first + n) % types.length]);
+        }
+        writer.write("{\"displayTimeUnit\":\"ms\",\"traceEvents\":[");
+        for (int n = 0; n < size; ++n) {
+            int i = (first + n) % types.length;
+            if (n > 0) {
+                writer.write(',');
+            }
+            writer.write("\n{\"name\":");
+            writeJSONString(writer, routines[i].toString());
+            writer.write(",\"pid\":1,\"tid\":1,\"ts\":");
+            writer.write(toMicros(timestampsNs[i] - originNs));
+            switch (types[i]) {
+                case START:
+                    writer.write(",\"cat\":\"routine\",\"ph\":\"b\",\"id\":");
+                    writer.write(idOf(routines[i]));
+                    break;
+                case STOP:
+                case INTERRUPT:
+                    writer.write(",\"cat\":\"routine\",\"ph\":\"e\",\"id\":");
+                    writer.write(idOf(routines[i]));
+                    writer.write(",\"args\":{\"graceful\":");
+                    writer.write(types[i] == STOP ? "true" : "false");
+                    writer.write('}');
+                    break;
+                case LOOP:
+                    writer.write(",\"cat\":\"loop\",\"ph\":\"X\",\"dur\":");
+                    writer.write(toMicros(durationsNs[i]));
+                    break;
+            }
+            writer.write('}');
+        }
+        writer.write("\n]}\n");
+        writer.flush();
+    }
+
+    /**
+     * Write all currently held events to the given {@link File File} as a Chrome trace event JSON object. See
+     * {@link RoutineProfiler#exportChromeTrace(Writer) exportChromeTrace(Writer)} for details.
+     *
+     * @param file the {@code File} to write to. It is overwritten if it exists.
+     * @throws IOException if the given {@code File} could not be opened or written to.
+     * @throws NullPointerException if the given {@code File} is {@code null}.
+     */
+    public void exportChromeTrace(File file) throws IOException {
+        Objects.requireNonNull(file, "file must be non-null");
+        try (Writer writer = new BufferedWriter(new FileWriter(file))) {
+            exportChromeTrace(writer);
+        }
+    }
+
+    private static String toMicros(long nanos) {
+        return String.format("%d.%03d", nanos / 1000, nanos % 1000);
+    }
+
+    private static String idOf(Routine routine) {
+        return "\"0x" + Long.toHexString(routine.id) + "\"";
+    }
+
+    private static void writeJSONString(Writer writer, String string) throws IOException {
+        writer.write('"');
+        for (int i = 0; i < string.length(); ++i) {
+            char c = string.charAt(i);
+            if (c == '"' || c == '\\') {
+                writer.write('\\');
+                writer.write(c);
+            } else if (c < 0x20) {
+                writer.write(String.format("\\u%04x", (int) c));
+            } else {
+                writer.write(c);
+            }
+        }
+        writer.write('"');
+    }
+}
@@ -11,9 +11,21 @@ public final class RoutineScheduler {
 
     private static final Logger LOGGER = Logger.getLogger(RoutineScheduler.class.getName());
 
+    // Requirements are stored as bitsets in a long, so this is a hard limit.
+    private static final int MAX_SUBSYSTEMS = Long.SIZE;
+
     private final Looper looper;
-    private final Map<Subsystem, Integer> subsystemClaimsMap = new HashMap<>();
-    private final Set<Routine> currentlyRunning = new HashSet<>();
+    // Subsystems are assigned dense IDs in registration order; everything else is indexed by these IDs.
+    private final Map<Subsystem, Integer> subsystemIds = new HashMap<>();
+    private final Subsystem[] subsystems = new Subsystem[MAX_SUBSYSTEMS];
+    private final int[] claimCounters = new int[MAX_SUBSYSTEMS];
+    // The Routine that claimed each Subsystem outside of any context (i.e. not as an internal Routine).
+    private final Routine[] owners = new Routine[MAX_SUBSYSTEMS];
+    private long claimedMask = 0;
+    private long uninterruptableMask = 0;
+    // Head of an intrusive doubly-linked list of running Routines (see Routine.prevRunning and Routine.nextRunning).
+    private Routine runningHead = null;
+    private RoutineProfiler profiler = null;
 
     public RoutineScheduler(Looper looper) {
         this.looper = looper;
@@ -35,12 +47,19 @@ public final class RoutineScheduler {
     }
 
     public void registerSubsystem(Subsystem subsystem) {
-        if (subsystemClaimsMap.containsKey(
+        if (subsystemIds.containsKey(
                 Objects.requireNonNull(subsystem, "cannot register null Subsystem")
         )) {
             throw new IllegalArgumentException(String.format("Subsystem '%s' already registered", subsystem.getName()));
         }
-        subsystemClaimsMap.put(subsystem, 0);
+        int id = subsystemIds.size();
+        if (id >= MAX_SUBSYSTEMS) {
+            throw new IllegalStateException(
+                    String.format("cannot register more than %d Subsystems with one RoutineScheduler", MAX_SUBSYSTEMS)
+            );
+        }
+        subsystemIds.put(subsystem, id);
+        subsystems[id] = subsystem;
         looper.registerLoop(
                 new Loop() {
                     @Override
@@ -49,16 +68,34 @@ public final class RoutineScheduler {
                     }
                 }
         );
-        runDefaultRoutine(subsystem);
+        runDefaultRoutine(id);
+    }
+
+    // A null profiler disables profiling.
+    public void setProfiler(RoutineProfiler profiler) {
+        this.profiler = profiler;
+    }
+
+    public RoutineProfiler getProfiler() {
+        return profiler;
+    }
+
+    public Routine getOwner(Subsystem subsystem) {
+        return owners[idOf(Objects.requireNonNull(subsystem, "cannot get owner of null Subsystem"))];
     }
 
     public boolean trySchedule(Routine routine) {
-        return tryScheduleInContext(routine, Collections.emptySet());
+        return tryScheduleInContext(routine, 0);
     }
 
-    boolean tryScheduleInContext(Routine routine, Set<Subsystem> context) {
-        if (canRun(routine, context)) {
-            claimRequirements(routine, context);
+    boolean tryScheduleInContext(Routine routine, long contextMask) {
+        if (routine.maskScheduler != this) {
+            // Requirements are fixed on construction, so the mask only needs computing on the first attempt.
+            routine.requirementsMask = maskOf(routine);
+            routine.maskScheduler = this;
+        }
+        if (canRun(routine, contextMask)) {
+            claimRequirements(routine, contextMask);
             startRoutine(routine);
             return true;
         }
@@ -66,55 +103,83 @@ public final class RoutineScheduler {
     }
 
     void unschedule(Routine routine) {
-        freeRequirements(routine);
+        // Stop before freeing so that internal Routines interrupted by this stopping do not drop the claim counters
+        // of shared requirements to zero and start default Routines prematurely.
         stopRoutine(routine);
-        for (Subsystem subsystem : routine.requirements) {
-            runDefaultRoutine(subsystem);
-        }
+        freeRequirements(routine);
+        runDefaultRoutines(routine.requirementsMask & ~claimedMask);
     }
 
-    private boolean canRun(Routine routine, Set<Subsystem> context) {
+    private long maskOf(Routine routine) {
+        long mask = 0;
         for (Subsystem requirement : routine.requirements) {
-            if (!subsystemClaimsMap.containsKey(requirement)) {
-                throw new IllegalArgumentException(
-                        String.format("cannot require Subsystem '%s': not registered with this RoutineScheduler", requirement)
-                );
-            }
-            // Less than zero in subsystemClaimsMap means not interruptable.
-            if (!context.contains(requirement) && subsystemClaimsMap.get(requirement) < 0) {
-                return false;
-            }
+            mask |= 1L << idOf(requirement);
         }
-        return true;
+        return mask;
     }
 
-    private void claimRequirements(Routine routine, Set<Subsystem> context) {
-        for (Subsystem requirement : routine.requirements) {
-            if (!context.contains(requirement)) {
-                forcefullyFree(requirement);
+    private int idOf(Subsystem subsystem) {
+        Integer id = subsystemIds.get(subsystem);
+        if (id == null) {
+            throw new IllegalArgumentException(
+                    String.format("cannot require Subsystem '%s': not registered with this RoutineScheduler", subsystem)
+            );
+        }
+        return id;
+    }
+
+    private boolean canRun(Routine routine, long contextMask) {
+        return (routine.requirementsMask & ~contextMask & uninterruptableMask) == 0;
+    }
+
+    private void claimRequirements(Routine routine, long contextMask) {
+        long outsideContext = routine.requirementsMask & ~contextMask;
+        forcefullyFree(outsideContext);
+        for (long mask = routine.requirementsMask; mask != 0; mask &= mask - 1) {
+            int id = Long.numberOfTrailingZeros(mask);
+            incClaimCounter(id, routine.isInterruptable());
+            if ((outsideContext & (1L << id)) != 0) {
+                owners[id] = routine;
             }
-            incClaimCounter(requirement, routine.isInterruptable());
         }
     }
 
     private void freeRequirements(Routine routine) {
-        for (Subsystem requirement : routine.requirements) {
-            decClaimCounter(requirement);
+        for (long mask = routine.requirementsMask; mask != 0; mask &= mask - 1) {
+            int id = Long.numberOfTrailingZeros(mask);
+            decClaimCounter(id);
+            if (owners[id] == routine) {
+                owners[id] = null;
+            }
         }
     }
 
     private void startRoutine(Routine routine) {
-        currentlyRunning.add(routine);
+        routine.prevRunning = null;
+        routine.nextRunning = runningHead;
+        if (runningHead != null) {
+            runningHead.prevRunning = routine;
+        }
+        runningHead = routine;
+        routine.markStarted(this);
         looper.registerLoop(routine.loop);
     }
 
     private void stopRoutine(Routine routine) {
-        currentlyRunning.remove(routine);
+        if (routine.prevRunning != null) {
+            routine.prevRunning.nextRunning = routine.nextRunning;
+        } else {
+            runningHead = routine.nextRunning;
+        }
+        if (routine.nextRunning != null) {
+            routine.nextRunning.prevRunning = routine.prevRunning;
+        }
+        routine.prevRunning = routine.nextRunning = null;
         looper.removeLoop(routine.loop);
     }
 
-    private void incClaimCounter(Subsystem subsystem, boolean interruptable) {
-        int prevVal = subsystemClaimsMap.get(subsystem);
+    private void incClaimCounter(int id, boolean interruptable) {
+        int prevVal = claimCounters[id];
         int newVal;
         if (prevVal == 0) {
             newVal = interruptable ? 1 : -1;
@@ -123,33 +188,71 @@ public final class RoutineScheduler {
         } else {  // if (prevVal > 0)
             newVal = prevVal + 1;
         }
-        subsystemClaimsMap.replace(subsystem, newVal);
+        setClaimCounter(id, newVal);
     }
 
-    private void decClaimCounter(Subsystem subsystem) {
-        int prevVal = subsystemClaimsMap.get(subsystem);
+    private void decClaimCounter(int id) {
+        int prevVal = claimCounters[id];
         int newVal;
         if (prevVal < 0) {
             newVal = prevVal + 1;
         } else {  // if (prevVal > 0)
             newVal = prevVal - 1;
         }
-        subsystemClaimsMap.replace(subsystem, newVal);
+        setClaimCounter(id, newVal);
+    }
+
+    private void setClaimCounter(int id, int val) {
+        claimCounters[id] = val;
+        long bit = 1L << id;
+        // Less than zero in claimCounters means not interruptable.
+        claimedMask = val != 0 ? claimedMask | bit : claimedMask & ~bit;
+        uninterruptableMask = val < 0 ? uninterruptableMask | bit : uninterruptableMask & ~bit;
+    }
+
+    private void forcefullyFree(long mask) {
+        for (long toFree = mask & claimedMask; toFree != 0; toFree &= toFree - 1) {
+            int id = Long.numberOfTrailingZeros(toFree);
+            Routine owner = owners[id];
+            if (owner != null) {
+                evict(owner, mask);
+            }
+            if (claimCounters[id] != 0) {
+                // Only internal Routines that were not interrupted with their parent can still hold a claim here, so
+                // fall back to scanning the running Routines.
+                evictAllRequiring(1L << id, mask);
+            }
+        }
     }
 
-    private void forcefullyFree(Subsystem subsystem) {
-        Routine routine;
-        for (Iterator<Routine> iterator = currentlyRunning.iterator(); iterator.hasNext();) {
-            routine = iterator.next();
-            if (routine.requires(subsystem)) {
-                freeRequirements(routine);
-                stopRoutine(routine);
-                iterator.remove();
+    private void evictAllRequiring(long bit, long mask) {
+        Routine routine = runningHead;
+        while (routine != null) {
+            if ((routine.requirementsMask & bit) != 0) {
+                evict(routine, mask);
+                // Evicting may stop other running Routines, so start over from the head.
+                routine = runningHead;
+            } else {
+                routine = routine.nextRunning;
             }
         }
     }
 
-    private void runDefaultRoutine(Subsystem subsystem) {
+    private void evict(Routine routine, long mask) {
+        stopRoutine(routine);
+        freeRequirements(routine);
+        // Don't start default Routines for the Subsystems being freed up.
+        runDefaultRoutines(routine.requirementsMask & ~claimedMask & ~mask);
+    }
+
+    private void runDefaultRoutines(long mask) {
+        for (; mask != 0; mask &= mask - 1) {
+            runDefaultRoutine(Long.numberOfTrailingZeros(mask));
+        }
+    }
+
+    private void runDefaultRoutine(int id) {
+        Subsystem subsystem = subsystems[id];
         Routine defaultRoutine = subsystem.getDefaultRoutine();
         if (defaultRoutine == null) {
             return;
@@ -171,7 +274,10 @@ public final class RoutineScheduler {
                     String.format("The default Routine for Subsystem '%s' is not interruptable.", subsystem)
             );
         }
-        incClaimCounter(subsystem, interruptable);
+        defaultRoutine.requirementsMask = 1L << id;
+        defaultRoutine.maskScheduler = this;
+        incClaimCounter(id, interruptable);
+        owners[id] = defaultRoutine;
         startRoutine(defaultRoutine);
     }
 }
@@ -0,0 +1,43 @@
+package frc.team7170.lib;
+
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ExponentialMovingAverageTest {
+
+    private static final double EPSILON = 1E-9;
+
+    @Test
+    void getAverage() {
+        ExponentialMovingAverage ema = new ExponentialMovingAverage(0.5);
+        assertThat(ema.getAverage(), is(Double.NaN));
+        ema.add(4.0);
+        assertThat(ema.getAverage(), closeTo(4.0, EPSILON));
+        ema.addAll(0.0, 0.0);
+        assertThat(ema.getAverage(), closeTo(1.0, EPSILON));
+        ema.clear();
+        assertThat(ema.isEmpty(), is(true));
+        ema.add(-2.0);
+        assertThat(ema.getAverage(), closeTo(-2.0, EPSILON));
+    }
+
+    @Test
+    void fromTimeConstant() {
+        // After one time constant, a first-order filter has covered 1 - 1/e of a step.
+        ExponentialMovingAverage ema = ExponentialMovingAverage.fromTimeConstant(0.1, 0.001);
+        ema.add(0.0);
+        for (int i = 0; i < 100; ++i) {
+            ema.add(1.0);
+        }
+        assertThat(ema.getAverage(), closeTo(1.0 - Math.exp(-1.0), EPSILON));
+    }
+
+    @Test
+    void ctor_invalidAlpha() {
+        assertThrows(IllegalArgumentException.class, () -> new ExponentialMovingAverage(0.0));
+        assertThrows(IllegalArgumentException.class, () -> new ExponentialMovingAverage(1.5));
+    }
+}
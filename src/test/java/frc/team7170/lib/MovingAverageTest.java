@@ -0,0 +1,50 @@
+package frc.team7170.lib;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class MovingAverageTest {
+
+    private static final double EPSILON = 1E-9;
+
+    @Test
+    void getAverage() {
+        MovingAverage avg = new MovingAverage(3);
+        assertThat(avg.getAverage(), is(Double.NaN));
+        avg.addAll(1.0, 2.0);
+        assertThat(avg.getSize(), is(2));
+        assertThat(avg.isFull(), is(false));
+        assertThat(avg.getAverage(), closeTo(1.5, EPSILON));
+        avg.addAll(3.0, 4.0);
+        assertThat(avg.isFull(), is(true));
+        assertThat(avg.getAverage(), closeTo(3.0, EPSILON));
+        avg.clear();
+        assertThat(avg.getSize(), is(0));
+        avg.add(7.0);
+        assertThat(avg.getAverage(), closeTo(7.0, EPSILON));
+    }
+
+    @Test
+    void getAverage_matchesWindow() {
+        Random random = new Random(7170);
+        int frameSize = 17;
+        double[] samples = new double[10_000];
+        MovingAverage avg = new MovingAverage(frameSize);
+        for (int i = 0; i < samples.length; ++i) {
+            // Wildly varying magnitudes, to provoke drift in the running sum.
+            samples[i] = random.nextGaussian() * Math.pow(10.0, random.nextInt(12));
+            avg.add(samples[i]);
+            double expected = 0.0;
+            int from = Math.max(0, i - frameSize + 1);
+            for (int j = from; j <= i; ++j) {
+                expected += samples[j];
+            }
+            expected /= i - from + 1;
+            assertThat(avg.getAverage(), closeTo(expected, 1E-3 + Math.abs(expected) * 1E-9));
+        }
+    }
+}
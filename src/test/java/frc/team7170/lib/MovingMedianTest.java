@@ -0,0 +1,47 @@
+package frc.team7170.lib;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class MovingMedianTest {
+
+    @Test
+    void getMedian() {
+        MovingMedian median = new MovingMedian(3);
+        assertThat(median.getMedian(), is(Double.NaN));
+        median.add(5.0);
+        assertThat(median.getMedian(), is(5.0));
+        median.add(1.0);
+        assertThat(median.getMedian(), is(3.0));
+        // A single outlier does not move the median.
+        median.addAll(1000.0, 2.0);
+        assertThat(median.getMedian(), is(2.0));
+        median.clear();
+        median.add(-1.0);
+        assertThat(median.getMedian(), is(-1.0));
+    }
+
+    @Test
+    void getMedian_matchesWindow() {
+        Random random = new Random(7170);
+        for (int frameSize : new int[] {1, 2, 5, 16}) {
+            double[] samples = new double[2_000];
+            MovingMedian median = new MovingMedian(frameSize);
+            for (int i = 0; i < samples.length; ++i) {
+                // Few distinct values, so that ties are exercised.
+                samples[i] = random.nextInt(10);
+                median.add(samples[i]);
+                double[] window = Arrays.copyOfRange(samples, Math.max(0, i - frameSize + 1), i + 1);
+                Arrays.sort(window);
+                int mid = window.length / 2;
+                double expected = window.length % 2 == 1 ? window[mid] : (window[mid - 1] + window[mid]) / 2.0;
+                assertThat(median.getMedian(), is(expected));
+            }
+        }
+    }
+}
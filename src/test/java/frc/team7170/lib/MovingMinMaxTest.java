@@ -0,0 +1,47 @@
+package frc.team7170.lib;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class MovingMinMaxTest {
+
+    @Test
+    void getMinMax() {
+        MovingMinMax minMax = new MovingMinMax(3);
+        assertThat(minMax.getMin(), is(Double.NaN));
+        minMax.addAll(3.0, 1.0, 2.0);
+        assertThat(minMax.getMin(), is(1.0));
+        assertThat(minMax.getMax(), is(3.0));
+        minMax.add(2.5);
+        assertThat(minMax.getMin(), is(1.0));
+        assertThat(minMax.getMax(), is(2.5));
+        minMax.add(0.0);
+        assertThat(minMax.getMin(), is(0.0));
+        assertThat(minMax.getMax(), is(2.5));
+    }
+
+    @Test
+    void getMinMax_matchesWindow() {
+        Random random = new Random(7170);
+        for (int frameSize : new int[] {1, 2, 7, 32}) {
+            double[] samples = new double[2_000];
+            MovingMinMax minMax = new MovingMinMax(frameSize);
+            for (int i = 0; i < samples.length; ++i) {
+                samples[i] = random.nextInt(20);
+                minMax.add(samples[i]);
+                double min = Double.POSITIVE_INFINITY;
+                double max = Double.NEGATIVE_INFINITY;
+                for (int j = Math.max(0, i - frameSize + 1); j <= i; ++j) {
+                    min = Math.min(min, samples[j]);
+                    max = Math.max(max, samples[j]);
+                }
+                assertThat(minMax.getMin(), is(min));
+                assertThat(minMax.getMax(), is(max));
+            }
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package frc.team7170.lib.data;
+
+import frc.team7170.lib.data.property.PropertyFactory;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class PropertyPollerTest {
+
+    @Test
+    void addProperty_negativePeriodPolledOnce() {
+        List<Map<List<String>, Value>> polls = new ArrayList<>();
+        int[] reads = {0};
+        PropertyPoller poller = new PropertyPoller(polls::add);
+        poller.addProperty(List.of("group"), PropertyFactory.newDoubleRProperty("constant", -1, () -> ++reads[0]));
+        assertThat(polls, hasSize(1));
+        assertThat(polls.get(0).get(List.of("group", "constant")).getDouble(), is(1.0));
+        assertThat(reads[0], is(1));
+    }
+
+    @Test
+    void addProperty_afterOnlyNegativePeriods() {
+        List<Map<List<String>, Value>> polls = new ArrayList<>();
+        PropertyPoller poller = new PropertyPoller(polls::add);
+        poller.addProperty(List.of(), PropertyFactory.newDoubleRProperty("a", -1, () -> 1.0));
+        // The poller stopped with nothing left to poll, so adding another property polls it straight away.
+        poller.addProperty(List.of(), PropertyFactory.newDoubleRProperty("b", -1, () -> 2.0));
+        assertThat(polls, hasSize(2));
+        assertThat(polls.get(1).keySet(), contains(List.of("b")));
+    }
+
+    @Test
+    void addProperty_periodicPolledOnAdd() {
+        List<Map<List<String>, Value>> polls = new ArrayList<>();
+        PropertyPoller poller = new PropertyPoller(polls::add);
+        poller.addProperty(List.of(), PropertyFactory.newDoubleRProperty("periodic", 60_000, () -> 1.0));
+        poller.addProperty(List.of(), PropertyFactory.newDoubleRProperty("constant", -1, () -> 2.0));
+        // The first property is next due in a minute, so the second isn't polled until then.
+        assertThat(polls, hasSize(1));
+        assertThat(polls.get(0).keySet(), contains(List.of("periodic")));
+    }
+}
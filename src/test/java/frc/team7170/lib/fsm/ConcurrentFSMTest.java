@@ -0,0 +1,146 @@
+package frc.team7170.lib.fsm;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static frc.team7170.lib.TestUtil.assertNPE;
+
+public class ConcurrentFSMTest {
+
+    @Test
+    void ctor_nullArgs() {
+        FSM<String, String> m = FSM.builder("A").build("A");
+        assertNPE(ConcurrentFSM<String, String>::new, m);
+        Executor executor = Runnable::run;
+        assertNPE(ConcurrentFSM<String, String>::new, m, executor);
+    }
+
+    @Test
+    void trigger_callerRuns() throws Exception {
+        FSM<String, String> m = FSM.builder("A", "B", "B/C")
+                .transition("T", "A", "B/C").build()
+                .build("A");
+        ConcurrentFSM<String, String> cm = new ConcurrentFSM<>(m);
+        CompletableFuture<Boolean> future = cm.trigger("T");
+        assertThat(future.isDone(), is(true));
+        assertThat(future.get(), is(true));
+        assertThat(cm.getState(), is("B/C"));
+        assertThat(cm.in("B"), is(true));
+        assertThat(cm.in("A"), is(false));
+    }
+
+    @Test
+    void trigger_nullArgs() {
+        ConcurrentFSM<String, String> cm = new ConcurrentFSM<>(FSM.builder("A").build("A"));
+        assertNPE(cm::trigger, "A");
+        assertNPE(cm::forceTo, "A");
+    }
+
+    @Test
+    void trigger_invalidCompletesExceptionally() {
+        ConcurrentFSM<String, String> cm = new ConcurrentFSM<>(FSM.builder("A").build("A"));
+        CompletableFuture<Boolean> future = cm.trigger("T");
+        ExecutionException e = assertThrows(ExecutionException.class, future::get);
+        assertThat(e.getCause(), instanceOf(IllegalStateException.class));
+        // The FSM must still be usable after an exception.
+        assertThat(cm.forceTo("A").isCompletedExceptionally(), is(false));
+    }
+
+    @Test
+    void trigger_fromCallbackRunsAfterCurrent() {
+        List<String> order = new ArrayList<>();
+        @SuppressWarnings("unchecked")
+        ConcurrentFSM<String, String>[] cm = new ConcurrentFSM[1];
+        FSM<String, String> m = FSM.builder("A", "B", "C")
+                .transition("T1", "A", "B").after(() -> {
+                    cm[0].trigger("T2");
+                    order.add("T1");
+                }).build()
+                .transition("T2", "B", "C").after(() -> order.add("T2")).build()
+                .build("A");
+        cm[0] = new ConcurrentFSM<>(m);
+        cm[0].trigger("T1");
+        assertThat(order, contains("T1", "T2"));
+        assertThat(cm[0].getState(), is("C"));
+    }
+
+    @Test
+    void trigger_manyThreads() throws Exception {
+        final int numThreads = 8;
+        final int numTriggers = 1000;
+        int[] count = {0};
+        FSM<String, String> m = FSM.builder("A")
+                .transition("T", "A", "A").after(() -> ++count[0]).build()
+                .build("A");
+        ExecutorService owner = Executors.newSingleThreadExecutor();
+        ExecutorService producers = Executors.newFixedThreadPool(numThreads);
+        try {
+            ConcurrentFSM<String, String> cm = new ConcurrentFSM<>(m, owner);
+            CountDownLatch start = new CountDownLatch(1);
+            List<CompletableFuture<CompletableFuture<Boolean>>> futures = new ArrayList<>();
+            for (int i = 0; i < numThreads * numTriggers; ++i) {
+                futures.add(CompletableFuture.supplyAsync(() -> {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        throw new RuntimeException(e);
+                    }
+                    return cm.trigger("T");
+                }, producers));
+            }
+            start.countDown();
+            for (CompletableFuture<CompletableFuture<Boolean>> future : futures) {
+                assertThat(future.get(10, TimeUnit.SECONDS).get(10, TimeUnit.SECONDS), is(true));
+            }
+            assertThat(count[0], is(numThreads * numTriggers));
+        } finally {
+            producers.shutdown();
+            owner.shutdown();
+        }
+    }
+
+    @Test
+    void trigger_rejectedFailsAllPending() {
+        FSM<String, String> m = FSM.builder("A", "B")
+                .transition("T", "A", "B").build()
+                .build("A");
+        List<CompletableFuture<Boolean>> racing = new ArrayList<>();
+        boolean[] reject = {true};
+        @SuppressWarnings("unchecked")
+        ConcurrentFSM<String, String>[] cm = new ConcurrentFSM[1];
+        Executor executor = task -> {
+            if (reject[0]) {
+                // Another thread's request arriving while the owning task is being submitted.
+                racing.add(cm[0].trigger("T"));
+                throw new RejectedExecutionException();
+            }
+            task.run();
+        };
+        cm[0] = new ConcurrentFSM<>(m, executor);
+        CompletableFuture<Boolean> future = cm[0].trigger("T");
+        assertThat(racing, hasSize(1));
+        assertThat(racing.get(0).isDone(), is(true));
+        ExecutionException e = assertThrows(ExecutionException.class, future::get);
+        assertThat(e.getCause(), instanceOf(RejectedExecutionException.class));
+        e = assertThrows(ExecutionException.class, racing.get(0)::get);
+        assertThat(e.getCause(), instanceOf(RejectedExecutionException.class));
+        assertThat(cm[0].getState(), is("A"));
+        // Once the executor accepts tasks again, requests go through.
+        reject[0] = false;
+        assertThat(cm[0].trigger("T").join(), is(true));
+        assertThat(cm[0].getState(), is("B"));
+    }
+}
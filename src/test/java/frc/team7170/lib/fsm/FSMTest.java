@@ -187,6 +187,12 @@ public class FSMTest {
         assertThat(m.getState(), is(SE.B));
     }
 
+    @Test
+    void getState_nested_strStates() {
+        FSM<String, String> m = FSM.builder("A/B/C").build("A/B/C");
+        assertThat(m.getState(), is("A/B/C"));
+    }
+
     // --
     // in
     // --
@@ -201,6 +207,19 @@ public class FSMTest {
         );
     }
 
+    @Test
+    void in_nested_strStates() {
+        FSM<String, String> m = FSM.builder("A/B/C", "A/D", "A/D/C", "E").build("A/B/C");
+        assertAll(
+                () -> assertThat(m.in("A/B/C"), is(true)),
+                () -> assertThat(m.in("A/B"), is(true)),
+                () -> assertThat(m.in("A"), is(true)),
+                () -> assertThat(m.in("A/D"), is(false)),
+                () -> assertThat(m.in("A/D/C"), is(false)),
+                () -> assertThat(m.in("E"), is(false))
+        );
+    }
+
     @Test
     void in_nullInput() {
         FSM<SE, TE> m = FSM.builder(TE.class, SE.class).build(SE.B);
@@ -514,6 +533,52 @@ public class FSMTest {
         assertThat(m.trigger(TE.T), is(false));
     }
 
+    @Test
+    void trigger_afterAbort() {
+        boolean[] abort = {true};
+        FSM<SE, TE> m = FSM.builder(TE.class, SE.class)
+                .transition(TE.T, SE.B, SE.C).before(e -> !abort[0]).build()
+                .build(SE.B);
+        m.trigger(TE.T);
+        abort[0] = false;
+        // An aborted transition must not leave the FSM locked (which would cause this trigger to be queued forever).
+        assertAll(
+                () -> assertThat(m.trigger(TE.T), is(true)),
+                () -> assertThat(m.getState(), is(SE.C))
+        );
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void trigger_eventObjReusedWithoutArgs() {
+        Event<SE, TE>[] events = new Event[2];
+        FSM<SE, TE> m = FSM.builder(TE.class, SE.class)
+                .reflexiveTransition(TE.T, SE.B).after(e -> events[events[0] == null ? 0 : 1] = e).build()
+                .build(SE.B);
+        m.trigger(TE.T);
+        m.trigger(TE.T);
+        assertAll(
+                // Triggers without arguments on FSMs with enum triggers share a precomputed Event object.
+                () -> assertThat(events[0], sameInstance(events[1])),
+                () -> assertThat(events[0].machine, is(m)),
+                () -> assertThat(events[0].trigger, is(TE.T)),
+                () -> assertThat(events[0].src, is(SE.B)),
+                () -> assertThat(events[0].dst, is(SE.B)),
+                () -> assertThat(events[0].args.size(), is(0))
+        );
+    }
+
+    @Test
+    void trigger_validNormal_strStatesEnumTriggers() {
+        FSM<String, TE> m = FSM.builder(TE.class, "A", "A/B", "C")
+                .transition(TE.T, "A/B", "C").build()
+                .build("A/B");
+        assertAll(
+                () -> assertThat(m.trigger(TE.T), is(true)),
+                () -> assertThat(m.getState(), is("C"))
+        );
+    }
+
     @Test
     @SuppressWarnings("unchecked")
     void trigger_eventObj() {
@@ -0,0 +1,232 @@
+package frc.team7170.lib.fsm;
+
+import frc.team7170.lib.data.DefaultPropertyGroup;
+import frc.team7170.lib.data.PropertyGroup;
+import frc.team7170.lib.data.PropertyPoller;
+import frc.team7170.lib.data.Value;
+import frc.team7170.lib.data.property.RProperty;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertAll;
+
+public class FSMTracerTest {
+
+    private static FSM<String, String> newFSM() {
+        return FSM.builder("A", "B", "B/C")
+                .transition("T", "A", "B/C").build()
+                .transition("ABORT", "A", "B").before(e -> false).build()
+                .internalTransition("INTERNAL", "A").build()
+                .build("A");
+    }
+
+    @Test
+    void ctor_invalidCapacity() {
+        assertThrows(IllegalArgumentException.class, () -> new FSMTracer<>("t", newFSM(), 0, 100));
+    }
+
+    @Test
+    void setTracer_otherFSM() {
+        FSMTracer<String, String> tracer = new FSMTracer<>("t", newFSM(), 4, 100);
+        assertThrows(IllegalArgumentException.class, () -> newFSM().setTracer(tracer));
+    }
+
+    @Test
+    void trigger_recorded() {
+        FSM<String, String> m = newFSM();
+        FSMTracer<String, String> tracer = new FSMTracer<>("t", m, 4, 100);
+        m.setTracer(tracer);
+        m.trigger("T");
+        assertAll(
+                () -> assertThat(tracer.size(), is(1)),
+                () -> assertThat(tracer.getSrc(0), is("A")),
+                () -> assertThat(tracer.getDst(0), is("B/C")),
+                () -> assertThat(tracer.getTrigger(0), is("T")),
+                () -> assertThat(tracer.getQueueDepth(0), is(0)),
+                () -> assertThat(sum(tracer.getLatencyHistogram(FSMTracer.Phase.ON_ENTER)), is(1L)),
+                () -> assertThat(sum(tracer.getDwellHistogram("A")), is(1L)),
+                () -> assertThat(sum(tracer.getDwellHistogram("B/C")), is(0L))
+        );
+    }
+
+    @Test
+    void trigger_abortAndInternal() {
+        FSM<String, String> m = newFSM();
+        FSMTracer<String, String> tracer = new FSMTracer<>("t", m, 4, 100);
+        m.setTracer(tracer);
+        m.trigger("ABORT");
+        m.trigger("INTERNAL");
+        assertAll(
+                () -> assertThat(tracer.size(), is(2)),
+                () -> assertThat(tracer.getDst(0), nullValue()),
+                () -> assertThat(tracer.getDst(1), is("A")),
+                () -> assertThat(sum(tracer.getLatencyHistogram(FSMTracer.Phase.BEFORE)), is(2L)),
+                () -> assertThat(sum(tracer.getLatencyHistogram(FSMTracer.Phase.AFTER)), is(1L)),
+                () -> assertThat(sum(tracer.getLatencyHistogram(FSMTracer.Phase.ON_EXIT)), is(0L)),
+                () -> assertThat(sum(tracer.getDwellHistogram("A")), is(0L))
+        );
+    }
+
+    @Test
+    void forceTo_ringBufferWraps() {
+        FSM<String, String> m = newFSM();
+        FSMTracer<String, String> tracer = new FSMTracer<>("t", m, 2, 100);
+        m.setTracer(tracer);
+        m.forceTo("B/C");
+        m.forceTo("A");
+        m.forceTo("B");
+        assertAll(
+                () -> assertThat(tracer.size(), is(2)),
+                () -> assertThat(tracer.getSrc(0), is("B/C")),
+                () -> assertThat(tracer.getSrc(1), is("A")),
+                () -> assertThat(tracer.getDst(1), is("B")),
+                () -> assertThat(tracer.getTrigger(1), nullValue()),
+                () -> assertThrows(IndexOutOfBoundsException.class, () -> tracer.getSrc(2))
+        );
+    }
+
+    @Test
+    void trigger_queueDepth() {
+        @SuppressWarnings("unchecked")
+        FSMTracer<String, String>[] tracer = new FSMTracer[1];
+        FSM<String, String> m = FSM.builder("A", "B", "C")
+                .transition("T1", "A", "B").after(e -> {
+                    e.machine.trigger("T2");
+                    e.machine.forceTo("A");
+                }).build()
+                .transition("T2", "B", "C").build()
+                .build("A");
+        tracer[0] = new FSMTracer<>("t", m, 4, 100);
+        m.setTracer(tracer[0]);
+        m.trigger("T1");
+        assertAll(
+                () -> assertThat(tracer[0].size(), is(3)),
+                () -> assertThat(tracer[0].getQueueDepth(0), is(0)),
+                () -> assertThat(tracer[0].getQueueDepth(1), is(1)),
+                () -> assertThat(tracer[0].getQueueDepth(2), is(0))
+        );
+    }
+
+    @Test
+    void registerProperties() {
+        FSM<String, String> m = newFSM();
+        FSMTracer<String, String> tracer = new FSMTracer<>("t", m, 4, 100);
+        m.setTracer(tracer);
+        m.trigger("T");
+        PropertyGroup<RProperty> group = new DefaultPropertyGroup<>(tracer.getName());
+        tracer.registerProperties(group);
+        PropertyGroup<RProperty> dwell = group.getSubGroups().stream()
+                .filter(g -> g.getName().equals("dwell")).findAny().orElseThrow();
+        RProperty a = dwell.getProperties().stream()
+                .filter(p -> p.getName().equals("A")).findAny().orElseThrow();
+        assertAll(
+                () -> assertThat(dwell.getProperties(), hasSize(3)),
+                () -> assertThat(a.getDoubleArray().length, is(FSMTracer.NUM_BUCKETS)),
+                () -> assertThat(sumOf(a.getDoubleArray()), is(1.0))
+        );
+    }
+
+    @Test
+    void registerProperties_snapshots() {
+        FSM<String, String> m = newFSM();
+        FSMTracer<String, String> tracer = new FSMTracer<>("t", m, 4, 100);
+        m.setTracer(tracer);
+        PropertyGroup<RProperty> group = new DefaultPropertyGroup<>(tracer.getName());
+        tracer.registerProperties(group);
+        PropertyGroup<RProperty> latency = group.getSubGroups().stream()
+                .filter(g -> g.getName().equals("latency")).findAny().orElseThrow();
+        RProperty afterAll = latency.getProperties().stream()
+                .filter(p -> p.getName().equals("after_all")).findAny().orElseThrow();
+        double[] first = afterAll.getDoubleArray();
+        m.trigger("T");
+        double[] second = afterAll.getDoubleArray();
+        assertAll(
+                () -> assertThat(second, is(not(sameInstance(first)))),
+                () -> assertThat(sumOf(first), is(0.0)),
+                () -> assertThat(sumOf(second), is(1.0))
+        );
+    }
+
+    @Test
+    void registerProperties_polled() {
+        FSM<String, String> m = newFSM();
+        FSMTracer<String, String> tracer = new FSMTracer<>("t", m, 4, 100);
+        m.setTracer(tracer);
+        PropertyGroup<RProperty> group = new DefaultPropertyGroup<>(tracer.getName());
+        tracer.registerProperties(group);
+        List<Map<List<String>, Value>> polls = new ArrayList<>();
+        // The constant bucket bounds are polled once, rather than rescheduled in the past forever.
+        new PropertyPoller(polls::add).addProperties(group);
+        List<Value> bounds = new ArrayList<>();
+        for (Map<List<String>, Value> poll : polls) {
+            if (poll.containsKey(List.of("t", "bucket_lower_bounds_us"))) {
+                bounds.add(poll.get(List.of("t", "bucket_lower_bounds_us")));
+            }
+        }
+        assertThat(bounds, hasSize(1));
+        assertThat(bounds.get(0).getDoubleArray().length, is(FSMTracer.NUM_BUCKETS));
+    }
+
+    private static FSM<String, String> newLoggingFSM(List<String> log) {
+        return FSM.builder("A", "B", "B/C")
+                .beforeAll(() -> log.add("beforeAll"))
+                .afterAll(() -> log.add("afterAll"))
+                .onEnter("B", () -> log.add("enter B"))
+                .onEnter("B/C", () -> log.add("enter B/C"))
+                .onExit("A", () -> log.add("exit A"))
+                .onExit("B", () -> log.add("exit B"))
+                .onExit("B/C", () -> log.add("exit B/C"))
+                .transition("T", "A", "B/C").before(() -> log.add("before T")).after(() -> log.add("after T")).build()
+                .transition("ABORT", "A", "B").before(e -> {
+                    log.add("before ABORT");
+                    return false;
+                }).build()
+                .internalTransition("INTERNAL", "B/C").after(() -> log.add("after INTERNAL")).build()
+                .build("A");
+    }
+
+    @Test
+    void tracing_doesNotChangeCallbacks() {
+        List<String> untraced = new ArrayList<>();
+        List<String> traced = new ArrayList<>();
+        FSM<String, String> m1 = newLoggingFSM(untraced);
+        FSM<String, String> m2 = newLoggingFSM(traced);
+        m2.setTracer(new FSMTracer<>("t", m2, 8, 100));
+        for (FSM<String, String> m : List.of(m1, m2)) {
+            assertThat(m.trigger("ABORT"), is(false));
+            assertThat(m.trigger("T"), is(true));
+            assertThat(m.trigger("INTERNAL"), is(true));
+            m.forceTo("A");
+        }
+        assertThat(traced, is(untraced));
+        assertThat(untraced, contains(
+                "beforeAll", "before ABORT",
+                "beforeAll", "before T", "exit A", "enter B", "enter B/C", "after T", "afterAll",
+                "beforeAll", "after INTERNAL", "afterAll",
+                "beforeAll", "exit B/C", "exit B", "afterAll"
+        ));
+        assertThat(m2.getTracer().size(), is(4));
+    }
+
+    private static long sum(long[] histogram) {
+        long sum = 0;
+        for (long count : histogram) {
+            sum += count;
+        }
+        return sum;
+    }
+
+    private static double sumOf(double[] histogram) {
+        double sum = 0;
+        for (double count : histogram) {
+            sum += count;
+        }
+        return sum;
+    }
+}
@@ -2,10 +2,14 @@ package frc.team7170.lib.math;
 
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 class ArrayMatrixTest {
 
@@ -21,6 +25,30 @@ class ArrayMatrixTest {
         });
     }
 
+    private Matrix constructRandomMatrix(int nRows, int nCols) {
+        Matrix mat = new ArrayMatrix(nRows, nCols);
+        mat.mutateRowWise((r, c, value) -> rand());
+        return mat;
+    }
+
+    private static double[][] naiveMultiply(double[][] a, double[][] b) {
+        double[][] result = new double[a.length][b[0].length];
+        for (int i = 0; i < a.length; ++i) {
+            for (int j = 0; j < b[0].length; ++j) {
+                for (int k = 0; k < b.length; ++k) {
+                    result[i][j] += a[i][k] * b[k][j];
+                }
+            }
+        }
+        return result;
+    }
+
+    private static void assertElementsClose(Matrix actual, double[][] expected) {
+        assertThat(actual.nRows(), is(expected.length));
+        assertThat(actual.nCols(), is(expected[0].length));
+        actual.visitRowWise((r, c, value) -> assertThat(value, closeTo(expected[r][c], EPSILON)));
+    }
+
     private double rand() {
         return random.nextDouble() * 10.0;
     }
@@ -87,6 +115,109 @@ class ArrayMatrixTest {
         assertThat(mat1.multiply(mat2).get(idx[0], idx[1]), closeTo(expected, EPSILON));
     }
 
+    @Test
+    void multiply_nonSquare() {
+        Matrix mat1 = constructRandomMatrix(2, 5);
+        Matrix mat2 = constructRandomMatrix(5, 3);
+        assertElementsClose(mat1.multiply(mat2), naiveMultiply(mat1.toArray(), mat2.toArray()));
+    }
+
+    @Test
+    void multiply_blocked() {
+        // Larger than the block size in every dimension and not a multiple of it.
+        Matrix mat1 = constructRandomMatrix(150, 70);
+        Matrix mat2 = constructRandomMatrix(70, 130);
+        assertElementsClose(mat1.multiply(mat2), naiveMultiply(mat1.toArray(), mat2.toArray()));
+    }
+
+    @Test
+    void multiply_view() {
+        Matrix mat1 = constructRandomMatrix(4, 4);
+        Matrix mat2 = constructRandomMatrix(3, 2);
+        Matrix view = mat1.view(1, 1, 4, 4);
+        assertElementsClose(view.multiply(mat2), naiveMultiply(view.toArray(), mat2.toArray()));
+        assertElementsClose(mat2.transpose().multiply(view), naiveMultiply(mat2.transpose().toArray(), view.toArray()));
+    }
+
+    /**
+     * A strided view that fails if an operation falls back to element-by-element access instead of its strided path.
+     */
+    private static final class NoElementAccessMatrixView extends StridedMatrixView {
+
+        NoElementAccessMatrixView(double[] array, int offset, int rowStride, int colStride, int nRows, int nCols) {
+            super(array, offset, rowStride, colStride, nRows, nCols);
+        }
+
+        @Override
+        public double get(int row, int col) {
+            throw new AssertionError("element-by-element path taken");
+        }
+
+        @Override
+        public void set(int row, int col, double value) {
+            throw new AssertionError("element-by-element path taken");
+        }
+    }
+
+    private static final class NoElementAccessVectorView extends StridedVectorView {
+
+        NoElementAccessVectorView(double[] array, int offset, int stride, int length) {
+            super(array, offset, stride, length);
+        }
+
+        @Override
+        public double get(int idx) {
+            throw new AssertionError("element-by-element path taken");
+        }
+
+        @Override
+        public void set(int idx, double value) {
+            throw new AssertionError("element-by-element path taken");
+        }
+    }
+
+    @Test
+    void view_takesStridedPath() {
+        double[] data = ((ArrayMatrix) constructRandomMatrix(5, 5)).denseData();
+        // The block from (1, 1) to (4, 4), and the transpose of the block from (0, 2) to (3, 5).
+        Matrix block = new NoElementAccessMatrixView(data, 6, 5, 1, 3, 3);
+        Matrix transposed = new NoElementAccessMatrixView(data, 2, 1, 5, 3, 3);
+        double[][] a = block.toArray();
+        double[][] b = transposed.toArray();
+        Matrix dense = constructRandomMatrix(3, 3);
+
+        double[][] sum = new double[3][3];
+        double[][] difference = new double[3][3];
+        for (int r = 0; r < 3; ++r) {
+            for (int c = 0; c < 3; ++c) {
+                sum[r][c] = a[r][c] + b[r][c];
+                difference[r][c] = a[r][c] - dense.get(r, c);
+            }
+        }
+        assertElementsClose(block.add(transposed), sum);
+        assertElementsClose(block.subtract(dense), difference);
+        assertElementsClose(block.multiply(transposed), naiveMultiply(a, b));
+        assertElementsClose(dense.multiply(block), naiveMultiply(dense.toArray(), a));
+
+        // The destination can be a view too, here of a separate array.
+        Matrix dest = new NoElementAccessMatrixView(new double[20], 3, 6, 2, 3, 3);
+        block.multiplyInto(transposed, dest);
+        assertElementsClose(dest, naiveMultiply(a, b));
+        block.addInto(transposed, dest);
+        assertElementsClose(dest, sum);
+
+        // Every other element of an array, and a column of the backing matrix.
+        double[] vectorData = {1.0, 0.0, 2.0, 0.0, 3.0};
+        Vector vector = new NoElementAccessVectorView(vectorData, 0, 2, 3);
+        Vector vectorDest = new NoElementAccessVectorView(new double[15], 2, 5, 3);
+        block.multiplyInto(vector, vectorDest);
+        double[] expected = new double[3];
+        for (int r = 0; r < 3; ++r) {
+            expected[r] = a[r][0] * 1.0 + a[r][1] * 2.0 + a[r][2] * 3.0;
+        }
+        assertThat(vectorDest.toArray(), is(expected));
+    }
+
     @Test
     void multiply1() {
         Matrix mat1 = constructRandomMatrix();
@@ -131,6 +262,181 @@ class ArrayMatrixTest {
         assertThat(mat1.transpose().get(idx[0], idx[1]), closeTo(expected, EPSILON));
     }
 
+    @Test
+    void transpose_nonSquare() {
+        Matrix mat1 = constructRandomMatrix(70, 3);
+        Matrix transpose = mat1.transpose();
+        assertThat(transpose.nRows(), is(3));
+        assertThat(transpose.nCols(), is(70));
+        mat1.visitRowWise((r, c, value) -> assertThat(transpose.get(c, r), is(value)));
+    }
+
+    @Test
+    void addInPlace() {
+        Matrix mat1 = constructRandomMatrix(4, 3);
+        Matrix mat2 = constructRandomMatrix(4, 3);
+        Matrix expected = mat1.add(mat2);
+        assertThat(mat1.addInPlace(mat2), is(sameInstance(mat1)));
+        assertElementsClose(mat1, expected.toArray());
+    }
+
+    @Test
+    void addInPlace_view() {
+        Matrix mat1 = constructRandomMatrix(4, 4);
+        Matrix mat2 = constructRandomMatrix(2, 2);
+        Matrix view = mat1.view(1, 1, 3, 3);
+        double[][] expected = view.add(mat2).toArray();
+        view.addInPlace(mat2);
+        assertElementsClose(mat1.view(1, 1, 3, 3), expected);
+    }
+
+    @Test
+    void multiplyInPlace_scalar() {
+        Matrix mat1 = constructRandomMatrix(3, 5);
+        double[][] expected = mat1.multiply(2.5).toArray();
+        mat1.multiplyInPlace(2.5);
+        assertElementsClose(mat1, expected);
+    }
+
+    @Test
+    void multiplyInto() {
+        Matrix mat1 = constructRandomMatrix(5, 4);
+        Matrix mat2 = constructRandomMatrix(4, 6);
+        Matrix dest = constructRandomMatrix(5, 6);  // Stale contents must be overwritten.
+        assertThat(mat1.multiplyInto(mat2, dest), is(sameInstance(dest)));
+        assertElementsClose(dest, naiveMultiply(mat1.toArray(), mat2.toArray()));
+    }
+
+    @Test
+    void multiplyInto_viewDest() {
+        Matrix mat1 = constructRandomMatrix(2, 3);
+        Matrix mat2 = constructRandomMatrix(3, 2);
+        Matrix big = new ArrayMatrix(4, 4);
+        mat1.multiplyInto(mat2, big.view(2, 2, 4, 4));
+        assertElementsClose(big.view(2, 2, 4, 4), naiveMultiply(mat1.toArray(), mat2.toArray()));
+        assertThat(big.get(0, 0), is(0.0));
+    }
+
+    @Test
+    void multiplyInto_viewOfOperandDest() {
+        Matrix mat = constructRandomMatrix(4, 4);
+        Matrix operand = mat.view(0, 0, 3, 3);
+        Matrix other = constructRandomMatrix(3, 3);
+        double[][] expected = naiveMultiply(operand.toArray(), other.toArray());
+        // The destination overlaps the operand, though they are different objects.
+        operand.multiplyInto(other, mat.view(1, 1, 4, 4));
+        assertElementsClose(mat.view(1, 1, 4, 4), expected);
+
+        Matrix square = constructRandomMatrix(3, 3);
+        double[][] expectedSquare = naiveMultiply(square.toArray(), square.toArray());
+        square.view(0, 0, 3, 3).multiplyInto(square.view(0, 0, 3, 3), square);
+        assertElementsClose(square, expectedSquare);
+    }
+
+    @Test
+    void multiplyInto_vectorViewOfOperandDest() {
+        Matrix mat = constructRandomMatrix(3, 3);
+        Matrix view = mat.view(0, 0, 3, 3);
+        double[][] expected = mat.multiply(mat.copyCol(0)).toArray();
+        view.multiplyInto(mat.viewCol(0), mat.viewCol(0));
+        double[] actual = mat.copyCol(0).toArray();
+        for (int i = 0; i < actual.length; ++i) {
+            assertThat(actual[i], closeTo(expected[i][0], EPSILON));
+        }
+    }
+
+    @Test
+    void multiplyInto_aliased() {
+        Matrix mat1 = constructRandomMatrix(3, 3);
+        Matrix mat2 = constructRandomMatrix(3, 3);
+        assertThrows(IllegalArgumentException.class, () -> mat1.multiplyInto(mat2, mat1));
+        assertThrows(IllegalArgumentException.class, () -> mat1.multiplyInto(mat2, mat2));
+    }
+
+    @Test
+    void multiplyInto_badDest() {
+        Matrix mat1 = constructRandomMatrix(3, 3);
+        Matrix mat2 = constructRandomMatrix(3, 2);
+        assertThrows(IllegalArgumentException.class, () -> mat1.multiplyInto(mat2, new ArrayMatrix(3, 3)));
+    }
+
+    @Test
+    void multiplyInto_vector() {
+        Matrix mat1 = constructRandomMatrix(4, 3);
+        Vector vec = new ArrayVector(new double[] {rand(), rand(), rand()});
+        Vector dest = new ArrayVector(4);
+        assertThat(mat1.multiplyInto(vec, dest), is(sameInstance(dest)));
+        Matrix expected = mat1.multiply(vec);
+        dest.visit((i, value) -> assertThat(value, closeTo(expected.get(i, 0), EPSILON)));
+    }
+
+    @Test
+    void transposeInto() {
+        Matrix mat1 = constructRandomMatrix(70, 3);
+        Matrix dest = new ArrayMatrix(3, 70);
+        assertThat(mat1.transposeInto(dest), is(sameInstance(dest)));
+        mat1.visitRowWise((r, c, value) -> assertThat(dest.get(c, r), is(value)));
+        assertThrows(IllegalArgumentException.class, () -> mat1.transposeInto(new ArrayMatrix(70, 3)));
+    }
+
+    @Test
+    void copyInto() {
+        Matrix mat1 = constructRandomMatrix(3, 4);
+        Matrix dest = new ArrayMatrix(3, 4);
+        mat1.copyInto(dest);
+        assertElementsClose(dest, mat1.toArray());
+    }
+
+    @Test
+    void parallel_matchesSequential() {
+        // Large enough that every kernel splits across the pool.
+        Matrix mat1 = constructRandomMatrix(300, 260);
+        Matrix mat2 = constructRandomMatrix(260, 280);
+        Matrix mat3 = constructRandomMatrix(300, 260);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            ArrayMatrix.setParallelPool(pool);
+            Matrix product = mat1.multiply(mat2);
+            Matrix sum = mat1.add(mat3);
+            Matrix transpose = mat1.transpose();
+            double total = mat1.sum();
+            ArrayMatrix.setParallelPool(null);
+            assertThat(product.toArray(), is(mat1.multiply(mat2).toArray()));
+            assertThat(sum.toArray(), is(mat1.add(mat3).toArray()));
+            assertThat(transpose.toArray(), is(mat1.transpose().toArray()));
+            assertThat(total, closeTo(mat1.sum(), EPSILON));
+        } finally {
+            ArrayMatrix.setParallelPool(ForkJoinPool.commonPool());
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void sum() {
+        Matrix mat = new ArrayMatrix(new double[][] {{1, 2}, {3, 4}});
+        assertThat(mat.sum(), is(10.0));
+        assertThat(mat.view(0, 1, 2, 2).sum(), is(6.0));
+    }
+
+    @Test
+    void frobeniusNorm() {
+        Matrix mat = new ArrayMatrix(new double[][] {{1, 2}, {2, 4}});
+        assertThat(mat.frobeniusNorm(), closeTo(5.0, EPSILON));
+        assertThat(mat.view(0, 0, 2, 1).frobeniusNorm(), closeTo(Math.sqrt(5.0), EPSILON));
+    }
+
+    @Test
+    void ctor_raggedArray() {
+        assertThrows(IllegalArgumentException.class, () -> new ArrayMatrix(new double[][] {{1, 2}, {3}}));
+    }
+
+    @Test
+    void ctor_flatArray() {
+        Matrix mat1 = new ArrayMatrix(2, 3, new double[] {1, 2, 3, 4, 5, 6});
+        assertThat(mat1.get(1, 0), is(4.0));
+        assertThrows(IllegalArgumentException.class, () -> new ArrayMatrix(2, 3, new double[5]));
+    }
+
     @Test
     void set() {
         Matrix mat1 = constructRandomMatrix();
@@ -186,6 +492,55 @@ class ArrayMatrixTest {
         assertThat(mat1.get(idx[0], idx[1]), closeTo(val, EPSILON));
     }
 
+    @Test
+    void view_nested() {
+        Matrix mat1 = new ArrayMatrix(4, 5, new double[] {
+                0, 1, 2, 3, 4,
+                5, 6, 7, 8, 9,
+                10, 11, 12, 13, 14,
+                15, 16, 17, 18, 19
+        });
+        Matrix view = mat1.view(1, 1, 4, 5).view(1, 1, 3, 3);
+        assertThat(view.toArray(), is(new double[][] {
+                {12, 13},
+                {17, 18}
+        }));
+        assertThat(view.copy(0, 1, 2, 2).toArray(), is(new double[][] {{13}, {18}}));
+        assertThat(view.viewCol(1).toArray(), is(new double[] {13, 18}));
+        view.viewRow(1).set(0, -1.0);
+        assertThat(mat1.get(3, 2), is(-1.0));
+        view.multiplyInPlace(2.0);
+        assertThat(mat1.get(2, 3), is(26.0));
+        assertThat(mat1.get(2, 4), is(14.0));
+    }
+
+    @Test
+    void view_visitRowWise() {
+        Matrix mat1 = new ArrayMatrix(4, 4, new double[] {
+                0, 1, 2, 3,
+                4, 5, 6, 7,
+                8, 9, 10, 11,
+                12, 13, 14, 15
+        });
+        List<Double> visited = new ArrayList<>();
+        mat1.view(1, 1, 4, 4).visitRowWise((r, c, value) -> visited.add(value), 0, 1, 2, 2);
+        assertThat(visited, contains(6.0, 7.0, 9.0, 10.0));
+    }
+
+    @Test
+    void copy_fancyView() {
+        Matrix mat1 = new ArrayMatrix(3, 3, new double[] {
+                0, 1, 2,
+                3, 4, 5,
+                6, 7, 8
+        });
+        Matrix view = mat1.view(new int[] {2, 0}, new int[] {0, 1, 2});
+        assertThat(view.copy(0, 1, 2, 3).toArray(), is(new double[][] {
+                {7, 8},
+                {1, 2}
+        }));
+    }
+
     @Test
     void viewRow() {
         Matrix mat1 = constructRandomMatrix();
@@ -238,6 +593,18 @@ class ArrayMatrixTest {
 
     @Test
     void visitRowWise() {
+        Matrix mat1 = new ArrayMatrix(4, 4, new double[] {
+                0, 1, 2, 3,
+                4, 5, 6, 7,
+                8, 9, 10, 11,
+                12, 13, 14, 15
+        });
+        List<Double> visited = new ArrayList<>();
+        mat1.visitRowWise((r, c, value) -> {
+            assertThat(mat1.get(r, c), is(value));
+            visited.add(value);
+        }, 0, 1, 3, 2);
+        assertThat(visited, contains(1.0, 2.0, 3.0, 4.0, 5.0, 6.0, 7.0, 8.0, 9.0));
     }
 
     @Test
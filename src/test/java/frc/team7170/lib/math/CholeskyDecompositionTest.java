@@ -0,0 +1,79 @@
+package frc.team7170.lib.math;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static frc.team7170.lib.math.MatrixTestUtil.*;
+
+class CholeskyDecompositionTest {
+
+    private Random random = new Random(7170);
+
+    private Matrix constructRandomSPDMatrix(int n) {
+        Matrix mat = constructRandomMatrix(random, n, n);
+        // A^T A is positive semi-definite; adding to the diagonal makes it definite.
+        Matrix spd = mat.transpose().multiply(mat);
+        for (int i = 0; i < n; ++i) {
+            spd.set(i, i, spd.get(i, i) + 1.0);
+        }
+        return spd;
+    }
+
+    @Test
+    void factors() {
+        Matrix a = constructRandomSPDMatrix(6);
+        CholeskyDecomposition chol = new CholeskyDecomposition(a);
+        assertThat(chol.isPositiveDefinite(), is(true));
+        Matrix l = chol.getL();
+        assertElementsClose(l.multiply(l.transpose()), a);
+    }
+
+    @Test
+    void solve() {
+        Matrix a = constructRandomSPDMatrix(6);
+        Matrix x = new ArrayMatrix(6, 2);
+        x.mutateRowWise((r, c, value) -> random.nextDouble());
+        assertElementsClose(new CholeskyDecomposition(a).solve(a.multiply(x)), x);
+    }
+
+    @Test
+    void solveInto_inPlace() {
+        Matrix a = constructRandomSPDMatrix(4);
+        Matrix x = new ArrayMatrix(4, 1);
+        x.mutateRowWise((r, c, value) -> random.nextDouble());
+        Matrix b = a.multiply(x);
+        new CholeskyDecomposition(a).solveInto(b, b);
+        assertElementsClose(b, x);
+    }
+
+    @Test
+    void determinantAndInverse() {
+        Matrix a = constructRandomSPDMatrix(5);
+        CholeskyDecomposition chol = new CholeskyDecomposition(a);
+        assertThat(chol.determinant(), closeTo(a.determinant(), Math.abs(a.determinant()) * 1e-9));
+        assertElementsClose(chol.inverse(), a.inverse());
+    }
+
+    @Test
+    void notPositiveDefinite() {
+        Matrix a = new ArrayMatrix(new double[][] {
+                {1, 2},
+                {2, 1}
+        });
+        CholeskyDecomposition chol = new CholeskyDecomposition(a);
+        assertThat(chol.isPositiveDefinite(), is(false));
+        assertThrows(IllegalStateException.class, () -> chol.solve(new ArrayMatrix(2, 1)));
+    }
+
+    @Test
+    void upperTriangleIgnored() {
+        Matrix a = constructRandomSPDMatrix(3);
+        Matrix lower = a.copy();
+        lower.set(0, 2, 1234.0);
+        assertElementsClose(new CholeskyDecomposition(lower).getL(), new CholeskyDecomposition(a).getL());
+    }
+}
@@ -0,0 +1,140 @@
+package frc.team7170.lib.math;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static frc.team7170.lib.math.MatrixTestUtil.*;
+
+class LUDecompositionTest {
+
+    private Random random = new Random(7170);
+
+    @Test
+    void factors() {
+        Matrix a = constructRandomMatrix(random, 6, 6);
+        LUDecomposition lu = new LUDecomposition(a);
+        int[] pivot = lu.getPivot();
+        Matrix pa = a.copy(pivot, new int[] {0, 1, 2, 3, 4, 5});
+        assertElementsClose(lu.getL().multiply(lu.getU()), pa);
+    }
+
+    @Test
+    void determinant() {
+        Matrix a = new ArrayMatrix(new double[][] {
+                {2, -1, 0},
+                {-1, 2, -1},
+                {0, -1, 2}
+        });
+        assertThat(a.determinant(), closeTo(4.0, EPSILON));
+        // Swapping two rows flips the sign.
+        Matrix b = new ArrayMatrix(new double[][] {
+                {0, 1},
+                {1, 0}
+        });
+        assertThat(b.determinant(), closeTo(-1.0, EPSILON));
+    }
+
+    @Test
+    void solve() {
+        Matrix a = constructRandomMatrix(random, 8, 8);
+        Matrix x = constructRandomMatrix(random, 8, 3);
+        assertElementsClose(a.solve(a.multiply(x)), x);
+    }
+
+    @Test
+    void solve_vector() {
+        Matrix a = constructRandomMatrix(random, 5, 5);
+        Vector x = new ArrayVector(new double[] {1, -2, 3, -4, 5});
+        Vector b = new ArrayVector(5);
+        a.multiplyInto(x, b);
+        Vector solution = a.solve(b);
+        x.visit((i, value) -> assertThat(solution.get(i), closeTo(value, EPSILON)));
+    }
+
+    @Test
+    void solveInto_reused() {
+        LUDecomposition lu = new LUDecomposition(4);
+        Matrix dest = new ArrayMatrix(4, 2);
+        for (int trial = 0; trial < 3; ++trial) {
+            Matrix a = constructRandomMatrix(random, 4, 4);
+            Matrix x = constructRandomMatrix(random, 4, 2);
+            assertThat(lu.decompose(a).solveInto(a.multiply(x), dest), is(sameInstance(dest)));
+            assertElementsClose(dest, x);
+        }
+    }
+
+    @Test
+    void solveInto_view() {
+        Matrix a = constructRandomMatrix(random, 4, 4);
+        Matrix x = constructRandomMatrix(random, 4, 1);
+        Matrix big = new ArrayMatrix(4, 3);
+        new LUDecomposition(a).solveInto(a.multiply(x), big.view(0, 1, 4, 2));
+        assertElementsClose(big.view(0, 1, 4, 2), x);
+    }
+
+    @Test
+    void inverse() {
+        Matrix a = constructRandomMatrix(random, 7, 7);
+        assertElementsClose(a.multiply(a.inverse()), identity(7));
+        assertElementsClose(a.inverse().multiply(a), identity(7));
+    }
+
+    @Test
+    void singular() {
+        Matrix a = new ArrayMatrix(new double[][] {
+                {1, 2, 3},
+                {2, 4, 6},
+                {1, 0, 1}
+        });
+        LUDecomposition lu = new LUDecomposition(a);
+        assertThat(lu.isSingular(), is(true));
+        assertThat(lu.determinant(), closeTo(0.0, EPSILON));
+        assertThrows(IllegalStateException.class, lu::inverse);
+        assertThrows(IllegalStateException.class, () -> lu.solve(new ArrayMatrix(3, 1)));
+    }
+
+    @Test
+    void singular_upToRounding() {
+        // Rank 2, but the last pivot comes out as rounding error rather than exactly zero.
+        Matrix a = new ArrayMatrix(new double[][] {
+                {0.1, 0.2, 0.3},
+                {0.4, 0.5, 0.6},
+                {0.7, 0.8, 0.9}
+        });
+        LUDecomposition lu = new LUDecomposition(a);
+        assertThat(lu.isSingular(), is(true));
+        assertThrows(IllegalStateException.class, lu::inverse);
+    }
+
+    @Test
+    void nonsingular_smallScale() {
+        // The tolerance is relative, so a well-conditioned matrix of tiny elements is not singular.
+        Matrix a = identity(3);
+        a.mutateRowWise((r, c, value) -> value * 1e-200);
+        LUDecomposition lu = new LUDecomposition(a);
+        assertThat(lu.isSingular(), is(false));
+        assertElementsClose(lu.inverse().multiply(a), identity(3));
+    }
+
+    @Test
+    void notDecomposed() {
+        assertThrows(IllegalStateException.class, () -> new LUDecomposition(3).determinant());
+    }
+
+    @Test
+    void notSquare() {
+        assertThrows(IllegalArgumentException.class, () -> new LUDecomposition(constructRandomMatrix(random, 3, 2)));
+        assertThrows(IllegalArgumentException.class, () -> new LUDecomposition(3).decompose(identity(4)));
+    }
+
+    @Test
+    void solveInto_aliased() {
+        Matrix b = constructRandomMatrix(random, 3, 1);
+        LUDecomposition lu = new LUDecomposition(constructRandomMatrix(random, 3, 3));
+        assertThrows(IllegalArgumentException.class, () -> lu.solveInto(b, b));
+    }
+}
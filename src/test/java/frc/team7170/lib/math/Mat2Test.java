@@ -0,0 +1,42 @@
+package frc.team7170.lib.math;
+
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class Mat2Test {
+
+    private static final double EPSILON = 1e-9;
+
+    @Test
+    void multiply() {
+        Mat2 mat1 = new Mat2(1, 2, 3, 4);
+        Mat2 mat2 = new Mat2(-2, 5, 7, 0.5);
+        assertThat(mat1.multiply(mat2), is(Mat2.fromMatrix(mat1.toMatrix().multiply(mat2.toMatrix()))));
+        Vec2 vec = mat1.multiply(new Vec2(1, -1));
+        assertThat(vec, is(new Vec2(-1, -1)));
+    }
+
+    @Test
+    void inverse() {
+        Mat2 mat = new Mat2(4, 7, 2, 6);
+        Mat2 product = mat.multiply(mat.inverse());
+        assertThat(product.m00, closeTo(1.0, EPSILON));
+        assertThat(product.m01, closeTo(0.0, EPSILON));
+        assertThat(product.m10, closeTo(0.0, EPSILON));
+        assertThat(product.m11, closeTo(1.0, EPSILON));
+        assertThrows(IllegalStateException.class, () -> new Mat2(1, 2, 2, 4).inverse());
+    }
+
+    @Test
+    void rotation() {
+        Mat2 rot = Mat2.rotation(Math.cos(Math.PI / 2), Math.sin(Math.PI / 2));
+        Vec2 rotated = rot.multiply(new Vec2(1, 0));
+        assertThat(rotated.x, closeTo(0.0, EPSILON));
+        assertThat(rotated.y, closeTo(1.0, EPSILON));
+        Vec2 viaVec = new Vec2(1, 0).rotate(Math.cos(Math.PI / 2), Math.sin(Math.PI / 2));
+        assertThat(viaVec, is(rotated));
+    }
+}
@@ -0,0 +1,105 @@
+package frc.team7170.lib.math;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class Mat3Test {
+
+    private static final double EPSILON = 1e-9;
+
+    private Random random = new Random(7170);
+
+    private Mat3 constructRandomMat3() {
+        return new Mat3(
+                rand(), rand(), rand(),
+                rand(), rand(), rand(),
+                rand(), rand(), rand()
+        );
+    }
+
+    private double rand() {
+        return random.nextDouble() * 10.0 - 5.0;
+    }
+
+    private static void assertElementsClose(Mat3 actual, Matrix expected) {
+        Matrix actualMatrix = actual.toMatrix();
+        expected.visitRowWise((r, c, value) -> assertThat(actualMatrix.get(r, c), closeTo(value, EPSILON)));
+    }
+
+    @Test
+    void fromMatrix_toMatrix() {
+        Mat3 mat = constructRandomMat3();
+        assertThat(Mat3.fromMatrix(mat.toMatrix()), is(mat));
+        assertThrows(IllegalArgumentException.class, () -> Mat3.fromMatrix(new ArrayMatrix(3, 2)));
+    }
+
+    @Test
+    void multiply() {
+        Mat3 mat1 = constructRandomMat3();
+        Mat3 mat2 = constructRandomMat3();
+        assertElementsClose(mat1.multiply(mat2), mat1.toMatrix().multiply(mat2.toMatrix()));
+    }
+
+    @Test
+    void multiplyAffine() {
+        Mat3 mat = constructRandomMat3();
+        Matrix expected = mat.multiply(Mat3.affine(1, 2, 3, 4, 5, 6)).toMatrix();
+        assertElementsClose(mat.multiplyAffine(1, 2, 3, 4, 5, 6), expected);
+    }
+
+    @Test
+    void transpose() {
+        Mat3 mat = constructRandomMat3();
+        assertElementsClose(mat.transpose(), mat.toMatrix().transpose());
+    }
+
+    @Test
+    void determinant() {
+        Mat3 mat = constructRandomMat3();
+        assertThat(mat.determinant(), closeTo(mat.toMatrix().determinant(), EPSILON));
+    }
+
+    @Test
+    void inverse() {
+        Mat3 mat = constructRandomMat3();
+        assertElementsClose(mat.inverse(), mat.toMatrix().inverse());
+        assertElementsClose(mat.multiply(mat.inverse()), Mat3.IDENTITY.toMatrix());
+    }
+
+    @Test
+    void inverse_singular() {
+        Mat3 mat = new Mat3(
+                1, 2, 3,
+                2, 4, 6,
+                0, 0, 1
+        );
+        assertThrows(IllegalStateException.class, mat::inverse);
+    }
+
+    @Test
+    void transformPoint() {
+        // Rotate by 90 degrees then translate by (1, 2).
+        Mat3 mat = Mat3.affine(0, -1, 1, 1, 0, 2);
+        Vec2 point = mat.transformPoint(new Vec2(3, 4));
+        assertThat(point.x, closeTo(-3.0, EPSILON));
+        assertThat(point.y, closeTo(5.0, EPSILON));
+        Vec2 direction = mat.transformDirection(new Vec2(3, 4));
+        assertThat(direction.x, closeTo(-4.0, EPSILON));
+        assertThat(direction.y, closeTo(3.0, EPSILON));
+    }
+
+    @Test
+    void transformPoint_projective() {
+        Mat3 mat = new Mat3(
+                1, 0, 0,
+                0, 1, 0,
+                0, 0, 2
+        );
+        assertThat(mat.transformPoint(new Vec2(4, 6)), is(new Vec2(2, 3)));
+    }
+}
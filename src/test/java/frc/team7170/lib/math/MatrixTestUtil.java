@@ -0,0 +1,58 @@
+package frc.team7170.lib.math;
+
+import java.util.Random;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * Helpers shared by the {@link Matrix Matrix} implementation and decomposition tests.
+ */
+final class MatrixTestUtil {
+
+    static final double EPSILON = 1e-9;
+
+    private MatrixTestUtil() {}
+
+    /**
+     * Construct a dense matrix with elements uniformly distributed in [-5, 5).
+     */
+    static Matrix constructRandomMatrix(Random random, int nRows, int nCols) {
+        Matrix mat = new ArrayMatrix(nRows, nCols);
+        mat.mutateRowWise((r, c, value) -> random.nextDouble() * 10.0 - 5.0);
+        return mat;
+    }
+
+    /**
+     * Construct a dense matrix with about the given fraction of its elements non-zero, and those uniformly distributed
+     * in [-5, 5).
+     */
+    static Matrix constructRandomMatrix(Random random, int nRows, int nCols, double density) {
+        Matrix mat = new ArrayMatrix(nRows, nCols);
+        mat.mutateRowWise((r, c, value) -> random.nextDouble() < density ? random.nextDouble() * 10.0 - 5.0 : 0.0);
+        return mat;
+    }
+
+    static Matrix identity(int n) {
+        Matrix mat = new ArrayMatrix(n, n);
+        for (int i = 0; i < n; ++i) {
+            mat.set(i, i, 1.0);
+        }
+        return mat;
+    }
+
+    /**
+     * Assert that the given matrices have the same shape and that each element of one is within {@link #EPSILON} of
+     * the corresponding element of the other. Elements are compared with {@link Matrix#get(int, int) get}, so this
+     * works for any {@code Matrix} implementation.
+     */
+    static void assertElementsClose(Matrix actual, Matrix expected) {
+        assertThat(actual.nRows(), is(expected.nRows()));
+        assertThat(actual.nCols(), is(expected.nCols()));
+        for (int r = 0; r < expected.nRows(); ++r) {
+            for (int c = 0; c < expected.nCols(); ++c) {
+                assertThat(actual.get(r, c), closeTo(expected.get(r, c), EPSILON));
+            }
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package frc.team7170.lib.math;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static frc.team7170.lib.math.MatrixTestUtil.*;
+
+class QRDecompositionTest {
+
+    private Random random = new Random(7170);
+
+    @Test
+    void factors() {
+        Matrix a = constructRandomMatrix(random, 7, 4);
+        QRDecomposition qr = new QRDecomposition(a);
+        Matrix q = qr.getQ();
+        Matrix r = qr.getR();
+        assertElementsClose(q.multiply(r), a);
+        // Q has orthonormal columns.
+        Matrix identity = new ArrayMatrix(4, 4);
+        for (int i = 0; i < 4; ++i) {
+            identity.set(i, i, 1.0);
+        }
+        assertElementsClose(q.transpose().multiply(q), identity);
+        // R is upper triangular.
+        r.visitRowWise((row, col, value) -> {
+            if (row > col) {
+                assertThat(value, is(0.0));
+            }
+        });
+    }
+
+    @Test
+    void solve_square() {
+        Matrix a = constructRandomMatrix(random, 5, 5);
+        Matrix x = constructRandomMatrix(random, 5, 2);
+        assertElementsClose(new QRDecomposition(a).solve(a.multiply(x)), x);
+    }
+
+    @Test
+    void solve_leastSquares() {
+        // Fit y = 2 + 3t to noisy samples; the residual of the least-squares fit must be orthogonal to the columns.
+        int m = 20;
+        Matrix a = new ArrayMatrix(m, 2);
+        Vector b = new ArrayVector(m);
+        for (int i = 0; i < m; ++i) {
+            double t = i * 0.1;
+            a.set(i, 0, 1.0);
+            a.set(i, 1, t);
+            b.set(i, 2.0 + 3.0 * t + (random.nextDouble() - 0.5) * 0.01);
+        }
+        Vector x = a.solve(b);
+        assertThat(x.get(0), closeTo(2.0, 0.01));
+        assertThat(x.get(1), closeTo(3.0, 0.01));
+        Vector residual = new ArrayVector(m);
+        a.multiplyInto(x, residual).subtractInPlace(b);
+        assertThat(a.viewCol(0).dot(residual), closeTo(0.0, EPSILON));
+        assertThat(a.viewCol(1).dot(residual), closeTo(0.0, EPSILON));
+    }
+
+    @Test
+    void solve_exactOverdetermined() {
+        Matrix a = constructRandomMatrix(random, 9, 3);
+        Matrix x = constructRandomMatrix(random, 3, 2);
+        assertElementsClose(a.solve(a.multiply(x)), x);
+    }
+
+    @Test
+    void rankDeficient() {
+        Matrix a = new ArrayMatrix(new double[][] {
+                {1, 2},
+                {2, 4},
+                {3, 6}
+        });
+        QRDecomposition qr = new QRDecomposition(a);
+        assertThat(qr.isFullRank(), is(false));
+        assertThrows(IllegalStateException.class, () -> qr.solve(new ArrayMatrix(3, 1)));
+    }
+
+    @Test
+    void underdetermined() {
+        assertThrows(IllegalArgumentException.class, () -> new QRDecomposition(2, 3));
+    }
+}
@@ -0,0 +1,277 @@
+package frc.team7170.lib.math;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static frc.team7170.lib.math.MatrixTestUtil.*;
+
+class SparseMatrixTest {
+
+    private Random random = new Random(7170);
+
+    @Test
+    void builder() {
+        SparseMatrix mat = new SparseMatrix.Builder(3, 4)
+                .add(2, 3, 1.0)
+                .add(0, 1, 2.0)
+                .add(2, 0, 3.0)
+                .add(0, 1, 4.0)
+                .add(1, 2, 5.0)
+                .add(1, 2, -5.0)
+                .build();
+        assertThat(mat.nonZeros(), is(3));
+        assertThat(mat.toArray(), is(new double[][] {
+                {0, 6, 0, 0},
+                {0, 0, 0, 0},
+                {3, 0, 0, 1}
+        }));
+        assertThrows(IndexOutOfBoundsException.class, () -> new SparseMatrix.Builder(2, 2).add(2, 0, 1.0));
+    }
+
+    @Test
+    void denseConversion() {
+        Matrix dense = constructRandomMatrix(random, 7, 5, 0.3);
+        SparseMatrix sparse = SparseMatrix.fromDense(dense);
+        assertThat(sparse.toDense().toArray(), is(dense.toArray()));
+        assertThat(sparse.toArray(), is(dense.toArray()));
+    }
+
+    @Test
+    void getSet() {
+        SparseMatrix mat = new SparseMatrix(3, 3);
+        assertThat(mat.get(1, 1), is(0.0));
+        mat.set(1, 1, 2.0);
+        mat.set(1, 0, 1.0);
+        mat.set(0, 2, 3.0);
+        mat.set(-1, -1, 4.0);
+        assertThat(mat.nonZeros(), is(4));
+        assertThat(mat.toArray(), is(new double[][] {
+                {0, 0, 3},
+                {1, 2, 0},
+                {0, 0, 4}
+        }));
+        mat.set(1, 1, 5.0);
+        assertThat(mat.get(1, 1), is(5.0));
+        assertThat(mat.nonZeros(), is(4));
+        mat.set(1, 0, 0.0);
+        assertThat(mat.nonZeros(), is(3));
+        assertThat(mat.toArray(), is(new double[][] {
+                {0, 0, 3},
+                {0, 5, 0},
+                {0, 0, 4}
+        }));
+        assertThrows(IndexOutOfBoundsException.class, () -> mat.get(3, 0));
+    }
+
+    @Test
+    void multiplyVector() {
+        Matrix dense = constructRandomMatrix(random, 6, 8, 0.3);
+        SparseMatrix sparse = SparseMatrix.fromDense(dense);
+        Vector v = new ArrayVector(new double[] {1, -2, 3, -4, 5, -6, 7, -8});
+        assertElementsClose(sparse.multiply(v), dense.multiply(v));
+        Vector dest = new ArrayVector(6);
+        sparse.multiplyInto(v, dest);
+        for (int i = 0; i < 6; ++i) {
+            assertThat(dest.get(i), closeTo(dense.multiply(v).get(i, 0), EPSILON));
+        }
+    }
+
+    @Test
+    void multiplyMatrix() {
+        Matrix a = constructRandomMatrix(random, 5, 7, 0.3);
+        Matrix b = constructRandomMatrix(random, 7, 4, 0.3);
+        Matrix product = SparseMatrix.fromDense(a).multiply(SparseMatrix.fromDense(b));
+        assertThat(product, instanceOf(SparseMatrix.class));
+        assertElementsClose(product, a.multiply(b));
+        assertElementsClose(SparseMatrix.fromDense(a).multiply(b), a.multiply(b));
+    }
+
+    @Test
+    void addSubtract() {
+        Matrix a = constructRandomMatrix(random, 6, 6, 0.3);
+        Matrix b = constructRandomMatrix(random, 6, 6, 0.3);
+        SparseMatrix sa = SparseMatrix.fromDense(a);
+        SparseMatrix sb = SparseMatrix.fromDense(b);
+        assertThat(sa.add(sb), instanceOf(SparseMatrix.class));
+        assertElementsClose(sa.add(sb), a.add(b));
+        assertElementsClose(sa.subtract(sb), a.subtract(b));
+        assertElementsClose(sa.add(b), a.add(b));
+        assertElementsClose(sa.subtract(b), a.subtract(b));
+        assertThat(((SparseMatrix) sa.subtract(sa)).nonZeros(), is(0));
+        assertElementsClose(sa.add(2.0), a.add(2.0));
+    }
+
+    @Test
+    void transpose() {
+        Matrix dense = constructRandomMatrix(random, 5, 8, 0.3);
+        Matrix transpose = SparseMatrix.fromDense(dense).transpose();
+        assertThat(transpose, instanceOf(SparseMatrix.class));
+        assertThat(transpose.toArray(), is(dense.transpose().toArray()));
+    }
+
+    @Test
+    void constructor_negativeDimensions() {
+        assertThrows(IllegalArgumentException.class, () -> new SparseMatrix(-1, 2));
+        assertThrows(IllegalArgumentException.class, () -> new SparseMatrix(2, -1));
+    }
+
+    @Test
+    void visitNonZeros() {
+        SparseMatrix mat = new SparseMatrix.Builder(3, 3)
+                .add(0, 2, 1.0)
+                .add(1, 0, 2.0)
+                .add(2, 1, 3.0)
+                .build();
+        List<Double> visited = new ArrayList<>();
+        mat.visitNonZeros((r, c, value) -> visited.add(value));
+        assertThat(visited, contains(1.0, 2.0, 3.0));
+    }
+
+    @Test
+    void visitIncludesZeros() {
+        SparseMatrix mat = new SparseMatrix.Builder(3, 3)
+                .add(0, 2, 1.0)
+                .add(1, 0, 2.0)
+                .add(2, 1, 3.0)
+                .build();
+        List<Double> visited = new ArrayList<>();
+        mat.visitRowWise((r, c, value) -> visited.add(value));
+        assertThat(visited, contains(0.0, 0.0, 1.0, 2.0, 0.0, 0.0, 0.0, 3.0, 0.0));
+        visited.clear();
+        mat.visitColWise((r, c, value) -> visited.add(value));
+        assertThat(visited, contains(0.0, 2.0, 0.0, 0.0, 0.0, 3.0, 1.0, 0.0, 0.0));
+        // The range is row-major from (0, 1) inclusive to (1, 1) exclusive.
+        visited.clear();
+        mat.visitRowWise((r, c, value) -> visited.add(value), 0, 1, 2, 1);
+        assertThat(visited, contains(0.0, 1.0, 2.0));
+        // Visiting agrees with a dense matrix over arbitrary spans.
+        Matrix dense = constructRandomMatrix(random, 4, 5, 0.3);
+        SparseMatrix sparse = SparseMatrix.fromDense(dense);
+        List<Double> expected = new ArrayList<>();
+        dense.visitRowWise((r, c, value) -> expected.add(value), 1, 3, 3, 2);
+        visited.clear();
+        sparse.visitRowWise((r, c, value) -> visited.add(value), 1, 3, 3, 2);
+        assertThat(visited, is(expected));
+    }
+
+    @Test
+    void mutateNonZeros_removesZeros() {
+        SparseMatrix mat = new SparseMatrix.Builder(2, 2)
+                .add(0, 0, 1.0)
+                .add(1, 1, 2.0)
+                .build();
+        List<Double> mutated = new ArrayList<>();
+        mat.mutateNonZeros((r, c, value) -> {
+            mutated.add(value);
+            return value == 1.0 ? 0.0 : value * 2.0;
+        });
+        assertThat(mutated, contains(1.0, 2.0));
+        assertThat(mat.nonZeros(), is(1));
+        assertThat(mat.toArray(), is(new double[][] {
+                {0, 0},
+                {0, 4}
+        }));
+    }
+
+    @Test
+    void mutate_includesZeros() {
+        SparseMatrix mat = new SparseMatrix.Builder(2, 2)
+                .add(0, 0, 1.0)
+                .add(1, 1, 2.0)
+                .build();
+        mat.mutateRowWise((r, c, value) -> value == 1.0 ? 0.0 : value + 1.0);
+        assertThat(mat.nonZeros(), is(3));
+        assertThat(mat.toArray(), is(new double[][] {
+                {0, 1},
+                {1, 3}
+        }));
+        List<Double> mutated = new ArrayList<>();
+        mat.mutateColWise((r, c, value) -> {
+            mutated.add(value);
+            return r == c ? 5.0 : 0.0;
+        });
+        assertThat(mutated, contains(0.0, 1.0, 1.0, 3.0));
+        assertThat(mat.nonZeros(), is(2));
+        assertThat(mat.toArray(), is(new double[][] {
+                {5, 0},
+                {0, 5}
+        }));
+    }
+
+    @Test
+    void multiply_nonFiniteScalar() {
+        Matrix dense = constructRandomMatrix(random, 3, 4, 0.4);
+        SparseMatrix sparse = SparseMatrix.fromDense(dense);
+        for (double value : new double[] {Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.NaN}) {
+            assertThat(sparse.multiply(value).toArray(), is(dense.multiply(value).toArray()));
+            Matrix expected = dense.multiply(value);
+            assertThat(sparse.copy().multiplyInPlace(value).toArray(), is(expected.toArray()));
+        }
+        assertThat(sparse.multiply(2.0), instanceOf(SparseMatrix.class));
+    }
+
+    @Test
+    void rows() {
+        Matrix dense = constructRandomMatrix(random, 4, 5, 0.4);
+        SparseMatrix sparse = SparseMatrix.fromDense(dense);
+        Vector row = new ArrayVector(new double[] {0, 1, 0, 2, 0});
+        sparse.setRow(1, row);
+        dense.setRow(1, row);
+        assertThat(sparse.toArray(), is(dense.toArray()));
+        Vector col = new ArrayVector(new double[] {3, 0, 0, 4});
+        sparse.setCol(2, col);
+        dense.setCol(2, col);
+        assertThat(sparse.toArray(), is(dense.toArray()));
+        assertThat(sparse.copyRow(1).toArray(), is(dense.copyRow(1).toArray()));
+        assertThat(sparse.copyCol(2).toArray(), is(dense.copyCol(2).toArray()));
+    }
+
+    @Test
+    void views() {
+        Matrix dense = constructRandomMatrix(random, 5, 5, 0.4);
+        SparseMatrix sparse = SparseMatrix.fromDense(dense);
+        assertThat(sparse.view(1, 1, 4, 3).toArray(), is(dense.copy(1, 1, 4, 3).toArray()));
+        assertThat(sparse.copy(1, 1, 4, 3).toArray(), is(dense.copy(1, 1, 4, 3).toArray()));
+        int[] rows = {4, 0, 2};
+        int[] cols = {1, 3};
+        assertThat(sparse.copy(rows, cols).toArray(), is(dense.copy(rows, cols).toArray()));
+        // Writes through a view reach the sparse matrix.
+        sparse.view(1, 1, 3, 3).set(0, 0, 9.0);
+        assertThat(sparse.get(1, 1), is(9.0));
+        sparse.viewRow(2).set(4, 8.0);
+        assertThat(sparse.get(2, 4), is(8.0));
+    }
+
+    @Test
+    void copyInto() {
+        Matrix dense = constructRandomMatrix(random, 4, 4, 0.4);
+        SparseMatrix sparse = SparseMatrix.fromDense(dense);
+        Matrix dest = new ArrayMatrix(4, 4).add(1.0);
+        sparse.copyInto(dest);
+        assertThat(dest.toArray(), is(dense.toArray()));
+        SparseMatrix sparseDest = new SparseMatrix(4, 4);
+        sparse.copyInto(sparseDest);
+        assertThat(sparseDest.toArray(), is(dense.toArray()));
+        assertThrows(IllegalArgumentException.class, () -> sparse.copyInto(new ArrayMatrix(3, 4)));
+    }
+
+    @Test
+    void solve() {
+        Matrix dense = constructRandomMatrix(random, 6, 6, 0.5);
+        for (int i = 0; i < 6; ++i) {
+            dense.set(i, i, 10.0);
+        }
+        SparseMatrix sparse = SparseMatrix.fromDense(dense);
+        Vector b = new ArrayVector(new double[] {1, 2, 3, 4, 5, 6});
+        Vector x = sparse.solve(b);
+        assertElementsClose(sparse.multiply(x), new ArrayMatrix(new double[][] {{1}, {2}, {3}, {4}, {5}, {6}}));
+        assertThat(sparse.sum(), closeTo(dense.sum(), EPSILON));
+        assertThat(sparse.frobeniusNorm(), closeTo(dense.frobeniusNorm(), EPSILON));
+    }
+}
@@ -0,0 +1,209 @@
+package frc.team7170.lib.networktables;
+
+import edu.wpi.first.networktables.EntryNotification;
+import frc.team7170.lib.Named;
+import frc.team7170.lib.networktables.transport.LocalTransport;
+import frc.team7170.lib.networktables.transport.NTEntry;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class CommunicationTest {
+
+    private static final class TestCommunicator implements Named {
+
+        private final String name;
+        private int count = 0;
+
+        @CommField(pollRateMs = TransmitFrequency.VOLATILE, receive = false)
+        private double level = 0.0;
+
+        @CommField(transmit = false)
+        private float gain = 0.0f;
+
+        private long received = 0;
+        private boolean enabled = false;
+        private String text = null;
+        private EntryNotification notification = null;
+
+        private TestCommunicator(String name) {
+            this.name = name;
+        }
+
+        @Transmit(pollRateMs = TransmitFrequency.VOLATILE)
+        private int count() {
+            return count;
+        }
+
+        @Transmit(pollRateMs = TransmitFrequency.VOLATILE)
+        private boolean positive() {
+            return count > 0;
+        }
+
+        @Transmit(pollRateMs = TransmitFrequency.STATIC)
+        private String label() {
+            return "label";
+        }
+
+        @Receive
+        private void receive(long value) {
+            received = value;
+        }
+
+        @Receive
+        private void enable(boolean value) {
+            enabled = value;
+        }
+
+        @Receive
+        private void text(String value) {
+            text = value;
+        }
+
+        @Receive
+        private void onNotification(EntryNotification value) {
+            notification = value;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+    }
+
+    private static final class StaticCommunicator {
+
+        private static short value = 0;
+
+        @Transmit(pollRateMs = TransmitFrequency.VOLATILE)
+        private static double twice() {
+            return 2.0 * value;
+        }
+
+        @Receive
+        private static void value(short newValue) {
+            value = newValue;
+        }
+    }
+
+    private static final class MixedCommunicator implements Named {
+
+        @Transmit
+        private static double value() {
+            return 0.0;
+        }
+
+        @Override
+        public String getName() {
+            return "mixed";
+        }
+    }
+
+    /**
+     * Set the given entry twice, so that the second value is delivered to listeners of updates.
+     */
+    private static void update(NTEntry entry, Object first, Object second) {
+        entry.setValue(first);
+        entry.setValue(second);
+    }
+
+    @Test
+    void transmit() {
+        LocalTransport transport = new LocalTransport();
+        Communication.getInstance().setTransport(transport);
+        TestCommunicator comm = new TestCommunicator("transmit");
+        Communication.getInstance().registerCommunicator(comm, "/communicationTest");
+
+        // Static transmitters are invoked once, on registration.
+        assertThat(transport.getEntry("/communicationTest/transmit_label").getString(null), is("label"));
+
+        comm.count = 3;
+        comm.level = 1.5;
+        Communication.getInstance().getTransmitter("/communicationTest/transmit_count").invoke();
+        Communication.getInstance().getTransmitter("/communicationTest/transmit_positive").invoke();
+        Communication.getInstance().getTransmitter("/communicationTest/transmit_level").invoke();
+        assertThat(transport.getEntry("/communicationTest/transmit_count").getDouble(0.0), is(3.0));
+        assertThat(transport.getEntry("/communicationTest/transmit_positive").getBoolean(false), is(true));
+        assertThat(transport.getEntry("/communicationTest/transmit_level").getDouble(0.0), is(1.5));
+        assertThat(Communication.getInstance().getTransmitter("/communicationTest/transmit_gain"), is(nullValue()));
+    }
+
+    @Test
+    void receive() {
+        LocalTransport transport = new LocalTransport();
+        Communication.getInstance().setTransport(transport);
+        TestCommunicator comm = new TestCommunicator("receive");
+        Communication.getInstance().registerCommunicator(comm, "/communicationTest");
+
+        // Numbers are narrowed to the member's type as a cast would.
+        update(transport.getEntry("/communicationTest/receive_receive"), 0.0, 7.9);
+        assertThat(comm.received, is(7L));
+        update(transport.getEntry("/communicationTest/receive_gain"), 0.0, 0.1);
+        assertThat(comm.gain, is(0.1f));
+        update(transport.getEntry("/communicationTest/receive_enable"), false, true);
+        assertThat(comm.enabled, is(true));
+        update(transport.getEntry("/communicationTest/receive_text"), "", "hello");
+        assertThat(comm.text, is("hello"));
+        update(transport.getEntry("/communicationTest/receive_onNotification"), 1.0, 2.0);
+        assertThat(comm.notification.name, is("/communicationTest/receive_onNotification"));
+        assertThat(comm.notification.value.getDouble(), is(2.0));
+    }
+
+    @Test
+    void staticCommunicator() {
+        LocalTransport transport = new LocalTransport();
+        Communication.getInstance().setTransport(transport);
+        Communication.getInstance().registerStaticCommunicator(StaticCommunicator.class, "/communicationTest/static");
+
+        update(transport.getEntry("/communicationTest/static/value"), 0.0, 21.0);
+        assertThat(StaticCommunicator.value, is((short) 21));
+        Communication.getInstance().getTransmitter("/communicationTest/static/twice").invoke();
+        assertThat(transport.getEntry("/communicationTest/static/twice").getDouble(0.0), is(42.0));
+    }
+
+    @Test
+    void register_staticMemberOfInstance() {
+        Communication.getInstance().setTransport(new LocalTransport());
+        assertThrows(IllegalCommunicatorException.class,
+                () -> Communication.getInstance().registerCommunicator(new MixedCommunicator(), "/communicationTest"));
+    }
+
+    @Test
+    void transmit_doesNotAllocate() {
+        Communication.getInstance().setTransport(new RecordingTransport());
+        TestCommunicator comm = new TestCommunicator("allocation");
+        Communication.getInstance().registerCommunicator(comm, "/communicationTest");
+        Transmitter[] transmitters = {
+                Communication.getInstance().getTransmitter("/communicationTest/allocation_count"),
+                Communication.getInstance().getTransmitter("/communicationTest/allocation_positive"),
+                Communication.getInstance().getTransmitter("/communicationTest/allocation_level"),
+        };
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+        int iterations = 100_000;
+        // Warm up, and make sure the measurement itself is initialized.
+        for (int i = 0; i < iterations; ++i) {
+            comm.count = i;
+            for (Transmitter transmitter : transmitters) {
+                transmitter.invoke();
+            }
+        }
+        long before = threads.getThreadAllocatedBytes(thread);
+        for (int i = 0; i < iterations; ++i) {
+            comm.count = i;
+            comm.level = i;
+            for (Transmitter transmitter : transmitters) {
+                transmitter.invoke();
+            }
+        }
+        long allocated = threads.getThreadAllocatedBytes(thread) - before;
+        assertThat(transmitters[0].getEntry().getDouble(0.0), is(iterations - 1.0));
+        assertThat(transmitters[2].getEntry().getDouble(0.0), is(iterations - 1.0));
+        // Boxing every value, or a varargs array per call, would allocate several megabytes.
+        assertThat(allocated, is(lessThan(16L * 1024)));
+    }
+}
@@ -0,0 +1,164 @@
+package frc.team7170.lib.networktables;
+
+import edu.wpi.first.networktables.EntryNotification;
+import edu.wpi.first.networktables.NetworkTableInstance;
+import edu.wpi.first.networktables.NetworkTableType;
+import edu.wpi.first.networktables.NetworkTableValue;
+import frc.team7170.lib.networktables.transport.NTEntry;
+import frc.team7170.lib.networktables.transport.NTTransport;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * A transport whose entries only record the last number or boolean set on them, so that setting them doesn't
+ * allocate, and which counts how many times it is flushed.
+ */
+final class RecordingTransport implements NTTransport {
+
+    private static final class RecordingEntry implements NTEntry {
+
+        private final NTTransport transport;
+        private final String name;
+        private double number = Double.NaN;
+        private boolean bool = false;
+
+        private RecordingEntry(NTTransport transport, String name) {
+            this.transport = transport;
+            this.name = name;
+        }
+
+        @Override
+        public NTTransport getTransport() {
+            return transport;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public int getHandle() {
+            return 0;
+        }
+
+        @Override
+        public NetworkTableType getType() {
+            return NetworkTableType.kUnassigned;
+        }
+
+        @Override
+        public NetworkTableValue getValue() {
+            return null;
+        }
+
+        @Override
+        public boolean setValue(Object value) {
+            return true;
+        }
+
+        @Override
+        public boolean getBoolean(boolean defaultValue) {
+            return bool;
+        }
+
+        @Override
+        public boolean setBoolean(boolean value) {
+            bool = value;
+            return true;
+        }
+
+        @Override
+        public double getDouble(double defaultValue) {
+            return number;
+        }
+
+        @Override
+        public boolean setDouble(double value) {
+            number = value;
+            return true;
+        }
+
+        @Override
+        public String getString(String defaultValue) {
+            return defaultValue;
+        }
+
+        @Override
+        public boolean setString(String value) {
+            return true;
+        }
+
+        @Override
+        public byte[] getRaw(byte[] defaultValue) {
+            return defaultValue;
+        }
+
+        @Override
+        public boolean setRaw(byte[] value) {
+            return true;
+        }
+
+        @Override
+        public boolean[] getBooleanArray(boolean[] defaultValue) {
+            return defaultValue;
+        }
+
+        @Override
+        public boolean setBooleanArray(boolean[] value) {
+            return true;
+        }
+
+        @Override
+        public double[] getDoubleArray(double[] defaultValue) {
+            return defaultValue;
+        }
+
+        @Override
+        public boolean setDoubleArray(double[] value) {
+            return true;
+        }
+
+        @Override
+        public String[] getStringArray(String[] defaultValue) {
+            return defaultValue;
+        }
+
+        @Override
+        public boolean setStringArray(String[] value) {
+            return true;
+        }
+
+        @Override
+        public int addListener(Consumer<EntryNotification> listener, int flags) {
+            return 0;
+        }
+
+        @Override
+        public void removeListener(int listener) {}
+    }
+
+    private final Map<String, RecordingEntry> entries = new HashMap<>();
+    private int flushCount = 0;
+
+    @Override
+    public NTEntry getEntry(String key) {
+        return entries.computeIfAbsent(key, k -> new RecordingEntry(this, k));
+    }
+
+    @Override
+    public void flush() {
+        ++flushCount;
+    }
+
+    int getFlushCount() {
+        return flushCount;
+    }
+
+    @Override
+    public NetworkTableInstance getInstance() {
+        return null;
+    }
+}
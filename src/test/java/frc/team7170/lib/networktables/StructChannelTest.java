@@ -0,0 +1,179 @@
+package frc.team7170.lib.networktables;
+
+import frc.team7170.lib.data.Value;
+import frc.team7170.lib.networktables.transport.LocalTransport;
+import frc.team7170.lib.networktables.transport.NTEntry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class StructChannelTest {
+
+    private static void setEveryType(StructWriter writer) {
+        writer.setBoolean(0, true)
+                .setByte(1, Byte.MIN_VALUE)
+                .setShort(2, (short) -12345)
+                .setInt(3, 0xDEADBEEF)
+                .setLong(4, Long.MAX_VALUE - 1)
+                .setFloat(5, -1.5f)
+                .setDouble(6, Math.PI)
+                .setBoolean(7, false);
+    }
+
+    private static void assertEveryType(StructFrame frame) {
+        assertThat(frame.getBoolean(0), is(true));
+        assertThat(frame.getByte(1), is(Byte.MIN_VALUE));
+        assertThat(frame.getShort(2), is((short) -12345));
+        assertThat(frame.getInt(3), is(0xDEADBEEF));
+        assertThat(frame.getLong(4), is(Long.MAX_VALUE - 1));
+        assertThat(frame.getFloat(5), is(-1.5f));
+        assertThat(frame.getDouble(6), is(Math.PI));
+        assertThat(frame.getBoolean(7), is(false));
+    }
+
+    @Test
+    void roundTrip_everyType() {
+        StructWriter writer = new StructWriter(StructSchemaTest.everyType());
+        setEveryType(writer);
+        StructFrame frame = writer.toFrame();
+        assertEveryType(frame);
+        assertThat(frame.getNumber(3), is((double) 0xDEADBEEF));
+        assertThat(frame.getNumber(5), is(-1.5));
+        assertThrows(IllegalArgumentException.class, () -> frame.getNumber(0));
+        // Through a raw Value, as when logged.
+        assertEveryType(StructFrame.of(frame.getSchema(), writer.toValue()));
+        assertThat(StructFrame.of(frame.getSchema(), frame.toValue()), is(frame));
+    }
+
+    @Test
+    void roundTrip_bigEndian() {
+        StructSchema schema = StructSchema.builder().addShort("s").addInt("i").build();
+        StructFrame frame = new StructWriter(schema).setShort(0, (short) 0x0102).setInt(1, 0x03040506).toFrame();
+        assertThat(StructFrame.of(schema, new byte[] {1, 2, 3, 4, 5, 6}), is(frame));
+    }
+
+    @Test
+    void booleans_crossByteBoundaries() {
+        StructSchema.Builder builder = StructSchema.builder().addByte("first");
+        for (int i = 0; i < 19; ++i) {
+            builder.addBoolean("b" + i);
+        }
+        StructSchema schema = builder.addByte("last").build();
+        assertThat(schema.getSize(), is(2 + 3));
+        StructWriter writer = new StructWriter(schema).setByte(0, (byte) -1).setByte(20, (byte) -1);
+        // Every third boolean, so that set bits land on both sides of each byte boundary.
+        for (int i = 0; i < 19; ++i) {
+            writer.setBoolean(1 + i, i % 3 == 0);
+        }
+        StructFrame frame = writer.toFrame();
+        for (int i = 0; i < 19; ++i) {
+            assertThat("b" + i, frame.getBoolean(1 + i), is(i % 3 == 0));
+        }
+        assertThat(frame.getByte(0), is((byte) -1));
+        assertThat(frame.getByte(20), is((byte) -1));
+        // Packed least significant bit first, after the other fields.
+        assertThat(StructFrame.of(schema, new byte[] {-1, -1, 0b01001001, (byte) 0b10010010, 0b00000100}),
+                is(frame));
+
+        // Clearing a boolean leaves its neighbours alone.
+        writer.setBoolean(1 + 9, false).setBoolean(1 + 7, true);
+        frame = writer.toFrame();
+        assertThat(frame.getBoolean(1 + 6), is(true));
+        assertThat(frame.getBoolean(1 + 7), is(true));
+        assertThat(frame.getBoolean(1 + 8), is(false));
+        assertThat(frame.getBoolean(1 + 9), is(false));
+        assertThat(frame.getBoolean(1 + 12), is(true));
+    }
+
+    @Test
+    void writer_wrongType() {
+        StructWriter writer = new StructWriter(StructSchemaTest.everyType());
+        assertThrows(IllegalArgumentException.class, () -> writer.setInt(1, 0));
+        assertThrows(IllegalArgumentException.class, () -> writer.setBoolean(6, true));
+        assertThrows(IllegalArgumentException.class, () -> writer.toFrame().getDouble(5));
+    }
+
+    @Test
+    void frame_rejectsMismatchedSchema() {
+        StructSchema schema = StructSchemaTest.everyType();
+        StructSchema other = StructSchema.builder().addDouble("x").build();
+        StructFrame frame = new StructWriter(other).toFrame();
+        assertThrows(IllegalArgumentException.class, () -> StructFrame.of(schema, frame.toValue()));
+        assertThrows(IllegalArgumentException.class, () -> StructFrame.of(schema, new byte[schema.getSize() + 1]));
+        assertThrows(IllegalArgumentException.class, () -> StructFrame.of(schema, Value.newDoubleValue(1.0)));
+        // Frames of equal bytes but different schemas differ.
+        StructSchema sameSize = StructSchema.builder().addLong("y").build();
+        assertThat(StructFrame.of(sameSize, new byte[8]), is(not(StructFrame.of(other, new byte[8]))));
+    }
+
+    @Test
+    void frame_copiesRecord() {
+        StructSchema schema = StructSchema.builder().addByte("b").build();
+        byte[] record = {1};
+        StructFrame frame = StructFrame.of(schema, record);
+        record[0] = 2;
+        assertThat(frame.getByte(0), is((byte) 1));
+    }
+
+    @Test
+    void channel_publishAndRead() {
+        LocalTransport transport = new LocalTransport();
+        NTEntry entry = transport.getEntry("/struct");
+        StructChannel tx = new StructChannel(entry, StructSchemaTest.everyType());
+        assertThat(transport.getEntry("/struct" + StructChannel.SCHEMA_SUFFIX).getStringArray(null),
+                is(StructSchemaTest.everyType().toDescriptor()));
+
+        StructChannel rx = StructChannel.subscribe(transport.getEntry("/struct"));
+        assertThat(rx.getSchema(), is(tx.getSchema()));
+        assertThat(rx.read(), is(nullValue()));
+        List<StructFrame> frames = new ArrayList<>();
+        rx.addListener(frames::add);
+
+        tx.setBoolean(0, true).setByte(1, Byte.MIN_VALUE).setShort(2, (short) -12345).setInt(3, 0xDEADBEEF)
+                .setLong(4, Long.MAX_VALUE - 1).setFloat(5, -1.5f).setDouble(6, Math.PI).setBoolean(7, false);
+        assertThat(tx.publish(), is(true));
+        assertEveryType(rx.read());
+        // Fields keep their values between publishes.
+        tx.setInt(3, 7);
+        tx.publish();
+        StructFrame frame = rx.read();
+        assertThat(frame.getInt(3), is(7));
+        assertThat(frame.getDouble(6), is(Math.PI));
+        assertThat(frames, hasSize(2));
+        assertEveryType(frames.get(0));
+        assertThat(frames.get(1), is(frame));
+    }
+
+    @Test
+    void channel_rejectsMismatchedSchema() {
+        LocalTransport transport = new LocalTransport();
+        StructChannel tx = new StructChannel(transport.getEntry("/struct"), StructSchemaTest.everyType());
+        StructChannel rx = new StructChannel(transport.getEntry("/other"),
+                StructSchema.builder().addDouble("x").build());
+        List<StructFrame> frames = new ArrayList<>();
+        rx.addListener(frames::add);
+        // A record of a different size is ignored rather than misread.
+        transport.getEntry("/other").setRaw(new byte[tx.getSchema().getSize()]);
+        assertThat(rx.read(), is(nullValue()));
+        assertThat(frames, is(empty()));
+        // As is a value that isn't raw, which also can't be published over.
+        NTEntry number = transport.getEntry("/number");
+        number.setDouble(1.0);
+        StructChannel numberChannel = new StructChannel(number, StructSchemaTest.everyType());
+        assertThat(numberChannel.read(), is(nullValue()));
+        assertThat(numberChannel.publish(), is(false));
+    }
+
+    @Test
+    void subscribe_noSchema() {
+        LocalTransport transport = new LocalTransport();
+        assertThrows(IllegalStateException.class, () -> StructChannel.subscribe(transport.getEntry("/struct")));
+        transport.getEntry("/struct" + StructChannel.SCHEMA_SUFFIX).setStringArray(new String[] {"quad q"});
+        assertThrows(IllegalArgumentException.class, () -> StructChannel.subscribe(transport.getEntry("/struct")));
+    }
+}
@@ -0,0 +1,127 @@
+package frc.team7170.lib.networktables;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Locale;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class StructSchemaTest {
+
+    static StructSchema everyType() {
+        return StructSchema.builder()
+                .addBoolean("flag")
+                .addByte("b")
+                .addShort("s")
+                .addInt("i")
+                .addLong("l")
+                .addFloat("f")
+                .addDouble("d")
+                .addBoolean("other")
+                .build();
+    }
+
+    @Test
+    void layout() {
+        StructSchema schema = everyType();
+        assertThat(schema.getNumFields(), is(8));
+        // Non-boolean fields first, packed without padding, then one byte for both booleans.
+        assertThat(schema.getSize(), is(1 + 2 + 4 + 8 + 4 + 8 + 1));
+        assertThat(schema.byteOffset(1, StructSchema.Type.BYTE), is(0));
+        assertThat(schema.byteOffset(2, StructSchema.Type.SHORT), is(1));
+        assertThat(schema.byteOffset(3, StructSchema.Type.INT), is(3));
+        assertThat(schema.byteOffset(4, StructSchema.Type.LONG), is(7));
+        assertThat(schema.byteOffset(5, StructSchema.Type.FLOAT), is(15));
+        assertThat(schema.byteOffset(6, StructSchema.Type.DOUBLE), is(19));
+        assertThat(schema.bitOffset(0), is(27 * Byte.SIZE));
+        assertThat(schema.bitOffset(7), is(27 * Byte.SIZE + 1));
+    }
+
+    @Test
+    void layout_booleansOnly() {
+        StructSchema.Builder builder = StructSchema.builder();
+        for (int i = 0; i < 9; ++i) {
+            builder.addBoolean("b" + i);
+        }
+        StructSchema schema = builder.build();
+        assertThat(schema.getSize(), is(2));
+        assertThat(schema.bitOffset(8), is(8));
+    }
+
+    @Test
+    void indexOf() {
+        StructSchema schema = everyType();
+        assertThat(schema.indexOf("flag"), is(0));
+        assertThat(schema.indexOf("d"), is(6));
+        assertThat(schema.indexOf("missing"), is(-1));
+        assertThat(schema.getName(4), is("l"));
+        assertThat(schema.getType(4), is(StructSchema.Type.LONG));
+    }
+
+    @Test
+    void offset_wrongType() {
+        StructSchema schema = everyType();
+        assertThrows(IllegalArgumentException.class, () -> schema.byteOffset(1, StructSchema.Type.INT));
+        assertThrows(IllegalArgumentException.class, () -> schema.bitOffset(1));
+    }
+
+    @Test
+    void descriptor() {
+        StructSchema schema = everyType();
+        String[] descriptor = schema.toDescriptor();
+        assertThat(descriptor, is(arrayContaining("boolean flag", "byte b", "short s", "int i", "long l", "float f",
+                "double d", "boolean other")));
+        StructSchema parsed = StructSchema.fromDescriptor(descriptor);
+        assertThat(parsed, is(schema));
+        assertThat(parsed.hashCode(), is(schema.hashCode()));
+        assertThat(parsed.getSize(), is(schema.getSize()));
+        // Type names are case-insensitive.
+        assertThat(StructSchema.fromDescriptor(new String[] {"DOUBLE x"}),
+                is(StructSchema.builder().addDouble("x").build()));
+    }
+
+    @Test
+    void descriptor_localeIndependent() {
+        Locale defaultLocale = Locale.getDefault();
+        // Turkish upper-cases "i" to a dotted capital I, which would break "int" and "boolean".
+        Locale.setDefault(new Locale("tr", "TR"));
+        try {
+            StructSchema schema = everyType();
+            String[] descriptor = schema.toDescriptor();
+            assertThat(descriptor[3], is("int i"));
+            assertThat(StructSchema.fromDescriptor(descriptor), is(schema));
+        } finally {
+            Locale.setDefault(defaultLocale);
+        }
+    }
+
+    @Test
+    void fromDescriptor_malformed() {
+        assertThrows(IllegalArgumentException.class, () -> StructSchema.fromDescriptor(new String[] {"double"}));
+        assertThrows(IllegalArgumentException.class, () -> StructSchema.fromDescriptor(new String[] {"char c"}));
+        assertThrows(IllegalArgumentException.class, () -> StructSchema.fromDescriptor(new String[] {"int "}));
+        assertThrows(IllegalArgumentException.class, () -> StructSchema.fromDescriptor(new String[] {"int a b"}));
+        assertThrows(IllegalArgumentException.class,
+                () -> StructSchema.fromDescriptor(new String[] {"int a", "double a"}));
+        assertThrows(IllegalStateException.class, () -> StructSchema.fromDescriptor(new String[0]));
+    }
+
+    @Test
+    void equals_orderAndTypeMatter() {
+        StructSchema ab = StructSchema.builder().addInt("a").addInt("b").build();
+        assertThat(ab, is(not(StructSchema.builder().addInt("b").addInt("a").build())));
+        assertThat(ab, is(not(StructSchema.builder().addInt("a").addFloat("b").build())));
+        assertThat(ab, is(StructSchema.builder().addInt("a").addInt("b").build()));
+    }
+
+    @Test
+    void builder_invalid() {
+        assertThrows(IllegalArgumentException.class, () -> StructSchema.builder().addInt(""));
+        assertThrows(IllegalArgumentException.class, () -> StructSchema.builder().addInt("a b"));
+        assertThrows(IllegalArgumentException.class, () -> StructSchema.builder().addInt("a").addDouble("a"));
+        assertThrows(NullPointerException.class, () -> StructSchema.builder().add("a", null));
+        assertThrows(IllegalStateException.class, () -> StructSchema.builder().build());
+    }
+}
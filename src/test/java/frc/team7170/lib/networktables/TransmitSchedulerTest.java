@@ -0,0 +1,147 @@
+package frc.team7170.lib.networktables;
+
+import edu.wpi.first.networktables.EntryListenerFlags;
+import frc.team7170.lib.networktables.transport.LocalTransport;
+import frc.team7170.lib.networktables.transport.NTEntry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class TransmitSchedulerTest {
+
+    private static Transmitter transmitter(TransmitScheduler scheduler, Runnable runnable) {
+        return new Transmitter(runnable, TransmitFrequency.VOLATILE,
+                new LocalTransport().getEntry("/transmitSchedulerTest"), scheduler);
+    }
+
+    @Test
+    void run_invokesAllDue() {
+        TransmitScheduler scheduler = new TransmitScheduler();
+        List<Integer> invoked = new ArrayList<>();
+        for (int i = 0; i < 3; ++i) {
+            int id = i;
+            transmitter(scheduler, () -> invoked.add(id)).start();
+        }
+        scheduler.run();
+        assertThat(invoked, contains(0, 1, 2));
+        assertThat(scheduler.getNumBuckets(), is(1));
+        assertThat(scheduler.getNumTransmitters(), is(3));
+    }
+
+    @Test
+    void run_cancelDuringRun() {
+        TransmitScheduler scheduler = new TransmitScheduler();
+        List<String> invoked = new ArrayList<>();
+        Transmitter[] transmitters = new Transmitter[4];
+        // The first cancels itself, and the second cancels the fourth; neither may cause the third to be skipped.
+        transmitters[0] = transmitter(scheduler, () -> {
+            invoked.add("a");
+            transmitters[0].cancel();
+        });
+        transmitters[1] = transmitter(scheduler, () -> {
+            invoked.add("b");
+            transmitters[3].cancel();
+        });
+        transmitters[2] = transmitter(scheduler, () -> invoked.add("c"));
+        transmitters[3] = transmitter(scheduler, () -> invoked.add("d"));
+        for (Transmitter transmitter : transmitters) {
+            transmitter.start();
+        }
+        scheduler.run();
+        assertThat(invoked, contains("a", "b", "c"));
+        assertThat(scheduler.getNumTransmitters(), is(2));
+
+        invoked.clear();
+        scheduler.run();
+        assertThat(invoked, contains("b", "c"));
+    }
+
+    @Test
+    void run_startDuringRun() {
+        TransmitScheduler scheduler = new TransmitScheduler();
+        List<String> invoked = new ArrayList<>();
+        Transmitter late = transmitter(scheduler, () -> invoked.add("late"));
+        transmitter(scheduler, () -> {
+            invoked.add("early");
+            late.start();
+        }).start();
+        scheduler.run();
+        assertThat(invoked, contains("early"));
+
+        invoked.clear();
+        scheduler.run();
+        assertThat(invoked, contains("early", "late"));
+    }
+
+    @Test
+    void run_cancelLastEmptiesBucket() {
+        TransmitScheduler scheduler = new TransmitScheduler();
+        Transmitter[] holder = new Transmitter[1];
+        holder[0] = transmitter(scheduler, () -> holder[0].cancel());
+        holder[0].start();
+        scheduler.run();
+        assertThat(holder[0].isRunning(), is(false));
+        assertThat(scheduler.getNumBuckets(), is(0));
+        assertThat(scheduler.getNumTransmitters(), is(0));
+    }
+
+    @Test
+    void transmitterReceiverPair() {
+        TransmitScheduler scheduler = new TransmitScheduler();
+        LocalTransport transport = new LocalTransport();
+        NTEntry txEntry = transport.getEntry("/pair/value");
+        double[] source = {1.0};
+        Transmitter transmitter = new Transmitter(() -> txEntry.setDouble(source[0]), TransmitFrequency.VOLATILE,
+                txEntry, scheduler);
+        List<Double> received = new ArrayList<>();
+        Receiver receiver = new Receiver(n -> received.add(n.value.getDouble()),
+                EntryListenerFlags.kNew | EntryListenerFlags.kUpdate, transport.getEntry("/pair/value"));
+        receiver.start();
+        transmitter.start();
+
+        scheduler.run();
+        source[0] = 2.0;
+        scheduler.run();
+        // Unchanged values aren't published again.
+        scheduler.run();
+        assertThat(received, contains(1.0, 2.0));
+
+        transmitter.cancel();
+        source[0] = 3.0;
+        scheduler.run();
+        assertThat(received, contains(1.0, 2.0));
+
+        transmitter.start();
+        receiver.cancel();
+        scheduler.run();
+        assertThat(transport.getEntry("/pair/value").getDouble(0.0), is(3.0));
+        assertThat(received, contains(1.0, 2.0));
+    }
+
+    @Test
+    void run_flushesEachTransport() {
+        TransmitScheduler scheduler = new TransmitScheduler();
+        RecordingTransport a = new RecordingTransport();
+        RecordingTransport b = new RecordingTransport();
+        RecordingTransport unused = new RecordingTransport();
+        for (NTEntry entry : new NTEntry[] {a.getEntry("/a/1"), a.getEntry("/a/2"), b.getEntry("/b/1")}) {
+            new Transmitter(() -> entry.setDouble(1.0), TransmitFrequency.VOLATILE, entry, scheduler).start();
+        }
+        scheduler.run();
+        assertThat(a.getFlushCount(), is(0));
+
+        scheduler.setFlushPerBucket(true);
+        scheduler.run();
+        // Each transport that the bucket publishes through is flushed once, however many transmitters use it.
+        assertThat(a.getFlushCount(), is(1));
+        assertThat(b.getFlushCount(), is(1));
+        assertThat(unused.getFlushCount(), is(0));
+        scheduler.run();
+        assertThat(a.getFlushCount(), is(2));
+        assertThat(b.getFlushCount(), is(2));
+    }
+}
@@ -0,0 +1,45 @@
+package frc.team7170.lib.networktables.command;
+
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class CommandTokenizerTest {
+
+    private static String[] tokens(String line) {
+        return new StringArguments(line, CommandTokenizer.tokenize(line)).toArray();
+    }
+
+    @Test
+    void tokenize() {
+        assertThat(tokens("set speed 0.5"), is(arrayContaining("set", "speed", "0.5")));
+        assertThat(CommandTokenizer.tokenize("set speed 0.5"), is(new int[] {0, 3, 4, 9, 10, 13}));
+    }
+
+    @Test
+    void tokenize_surroundingAndRepeatedWhitespace() {
+        // Runs of whitespace of any kind separate tokens; they never produce empty tokens.
+        assertThat(tokens("  set \t\n speed\r\n0.5  "), is(arrayContaining("set", "speed", "0.5")));
+    }
+
+    @Test
+    void tokenize_empty() {
+        assertThat(CommandTokenizer.tokenize(""), is(new int[0]));
+        assertThat(CommandTokenizer.tokenize(" \t\n "), is(new int[0]));
+    }
+
+    @Test
+    void tokenize_quotesAndEscapesAreLiteral() {
+        // There is no quoting or escaping: quotes and backslashes are kept as they are, and never join tokens.
+        assertThat(tokens("say \"hello world\""), is(arrayContaining("say", "\"hello", "world\"")));
+        assertThat(tokens("say 'a' \"\""), is(arrayContaining("say", "'a'", "\"\"")));
+        assertThat(tokens("path a\\ b \\n"), is(arrayContaining("path", "a\\", "b", "\\n")));
+    }
+
+    @Test
+    void tokenize_singleCharacters() {
+        assertThat(tokens("a b c"), is(arrayContaining("a", "b", "c")));
+        assertThat(tokens("x"), is(arrayContaining("x")));
+    }
+}
@@ -0,0 +1,74 @@
+package frc.team7170.lib.networktables.command;
+
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class CommandTrieTest {
+
+    private static Integer get(CommandTrie<Integer> trie, String key) {
+        return trie.get(key, 0, key.length());
+    }
+
+    @Test
+    void get_caseInsensitive() {
+        CommandTrie<Integer> trie = new CommandTrie<>();
+        trie.put("Stop", 1);
+        assertThat(get(trie, "stop"), is(1));
+        assertThat(get(trie, "STOP"), is(1));
+        assertThat(get(trie, "sToP"), is(1));
+    }
+
+    @Test
+    void get_prefixesAreDistinct() {
+        CommandTrie<Integer> trie = new CommandTrie<>();
+        trie.put("set", 1);
+        trie.put("setpoint", 2);
+        trie.put("settle", 3);
+        // Names that are prefixes of others are found exactly, and prefixes are never expanded to a full name, even
+        // when they are unambiguous.
+        assertThat(get(trie, "set"), is(1));
+        assertThat(get(trie, "setpoint"), is(2));
+        assertThat(get(trie, "settle"), is(3));
+        assertThat(get(trie, "setp"), is(nullValue()));
+        assertThat(get(trie, "sett"), is(nullValue()));
+        assertThat(get(trie, "se"), is(nullValue()));
+        assertThat(get(trie, "setpoints"), is(nullValue()));
+        assertThat(get(trie, ""), is(nullValue()));
+    }
+
+    @Test
+    void get_range() {
+        CommandTrie<Integer> trie = new CommandTrie<>();
+        trie.put("speed", 1);
+        String line = "set speed 0.5";
+        assertThat(trie.get(line, 4, 9), is(1));
+        assertThat(trie.get(line, 4, 8), is(nullValue()));
+        assertThat(trie.get(line, 0, 3), is(nullValue()));
+    }
+
+    @Test
+    void put_replaces() {
+        CommandTrie<Integer> trie = new CommandTrie<>();
+        assertThat(trie.put("stop", 1), is(nullValue()));
+        // Keys that differ only in case are the same key.
+        assertThat(trie.put("STOP", 2), is(1));
+        assertThat(get(trie, "stop"), is(2));
+    }
+
+    @Test
+    void remove() {
+        CommandTrie<Integer> trie = new CommandTrie<>();
+        trie.put("set", 1);
+        trie.put("setpoint", 2);
+        assertThat(trie.remove("SET"), is(1));
+        assertThat(get(trie, "set"), is(nullValue()));
+        // Removing a name leaves the names it is a prefix of.
+        assertThat(get(trie, "setpoint"), is(2));
+        assertThat(trie.remove("set"), is(nullValue()));
+        assertThat(trie.remove("unknown"), is(nullValue()));
+        trie.put("set", 3);
+        assertThat(get(trie, "set"), is(3));
+    }
+}
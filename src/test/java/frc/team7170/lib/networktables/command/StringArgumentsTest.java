@@ -0,0 +1,146 @@
+package frc.team7170.lib.networktables.command;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class StringArgumentsTest {
+
+    private static final String[] NUMBERS = {
+            "0", "-0", "+0", "0.0", "-0.0", "1", "-1", "+1", "1.", ".5", "-.5", "0.1", "0.2", "0.3", "123.456",
+            "-123.456", "3.141592653589793", "2.718281828459045", "1e10", "1E-10", "-1.5e+3", "6.02214076e23",
+            "1e308", "1e309", "-1e309", "4.9e-324", "1e-400", "NaN", "Infinity", "-Infinity", "+Infinity",
+            // Longer mantissas and scales than the fast paths take.
+            "123456789012345", "1234567890123456", "12345678901234567890", "0.1234567890123456789",
+            "9007199254740993", "0.0000000000000000000001", "0.00000000000000000000001", "1.0000000000000000000000000",
+            "000000000000000000000123.5", "99999999999999999999999999",
+            // Halfway cases, which round differently if rounded twice.
+            "1.00000017881393432617187499", "1.00000017881393432617187501", "16777217", "16777217.0", "8388609.5",
+            "0.1000000000000000055511151231257827", "9007199254740993.0", "2.0000000000000003",
+            "1234567", "12345678", "0.1234567", "0.12345678", "1.5", "9999999", "99999999", "0.0000000001",
+            "0.00000000001", "1d", "1f", "0x1p3",
+    };
+
+    private static final String[] MALFORMED = {"", "-", "+", ".", "-.", "1..2", "1.2.3", "--1", "+-1", "1e", "abc",
+            "1,5", "1_000", "infinity", "nan", "e5"};
+
+    private static StringArguments args(String... tokens) {
+        String line = String.join(" ", tokens);
+        return new StringArguments(line, CommandTokenizer.tokenize(line));
+    }
+
+    private static void assertSameDouble(String str) {
+        double expected = Double.parseDouble(str);
+        double actual = args(str).getDouble(0);
+        assertThat(str, Double.doubleToLongBits(actual), is(Double.doubleToLongBits(expected)));
+    }
+
+    private static void assertSameFloat(String str) {
+        float expected = Float.parseFloat(str);
+        float actual = args(str).getFloat(0);
+        assertThat(str, Float.floatToIntBits(actual), is(Float.floatToIntBits(expected)));
+    }
+
+    @Test
+    void getDouble_matchesJdk() {
+        for (String number : NUMBERS) {
+            assertSameDouble(number);
+        }
+    }
+
+    @Test
+    void getFloat_matchesJdk() {
+        for (String number : NUMBERS) {
+            assertSameFloat(number);
+        }
+    }
+
+    @Test
+    void getFloat_roundsOnce() {
+        // Rounding to a double first lands exactly halfway between two floats, which then rounds the wrong way.
+        String str = "1.00000017881393432617187499";
+        assertThat((float) Double.parseDouble(str), is(not(Float.parseFloat(str))));
+        assertThat(args(str).getFloat(0), is(Float.parseFloat(str)));
+    }
+
+    @Test
+    void getDouble_randomMatchesJdk() {
+        Random random = new Random(7170);
+        for (int i = 0; i < 100_000; ++i) {
+            StringBuilder builder = new StringBuilder();
+            if (random.nextBoolean()) {
+                builder.append(random.nextBoolean() ? '-' : '+');
+            }
+            int intDigits = random.nextInt(10);
+            for (int j = 0; j < intDigits; ++j) {
+                builder.append((char) ('0' + random.nextInt(10)));
+            }
+            if (intDigits == 0 || random.nextBoolean()) {
+                builder.append('.');
+                int fracDigits = random.nextInt(25) + (intDigits == 0 ? 1 : 0);
+                for (int j = 0; j < fracDigits; ++j) {
+                    builder.append((char) ('0' + random.nextInt(10)));
+                }
+            }
+            if (random.nextInt(8) == 0) {
+                builder.append('e').append(random.nextInt(80) - 40);
+            }
+            String str = builder.toString();
+            assertSameDouble(str);
+            assertSameFloat(str);
+        }
+    }
+
+    @Test
+    void getDouble_malformed() {
+        for (String str : MALFORMED) {
+            StringArguments args = new StringArguments(str, new int[] {0, str.length()});
+            CommandAbortException e = assertThrows(CommandAbortException.class, () -> args.getDouble(0), str);
+            assertThat(e.getMessage(), endsWith("to double"));
+            e = assertThrows(CommandAbortException.class, () -> args.getFloat(0), str);
+            assertThat(e.getMessage(), endsWith("to float"));
+        }
+    }
+
+    @Test
+    void getIntegers() {
+        StringArguments args = args("-128", "127", "128", "-32768", "40000", "2147483647", "2147483648", "-5");
+        assertThat(args.getByte(0), is((byte) -128));
+        assertThat(args.getByte(1), is((byte) 127));
+        assertThrows(CommandAbortException.class, () -> args.getByte(2));
+        assertThat(args.getShort(3), is((short) -32768));
+        assertThrows(CommandAbortException.class, () -> args.getShort(4));
+        assertThat(args.getInt(5), is(Integer.MAX_VALUE));
+        assertThrows(CommandAbortException.class, () -> args.getInt(6));
+        assertThat(args.getLong(6), is(2147483648L));
+        assertThat(args.getInt(7), is(-5));
+    }
+
+    @Test
+    void getBoolean() {
+        StringArguments args = args("true", "ON", "Yes", "1", "FALSE", "off", "no", "0", "2");
+        for (int i = 0; i < 4; ++i) {
+            assertThat(args.getBoolean(i), is(true));
+        }
+        for (int i = 4; i < 8; ++i) {
+            assertThat(args.getBoolean(i), is(false));
+        }
+        assertThrows(CommandAbortException.class, () -> args.getBoolean(8));
+    }
+
+    @Test
+    void subArguments() {
+        StringArguments args = args("cmd", "a", "bc", "d").subArguments(1, 3);
+        assertThat(args.numArgs(), is(2));
+        assertThat(args.toArray(), is(arrayContaining("a", "bc")));
+        assertThat(args.matches(1, "bc"), is(true));
+        assertThat(args.startsWith(1, "b"), is(true));
+        assertThat(args.matches(1, "b"), is(false));
+        assertThrows(CommandAbortException.class, () -> args.get(2));
+        assertThrows(IndexOutOfBoundsException.class, () -> args.subArguments(1, 3));
+    }
+}
@@ -0,0 +1,83 @@
+package frc.team7170.lib.networktables.stream;
+
+import frc.team7170.lib.networktables.transport.LocalTransport;
+import frc.team7170.lib.networktables.transport.NTEntry;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class DoubleStreamTest {
+
+    private static final double[] empty = new double[0];
+
+    private static DoubleStream transmitter(NTEntry entry, int cacheSize, int minSendSize) {
+        return new DoubleStream(new DoubleStream.Config().transmittingEntry(entry).cacheSize(cacheSize)
+                .minSendSize(minSendSize));
+    }
+
+    @Test
+    void write_heldUntilMinSendSize() {
+        NTEntry entry = new LocalTransport().getEntry("/stream");
+        DoubleStream stream = transmitter(entry, 8, 3);
+        assertThat(stream.write(1.0), is(false));
+        assertThat(stream.write(2.0), is(false));
+        assertThat(entry.getDoubleArray(null), is(empty));
+        assertThat(stream.write(3.0), is(true));
+        assertThat(entry.getDoubleArray(null), is(new double[] {0.0, 1.0, 2.0, 3.0}));
+        assertThat(stream.getWriteSequence(), is(3L));
+    }
+
+    @Test
+    void flush_forcesSend() {
+        NTEntry entry = new LocalTransport().getEntry("/stream");
+        DoubleStream stream = transmitter(entry, 8, 3);
+        stream.write(new double[] {1.0, 2.0});
+        assertThat(stream.flush(), is(true));
+        assertThat(entry.getDoubleArray(null), is(new double[] {0.0, 1.0, 2.0}));
+        // Nothing new to send.
+        assertThat(stream.flush(), is(false));
+    }
+
+    @Test
+    void write_dropsOldestWhenFull() {
+        NTEntry entry = new LocalTransport().getEntry("/stream");
+        DoubleStream stream = transmitter(entry, 3, 0);
+        for (int i = 1; i <= 5; ++i) {
+            stream.write(i);
+        }
+        // Nothing was acknowledged, so the first two were dropped to make room.
+        assertThat(entry.getDoubleArray(null), is(new double[] {2.0, 3.0, 4.0, 5.0}));
+        assertThat(stream.getDroppedCount(), is(2L));
+        assertThat(stream.getBacklog(), is(3));
+    }
+
+    @Test
+    void write_range() {
+        NTEntry entry = new LocalTransport().getEntry("/stream");
+        DoubleStream stream = transmitter(entry, 8, 0);
+        stream.write(new double[] {1.0, 2.0, 3.0, 4.0}, 1, 2);
+        assertThat(entry.getDoubleArray(null), is(new double[] {0.0, 2.0, 3.0}));
+        assertThrows(IndexOutOfBoundsException.class, () -> stream.write(new double[2], 1, 2));
+    }
+
+    @Test
+    void write_readOnly() {
+        DoubleStream stream = new DoubleStream(new DoubleStream.Config()
+                .receivingEntry(new LocalTransport().getEntry("/stream")));
+        assertThrows(IllegalStateException.class, () -> stream.write(1.0));
+        assertThrows(IllegalStateException.class, stream::flush);
+    }
+
+    @Test
+    void config_invalid() {
+        NTEntry entry = new LocalTransport().getEntry("/stream");
+        assertThrows(IllegalStateException.class, () -> transmitter(entry, 2, 3));
+        assertThrows(IllegalStateException.class, () -> transmitter(entry, 0, 0));
+        assertThrows(IllegalStateException.class, () -> new DoubleStream(new DoubleStream.Config()));
+        NTEntry string = new LocalTransport().getEntry("/string");
+        string.setString("");
+        assertThrows(IllegalStateException.class, () -> new DoubleStream.Config().transmittingEntry(string));
+    }
+}
@@ -0,0 +1,183 @@
+package frc.team7170.lib.networktables.stream;
+
+import edu.wpi.first.networktables.EntryNotification;
+import frc.team7170.lib.networktables.transport.LocalTransport;
+import frc.team7170.lib.networktables.transport.NTEntry;
+import frc.team7170.lib.networktables.transport.NTTransport;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class NTStreamTest {
+
+    private static final String KEY = "/stream";
+
+    private static DoubleStream doubleTransmitter(NTTransport transport, int cacheSize) {
+        return new DoubleStream(new DoubleStream.Config().transmittingEntry(transport.getEntry(KEY))
+                .cacheSize(cacheSize));
+    }
+
+    private static DoubleStream doubleReceiver(NTTransport transport) {
+        return new DoubleStream(new DoubleStream.Config().receivingEntry(transport.getEntry(KEY)));
+    }
+
+    @Test
+    void read_inOrder() {
+        LocalTransport transport = new LocalTransport();
+        DoubleStream tx = doubleTransmitter(transport, 8);
+        DoubleStream rx = doubleReceiver(transport);
+        // Each write publishes, superseding the last; nothing is lost since each publish holds every unread element.
+        tx.write(1.0);
+        tx.write(2.0);
+        tx.write(new double[] {3.0, 4.0});
+        assertThat(rx.readDoubles(), is(new double[] {1.0, 2.0, 3.0, 4.0}));
+        assertThat(rx.readDoubles(), is(new double[0]));
+        tx.write(5.0);
+        assertThat(rx.read(), is(arrayContaining(5.0)));
+        assertThat(rx.getReadSequence(), is(5L));
+        assertThat(rx.getGapCount(), is(0L));
+    }
+
+    @Test
+    void peek_doesNotAcknowledge() {
+        LocalTransport transport = new LocalTransport();
+        DoubleStream tx = doubleTransmitter(transport, 8);
+        DoubleStream rx = doubleReceiver(transport);
+        tx.write(1.0);
+        assertThat(rx.peek(), is(arrayContaining(1.0)));
+        assertThat(transport.getEntry(KEY + NTStream.ACK_SUFFIX).getDouble(-1.0), is(-1.0));
+        tx.write(2.0);
+        assertThat(rx.readDoubles(), is(new double[] {1.0, 2.0}));
+        assertThat(transport.getEntry(KEY + NTStream.ACK_SUFFIX).getDouble(-1.0), is(2.0));
+    }
+
+    @Test
+    void read_gapAfterDrop() {
+        LocalTransport transport = new LocalTransport();
+        DoubleStream tx = doubleTransmitter(transport, 3);
+        DoubleStream rx = doubleReceiver(transport);
+        tx.write(1.0);
+        assertThat(rx.readDoubles(), is(new double[] {1.0}));
+        // The receiver falls behind by more than the cache, so the oldest unread elements are dropped.
+        for (int i = 2; i <= 6; ++i) {
+            tx.write(i);
+        }
+        assertThat(tx.getDroppedCount(), is(2L));
+        assertThat(rx.readDoubles(), is(new double[] {4.0, 5.0, 6.0}));
+        assertThat(rx.getGapCount(), is(2L));
+        assertThat(rx.getReadSequence(), is(6L));
+        // The stream carries on normally after the gap.
+        tx.write(7.0);
+        assertThat(rx.readDoubles(), is(new double[] {7.0}));
+        assertThat(rx.getGapCount(), is(2L));
+    }
+
+    @Test
+    void write_ackTrimsWindow() {
+        LocalTransport transport = new LocalTransport();
+        NTEntry entry = transport.getEntry(KEY);
+        DoubleStream tx = doubleTransmitter(transport, 8);
+        DoubleStream rx = doubleReceiver(transport);
+        tx.write(new double[] {1.0, 2.0});
+        assertThat(tx.getBacklog(), is(2));
+        rx.readDoubles();
+        // Only what is new since the acknowledgement is sent, headed by its sequence number.
+        tx.write(3.0);
+        assertThat(entry.getDoubleArray(null), is(new double[] {2.0, 3.0}));
+        assertThat(tx.getBacklog(), is(1));
+        tx.write(4.0);
+        assertThat(entry.getDoubleArray(null), is(new double[] {2.0, 3.0, 4.0}));
+        assertThat(tx.getBacklog(), is(2));
+    }
+
+    @Test
+    void write_wrapsAroundCache() {
+        LocalTransport transport = new LocalTransport();
+        NTEntry entry = transport.getEntry(KEY);
+        DoubleStream tx = doubleTransmitter(transport, 3);
+        DoubleStream rx = doubleReceiver(transport);
+        List<Double> read = new ArrayList<>();
+        for (int i = 0; i < 10; ++i) {
+            tx.write(new double[] {2 * i, 2 * i + 1});
+            for (double value : rx.readDoubles()) {
+                read.add(value);
+            }
+        }
+        assertThat(read, hasSize(20));
+        for (int i = 0; i < 20; ++i) {
+            assertThat(read.get(i), is((double) i));
+        }
+        assertThat(tx.getDroppedCount(), is(0L));
+        assertThat(rx.getGapCount(), is(0L));
+        // A window that straddles the end of the cache is sent in order.
+        tx.write(new double[] {20.0, 21.0});
+        tx.write(22.0);
+        assertThat(entry.getDoubleArray(null), is(new double[] {20.0, 20.0, 21.0, 22.0}));
+    }
+
+    @Test
+    void restart_resumesFromAck() {
+        LocalTransport transport = new LocalTransport();
+        DoubleStream tx = doubleTransmitter(transport, 8);
+        DoubleStream rx = doubleReceiver(transport);
+        tx.write(new double[] {1.0, 2.0});
+        rx.readDoubles();
+        DoubleStream newTx = doubleTransmitter(transport, 8);
+        assertThat(newTx.getWriteSequence(), is(2L));
+        newTx.write(3.0);
+        DoubleStream newRx = doubleReceiver(transport);
+        assertThat(newRx.readDoubles(), is(new double[] {3.0}));
+    }
+
+    @Test
+    void listener_acknowledgesNotification() {
+        LocalTransport transport = new LocalTransport();
+        DoubleStream tx = doubleTransmitter(transport, 8);
+        DoubleStream rx = doubleReceiver(transport);
+        List<EntryNotification> notifications = new ArrayList<>();
+        rx.addListener(notifications::add);
+        tx.write(1.0);
+        tx.write(2.0);
+        assertThat(notifications, hasSize(2));
+        assertThat(rx.getReadSequence(), is(2L));
+        assertThat(transport.getEntry(KEY + NTStream.ACK_SUFFIX).getDouble(-1.0), is(2.0));
+        // Acknowledged by the listener, so nothing is left to read.
+        assertThat(rx.readDoubles(), is(new double[0]));
+    }
+
+    @Test
+    void booleanStream_largeSequence() {
+        LocalTransport transport = new LocalTransport();
+        long start = (1L << 40) + 3;
+        transport.getEntry(KEY + NTStream.ACK_SUFFIX).setDouble(start);
+        BooleanStream tx = new BooleanStream(new BooleanStream.Config().transmittingEntry(transport.getEntry(KEY))
+                .cacheSize(3));
+        BooleanStream rx = new BooleanStream(new BooleanStream.Config().receivingEntry(transport.getEntry(KEY)));
+        assertThat(tx.getWriteSequence(), is(start));
+        tx.write(true);
+        tx.write(false);
+        assertThat(rx.readBooleans(), is(new boolean[] {true, false}));
+        assertThat(rx.getReadSequence(), is(start + 2));
+        // Wraps around the end of the cache.
+        tx.write(new boolean[] {true, true, false});
+        assertThat(rx.read(), is(arrayContaining(true, true, false)));
+        assertThat(rx.getGapCount(), is(0L));
+    }
+
+    @Test
+    void stringStream() {
+        LocalTransport transport = new LocalTransport();
+        StringStream tx = new StringStream(new StringStream.Config().transmittingEntry(transport.getEntry(KEY))
+                .cacheSize(4));
+        StringStream rx = new StringStream(new StringStream.Config().receivingEntry(transport.getEntry(KEY)));
+        tx.write("a", "b");
+        tx.write("c");
+        assertThat(rx.read(), is(arrayContaining("a", "b", "c")));
+        tx.write("d");
+        assertThat(transport.getEntry(KEY).getStringArray(null), is(new String[] {"3", "d"}));
+    }
+}
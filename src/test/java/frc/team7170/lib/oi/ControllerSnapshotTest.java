@@ -0,0 +1,177 @@
+package frc.team7170.lib.oi;
+
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.GenericHID;
+import frc.team7170.lib.looping.BaseLooper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ControllerSnapshotTest {
+
+    private static final int PORT = 3;
+
+    @AfterEach
+    void resetDriverStation() {
+        DriverStation.buttons[PORT] = 0;
+        Arrays.fill(DriverStation.axes[PORT], 0.0);
+        Arrays.fill(DriverStation.povs[PORT], 0);
+    }
+
+    @Test
+    void suppliers_valuesAndEdges() {
+        ControllerSnapshot snapshot = new ControllerSnapshot();
+        // More than fit in one word of the bitfields.
+        boolean[] states = new boolean[70];
+        int[] indices = new int[states.length];
+        for (int i = 0; i < states.length; ++i) {
+            int control = i;
+            indices[i] = snapshot.register(() -> states[control]);
+        }
+        assertThat(indices[69], is(69));
+
+        states[0] = true;
+        states[65] = true;
+        // Not read until the next update.
+        assertThat(snapshot.get(0), is(false));
+        snapshot.update();
+        assertThat(snapshot.get(0), is(true));
+        assertThat(snapshot.get(1), is(false));
+        assertThat(snapshot.get(65), is(true));
+        assertThat(snapshot.get(1), is(false));
+
+        // Edges are latched until consumed, across any number of updates.
+        snapshot.update();
+        assertThat(snapshot.getPressed(0), is(true));
+        assertThat(snapshot.getPressed(0), is(false));
+        assertThat(snapshot.getPressed(65), is(true));
+        assertThat(snapshot.getPressed(1), is(false));
+        assertThat(snapshot.getReleased(0), is(false));
+
+        // A press and release over separate updates latches both edges.
+        states[1] = true;
+        snapshot.update();
+        states[1] = false;
+        snapshot.update();
+        assertThat(snapshot.get(1), is(false));
+        assertThat(snapshot.getPressed(1), is(true));
+        assertThat(snapshot.getReleased(1), is(true));
+
+        states[65] = false;
+        snapshot.update();
+        assertThat(snapshot.getReleased(65), is(true));
+        assertThat(snapshot.getReleased(65), is(false));
+        assertThat(snapshot.getReleased(64), is(false));
+    }
+
+    @Test
+    void unregister() {
+        ControllerSnapshot snapshot = new ControllerSnapshot();
+        boolean[] state = {true};
+        int[] calls = {0};
+        int index = snapshot.register(() -> {
+            ++calls[0];
+            return state[0];
+        });
+        snapshot.update();
+        assertThat(snapshot.get(index), is(true));
+
+        snapshot.unregister(index);
+        // Its latched edge is cleared, and going off doesn't count as a release.
+        assertThat(snapshot.get(index), is(false));
+        assertThat(snapshot.getPressed(index), is(false));
+        snapshot.update();
+        assertThat(calls[0], is(1));
+        assertThat(snapshot.getReleased(index), is(false));
+        // Indices aren't reused.
+        assertThat(snapshot.register(() -> true), is(index + 1));
+    }
+
+    @Test
+    void invalidIndex() {
+        ControllerSnapshot snapshot = new ControllerSnapshot();
+        snapshot.register(() -> true);
+        assertThrows(IllegalArgumentException.class, () -> snapshot.get(1));
+        assertThrows(IllegalArgumentException.class, () -> snapshot.getPressed(-1));
+        assertThrows(IllegalArgumentException.class, () -> snapshot.unregister(1));
+    }
+
+    @Test
+    void hid_valuesAndEdges() {
+        ControllerSnapshot snapshot = new ControllerSnapshot();
+        ControllerSnapshot.HIDState state = snapshot.register(new GenericHID(PORT));
+        assertThat(snapshot.register(new GenericHID(PORT)), is(sameInstance(state)));
+
+        DriverStation.buttons[PORT] = 0b101 | 1 << 31;
+        DriverStation.axes[PORT][2] = 0.5;
+        DriverStation.povs[PORT][0] = 90;
+        snapshot.update();
+        assertThat(state.getButton(1), is(true));
+        assertThat(state.getButton(2), is(false));
+        assertThat(state.getButton(3), is(true));
+        assertThat(state.getButton(32), is(true));
+        assertThat(state.getButtonPressed(32), is(true));
+        assertThat(state.getButtonPressed(32), is(false));
+        assertThat(state.getAxis(2), is(0.5));
+        // Axes that the HID doesn't have read as 0, and POVs as -1.
+        assertThat(state.getAxis(11), is(0.0));
+        assertThat(state.getPOV(0), is(90));
+        assertThat(state.getPOV(1), is(-1));
+        assertThat(state.getPOVPressed(0, 90), is(true));
+        assertThat(state.getPOVPressed(0, 90), is(false));
+
+        DriverStation.buttons[PORT] = 0b100;
+        DriverStation.povs[PORT][0] = 180;
+        snapshot.update();
+        assertThat(state.getButtonReleased(1), is(true));
+        assertThat(state.getButtonReleased(3), is(false));
+        assertThat(state.getButtonReleased(32), is(true));
+        assertThat(state.getPOVReleased(0, 90), is(true));
+        assertThat(state.getPOVPressed(0, 180), is(true));
+    }
+
+    @Test
+    void hid_buttonOutOfRange() {
+        ControllerSnapshot.HIDState state = new ControllerSnapshot().register(new GenericHID(PORT));
+        assertThrows(IllegalArgumentException.class, () -> state.getButton(0));
+        assertThrows(IllegalArgumentException.class, () -> state.getButton(33));
+        assertThrows(IllegalArgumentException.class, () -> state.getButtonPressed(33));
+    }
+
+    @Test
+    void hid_axisAndPOVOutOfRange() {
+        ControllerSnapshot.HIDState state = new ControllerSnapshot().register(new GenericHID(PORT));
+        // Read as absent, as GenericHID does, rather than failing.
+        assertThat(state.getAxis(12), is(0.0));
+        assertThat(state.getAxis(-1), is(0.0));
+        assertThat(state.getPOV(12), is(-1));
+        assertThat(state.getPOVPressed(12, 90), is(false));
+        assertThat(state.getPOVReleased(12, 90), is(false));
+        HIDAxis axis = new HIDAxis(new GenericHID(PORT), 20, new ReplayController("controller"));
+        assertThat(axis.get(), is(0.0));
+    }
+
+    @Test
+    void setLooper_updatesInLooper() {
+        ControllerSnapshot snapshot = new ControllerSnapshot();
+        boolean[] state = {false};
+        int index = snapshot.register(() -> state[0]);
+        BaseLooper looper = new BaseLooper();
+        snapshot.setLooper(looper);
+        looper.startLoops();
+        state[0] = true;
+        looper.loop();
+        assertThat(snapshot.get(index), is(true));
+        assertThat(snapshot.getPressed(index), is(true));
+
+        snapshot.setLooper(null);
+        state[0] = false;
+        looper.loop();
+        assertThat(snapshot.get(index), is(true));
+    }
+}
@@ -0,0 +1,76 @@
+package frc.team7170.lib.oi;
+
+import frc.team7170.lib.data.Value;
+import frc.team7170.lib.logging.MessagePackDataHandler;
+import frc.team7170.lib.networktables.StructSchema;
+import frc.team7170.lib.networktables.StructWriter;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class InputRecordingTest {
+
+    private static final String RECORDER = "recorder";
+    private static final StructSchema SCHEMA = StructSchema.builder().addFloat("pad:LX").addBoolean("pad:A").build();
+    private static final List<String> SCHEMA_LINEAGE = List.of(RECORDER, InputRecorder.SCHEMA_KEY);
+    private static final List<String> FRAME_LINEAGE = List.of(RECORDER, InputRecorder.FRAME_KEY);
+
+    private static InputRecording read(byte[] log) throws IOException {
+        return InputRecording.read(new ByteArrayInputStream(log), RECORDER);
+    }
+
+    @Test
+    void read_truncatedTail() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        MessagePackDataHandler handler = new MessagePackDataHandler(out);
+        handler.handle(0.0, Map.of(SCHEMA_LINEAGE, Value.newStringArrayValue(SCHEMA.toDescriptor())));
+        for (int i = 1; i <= 2; ++i) {
+            handler.handle(i, Map.of(FRAME_LINEAGE, new StructWriter(SCHEMA).setFloat(0, i).toValue()));
+        }
+        int completeLength = out.size();
+        handler.handle(3.0, Map.of(FRAME_LINEAGE, new StructWriter(SCHEMA).setFloat(0, 3.0f).toValue(),
+                List.of("other"), Value.newDoubleValue(1.0)));
+        byte[] log = out.toByteArray();
+
+        InputRecording whole = read(log);
+        assertThat(whole.size(), is(3));
+        assertThat(whole.isTruncated(), is(false));
+        assertThat(read(Arrays.copyOf(log, completeLength)).isTruncated(), is(false));
+        // Cut anywhere in the last record, including between its values, only the complete records are kept.
+        for (int length = completeLength + 1; length < log.length; ++length) {
+            InputRecording recording = read(Arrays.copyOf(log, length));
+            assertThat(recording.isTruncated(), is(true));
+            assertThat(recording.size(), is(2));
+            assertThat(recording.getTimestamp(1), is(2.0));
+            assertThat(recording.getFrame(1).getFloat(0), is(2.0f));
+        }
+    }
+
+    @Test
+    void read_malformed() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        MessagePackDataHandler handler = new MessagePackDataHandler(out);
+        handler.handle(0.0, Map.of(SCHEMA_LINEAGE, Value.newStringArrayValue(SCHEMA.toDescriptor())));
+        handler.handle(1.0, Map.of(FRAME_LINEAGE, new StructWriter(SCHEMA).toValue()));
+        byte[] log = out.toByteArray();
+        // A record that is complete but isn't headed by a timestamp.
+        byte[] malformed = Arrays.copyOf(log, log.length + 1);
+        malformed[log.length] = (byte) 0xc0;
+        assertThrows(IOException.class, () -> read(malformed));
+        // A frame of the wrong size for the schema.
+        ByteArrayOutputStream wrongSize = new ByteArrayOutputStream();
+        handler = new MessagePackDataHandler(wrongSize);
+        handler.handle(0.0, Map.of(SCHEMA_LINEAGE, Value.newStringArrayValue(SCHEMA.toDescriptor())));
+        handler.handle(1.0, Map.of(FRAME_LINEAGE, Value.newRawValue(new byte[1])));
+        assertThrows(IOException.class, () -> read(wrongSize.toByteArray()));
+    }
+}
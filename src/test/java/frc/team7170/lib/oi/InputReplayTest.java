@@ -0,0 +1,161 @@
+package frc.team7170.lib.oi;
+
+import frc.team7170.lib.Name;
+import frc.team7170.lib.data.Value;
+import frc.team7170.lib.logging.MessagePackDataHandler;
+import frc.team7170.lib.networktables.StructFrame;
+import frc.team7170.lib.networktables.StructSchema;
+import frc.team7170.lib.networktables.StructWriter;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class InputReplayTest {
+
+    private enum Axes implements AxisAction {
+        DRIVE
+    }
+
+    private static final String RECORDER = "recorder";
+    private static final StructSchema SCHEMA = StructSchema.builder()
+            .addFloat("pad" + InputRecorder.SEPARATOR + "LX")
+            .addBoolean("pad" + InputRecorder.SEPARATOR + "A")
+            .build();
+
+    private static StructFrame frame(float lx, boolean a) {
+        return new StructWriter(SCHEMA).setFloat(0, lx).setBoolean(1, a).toFrame();
+    }
+
+    /**
+     * A recording with a frame every quarter of a second, the first at 8 seconds.
+     */
+    private static InputRecording recording(int numFrames) {
+        double[] timestamps = new double[numFrames];
+        List<StructFrame> frames = new ArrayList<>();
+        for (int i = 0; i < numFrames; ++i) {
+            timestamps[i] = 8.0 + 0.25 * i;
+            frames.add(frame(i, i % 2 == 1));
+        }
+        return new InputRecording(SCHEMA, timestamps, frames);
+    }
+
+    @Test
+    void read_roundTrip() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        MessagePackDataHandler handler = new MessagePackDataHandler(out);
+        List<String> schemaLineage = List.of(RECORDER, InputRecorder.SCHEMA_KEY);
+        List<String> frameLineage = List.of(RECORDER, InputRecorder.FRAME_KEY);
+        handler.handle(1.0, Map.of(schemaLineage, Value.newStringArrayValue(SCHEMA.toDescriptor()),
+                List.of("other", "value"), Value.newDoubleValue(3.0)));
+        handler.handle(1.0, Map.of(frameLineage, new StructWriter(SCHEMA).setFloat(0, 0.5f).toValue()));
+        handler.handle(1.5, Map.of(frameLineage, new StructWriter(SCHEMA).setFloat(0, -1.0f).setBoolean(1, true)
+                .toValue(), List.of("other", "value"), Value.newDoubleValue(4.0)));
+        handler.handle(2.0, Map.of(frameLineage, new StructWriter(SCHEMA).toValue()));
+
+        InputRecording recording = InputRecording.read(new ByteArrayInputStream(out.toByteArray()), RECORDER);
+        assertThat(recording.getSchema(), is(SCHEMA));
+        assertThat(recording.size(), is(3));
+        assertThat(recording.getTimestamp(1), is(1.5));
+        assertThat(recording.getDuration(), is(1.0));
+
+        InputReplay replay = new InputReplay(recording);
+        ReplayController pad = replay.getController("pad");
+        Axis lx = pad.getAxesNamesMap().get("LX");
+        Button a = pad.getButtonsNamesMap().get("A");
+        assertThat(replay.advance(), is(true));
+        assertThat(lx.get(), is(0.5));
+        assertThat(a.get(), is(false));
+        assertThat(a.getPressed(), is(false));
+
+        assertThat(replay.advance(), is(true));
+        assertThat(lx.get(), is(-1.0));
+        assertThat(a.get(), is(true));
+        assertThat(a.getPressed(), is(true));
+        assertThat(a.getPressed(), is(false));
+
+        assertThat(replay.advance(), is(true));
+        assertThat(lx.get(), is(0.0));
+        assertThat(a.get(), is(false));
+        assertThat(a.getReleased(), is(true));
+        assertThat(a.getReleased(), is(false));
+        assertThat(replay.advance(), is(false));
+        assertThat(replay.isFinished(), is(true));
+    }
+
+    @Test
+    void onLoop_finiteRate() {
+        long[] now = {5_000_000_000L};
+        InputReplay replay = new InputReplay(recording(5), () -> now[0]);
+        replay.setRate(2.0);
+        replay.onStart();
+        replay.onLoop();
+        assertThat(replay.getPosition(), is(1));
+        replay.onLoop();
+        assertThat(replay.getPosition(), is(1));
+        // Half a second of the recording, at twice its rate.
+        now[0] += 250_000_000L;
+        replay.onLoop();
+        assertThat(replay.getPosition(), is(3));
+        assertThat(replay.getController("pad").getAxesNamesMap().get("LX").get(), is(2.0));
+        now[0] += 10_000_000L;
+        replay.onLoop();
+        assertThat(replay.getPosition(), is(3));
+        now[0] += 1_000_000_000L;
+        replay.onLoop();
+        assertThat(replay.getPosition(), is(5));
+        assertThat(replay.isFinished(), is(true));
+
+        // Restarting continues from the current position.
+        replay.reset();
+        replay.advance();
+        replay.advance();
+        replay.onStart();
+        replay.onLoop();
+        assertThat(replay.getPosition(), is(2));
+        now[0] += 125_000_000L;
+        replay.onLoop();
+        assertThat(replay.getPosition(), is(3));
+    }
+
+    @Test
+    void onLoop_infiniteRate() {
+        InputReplay replay = new InputReplay(recording(3), () -> 0L);
+        replay.setRate(Double.POSITIVE_INFINITY);
+        replay.onStart();
+        for (int i = 1; i <= 3; ++i) {
+            replay.onLoop();
+            assertThat(replay.getPosition(), is(i));
+        }
+        replay.onLoop();
+        assertThat(replay.getPosition(), is(3));
+    }
+
+    @Test
+    void withControllers_keepsScaling() {
+        ReplayController physical = new ReplayController("pad");
+        physical.addAxis("LX", 0);
+        ScaledAxis bound = (ScaledAxis) physical.getAxesNamesMap().get("LX");
+        bound.setScale(-2.0);
+        bound.setOffset(1.0);
+        SerializableKeyMap keyMap = new SerializableKeyMap.Builder(new Name("scaled"))
+                .bind(Axes.DRIVE, bound)
+                .build();
+
+        InputReplay replay = new InputReplay(recording(2));
+        SerializableKeyMap replayKeyMap = keyMap.withControllers(replay.getControllers());
+        Axis axis = replayKeyMap.actionToAxis(Axes.DRIVE);
+        assertThat(axis, is(sameInstance(replay.getController("pad").getAxesNamesMap().get("LX"))));
+        replay.advance();
+        replay.advance();
+        // The recorded 1, scaled and offset as the bound axis was.
+        assertThat(axis.get(), is(-1.0));
+    }
+}
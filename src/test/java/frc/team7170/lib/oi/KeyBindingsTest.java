@@ -0,0 +1,64 @@
+package frc.team7170.lib.oi;
+
+import frc.team7170.lib.Name;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class KeyBindingsTest {
+
+    private enum Axes implements AxisAction {
+        REGISTERED, LOOKED_UP, AFTER
+    }
+
+    private enum Buttons implements ButtonAction {
+        REGISTERED, LOOKED_UP, AFTER
+    }
+
+    @Test
+    void actionLookup_doesNotRegister() {
+        KeyBindings keyBindings = KeyBindings.getInstance();
+        ReplayController controller = new ReplayController("keyBindingsTest");
+        controller.addAxis("axis", 0);
+        controller.addButton("button", 1);
+        Axis axis = controller.getAxesNamesMap().get("axis");
+        Button button = controller.getButtonsNamesMap().get("button");
+        KeyMap keyMap = new SerializableKeyMap.Builder(new Name("lookup"))
+                .bind(Axes.LOOKED_UP, axis)
+                .bind(Buttons.LOOKED_UP, button)
+                .build();
+        keyBindings.setCurrKeyMap(keyMap);
+
+        int axisIndex = keyBindings.indexOf(Axes.REGISTERED);
+        int buttonIndex = keyBindings.indexOf(Buttons.REGISTERED);
+        assertThat(keyBindings.actionToAxis(Axes.LOOKED_UP), is(sameInstance(axis)));
+        assertThat(keyBindings.actionToButton(Buttons.LOOKED_UP), is(sameInstance(button)));
+        assertThat(keyBindings.actionToAxis(Axes.REGISTERED), is(nullValue()));
+        // The looked up actions were not given indices.
+        assertThat(keyBindings.indexOf(Axes.AFTER), is(axisIndex + 1));
+        assertThat(keyBindings.indexOf(Buttons.AFTER), is(buttonIndex + 1));
+    }
+
+    @Test
+    void setCurrKeyMap_callbacksOutsideLock() {
+        KeyBindings keyBindings = KeyBindings.getInstance();
+        KeyMap first = new SerializableKeyMap.Builder(new Name("first")).build();
+        KeyMap second = new SerializableKeyMap.Builder(new Name("second")).build();
+        keyBindings.setCurrKeyMap(first);
+        List<KeyMap> changes = new ArrayList<>();
+        List<Boolean> heldLock = new ArrayList<>();
+        keyBindings.onKeyMapChange((oldKeyMap, newKeyMap) -> {
+            changes.add(oldKeyMap);
+            changes.add(newKeyMap);
+            heldLock.add(Thread.holdsLock(keyBindings));
+        });
+        keyBindings.setCurrKeyMap(second);
+        assertThat(changes, contains(first, second));
+        assertThat(heldLock, contains(false));
+        assertThat(keyBindings.getCurrKeyMap(), is(sameInstance(second)));
+    }
+}
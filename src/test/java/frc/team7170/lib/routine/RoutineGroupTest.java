@@ -0,0 +1,82 @@
+package frc.team7170.lib.routine;
+
+import frc.team7170.lib.looping.BaseLooper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class RoutineGroupTest {
+
+    private RoutineScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        BaseLooper looper = new BaseLooper();
+        looper.startLoops();
+        scheduler = new RoutineScheduler(looper);
+    }
+
+    private static Routine perpetual() {
+        return Routine.newPerpetual(() -> {});
+    }
+
+    @Test
+    void parallel_finishedOnlyOnceAllStop() {
+        Routine a = perpetual();
+        Routine b = perpetual();
+        Routine c = perpetual();
+        Routine group = Routine.parallel(a, b, c);
+        assertThat(scheduler.trySchedule(group), is(true));
+        assertThat(a.isRunning() && b.isRunning() && c.isRunning(), is(true));
+        assertThat(group.isFinished(), is(false));
+        b.stop();
+        assertThat(group.isFinished(), is(false));
+        a.stop();
+        assertThat(group.isFinished(), is(false));
+        c.stop();
+        assertThat(group.isFinished(), is(true));
+    }
+
+    @Test
+    void race_finishedOnceAnyStops() {
+        Routine a = perpetual();
+        Routine b = perpetual();
+        Routine group = Routine.race(a, b);
+        assertThat(scheduler.trySchedule(group), is(true));
+        assertThat(group.isFinished(), is(false));
+        b.stop();
+        assertThat(group.isFinished(), is(true));
+        assertThat(a.isRunning(), is(true));
+    }
+
+    @Test
+    void parallel_stoppingGroupStopsComposed() {
+        Routine a = perpetual();
+        Routine b = perpetual();
+        Routine group = Routine.parallel(a, b);
+        assertThat(scheduler.trySchedule(group), is(true));
+        a.stop();
+        group.stop();
+        assertThat(a.isRunning(), is(false));
+        assertThat(b.isRunning(), is(false));
+        assertThat(group.hasCompleted(), is(true));
+    }
+
+    @Test
+    void sequential_schedulesNextOnceCurrentCompletes() {
+        Routine a = perpetual();
+        Routine b = perpetual();
+        Routine group = Routine.sequential(a, b);
+        assertThat(scheduler.trySchedule(group), is(true));
+        assertThat(a.isRunning(), is(true));
+        assertThat(b.hasStarted(), is(false));
+        a.stop();
+        group.onLoop();
+        assertThat(b.isRunning(), is(true));
+        assertThat(group.isFinished(), is(false));
+        b.stop();
+        assertThat(group.isFinished(), is(true));
+    }
+}
@@ -0,0 +1,118 @@
+package frc.team7170.lib.routine;
+
+import frc.team7170.lib.looping.BaseLooper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class RoutineProfilerTest {
+
+    private static final Pattern ID = Pattern.compile("\"id\":\"(0x[0-9a-f]+)\"");
+
+    private BaseLooper looper;
+    private RoutineScheduler scheduler;
+    private RoutineProfiler profiler;
+
+    @BeforeEach
+    void setUp() {
+        looper = new BaseLooper();
+        looper.startLoops();
+        scheduler = new RoutineScheduler(looper);
+        profiler = new RoutineProfiler(16);
+        scheduler.setProfiler(profiler);
+    }
+
+    private String export() throws IOException {
+        StringWriter writer = new StringWriter();
+        profiler.exportChromeTrace(writer);
+        return writer.toString();
+    }
+
+    private static int count(String string, String substring) {
+        int count = 0;
+        for (int i = string.indexOf(substring); i >= 0; i = string.indexOf(substring, i + 1)) {
+            ++count;
+        }
+        return count;
+    }
+
+    @Test
+    void ctor_invalidCapacity() {
+        assertThrows(IllegalArgumentException.class, () -> new RoutineProfiler(0));
+        assertThrows(IllegalArgumentException.class, () -> new RoutineProfiler(-1));
+    }
+
+    @Test
+    void exportChromeTrace_nullWriter() {
+        assertThrows(NullPointerException.class, () -> profiler.exportChromeTrace((java.io.Writer) null));
+    }
+
+    @Test
+    void records_startLoopStop() throws IOException {
+        Routine routine = Routine.newPerpetual(() -> {});
+        assertThat(scheduler.trySchedule(routine), is(true));
+        looper.loop();
+        looper.loop();
+        routine.stop();
+        assertThat(profiler.size(), is(4));
+        String trace = export();
+        assertThat(count(trace, "\"ph\":\"b\""), is(1));
+        assertThat(count(trace, "\"ph\":\"X\""), is(2));
+        assertThat(count(trace, "\"ph\":\"e\""), is(1));
+        // Stopped from outside, so not graceful.
+        assertThat(trace, containsString("\"graceful\":false"));
+    }
+
+    @Test
+    void records_distinctIdsPerRoutine() throws IOException {
+        int n = 8;
+        for (int i = 0; i < n; ++i) {
+            Routine routine = Routine.newPerpetual(() -> {});
+            assertThat(scheduler.trySchedule(routine), is(true));
+            routine.stop();
+        }
+        Matcher matcher = ID.matcher(export());
+        Set<String> ids = new HashSet<>();
+        int events = 0;
+        while (matcher.find()) {
+            ids.add(matcher.group(1));
+            ++events;
+        }
+        // A start and a stop per Routine, sharing an ID that no other Routine uses.
+        assertThat(events, is(2 * n));
+        assertThat(ids, hasSize(n));
+    }
+
+    @Test
+    void records_overwritesOldestWhenFull() throws IOException {
+        Routine routine = Routine.newPerpetual(() -> {});
+        assertThat(scheduler.trySchedule(routine), is(true));
+        for (int i = 0; i < 20; ++i) {
+            looper.loop();
+        }
+        assertThat(profiler.size(), is(profiler.getCapacity()));
+        String trace = export();
+        // The start event was overwritten.
+        assertThat(count(trace, "\"ph\":\"b\""), is(0));
+        assertThat(count(trace, "\"ph\":\"X\""), is(profiler.getCapacity()));
+    }
+
+    @Test
+    void clear_dropsEvents() throws IOException {
+        Routine routine = Routine.newPerpetual(() -> {});
+        assertThat(scheduler.trySchedule(routine), is(true));
+        profiler.clear();
+        assertThat(profiler.size(), is(0));
+        assertThat(export(), not(containsString("\"ph\"")));
+    }
+}
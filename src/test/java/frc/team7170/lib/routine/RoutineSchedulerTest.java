@@ -0,0 +1,192 @@
+package frc.team7170.lib.routine;
+
+import frc.team7170.lib.looping.BaseLooper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class RoutineSchedulerTest {
+
+    static final class TestSubsystem implements Subsystem {
+
+        private final String name;
+        private final Supplier<Routine> defaultRoutine;
+        final List<Routine> defaultRoutines = new ArrayList<>();
+
+        TestSubsystem(String name, Supplier<Routine> defaultRoutine) {
+            this.name = name;
+            this.defaultRoutine = defaultRoutine;
+        }
+
+        TestSubsystem(String name) {
+            this(name, () -> null);
+        }
+
+        @Override
+        public Routine getDefaultRoutine() {
+            Routine routine = defaultRoutine.get();
+            if (routine != null) {
+                defaultRoutines.add(routine);
+            }
+            return routine;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+    }
+
+    private BaseLooper looper;
+    private RoutineScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        looper = new BaseLooper();
+        looper.startLoops();
+        scheduler = new RoutineScheduler(looper);
+    }
+
+    private static Routine perpetual(boolean interruptable, Subsystem... requirements) {
+        return Routine.newPerpetual(() -> {}, interruptable, requirements);
+    }
+
+    @Test
+    void trySchedule_claimsAllRequirements() {
+        Subsystem a = new TestSubsystem("A");
+        Subsystem b = new TestSubsystem("B");
+        Subsystem c = new TestSubsystem("C");
+        scheduler.registerSubsystem(a);
+        scheduler.registerSubsystem(b);
+        scheduler.registerSubsystem(c);
+        Routine routine = perpetual(true, a, c);
+        assertThat(scheduler.trySchedule(routine), is(true));
+        assertThat(routine.isRunning(), is(true));
+        assertThat(scheduler.getOwner(a), is(routine));
+        assertThat(scheduler.getOwner(b), is(nullValue()));
+        assertThat(scheduler.getOwner(c), is(routine));
+    }
+
+    @Test
+    void stop_freesRequirements() {
+        Subsystem a = new TestSubsystem("A");
+        scheduler.registerSubsystem(a);
+        Routine routine = perpetual(false, a);
+        assertThat(scheduler.trySchedule(routine), is(true));
+        routine.stop();
+        assertThat(routine.hasCompleted(), is(true));
+        assertThat(scheduler.getOwner(a), is(nullValue()));
+        // The uninterruptable claim must be gone too.
+        assertThat(scheduler.trySchedule(perpetual(true, a)), is(true));
+    }
+
+    @Test
+    void trySchedule_interruptsInterruptable() {
+        Subsystem a = new TestSubsystem("A");
+        Subsystem b = new TestSubsystem("B");
+        scheduler.registerSubsystem(a);
+        scheduler.registerSubsystem(b);
+        Routine first = perpetual(true, a, b);
+        Routine second = perpetual(true, b);
+        assertThat(scheduler.trySchedule(first), is(true));
+        assertThat(scheduler.trySchedule(second), is(true));
+        assertThat(first.isRunning(), is(false));
+        assertThat(second.isRunning(), is(true));
+        // The interrupted Routine gives up all of its requirements, not just the contested one.
+        assertThat(scheduler.getOwner(a), is(nullValue()));
+        assertThat(scheduler.getOwner(b), is(second));
+    }
+
+    @Test
+    void trySchedule_blockedByUninterruptable() {
+        Subsystem a = new TestSubsystem("A");
+        Subsystem b = new TestSubsystem("B");
+        scheduler.registerSubsystem(a);
+        scheduler.registerSubsystem(b);
+        Routine blocker = perpetual(false, a);
+        Routine blocked = perpetual(true, a, b);
+        assertThat(scheduler.trySchedule(blocker), is(true));
+        assertThat(scheduler.trySchedule(blocked), is(false));
+        assertThat(blocked.hasStarted(), is(false));
+        assertThat(scheduler.getOwner(a), is(blocker));
+        assertThat(scheduler.getOwner(b), is(nullValue()));
+        // Retrying once the blocker is done reuses the mask computed on the first attempt.
+        blocker.stop();
+        assertThat(scheduler.trySchedule(blocked), is(true));
+        assertThat(scheduler.getOwner(a), is(blocked));
+        assertThat(scheduler.getOwner(b), is(blocked));
+    }
+
+    @Test
+    void trySchedule_unregisteredSubsystem() {
+        Subsystem a = new TestSubsystem("A");
+        Routine routine = perpetual(true, a);
+        assertThrows(IllegalArgumentException.class, () -> scheduler.trySchedule(routine));
+        // The failed attempt must not leave a stale mask behind.
+        scheduler.registerSubsystem(a);
+        assertThat(scheduler.trySchedule(routine), is(true));
+        assertThat(scheduler.getOwner(a), is(routine));
+    }
+
+    @Test
+    void registerSubsystem_runsDefaultRoutine() {
+        // Default Routines are constructed lazily, so they can require the Subsystem that constructs them.
+        TestSubsystem[] holder = new TestSubsystem[1];
+        holder[0] = new TestSubsystem("A", () -> perpetual(true, holder[0]));
+        scheduler.registerSubsystem(holder[0]);
+        assertThat(holder[0].defaultRoutines, hasSize(1));
+        Routine defaultRoutine = holder[0].defaultRoutines.get(0);
+        assertThat(defaultRoutine.isRunning(), is(true));
+        assertThat(scheduler.getOwner(holder[0]), is(defaultRoutine));
+    }
+
+    @Test
+    void defaultRoutine_restartedWhenFreed() {
+        TestSubsystem[] holder = new TestSubsystem[1];
+        holder[0] = new TestSubsystem("A", () -> perpetual(true, holder[0]));
+        TestSubsystem a = holder[0];
+        scheduler.registerSubsystem(a);
+        Routine firstDefault = a.defaultRoutines.get(0);
+
+        Routine routine = perpetual(true, a);
+        assertThat(scheduler.trySchedule(routine), is(true));
+        assertThat(firstDefault.isRunning(), is(false));
+        // Evicting the default Routine to make room must not immediately restart it.
+        assertThat(a.defaultRoutines, hasSize(1));
+        assertThat(scheduler.getOwner(a), is(routine));
+
+        routine.stop();
+        assertThat(a.defaultRoutines, hasSize(2));
+        Routine secondDefault = a.defaultRoutines.get(1);
+        assertThat(secondDefault, is(not(sameInstance(firstDefault))));
+        assertThat(secondDefault.isRunning(), is(true));
+        assertThat(scheduler.getOwner(a), is(secondDefault));
+    }
+
+    @Test
+    void defaultRoutine_restartedWhenInterruptedRoutineGivesUpOtherRequirements() {
+        TestSubsystem[] holder = new TestSubsystem[1];
+        holder[0] = new TestSubsystem("A", () -> perpetual(true, holder[0]));
+        TestSubsystem a = holder[0];
+        Subsystem b = new TestSubsystem("B");
+        scheduler.registerSubsystem(a);
+        scheduler.registerSubsystem(b);
+
+        Routine first = perpetual(true, a, b);
+        assertThat(scheduler.trySchedule(first), is(true));
+        assertThat(a.defaultRoutines, hasSize(1));
+        // Taking only B from the first Routine frees A, whose default Routine should come back.
+        Routine second = perpetual(true, b);
+        assertThat(scheduler.trySchedule(second), is(true));
+        assertThat(a.defaultRoutines, hasSize(2));
+        assertThat(scheduler.getOwner(a), is(a.defaultRoutines.get(1)));
+        assertThat(scheduler.getOwner(b), is(second));
+    }
+}